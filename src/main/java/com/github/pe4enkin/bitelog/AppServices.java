@@ -0,0 +1,168 @@
+package com.github.pe4enkin.bitelog;
+
+import com.github.pe4enkin.bitelog.dao.DailyTotalsDao;
+import com.github.pe4enkin.bitelog.dao.FoodCategoryDao;
+import com.github.pe4enkin.bitelog.dao.FoodCategoryRegistry;
+import com.github.pe4enkin.bitelog.dao.FoodItemDao;
+import com.github.pe4enkin.bitelog.dao.MealEntryDao;
+import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
+import com.github.pe4enkin.bitelog.db.DatabaseConnectionManager;
+import com.github.pe4enkin.bitelog.service.CalendarHeatmapService;
+import com.github.pe4enkin.bitelog.service.DailyDiaryCache;
+import com.github.pe4enkin.bitelog.service.DailyDiaryService;
+import com.github.pe4enkin.bitelog.service.DailyTotalsService;
+import com.github.pe4enkin.bitelog.service.FoodItemCache;
+import com.github.pe4enkin.bitelog.service.FoodItemService;
+import com.github.pe4enkin.bitelog.service.MealEntryService;
+import com.github.pe4enkin.bitelog.service.NutrientChartService;
+import com.github.pe4enkin.bitelog.service.TrendAnalyticsService;
+import com.github.pe4enkin.bitelog.util.Lazy;
+import com.github.pe4enkin.bitelog.util.StartupTimer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+
+public class AppServices {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AppServices.class);
+    private static final int DIARY_CACHE_CAPACITY = 31;
+    private static final int DIARY_PREFETCH_DAYS = 3;
+    private static final int FOOD_ITEM_CACHE_CAPACITY = 10_000;
+
+    private final StartupTimer startupTimer;
+    private final FoodCategoryRegistry foodCategoryRegistry = new FoodCategoryRegistry();
+
+    private final Lazy<DataSource> dataSource = new Lazy<>(this::connect);
+    private final Lazy<FoodCategoryDao> foodCategoryDao = new Lazy<>(() -> new FoodCategoryDao(dataSource.get(), foodCategoryRegistry));
+    private final Lazy<FoodItemDao> foodItemDao = new Lazy<>(() -> new FoodItemDao(dataSource.get(), foodCategoryRegistry));
+    private final Lazy<DailyTotalsDao> dailyTotalsDao = new Lazy<>(() -> new DailyTotalsDao(dataSource.get()));
+    private final Lazy<MealEntryDao> mealEntryDao = new Lazy<>(() -> new MealEntryDao(dataSource.get(), dailyTotalsDao.get()));
+    private final Lazy<DataSource> database = new Lazy<>(this::prepareDatabase);
+
+    private final Lazy<FoodItemService> foodItemService = new Lazy<>(this::createFoodItemService);
+    private final Lazy<MealEntryService> mealEntryService = new Lazy<>(() ->
+            new MealEntryService(mealEntryDao.get(), foodItemService.get()));
+    private final Lazy<DailyDiaryService> dailyDiaryService = new Lazy<>(this::createDailyDiaryService);
+    private final Lazy<DailyTotalsService> dailyTotalsService = new Lazy<>(this::createDailyTotalsService);
+    private final Lazy<TrendAnalyticsService> trendAnalyticsService = new Lazy<>(this::createTrendAnalyticsService);
+    private final Lazy<CalendarHeatmapService> calendarHeatmapService = new Lazy<>(this::createCalendarHeatmapService);
+    private final Lazy<NutrientChartService> nutrientChartService = new Lazy<>(this::createNutrientChartService);
+
+    public AppServices(StartupTimer startupTimer) {
+        this.startupTimer = startupTimer;
+    }
+
+    public FoodItemService getFoodItemService() {
+        return foodItemService.get();
+    }
+
+    public MealEntryService getMealEntryService() {
+        return mealEntryService.get();
+    }
+
+    public DailyDiaryService getDailyDiaryService() {
+        return dailyDiaryService.get();
+    }
+
+    public DailyTotalsService getDailyTotalsService() {
+        return dailyTotalsService.get();
+    }
+
+    public TrendAnalyticsService getTrendAnalyticsService() {
+        return trendAnalyticsService.get();
+    }
+
+    public CalendarHeatmapService getCalendarHeatmapService() {
+        return calendarHeatmapService.get();
+    }
+
+    public NutrientChartService getNutrientChartService() {
+        return nutrientChartService.get();
+    }
+
+    public void logCacheStatistics() {
+        FoodItemService initializedFoodItemService = foodItemService.getIfInitialized();
+        if (initializedFoodItemService != null) {
+            LOGGER.info("Статистика кэша FoodItem: {}", initializedFoodItemService.getFoodItemCache());
+        }
+        DailyDiaryService initializedDailyDiaryService = dailyDiaryService.getIfInitialized();
+        if (initializedDailyDiaryService != null && initializedDailyDiaryService.getDailyDiaryCache() != null) {
+            LOGGER.info("Статистика кэша дневников: {}", initializedDailyDiaryService.getDailyDiaryCache());
+        }
+    }
+
+    private DataSource connect() {
+        try {
+            DataSource connected = DatabaseConnectionManager.getDataSource();
+            try (Connection testConnection = connected.getConnection()) {
+                if (!testConnection.isValid(0)) {
+                    throw new DataAccessException("Не удалось подключиться к базе данных: соединение недействительно.");
+                }
+                LOGGER.info("Успешно подключено к базе данных.");
+            }
+            return connected;
+        } catch (SQLException e) {
+            throw new DataAccessException("Не удалось подключиться к базе данных: " + e.getMessage(), e);
+        }
+    }
+
+    private DataSource prepareDatabase() {
+        foodCategoryDao.get().createTables();
+        foodItemDao.get().createTables();
+        mealEntryDao.get().createTables();
+        dailyTotalsDao.get().createTables();
+        if (!foodItemDao.get().recalculateMissingNutrients().isEmpty()) {
+            dailyTotalsDao.get().markDirty();
+        }
+        dailyTotalsDao.get().rebuildIfEmpty();
+        startupTimer.mark(StartupTimer.Phase.DATABASE_READY);
+        return dataSource.get();
+    }
+
+    private FoodItemService createFoodItemService() {
+        database.get();
+        foodCategoryDao.get().findAll();
+        LOGGER.info("Реестр food category прогрет, загружено {} категорий.", foodCategoryRegistry.size());
+        foodItemDao.get().loadDependencyGraph();
+        FoodItemService created = new FoodItemService(foodItemDao.get(), new FoodItemCache(FOOD_ITEM_CACHE_CAPACITY));
+        created.addNutrientsListener(foodItemIds -> dailyTotalsService.get().rebuildForFoodItems(foodItemIds));
+        return created;
+    }
+
+    private DailyDiaryService createDailyDiaryService() {
+        DailyDiaryService created = new DailyDiaryService(mealEntryService.get(),
+                new DailyDiaryCache(DIARY_CACHE_CAPACITY, DIARY_PREFETCH_DAYS, Executors.newVirtualThreadPerTaskExecutor()));
+        foodItemService.get().addNutrientsListener(foodItemIds -> created.invalidateCache());
+        return created;
+    }
+
+    private DailyTotalsService createDailyTotalsService() {
+        database.get();
+        return new DailyTotalsService(dailyTotalsDao.get());
+    }
+
+    private TrendAnalyticsService createTrendAnalyticsService() {
+        TrendAnalyticsService created = new TrendAnalyticsService(dailyTotalsService.get());
+        created.reload();
+        mealEntryService.get().addDiaryChangeListener(created::onDaysChanged);
+        dailyTotalsService.get().addTotalsChangeListener(created::onDaysChanged);
+        return created;
+    }
+
+    private CalendarHeatmapService createCalendarHeatmapService() {
+        CalendarHeatmapService created = new CalendarHeatmapService(dailyTotalsService.get());
+        mealEntryService.get().addDiaryChangeListener(created::invalidate);
+        foodItemService.get().addNutrientsListener(foodItemIds -> created.invalidateAll());
+        return created;
+    }
+
+    private NutrientChartService createNutrientChartService() {
+        NutrientChartService created = new NutrientChartService(dailyTotalsService.get());
+        mealEntryService.get().addDiaryChangeListener(created::invalidate);
+        dailyTotalsService.get().addTotalsChangeListener(created::invalidate);
+        return created;
+    }
+}
@@ -1,85 +1,162 @@
 package com.github.pe4enkin.bitelog;
 
+import com.github.pe4enkin.bitelog.controller.CalendarHeatmapController;
 import com.github.pe4enkin.bitelog.controller.MainViewController;
-import com.github.pe4enkin.bitelog.dao.FoodCategoryDao;
-import com.github.pe4enkin.bitelog.dao.FoodItemDao;
-import com.github.pe4enkin.bitelog.dao.MealEntryDao;
+import com.github.pe4enkin.bitelog.controller.NutrientChartController;
+import com.github.pe4enkin.bitelog.controller.UiLatencyTracker;
 import com.github.pe4enkin.bitelog.db.DatabaseConnectionManager;
 import com.github.pe4enkin.bitelog.model.AppState;
-import com.github.pe4enkin.bitelog.model.FoodItem;
-import com.github.pe4enkin.bitelog.service.DailyDiaryService;
 import com.github.pe4enkin.bitelog.service.FoodItemService;
 import com.github.pe4enkin.bitelog.service.MealEntryService;
+import com.github.pe4enkin.bitelog.util.StartupTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.sql.DataSource;
-import java.sql.Connection;
-
 public class MainApp extends Application {
     private static final Logger LOGGER = LoggerFactory.getLogger(MainApp.class);
+    private static final StartupTimer STARTUP_TIMER = new StartupTimer();
+    private static final String LATENCY_OVERLAY_PROPERTY = "bitelog.latencyOverlay";
     private AppState appState;
-    private FoodItemService foodItemService;
-    private MealEntryService mealEntryService;
-    private DailyDiaryService dailyDiaryService;
+    private AppServices appServices;
+    private UiLatencyTracker uiLatencyTracker;
+    private MainViewController mainViewController;
+    private CalendarHeatmapController calendarHeatmapController;
+    private NutrientChartController nutrientChartController;
+    private Stage chartStage;
 
     @Override
     public void start(Stage primaryStage) throws Exception {
-        DataSource dataSource;
+        STARTUP_TIMER.mark(StartupTimer.Phase.JAVAFX_STARTED);
+        appState = new AppState();
+        appServices = new AppServices(STARTUP_TIMER);
+        uiLatencyTracker = new UiLatencyTracker();
 
-        try {
-            dataSource = DatabaseConnectionManager.getDataSource();
-            try (Connection testConnection = dataSource.getConnection()) {
-                LOGGER.info("Успешно подключено к базе данных. Приложение готово к запуску UI.");
+        FXMLLoader loader = new FXMLLoader(
+                getClass().getResource("/com/github/pe4enkin/bitelog/view/main-view.fxml"));
+        loader.setControllerFactory(type -> {
+            if (type == MainViewController.class) {
+                mainViewController = new MainViewController(appState, appServices::getDailyDiaryService);
+                mainViewController.setUiLatencyTracker(uiLatencyTracker);
+                return mainViewController;
+            } else if (type == CalendarHeatmapController.class) {
+                calendarHeatmapController = new CalendarHeatmapController(appState, appServices::getCalendarHeatmapService);
+                return calendarHeatmapController;
+            } else {
+                try {
+                    return type.getDeclaredConstructor().newInstance();
+                } catch (Exception e) {
+                    throw new RuntimeException("Не удалось создать контроллер: " + type.getName(), e);
+                }
+            }
+        });
+        Parent mainView = loader.load();
+        Scene scene = new Scene(new StackPane(mainView, uiLatencyTracker.getOverlay()));
+        STARTUP_TIMER.mark(StartupTimer.Phase.SCENE_LOADED);
+        uiLatencyTracker.install(scene);
+        if (Boolean.getBoolean(LATENCY_OVERLAY_PROPERTY)) {
+            uiLatencyTracker.toggleOverlay();
+        }
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.L, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN),
+                uiLatencyTracker::toggleOverlay);
+        mainViewController.setOnShowCharts(() -> showNutrientChart(primaryStage));
+        mainViewController.setOnDiaryDisplayed(() -> STARTUP_TIMER.mark(StartupTimer.Phase.FIRST_DATA));
+        Runnable firstPaintListener = new Runnable() {
+            @Override
+            public void run() {
+                STARTUP_TIMER.mark(StartupTimer.Phase.FIRST_PAINT);
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(this));
             }
-            FoodItemDao foodItemDao = new FoodItemDao(dataSource);
-            MealEntryDao mealEntryDao = new MealEntryDao(dataSource);
-            foodItemDao.createTables();
-            mealEntryDao.createTables();
-            foodItemService = new FoodItemService(foodItemDao);
-            mealEntryService = new MealEntryService(mealEntryDao, foodItemService);
-            dailyDiaryService = new DailyDiaryService(mealEntryService);
+        };
+        scene.addPostLayoutPulseListener(firstPaintListener);
+        scene.getStylesheets().add(
+                getClass().getResource("/com/github/pe4enkin/bitelog/styles/application.css").toExternalForm());
+        primaryStage.setTitle("BiteLog");
+        primaryStage.setScene(scene);
+        primaryStage.setMinWidth(800);
+        primaryStage.setMinHeight(600);
+        primaryStage.show();
+        warmUpServices();
+    }
 
-            appState = new AppState();
-            FXMLLoader loader = new FXMLLoader(
-                    getClass().getResource("/com/github/pe4enkin/bitelog/view/main-view.fxml"));
-            loader.setControllerFactory(type -> {
-                if (type == MainViewController.class) {
-                    return new MainViewController(appState, foodItemService, dailyDiaryService);
-                } else {
-                    try {
-                        return type.getDeclaredConstructor().newInstance();
-                    } catch (Exception e) {
-                        throw new RuntimeException("Не удалось создать контроллер: " + type.getName(), e);
+    private void warmUpServices() {
+        Thread.ofPlatform().daemon().name("bitelog-startup").start(() -> {
+            try {
+                MealEntryService mealEntryService = appServices.getMealEntryService();
+                FoodItemService foodItemService = appServices.getFoodItemService();
+                appServices.getCalendarHeatmapService();
+                mealEntryService.addDiaryChangeListener(dates -> Platform.runLater(() -> {
+                    if (dates.contains(appState.getCurrentWorkingDate())) {
+                        mainViewController.refresh();
                     }
-                }
-            });
-            Scene scene = new Scene(loader.load());
-            scene.getStylesheets().add(
-                    getClass().getResource("/com/github/pe4enkin/bitelog/styles/application.css").toExternalForm());
-            primaryStage.setTitle("BiteLog");
-            primaryStage.setScene(scene);
-            primaryStage.setMinWidth(800);
-            primaryStage.setMinHeight(600);
-            primaryStage.show();
-        } catch (Exception e) {
-            LOGGER.error("Критическая ошибка соединения с базой данных.", e);
-            javafx.application.Platform.exit();
-            System.exit(1);
+                    calendarHeatmapController.refresh();
+                    if (nutrientChartController != null) {
+                        nutrientChartController.refresh();
+                    }
+                }));
+                foodItemService.addNutrientsListener(foodItemIds -> Platform.runLater(() -> {
+                    calendarHeatmapController.refresh();
+                    if (nutrientChartController != null) {
+                        nutrientChartController.refresh();
+                    }
+                }));
+                STARTUP_TIMER.mark(StartupTimer.Phase.SERVICES_READY);
+            } catch (Exception e) {
+                LOGGER.error("Критическая ошибка соединения с базой данных.", e);
+                Platform.exit();
+                System.exit(1);
+            }
+        });
+    }
+
+    private void showNutrientChart(Stage owner) {
+        if (chartStage == null) {
+            try {
+                FXMLLoader loader = new FXMLLoader(
+                        getClass().getResource("/com/github/pe4enkin/bitelog/view/nutrient-chart.fxml"));
+                loader.setControllerFactory(type -> {
+                    nutrientChartController = new NutrientChartController(appState, appServices::getNutrientChartService);
+                    return nutrientChartController;
+                });
+                Scene scene = new Scene(loader.load());
+                scene.getStylesheets().add(
+                        getClass().getResource("/com/github/pe4enkin/bitelog/styles/application.css").toExternalForm());
+                chartStage = new Stage();
+                chartStage.initOwner(owner);
+                chartStage.setTitle("BiteLog - графики");
+                chartStage.setScene(scene);
+            } catch (Exception e) {
+                LOGGER.error("Не удалось открыть окно графиков: {}", e.getMessage(), e);
+                return;
+            }
         }
+        chartStage.show();
+        chartStage.toFront();
     }
 
     public void stop() throws Exception {
+        if (appServices != null) {
+            appServices.logCacheStatistics();
+        }
+        if (uiLatencyTracker != null) {
+            uiLatencyTracker.logSummary();
+        }
         DatabaseConnectionManager.closeDataSource();
         LOGGER.info("Приложение BiteLog завершает работу.");
         super.stop();
     }
 
     public static void main(String[] args) {
+        STARTUP_TIMER.mark(StartupTimer.Phase.MAIN_STARTED);
         launch(args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package com.github.pe4enkin.bitelog.controller;
+
+import com.github.pe4enkin.bitelog.model.CalendarMonth;
+import com.github.pe4enkin.bitelog.model.HeatmapMetric;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+public final class CalendarHeatmap extends Region {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalendarHeatmap.class);
+    private static final Locale LOCALE = Locale.forLanguageTag("ru");
+    private static final String[] WEEKDAYS = {"Пн", "Вт", "Ср", "Чт", "Пт", "Сб", "Вс"};
+    private static final Color NO_DATA_COLOR = Color.web("#ebedf0");
+    private static final Color SELECTED_COLOR = Color.web("#18aedb");
+    private static final Color[] CALORIES_COLORS = {
+            NO_DATA_COLOR, Color.web("#c6e2f7"), Color.web("#8cc4ee"), Color.web("#4fa4e4"), Color.web("#1988dd")
+    };
+    private static final Color[] GOAL_ADHERENCE_COLORS = {
+            NO_DATA_COLOR, Color.web("#e57373"), Color.web("#ffb74d"), Color.web("#dce775"), Color.web("#66bb6a")
+    };
+
+    private static final double MONTH_CELL = 24.0;
+    private static final double YEAR_CELL = 9.0;
+    private static final double CELL_GAP = 2.0;
+    private static final double HEADER = 14.0;
+    private static final double MONTH_GAP = 10.0;
+    private static final int YEAR_COLUMNS = 4;
+
+    private final Canvas canvas = new Canvas();
+    private List<CalendarMonth> months = List.of();
+    private HeatmapMetric metric = HeatmapMetric.CALORIES;
+    private double dailyCalorieGoal;
+    private LocalDate selectedDate;
+    private Consumer<LocalDate> onDaySelected;
+
+    public CalendarHeatmap() {
+        getStyleClass().add("calendar-heatmap");
+        getChildren().add(canvas);
+    }
+
+    public void setOnDaySelected(Consumer<LocalDate> onDaySelected) {
+        this.onDaySelected = onDaySelected;
+        if (onDaySelected == null) {
+            canvas.setOnMouseClicked(null);
+            return;
+        }
+        canvas.setOnMouseClicked(event -> {
+            LocalDate date = dateAt(event.getX(), event.getY());
+            if (date != null) {
+                this.onDaySelected.accept(date);
+            }
+        });
+    }
+
+    public void show(List<CalendarMonth> months, HeatmapMetric metric, double dailyCalorieGoal, LocalDate selectedDate) {
+        this.months = List.copyOf(months);
+        this.metric = metric;
+        this.dailyCalorieGoal = dailyCalorieGoal;
+        this.selectedDate = selectedDate;
+        redraw();
+    }
+
+    public boolean isYearMode() {
+        return months.size() > 1;
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return canvas.getWidth();
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return canvas.getHeight();
+    }
+
+    private double cellSize() {
+        return isYearMode() ? YEAR_CELL : MONTH_CELL;
+    }
+
+    private double monthWidth() {
+        return 7 * (cellSize() + CELL_GAP);
+    }
+
+    private double monthHeight() {
+        return HEADER + 6 * (cellSize() + CELL_GAP);
+    }
+
+    private double monthX(int index) {
+        return isYearMode() ? (index % YEAR_COLUMNS) * (monthWidth() + MONTH_GAP) : 0.0;
+    }
+
+    private double monthY(int index) {
+        return isYearMode() ? (index / YEAR_COLUMNS) * (monthHeight() + MONTH_GAP) : 0.0;
+    }
+
+    private int firstCellOf(CalendarMonth month) {
+        return month.getYearMonth().atDay(1).getDayOfWeek().getValue() - 1;
+    }
+
+    private void redraw() {
+        long startNanos = System.nanoTime();
+        int columns = isYearMode() ? YEAR_COLUMNS : 1;
+        int rows = (months.size() + columns - 1) / columns;
+        canvas.setWidth(columns * monthWidth() + (columns - 1) * MONTH_GAP);
+        canvas.setHeight(rows * monthHeight() + Math.max(0, rows - 1) * MONTH_GAP);
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        Color[] palette = metric == HeatmapMetric.GOAL_ADHERENCE ? GOAL_ADHERENCE_COLORS : CALORIES_COLORS;
+        double maxCalories = 0.0;
+        for (CalendarMonth month : months) {
+            maxCalories = Math.max(maxCalories, month.getMaxCalories());
+        }
+
+        double cell = cellSize();
+        graphics.setTextBaseline(VPos.CENTER);
+        graphics.setTextAlign(TextAlignment.CENTER);
+        graphics.setFont(Font.font(10));
+        for (int index = 0; index < months.size(); index++) {
+            CalendarMonth month = months.get(index);
+            double originX = monthX(index);
+            double originY = monthY(index);
+            graphics.setFill(Color.GRAY);
+            if (isYearMode()) {
+                graphics.fillText(month.getYearMonth().getMonth().getDisplayName(TextStyle.SHORT_STANDALONE, LOCALE),
+                        originX + monthWidth() / 2, originY + HEADER / 2);
+            } else {
+                for (int weekday = 0; weekday < WEEKDAYS.length; weekday++) {
+                    graphics.fillText(WEEKDAYS[weekday], originX + weekday * (cell + CELL_GAP) + cell / 2, originY + HEADER / 2);
+                }
+            }
+            int firstCell = firstCellOf(month);
+            for (int day = 1; day <= month.getLengthOfMonth(); day++) {
+                int position = firstCell + day - 1;
+                double x = originX + (position % 7) * (cell + CELL_GAP);
+                double y = originY + HEADER + (position / 7) * (cell + CELL_GAP);
+                int level = month.isLogged(day) ? metric.level(month.getCalories(day), maxCalories, dailyCalorieGoal) : 0;
+                graphics.setFill(palette[level]);
+                graphics.fillRect(x, y, cell, cell);
+                if (month.getDate(day).equals(selectedDate)) {
+                    graphics.setStroke(SELECTED_COLOR);
+                    graphics.strokeRect(x + 0.5, y + 0.5, cell - 1, cell - 1);
+                }
+                if (!isYearMode()) {
+                    graphics.setFill(level >= 3 ? Color.WHITE : Color.BLACK);
+                    graphics.fillText(Integer.toString(day), x + cell / 2, y + cell / 2);
+                }
+            }
+        }
+        requestLayout();
+        LOGGER.debug("Календарь: отрисовано {} месяцев за {} мкс.", months.size(), (System.nanoTime() - startNanos) / 1_000);
+    }
+
+    private LocalDate dateAt(double x, double y) {
+        double cell = cellSize();
+        for (int index = 0; index < months.size(); index++) {
+            double localX = x - monthX(index);
+            double localY = y - monthY(index) - HEADER;
+            if (localX < 0 || localY < 0 || localX >= monthWidth() || localY >= 6 * (cell + CELL_GAP)) {
+                continue;
+            }
+            CalendarMonth month = months.get(index);
+            int position = (int) (localY / (cell + CELL_GAP)) * 7 + (int) (localX / (cell + CELL_GAP));
+            int day = position - firstCellOf(month) + 1;
+            return day >= 1 && day <= month.getLengthOfMonth() ? month.getDate(day) : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.pe4enkin.bitelog.controller;
+
+import com.github.pe4enkin.bitelog.model.AppState;
+import com.github.pe4enkin.bitelog.model.CalendarMonth;
+import com.github.pe4enkin.bitelog.model.HeatmapMetric;
+import com.github.pe4enkin.bitelog.service.CalendarHeatmapService;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ToggleButton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+public class CalendarHeatmapController {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalendarHeatmapController.class);
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("LLLL yyyy", Locale.forLanguageTag("ru"));
+
+    @FXML
+    private Label periodLabel;
+    @FXML
+    private ToggleButton yearModeToggle;
+    @FXML
+    private ChoiceBox<HeatmapMetric> metricChoiceBox;
+    @FXML
+    private CalendarHeatmap calendarHeatmap;
+
+    private final AppState appState;
+    private final Supplier<CalendarHeatmapService> calendarHeatmapService;
+    private final Executor calendarLoadExecutor;
+    private YearMonth displayedMonth;
+    private Task<List<CalendarMonth>> currentLoadTask;
+    private long loadGeneration;
+
+    public CalendarHeatmapController(AppState appState, CalendarHeatmapService calendarHeatmapService) {
+        this(appState, () -> calendarHeatmapService, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public CalendarHeatmapController(AppState appState, Supplier<CalendarHeatmapService> calendarHeatmapService) {
+        this(appState, calendarHeatmapService, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public CalendarHeatmapController(AppState appState, Supplier<CalendarHeatmapService> calendarHeatmapService,
+                                     Executor calendarLoadExecutor) {
+        this.appState = appState;
+        this.calendarHeatmapService = calendarHeatmapService;
+        this.calendarLoadExecutor = calendarLoadExecutor;
+    }
+
+    @FXML
+    public void initialize() {
+        displayedMonth = YearMonth.from(appState.getCurrentWorkingDate());
+        metricChoiceBox.getItems().setAll(HeatmapMetric.values());
+        metricChoiceBox.setValue(HeatmapMetric.CALORIES);
+        metricChoiceBox.valueProperty().addListener((observable, oldValue, newValue) -> refresh());
+        yearModeToggle.selectedProperty().addListener((observable, oldValue, newValue) -> refresh());
+        appState.dailyCalorieGoalProperty().addListener((observable, oldValue, newValue) -> refresh());
+        appState.currentWorkingDateProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue != null) {
+                displayedMonth = YearMonth.from(newValue);
+                refresh();
+            }
+        });
+        calendarHeatmap.setOnDaySelected(appState::setCurrentWorkingDate);
+        showMonths(List.of(new CalendarMonth(displayedMonth)));
+        refresh();
+    }
+
+    public void refresh() {
+        boolean yearMode = yearModeToggle.isSelected();
+        YearMonth month = displayedMonth;
+        periodLabel.setText(yearMode ? Integer.toString(month.getYear()) : MONTH_FORMATTER.format(month));
+        long generation = ++loadGeneration;
+        if (currentLoadTask != null) {
+            currentLoadTask.cancel(true);
+        }
+        Task<List<CalendarMonth>> task = new Task<>() {
+            @Override
+            protected List<CalendarMonth> call() {
+                CalendarHeatmapService service = calendarHeatmapService.get();
+                return yearMode ? service.getYear(month.getYear()) : List.of(service.getMonth(month));
+            }
+        };
+        task.setOnSucceeded(event -> {
+            if (generation == loadGeneration) {
+                currentLoadTask = null;
+                showMonths(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            if (generation != loadGeneration) {
+                return;
+            }
+            currentLoadTask = null;
+            LOGGER.error("Ошибка при загрузке календаря за {}: {}", month, task.getException().getMessage(), task.getException());
+            showMonths(List.of());
+        });
+        currentLoadTask = task;
+        calendarLoadExecutor.execute(task);
+    }
+
+    private void showMonths(List<CalendarMonth> months) {
+        calendarHeatmap.show(months, metricChoiceBox.getValue(), appState.getDailyCalorieGoal(), appState.getCurrentWorkingDate());
+    }
+
+    @FXML
+    private void handlePreviousPeriodButtonAction() {
+        displayedMonth = yearModeToggle.isSelected() ? displayedMonth.minusYears(1) : displayedMonth.minusMonths(1);
+        refresh();
+    }
+
+    @FXML
+    private void handleNextPeriodButtonAction() {
+        displayedMonth = yearModeToggle.isSelected() ? displayedMonth.plusYears(1) : displayedMonth.plusMonths(1);
+        refresh();
+    }
+}
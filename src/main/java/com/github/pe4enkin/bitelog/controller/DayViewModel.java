@@ -0,0 +1,134 @@
+package com.github.pe4enkin.bitelog.controller;
+
+import com.github.pe4enkin.bitelog.model.DailyDiary;
+import com.github.pe4enkin.bitelog.model.MealEntryRow;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class DayViewModel {
+    private final ObservableList<MealEntryRow> mealEntries = FXCollections.observableArrayList();
+    private final DoubleProperty totalCalories = new SimpleDoubleProperty(0.0);
+    private final DoubleProperty totalProteins = new SimpleDoubleProperty(0.0);
+    private final DoubleProperty totalFats = new SimpleDoubleProperty(0.0);
+    private final DoubleProperty totalCarbs = new SimpleDoubleProperty(0.0);
+
+    private LocalDate date;
+
+    private int lastInserted;
+    private int lastRemoved;
+    private int lastUpdated;
+
+    public ObservableList<MealEntryRow> getMealEntries() {
+        return mealEntries;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public DoubleProperty totalCaloriesProperty() {
+        return totalCalories;
+    }
+
+    public DoubleProperty totalProteinsProperty() {
+        return totalProteins;
+    }
+
+    public DoubleProperty totalFatsProperty() {
+        return totalFats;
+    }
+
+    public DoubleProperty totalCarbsProperty() {
+        return totalCarbs;
+    }
+
+    public void apply(DailyDiary dailyDiary) {
+        lastInserted = 0;
+        lastRemoved = 0;
+        lastUpdated = 0;
+        List<MealEntryRow> newEntries = dailyDiary.getMealEntryRows();
+        if (!dailyDiary.getDate().equals(date)) {
+            date = dailyDiary.getDate();
+            lastRemoved = mealEntries.size();
+            lastInserted = newEntries.size();
+            mealEntries.setAll(newEntries);
+        } else {
+            diffMealEntries(newEntries);
+        }
+        totalCalories.set(dailyDiary.getTotalCalories());
+        totalProteins.set(dailyDiary.getTotalProteins());
+        totalFats.set(dailyDiary.getTotalFats());
+        totalCarbs.set(dailyDiary.getTotalCarbs());
+    }
+
+    public void clear() {
+        date = null;
+        lastInserted = 0;
+        lastRemoved = mealEntries.size();
+        lastUpdated = 0;
+        mealEntries.clear();
+        totalCalories.set(0.0);
+        totalProteins.set(0.0);
+        totalFats.set(0.0);
+        totalCarbs.set(0.0);
+    }
+
+    public int getLastInserted() {
+        return lastInserted;
+    }
+
+    public int getLastRemoved() {
+        return lastRemoved;
+    }
+
+    public int getLastUpdated() {
+        return lastUpdated;
+    }
+
+    private void diffMealEntries(List<MealEntryRow> newEntries) {
+        Set<Long> newIds = new HashSet<>(newEntries.size() * 2);
+        for (MealEntryRow mealEntry : newEntries) {
+            newIds.add(mealEntry.getId());
+        }
+        for (int i = mealEntries.size() - 1; i >= 0; i--) {
+            if (!newIds.contains(mealEntries.get(i).getId())) {
+                mealEntries.remove(i);
+                lastRemoved++;
+            }
+        }
+        for (int i = 0; i < newEntries.size(); i++) {
+            MealEntryRow newEntry = newEntries.get(i);
+            int current = indexOf(newEntry.getId(), i);
+            if (current < 0) {
+                mealEntries.add(i, newEntry);
+                lastInserted++;
+                continue;
+            }
+            MealEntryRow oldEntry = mealEntries.get(current);
+            if (current != i) {
+                mealEntries.remove(current);
+                mealEntries.add(i, newEntry);
+                lastUpdated++;
+            } else if (!oldEntry.equals(newEntry)) {
+                mealEntries.set(i, newEntry);
+                lastUpdated++;
+            }
+        }
+    }
+
+    private int indexOf(long mealEntryId, int from) {
+        for (int i = from; i < mealEntries.size(); i++) {
+            if (mealEntries.get(i).getId() == mealEntryId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -2,23 +2,26 @@ package com.github.pe4enkin.bitelog.controller;
 
 import com.github.pe4enkin.bitelog.model.*;
 import com.github.pe4enkin.bitelog.service.DailyDiaryService;
-import com.github.pe4enkin.bitelog.service.FoodItemService;
-import com.github.pe4enkin.bitelog.service.exception.ServiceException;
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.control.Button;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
-import javafx.scene.control.TitledPane;
-import javafx.scene.layout.VBox;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.time.LocalDate;
-import java.util.Optional;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 public class MainViewController {
     private static final Logger LOGGER = LoggerFactory.getLogger(MainViewController.class);
@@ -40,103 +43,178 @@ public class MainViewController {
     @FXML
     private Label totalCarbsLabel;
     @FXML
-    private VBox mealEntriesVBox;
+    private ListView<MealEntryRow> mealEntriesListView;
+    @FXML
+    private ProgressIndicator loadingIndicator;
 
     private final AppState appState;
-    private final FoodItemService foodItemService;
-    private final DailyDiaryService dailyDiaryService;
+    private final Supplier<DailyDiaryService> dailyDiaryService;
+    private final Executor diaryLoadExecutor;
+
+    private final Set<Long> toggledMealEntryIds = new HashSet<>();
+    private final DayViewModel dayViewModel = new DayViewModel();
 
-    private DoubleProperty totalCalories = new SimpleDoubleProperty(0.0);
-    private DoubleProperty totalProteins = new SimpleDoubleProperty(0.0);
-    private DoubleProperty totalFats = new SimpleDoubleProperty(0.0);
-    private DoubleProperty totalCarbs = new SimpleDoubleProperty(0.0);
+    private final BooleanProperty loading = new SimpleBooleanProperty(false);
+    private Task<DailyDiary> currentLoadTask;
+    private long loadGeneration;
+    private Runnable onShowCharts;
+    private Runnable onDiaryDisplayed;
+    private UiLatencyTracker uiLatencyTracker = new UiLatencyTracker();
 
-    public MainViewController(AppState appState, FoodItemService foodItemService, DailyDiaryService dailyDiaryService) {
+    public MainViewController(AppState appState, Supplier<DailyDiaryService> dailyDiaryService) {
+        this(appState, dailyDiaryService, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public MainViewController(AppState appState, DailyDiaryService dailyDiaryService,
+                              Executor diaryLoadExecutor) {
+        this(appState, () -> dailyDiaryService, diaryLoadExecutor);
+    }
+
+    private MainViewController(AppState appState, Supplier<DailyDiaryService> dailyDiaryService,
+                               Executor diaryLoadExecutor) {
         this.appState = appState;
-        this.foodItemService = foodItemService;
         this.dailyDiaryService = dailyDiaryService;
+        this.diaryLoadExecutor = diaryLoadExecutor;
+    }
+
+    public ReadOnlyBooleanProperty loadingProperty() {
+        return loading;
+    }
+
+    public void refresh() {
+        loadDailyDiary(appState.getCurrentWorkingDate());
+    }
+
+    public void setOnShowCharts(Runnable onShowCharts) {
+        this.onShowCharts = onShowCharts;
+    }
+
+    public void setOnDiaryDisplayed(Runnable onDiaryDisplayed) {
+        this.onDiaryDisplayed = onDiaryDisplayed;
+    }
+
+    public void setUiLatencyTracker(UiLatencyTracker uiLatencyTracker) {
+        this.uiLatencyTracker = uiLatencyTracker;
     }
 
     @FXML
     public void initialize() {
+        MealEntryViewFactory mealEntryViewFactory = new MealEntryViewFactory();
+        mealEntriesListView.setCellFactory(listView ->
+                new MealEntryListCell(mealEntryViewFactory, toggledMealEntryIds));
+        mealEntriesListView.setItems(dayViewModel.getMealEntries());
         datePicker.setValue(appState.getCurrentWorkingDate());
         appState.currentWorkingDateProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null) {
                 if (!datePicker.getValue().equals(newValue)) {
                     datePicker.setValue(newValue);
                 }
-                DailyDiary dailyDiary = dailyDiaryService.getDiaryForDate(newValue);
-                displayDailyDiary(dailyDiary);
-                updateSummaryLabels(dailyDiary);
+                loadDailyDiary(newValue);
             }
         });
 
         datePicker.valueProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null && !appState.getCurrentWorkingDate().equals(newValue)) {
+                uiLatencyTracker.beginInteraction("Выбор даты");
                 appState.setCurrentWorkingDate(newValue);
             }
         });
 
+        loadingIndicator.visibleProperty().bind(loading);
+        mealEntriesListView.opacityProperty().bind(Bindings.when(loading).then(0.5).otherwise(1.0));
+
         //Загрузка данных при инициализации приложения
-        DailyDiary dailyDiary = dailyDiaryService.getDiaryForDate(appState.getCurrentWorkingDate());
-        displayDailyDiary(dailyDiary);
-        updateSummaryLabels(dailyDiary);
+        loadDailyDiary(appState.getCurrentWorkingDate());
 
-        totalCaloriesLabel.textProperty().bind(totalCalories.asString("Всего калорий: %,.0f"));
-        totalProteinsLabel.textProperty().bind(totalProteins.asString("Всего белков: %,.0f"));
-        totalFatsLabel.textProperty().bind(totalFats.asString("Всего жиров: %,.0f"));
-        totalCarbsLabel.textProperty().bind(totalCarbs.asString("Всего углеводов: %,.0f"));
+        totalCaloriesLabel.textProperty().bind(dayViewModel.totalCaloriesProperty().asString("Всего калорий: %,.0f"));
+        totalProteinsLabel.textProperty().bind(dayViewModel.totalProteinsProperty().asString("Всего белков: %,.0f"));
+        totalFatsLabel.textProperty().bind(dayViewModel.totalFatsProperty().asString("Всего жиров: %,.0f"));
+        totalCarbsLabel.textProperty().bind(dayViewModel.totalCarbsProperty().asString("Всего углеводов: %,.0f"));
     }
 
     @FXML
     private void handlePreviousDayButtonAction() {
+        uiLatencyTracker.beginInteraction("Предыдущий день");
         appState.setCurrentWorkingDate(appState.getCurrentWorkingDate().minusDays(1));
     }
 
     @FXML
     private void handleTodayButtonAction() {
-        appState.setCurrentWorkingDate(LocalDate.now());
+        LocalDate today = LocalDate.now();
+        if (!today.equals(appState.getCurrentWorkingDate())) {
+            uiLatencyTracker.beginInteraction("Сегодня");
+        }
+        appState.setCurrentWorkingDate(today);
     }
 
     @FXML
     private void handleNextDayButtonAction() {
+        uiLatencyTracker.beginInteraction("Следующий день");
         appState.setCurrentWorkingDate(appState.getCurrentWorkingDate().plusDays(1));
     }
 
-    private void displayDailyDiary(DailyDiary dailyDiary) {
-        mealEntriesVBox.getChildren().clear();
-
-        for (MealEntry mealEntry : dailyDiary.getMealEntries()) {
-            try {
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/github/pe4enkin/bitelog/view/meal-entry-template.fxml"));
-                TitledPane mealPane = loader.load();
-                String title = String.format("%s (%,.0f ккал)", mealEntry.getMealCategory(), mealEntry.getTotalCalories());
-                mealPane.setText(title);
-                VBox mealComponentsVBox = (VBox) mealPane.getContent();
-                mealComponentsVBox.getChildren().clear();
-                for (MealComponent mealComponent : mealEntry.getComponents()) {
-                    Optional<FoodItem> optionalFoodItem = foodItemService.getFoodItemById(mealComponent.getFoodItemId());
-                    if (optionalFoodItem.isPresent()) {
-                        Label mealComponentLabel = new Label(
-                                String.format("- %s (%,.0f ккал)", optionalFoodItem.get().getName(), mealComponent.getAmountInGrams() / 100 * optionalFoodItem.get().getCaloriesPer100g())
-                        );
-                        mealComponentsVBox.getChildren().add(mealComponentLabel);
-                    } else {
-                        LOGGER.warn("FoodItem c ID {} не найден для отображения.", mealComponent.getFoodItemId());
-                        throw new ServiceException("Продукт с ID " + mealComponent.getFoodItemId() + " не найден для отображения.");
-                    }
-                }
-                mealEntriesVBox.getChildren().add(mealPane);
-            } catch (IOException e) {
-                LOGGER.warn("Неожиданная ошибка ввода-вывода", e.getMessage());
-            }
+    @FXML
+    private void handleChartsButtonAction() {
+        if (onShowCharts != null) {
+            onShowCharts.run();
         }
     }
 
-    private void updateSummaryLabels(DailyDiary dailyDiary) {
-        totalCalories.set(dailyDiary.getTotalCalories());
-        totalProteins.set(dailyDiary.getTotalProteins());
-        totalFats.set(dailyDiary.getTotalFats());
-        totalCarbs.set(dailyDiary.getTotalCarbs());
+    private void loadDailyDiary(LocalDate date) {
+        long generation = ++loadGeneration;
+        if (currentLoadTask != null) {
+            currentLoadTask.cancel(true);
+        }
+        Task<DailyDiary> task = new Task<>() {
+            @Override
+            protected DailyDiary call() {
+                return dailyDiaryService.get().getDiaryForDate(date);
+            }
+        };
+        task.setOnSucceeded(event -> {
+            if (generation != loadGeneration) {
+                LOGGER.debug("Результат загрузки дневника за {} отброшен: выбрана другая дата.", date);
+                return;
+            }
+            finishLoading();
+            uiLatencyTracker.markDataReady();
+            displayDailyDiary(task.getValue());
+            uiLatencyTracker.markSceneUpdated();
+            if (onDiaryDisplayed != null) {
+                onDiaryDisplayed.run();
+            }
+            dailyDiaryService.get().prefetchAround(date);
+        });
+        task.setOnFailed(event -> {
+            if (generation != loadGeneration) {
+                return;
+            }
+            finishLoading();
+            uiLatencyTracker.cancelInteraction();
+            LOGGER.error("Ошибка при загрузке дневника за {}: {}", date, task.getException().getMessage(), task.getException());
+            toggledMealEntryIds.clear();
+            dayViewModel.clear();
+        });
+        currentLoadTask = task;
+        loading.set(true);
+        diaryLoadExecutor.execute(task);
+    }
+
+    private void finishLoading() {
+        currentLoadTask = null;
+        loading.set(false);
+    }
+
+    private void displayDailyDiary(DailyDiary dailyDiary) {
+        boolean sameDate = dailyDiary.getDate().equals(dayViewModel.getDate());
+        if (!sameDate) {
+            toggledMealEntryIds.clear();
+        }
+        dayViewModel.apply(dailyDiary);
+        if (!sameDate) {
+            mealEntriesListView.scrollTo(0);
+        }
+        LOGGER.debug("Дневник за {} отображен: добавлено {}, удалено {}, обновлено {} записей.", dailyDiary.getDate(),
+                dayViewModel.getLastInserted(), dayViewModel.getLastRemoved(), dayViewModel.getLastUpdated());
     }
 }
\ No newline at end of file
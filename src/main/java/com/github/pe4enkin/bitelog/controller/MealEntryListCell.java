@@ -0,0 +1,55 @@
+package com.github.pe4enkin.bitelog.controller;
+
+import com.github.pe4enkin.bitelog.model.MealEntryRow;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.TitledPane;
+
+import java.util.Set;
+
+public final class MealEntryListCell extends ListCell<MealEntryRow> {
+    private final MealEntryViewFactory mealEntryViewFactory;
+    private final Set<Long> toggledMealEntryIds;
+    private final TitledPane mealPane;
+    private boolean updating;
+
+    public MealEntryListCell(MealEntryViewFactory mealEntryViewFactory, Set<Long> toggledMealEntryIds) {
+        this.mealEntryViewFactory = mealEntryViewFactory;
+        this.toggledMealEntryIds = toggledMealEntryIds;
+        this.mealPane = mealEntryViewFactory.createPane();
+        mealPane.expandedProperty().addListener((observable, oldValue, newValue) -> {
+            MealEntryRow mealEntry = getItem();
+            if (updating || mealEntry == null) {
+                return;
+            }
+            if (newValue == mealEntryViewFactory.isExpandedByDefault()) {
+                toggledMealEntryIds.remove(mealEntry.getId());
+            } else {
+                toggledMealEntryIds.add(mealEntry.getId());
+            }
+        });
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    @Override
+    protected void updateItem(MealEntryRow mealEntry, boolean empty) {
+        super.updateItem(mealEntry, empty);
+        setText(null);
+        if (empty || mealEntry == null) {
+            setGraphic(null);
+            return;
+        }
+        updating = true;
+        try {
+            mealEntryViewFactory.bind(mealPane, mealEntry);
+            mealPane.setExpanded(mealEntryViewFactory.isExpandedByDefault() != toggledMealEntryIds.contains(mealEntry.getId()));
+        } finally {
+            updating = false;
+        }
+        setGraphic(mealPane);
+    }
+
+    public TitledPane getMealPane() {
+        return mealPane;
+    }
+}
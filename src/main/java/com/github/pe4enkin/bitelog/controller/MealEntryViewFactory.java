@@ -0,0 +1,80 @@
+package com.github.pe4enkin.bitelog.controller;
+
+import com.github.pe4enkin.bitelog.model.MealEntryRow;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.TitledPane;
+import javafx.scene.layout.VBox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+
+public class MealEntryViewFactory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MealEntryViewFactory.class);
+    private static final String TEMPLATE_PATH = "/com/github/pe4enkin/bitelog/view/meal-entry-template.fxml";
+
+    private final boolean animated;
+    private final boolean expanded;
+    private final List<String> paneStyleClasses;
+    private final List<String> contentStyleClasses;
+
+    public MealEntryViewFactory() {
+        this(MealEntryViewFactory.class.getResource(TEMPLATE_PATH));
+    }
+
+    public MealEntryViewFactory(URL template) {
+        TitledPane prototype;
+        try {
+            prototype = FXMLLoader.load(template);
+        } catch (IOException e) {
+            LOGGER.error("Ошибка при загрузке шаблона приема пищи {}: {}", template, e.getMessage(), e);
+            throw new IllegalStateException("Не удалось загрузить шаблон приема пищи: " + template, e);
+        }
+        if (!(prototype.getContent() instanceof VBox content)) {
+            throw new IllegalStateException("Содержимое шаблона приема пищи должно быть VBox: " + template);
+        }
+        this.animated = prototype.isAnimated();
+        this.expanded = prototype.isExpanded();
+        this.paneStyleClasses = List.copyOf(prototype.getStyleClass());
+        this.contentStyleClasses = List.copyOf(content.getStyleClass());
+        LOGGER.debug("Шаблон приема пищи {} загружен.", template);
+    }
+
+    public boolean isExpandedByDefault() {
+        return expanded;
+    }
+
+    public TitledPane createPane() {
+        VBox mealComponentsVBox = new VBox();
+        mealComponentsVBox.getStyleClass().setAll(contentStyleClasses);
+        TitledPane mealPane = new TitledPane();
+        mealPane.getStyleClass().setAll(paneStyleClasses);
+        mealPane.setAnimated(animated);
+        mealPane.setExpanded(expanded);
+        mealPane.setContent(mealComponentsVBox);
+        return mealPane;
+    }
+
+    public void bind(TitledPane mealPane, MealEntryRow mealEntry) {
+        mealPane.setText(String.format("%s (%,.0f ккал)", mealEntry.getMealCategory(), mealEntry.getTotalCalories()));
+        ObservableList<Node> labels = ((VBox) mealPane.getContent()).getChildren();
+        List<MealEntryRow.ComponentRow> components = mealEntry.getComponents();
+        for (int i = 0; i < components.size(); i++) {
+            MealEntryRow.ComponentRow mealComponent = components.get(i);
+            String text = String.format("- %s (%,.0f ккал)", mealComponent.getFoodItemName(), mealComponent.getCalories());
+            if (i < labels.size()) {
+                ((Label) labels.get(i)).setText(text);
+            } else {
+                labels.add(new Label(text));
+            }
+        }
+        if (labels.size() > components.size()) {
+            labels.remove(components.size(), labels.size());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.github.pe4enkin.bitelog.controller;
+
+import com.github.pe4enkin.bitelog.model.AppState;
+import com.github.pe4enkin.bitelog.model.ChartSeries;
+import com.github.pe4enkin.bitelog.model.DownsamplingMethod;
+import com.github.pe4enkin.bitelog.model.Nutrient;
+import com.github.pe4enkin.bitelog.service.NutrientChartService;
+import com.github.pe4enkin.bitelog.util.DateTimeFormatterUtil;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.util.StringConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+public class NutrientChartController {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NutrientChartController.class);
+    private static final int CHUNK_SIZE = 256;
+    private static final int DEFAULT_RANGE_DAYS = 365;
+    private static final int MIN_RANGE_DAYS = 14;
+    private static final int MAX_RANGE_DAYS = 366 * 30;
+    private static final double ZOOM_FACTOR = 2.0;
+    private static final int FALLBACK_WIDTH_PX = 800;
+    private static final int TICK_COUNT = 8;
+
+    @FXML
+    private LineChart<Number, Number> nutrientChart;
+    @FXML
+    private NumberAxis dateAxis;
+    @FXML
+    private ChoiceBox<Nutrient> nutrientChoiceBox;
+    @FXML
+    private ChoiceBox<DownsamplingMethod> methodChoiceBox;
+    @FXML
+    private Label rangeLabel;
+
+    private final AppState appState;
+    private final Supplier<NutrientChartService> nutrientChartService;
+    private final Executor chartLoadExecutor;
+    private final XYChart.Series<Number, Number> series = new XYChart.Series<>();
+
+    private LocalDate viewFrom;
+    private LocalDate viewTo;
+    private double dragStartX;
+    private LocalDate dragStartFrom;
+    private Task<Void> currentLoadTask;
+    private long loadGeneration;
+
+    public NutrientChartController(AppState appState, Supplier<NutrientChartService> nutrientChartService) {
+        this(appState, nutrientChartService, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public NutrientChartController(AppState appState, Supplier<NutrientChartService> nutrientChartService,
+                                   Executor chartLoadExecutor) {
+        this.appState = appState;
+        this.nutrientChartService = nutrientChartService;
+        this.chartLoadExecutor = chartLoadExecutor;
+    }
+
+    @FXML
+    public void initialize() {
+        viewTo = appState.getCurrentWorkingDate();
+        viewFrom = viewTo.minusDays(DEFAULT_RANGE_DAYS - 1);
+        nutrientChoiceBox.getItems().setAll(Nutrient.values());
+        nutrientChoiceBox.setValue(Nutrient.CALORIES);
+        nutrientChoiceBox.valueProperty().addListener((observable, oldValue, newValue) -> refresh());
+        methodChoiceBox.getItems().setAll(DownsamplingMethod.values());
+        methodChoiceBox.setValue(DownsamplingMethod.LTTB);
+        methodChoiceBox.valueProperty().addListener((observable, oldValue, newValue) -> refresh());
+
+        nutrientChart.setAnimated(false);
+        nutrientChart.setCreateSymbols(false);
+        nutrientChart.getData().add(series);
+        dateAxis.setAutoRanging(false);
+        dateAxis.setTickLabelFormatter(new StringConverter<>() {
+            @Override
+            public String toString(Number epochDay) {
+                return DateTimeFormatterUtil.formatDateWithDots(LocalDate.ofEpochDay(epochDay.longValue()));
+            }
+
+            @Override
+            public Number fromString(String text) {
+                return LocalDate.parse(text, DateTimeFormatterUtil.DATE_DD_MM_YYYY).toEpochDay();
+            }
+        });
+        dateAxis.widthProperty().addListener((observable, oldValue, newValue) -> {
+            if (NutrientChartService.zoomLevel(viewFrom, viewTo, widthPx(oldValue.doubleValue()))
+                    != NutrientChartService.zoomLevel(viewFrom, viewTo, widthPx(newValue.doubleValue()))) {
+                refresh();
+            }
+        });
+
+        nutrientChart.setOnScroll(event -> zoom(event.getDeltaY() > 0 ? 1 / ZOOM_FACTOR : ZOOM_FACTOR));
+        nutrientChart.setOnMousePressed(event -> {
+            dragStartX = event.getX();
+            dragStartFrom = viewFrom;
+        });
+        nutrientChart.setOnMouseDragged(event -> {
+            long rangeDays = rangeDays();
+            long deltaDays = Math.round((dragStartX - event.getX()) / widthPx(dateAxis.getWidth()) * rangeDays);
+            LocalDate from = dragStartFrom.plusDays(deltaDays);
+            if (!from.equals(viewFrom)) {
+                showRange(from, rangeDays);
+            }
+        });
+        refresh();
+    }
+
+    public void refresh() {
+        long rangeDays = rangeDays();
+        dateAxis.setLowerBound(viewFrom.toEpochDay());
+        dateAxis.setUpperBound(viewTo.toEpochDay());
+        dateAxis.setTickUnit(Math.max(1.0, (double) rangeDays / TICK_COUNT));
+        rangeLabel.setText(DateTimeFormatterUtil.formatDateWithDots(viewFrom) + " - " + DateTimeFormatterUtil.formatDateWithDots(viewTo));
+        Nutrient nutrient = nutrientChoiceBox.getValue();
+        DownsamplingMethod method = methodChoiceBox.getValue();
+        series.setName(nutrient.getName());
+        loadSeries(nutrient, method, viewFrom, viewTo, widthPx(dateAxis.getWidth()));
+    }
+
+    @FXML
+    private void handleZoomInButtonAction() {
+        zoom(1 / ZOOM_FACTOR);
+    }
+
+    @FXML
+    private void handleZoomOutButtonAction() {
+        zoom(ZOOM_FACTOR);
+    }
+
+    private void zoom(double factor) {
+        long rangeDays = rangeDays();
+        long newRangeDays = Math.max(MIN_RANGE_DAYS, Math.min(MAX_RANGE_DAYS, Math.round(rangeDays * factor)));
+        if (newRangeDays != rangeDays) {
+            long centerEpochDay = viewFrom.toEpochDay() + rangeDays / 2;
+            showRange(LocalDate.ofEpochDay(centerEpochDay - newRangeDays / 2), newRangeDays);
+        }
+    }
+
+    private void showRange(LocalDate from, long rangeDays) {
+        viewFrom = from;
+        viewTo = from.plusDays(rangeDays - 1);
+        refresh();
+    }
+
+    private long rangeDays() {
+        return ChronoUnit.DAYS.between(viewFrom, viewTo) + 1;
+    }
+
+    private int widthPx(double axisWidth) {
+        return axisWidth >= 1.0 ? (int) axisWidth : FALLBACK_WIDTH_PX;
+    }
+
+    private void loadSeries(Nutrient nutrient, DownsamplingMethod method, LocalDate from, LocalDate to, int widthPx) {
+        long generation = ++loadGeneration;
+        if (currentLoadTask != null) {
+            currentLoadTask.cancel(true);
+        }
+        Task<Void> task = new Task<>() {
+            private boolean firstChunk = true;
+
+            @Override
+            protected Void call() {
+                nutrientChartService.get().streamSeries(nutrient, method, from, to, widthPx, CHUNK_SIZE, chunk -> {
+                    List<XYChart.Data<Number, Number>> points = toChartData(chunk);
+                    boolean replace = firstChunk;
+                    firstChunk = false;
+                    Platform.runLater(() -> {
+                        if (generation != loadGeneration) {
+                            return;
+                        }
+                        if (replace) {
+                            series.getData().setAll(points);
+                        } else {
+                            series.getData().addAll(points);
+                        }
+                    });
+                });
+                if (firstChunk && !isCancelled()) {
+                    Platform.runLater(() -> {
+                        if (generation == loadGeneration) {
+                            series.getData().clear();
+                        }
+                    });
+                }
+                return null;
+            }
+        };
+        task.setOnFailed(event -> {
+            if (generation != loadGeneration) {
+                return;
+            }
+            LOGGER.error("Ошибка при построении графика {} за {} - {}: {}", nutrient, from, to,
+                    task.getException().getMessage(), task.getException());
+            series.getData().clear();
+        });
+        currentLoadTask = task;
+        chartLoadExecutor.execute(task);
+    }
+
+    private static List<XYChart.Data<Number, Number>> toChartData(ChartSeries chunk) {
+        List<XYChart.Data<Number, Number>> points = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            points.add(new XYChart.Data<>(chunk.getEpochDay(i), chunk.getValue(i)));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.pe4enkin.bitelog.controller;
+
+import com.github.pe4enkin.bitelog.util.LatencyHistogram;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+public class UiLatencyTracker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UiLatencyTracker.class);
+
+    private final LongSupplier clock;
+    private final LatencyHistogram dataReadyHistogram = new LatencyHistogram();
+    private final LatencyHistogram clickToPulseHistogram = new LatencyHistogram();
+    private final LatencyHistogram pulseHistogram = new LatencyHistogram();
+
+    private String pendingAction;
+    private long pendingStartNanos;
+    private long pendingDataReadyNanos;
+    private boolean awaitingPulse;
+    private long pulseStartNanos;
+    private long supersededCount;
+    private String lastAction;
+    private long lastClickToPulseNanos;
+    private Label overlay;
+
+    public UiLatencyTracker() {
+        this(System::nanoTime);
+    }
+
+    public UiLatencyTracker(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public void install(Scene scene) {
+        scene.addPreLayoutPulseListener(this::onPulseStarted);
+        scene.addPostLayoutPulseListener(this::onPulseFinished);
+    }
+
+    public void beginInteraction(String action) {
+        if (pendingAction != null) {
+            supersededCount++;
+            LOGGER.debug("Действие '{}' прервано действием '{}' до отрисовки.", pendingAction, action);
+        }
+        pendingAction = action;
+        pendingStartNanos = clock.getAsLong();
+        pendingDataReadyNanos = 0;
+        awaitingPulse = false;
+    }
+
+    public void markDataReady() {
+        if (pendingAction != null && pendingDataReadyNanos == 0) {
+            pendingDataReadyNanos = clock.getAsLong();
+            dataReadyHistogram.record(pendingDataReadyNanos - pendingStartNanos);
+        }
+    }
+
+    public void markSceneUpdated() {
+        if (pendingAction != null && pendingDataReadyNanos != 0) {
+            awaitingPulse = true;
+        }
+    }
+
+    public void cancelInteraction() {
+        pendingAction = null;
+        awaitingPulse = false;
+    }
+
+    void onPulseStarted() {
+        pulseStartNanos = clock.getAsLong();
+    }
+
+    void onPulseFinished() {
+        long now = clock.getAsLong();
+        if (pulseStartNanos != 0) {
+            pulseHistogram.record(now - pulseStartNanos);
+            pulseStartNanos = 0;
+        }
+        if (!awaitingPulse) {
+            return;
+        }
+        lastAction = pendingAction;
+        lastClickToPulseNanos = now - pendingStartNanos;
+        clickToPulseHistogram.record(lastClickToPulseNanos);
+        LOGGER.debug("Отклик UI '{}': данные через {} мкс, кадр через {} мкс.", pendingAction,
+                (pendingDataReadyNanos - pendingStartNanos) / 1_000, lastClickToPulseNanos / 1_000);
+        cancelInteraction();
+        updateOverlay();
+    }
+
+    public LatencyHistogram getDataReadyHistogram() {
+        return dataReadyHistogram;
+    }
+
+    public LatencyHistogram getClickToPulseHistogram() {
+        return clickToPulseHistogram;
+    }
+
+    public LatencyHistogram getPulseHistogram() {
+        return pulseHistogram;
+    }
+
+    public long getSupersededCount() {
+        return supersededCount;
+    }
+
+    public Label getOverlay() {
+        if (overlay == null) {
+            overlay = new Label("Отклик UI: нет данных");
+            overlay.getStyleClass().add("latency-overlay");
+            overlay.setMouseTransparent(true);
+            overlay.setManaged(false);
+            overlay.relocate(10.0, 10.0);
+            overlay.setVisible(false);
+        }
+        return overlay;
+    }
+
+    public void toggleOverlay() {
+        Label label = getOverlay();
+        label.setVisible(!label.isVisible());
+        updateOverlay();
+    }
+
+    public void logSummary() {
+        LOGGER.info("Отклик UI, от действия до данных: {}", dataReadyHistogram);
+        LOGGER.info("Отклик UI, от действия до кадра: {}", clickToPulseHistogram);
+        LOGGER.info("Длительность пульса (CSS и компоновка): {}; прервано действий: {}", pulseHistogram, supersededCount);
+    }
+
+    private void updateOverlay() {
+        if (overlay == null || !overlay.isVisible() || lastAction == null) {
+            return;
+        }
+        overlay.setText(String.format(Locale.ROOT, "%s: %.1f мс%nдо кадра p50 %.1f / p95 %.1f мс%nпульс p95 %.1f мс",
+                lastAction, lastClickToPulseNanos / 1_000_000.0,
+                clickToPulseHistogram.getPercentileMicros(50) / 1000.0, clickToPulseHistogram.getPercentileMicros(95) / 1000.0,
+                pulseHistogram.getPercentileMicros(95) / 1000.0));
+        overlay.autosize();
+    }
+}
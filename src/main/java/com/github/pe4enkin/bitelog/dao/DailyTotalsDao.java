@@ -0,0 +1,282 @@
+package com.github.pe4enkin.bitelog.dao;
+
+import com.github.pe4enkin.bitelog.dao.util.SqlExceptionTranslator;
+import com.github.pe4enkin.bitelog.model.DailyCategoryTotals;
+import com.github.pe4enkin.bitelog.model.DailyTotals;
+import com.github.pe4enkin.bitelog.model.MealCategory;
+import com.github.pe4enkin.bitelog.model.NutrientVector;
+import com.github.pe4enkin.bitelog.sql.SqlQueries;
+import com.github.pe4enkin.bitelog.util.DateTimeFormatterUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class DailyTotalsDao {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DailyTotalsDao.class);
+    private static final int ID_BATCH_SIZE = 500;
+    private final DataSource dataSource;
+
+    public DailyTotalsDao(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public void createTables() {
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute(SqlQueries.CREATE_DAILY_TOTALS_TABLE);
+            stmt.execute(SqlQueries.CREATE_DAILY_TOTALS_STATE_TABLE);
+            LOGGER.info("Таблицы daily_totals и daily_totals_state успешно созданы (или уже существовали).");
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при создании таблицы daily_totals. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "создании таблицы daily_totals");
+        }
+    }
+
+    public Optional<DailyTotals> findByDate(LocalDate date) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_DAILY_TOTALS_BY_DATE)) {
+            pstmt.setDate(1, Date.valueOf(date));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapDailyTotals(rs));
+                }
+                LOGGER.debug("Итоги за дату {} не найдены.", DateTimeFormatterUtil.formatDateWithDots(date));
+                return Optional.empty();
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при получении итогов за дату {}. SQLState: {}, ErrorCode: {}, message: {}",
+                    DateTimeFormatterUtil.formatDateWithDots(date), e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "получении итогов за дату " + DateTimeFormatterUtil.formatDateWithDots(date));
+        }
+    }
+
+    public List<DailyTotals> findBetween(LocalDate from, LocalDate to) {
+        String logRange = DateTimeFormatterUtil.formatDateWithDots(from) + " - " + DateTimeFormatterUtil.formatDateWithDots(to);
+        List<DailyTotals> totals = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_DAILY_TOTALS_BETWEEN)) {
+            pstmt.setDate(1, Date.valueOf(from));
+            pstmt.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(mapDailyTotals(rs));
+                }
+            }
+            LOGGER.debug("Получено {} строк daily_totals за период {}.", totals.size(), logRange);
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при получении итогов за период {}. SQLState: {}, ErrorCode: {}, message: {}",
+                    logRange, e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "получении итогов за период " + logRange);
+        }
+        return totals;
+    }
+
+    public List<DailyTotals> findAll() {
+        List<DailyTotals> totals = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(SqlQueries.SELECT_ALL_DAILY_TOTALS)) {
+            while (rs.next()) {
+                totals.add(mapDailyTotals(rs));
+            }
+            LOGGER.debug("Получено {} строк daily_totals.", totals.size());
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при получении всех итогов по дням. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "получении всех итогов по дням");
+        }
+        return totals;
+    }
+
+    public List<DailyCategoryTotals> findCategoryTotalsBetween(LocalDate from, LocalDate to) {
+        String logRange = DateTimeFormatterUtil.formatDateWithDots(from) + " - " + DateTimeFormatterUtil.formatDateWithDots(to);
+        List<DailyCategoryTotals> totals = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_DAILY_CATEGORY_TOTALS_BETWEEN)) {
+            pstmt.setDate(1, Date.valueOf(from));
+            pstmt.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new DailyCategoryTotals(
+                            rs.getDate("date").toLocalDate(),
+                            MealCategory.valueOf(rs.getString("meal_category")),
+                            mapNutrients(rs),
+                            rs.getInt("entry_count")));
+                }
+            }
+            LOGGER.debug("Получено {} итогов по категориям приема пищи за период {}.", totals.size(), logRange);
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при получении итогов по категориям приема пищи за период {}. SQLState: {}, ErrorCode: {}, message: {}",
+                    logRange, e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "получении итогов по категориям приема пищи за период " + logRange);
+        }
+        return totals;
+    }
+
+    public int rebuildAll() {
+        Connection connection = null;
+
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            int rebuilt;
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate(SqlQueries.DELETE_ALL_DAILY_TOTALS);
+                rebuilt = stmt.executeUpdate(SqlQueries.INSERT_DAILY_TOTALS_SELECT + SqlQueries.GROUP_DAILY_TOTALS_BY_DATE);
+            }
+            setDirty(connection, false);
+            connection.commit();
+            LOGGER.info("Таблица daily_totals перестроена: {} дней.", rebuilt);
+            return rebuilt;
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при перестроении таблицы daily_totals. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            rollback(connection, "перестроения таблицы daily_totals");
+            throw SqlExceptionTranslator.translate(e, "перестроении таблицы daily_totals");
+        } finally {
+            close(connection, "перестроения таблицы daily_totals");
+        }
+    }
+
+    public int rebuildIfEmpty() {
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(SqlQueries.SELECT_DAILY_TOTALS_REBUILD_STATE)) {
+            if (rs.next() && rs.getLong("total_count") > 0 && rs.getInt("dirty") == 0) {
+                return 0;
+            }
+            LOGGER.info("Таблица daily_totals пуста или помечена для перестроения.");
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при проверке таблицы daily_totals. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "проверке таблицы daily_totals");
+        }
+        return rebuildAll();
+    }
+
+    public void markDirty() {
+        try (Connection connection = dataSource.getConnection()) {
+            setDirty(connection, true);
+            LOGGER.warn("Таблица daily_totals помечена для перестроения при следующем запуске.");
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при пометке таблицы daily_totals для перестроения. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "пометке таблицы daily_totals для перестроения");
+        }
+    }
+
+    public Set<LocalDate> rebuildForFoodItems(Collection<Long> foodItemIds) {
+        if (foodItemIds.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> idList = new ArrayList<>(foodItemIds);
+        Connection connection = null;
+
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+
+            Set<LocalDate> dates = new TreeSet<>();
+            for (int from = 0; from < idList.size(); from += ID_BATCH_SIZE) {
+                List<Long> batch = idList.subList(from, Math.min(from + ID_BATCH_SIZE, idList.size()));
+                String sql = SqlQueries.SELECT_MEAL_ENTRY_DATES_BY_FOOD_ITEM_PREFIX + "(" + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")";
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        pstmt.setLong(i + 1, batch.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            dates.add(rs.getDate("date").toLocalDate());
+                        }
+                    }
+                }
+            }
+            for (LocalDate date : dates) {
+                refresh(connection, date);
+            }
+            connection.commit();
+            LOGGER.info("Итоги пересчитаны за {} дней после изменения {} food items.", dates.size(), idList.size());
+            return dates;
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при пересчете итогов после изменения {} food items. SQLState: {}, ErrorCode: {}, message: {}",
+                    idList.size(), e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            rollback(connection, "пересчета итогов по food items");
+            throw SqlExceptionTranslator.translate(e, "пересчете итогов после изменения food items");
+        } finally {
+            close(connection, "пересчета итогов по food items");
+        }
+    }
+
+    void refresh(Connection connection, LocalDate date) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.DELETE_DAILY_TOTALS_BY_DATE)) {
+            pstmt.setDate(1, Date.valueOf(date));
+            pstmt.executeUpdate();
+        }
+        try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.INSERT_DAILY_TOTALS_SELECT
+                + SqlQueries.WHERE_MEAL_ENTRY_DATE + SqlQueries.GROUP_DAILY_TOTALS_BY_DATE)) {
+            pstmt.setDate(1, Date.valueOf(date));
+            pstmt.executeUpdate();
+        }
+        LOGGER.debug("Итоги за дату {} пересчитаны.", DateTimeFormatterUtil.formatDateWithDots(date));
+    }
+
+    private void setDirty(Connection connection, boolean dirty) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.UPSERT_DAILY_TOTALS_DIRTY)) {
+            pstmt.setInt(1, dirty ? 1 : 0);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private DailyTotals mapDailyTotals(ResultSet rs) throws SQLException {
+        return new DailyTotals(
+                rs.getDate("date").toLocalDate(),
+                mapNutrients(rs),
+                rs.getInt("entry_count"));
+    }
+
+    private NutrientVector mapNutrients(ResultSet rs) throws SQLException {
+        return new NutrientVector(
+                rs.getDouble("total_calories"),
+                rs.getDouble("total_proteins"),
+                rs.getDouble("total_fats"),
+                rs.getDouble("total_carbs"));
+    }
+
+    private void rollback(Connection connection, String operation) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+                LOGGER.warn("Откат транзакции после неудачного {}", operation);
+            } catch (SQLException rollbackEx) {
+                LOGGER.error("Ошибка при откате транзакции после неудачного {}. SQLState: {}, ErrorCode: {}, message: {}",
+                        operation, rollbackEx.getSQLState(), rollbackEx.getErrorCode(), rollbackEx.getMessage(), rollbackEx);
+            }
+        }
+    }
+
+    private void close(Connection connection, String operation) {
+        if (connection != null) {
+            try {
+                connection.setAutoCommit(true);
+                connection.close();
+            } catch (SQLException closeEx) {
+                LOGGER.error("Ошибка при попытке закрытия соединения после {}. SQLState: {}, ErrorCode: {}, message: {}",
+                        operation, closeEx.getSQLState(), closeEx.getErrorCode(), closeEx.getMessage(), closeEx);
+            }
+        }
+    }
+}
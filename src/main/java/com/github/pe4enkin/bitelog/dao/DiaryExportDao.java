@@ -0,0 +1,65 @@
+package com.github.pe4enkin.bitelog.dao;
+
+import com.github.pe4enkin.bitelog.dao.util.SqlExceptionTranslator;
+import com.github.pe4enkin.bitelog.model.MealCategory;
+import com.github.pe4enkin.bitelog.model.MealExportRow;
+import com.github.pe4enkin.bitelog.sql.SqlQueries;
+import com.github.pe4enkin.bitelog.util.DateTimeFormatterUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public class DiaryExportDao {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiaryExportDao.class);
+    private static final int FETCH_SIZE = 1000;
+    private final DataSource dataSource;
+
+    public DiaryExportDao(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public long streamRowsByDateRange(LocalDate from, LocalDate to, Consumer<MealExportRow> consumer) {
+        String logRange = DateTimeFormatterUtil.formatDateWithDots(from) + " - " + DateTimeFormatterUtil.formatDateWithDots(to);
+        MealExportRow row = new MealExportRow();
+        long rowCount = 0;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_MEAL_EXPORT_ROWS_BY_DATE_RANGE)) {
+            pstmt.setFetchSize(FETCH_SIZE);
+            pstmt.setDate(1, Date.valueOf(from));
+            pstmt.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Date date = rs.getDate("date");
+                    Time time = rs.getTime("time");
+                    row.setMealEntryId(rs.getLong("meal_entry_id"))
+                            .setDate(date != null ? date.toLocalDate() : null)
+                            .setTime(time != null ? time.toLocalTime() : null)
+                            .setMealCategory(MealCategory.valueOf(rs.getString("meal_category")))
+                            .setNotes(rs.getString("notes"))
+                            .setMealComponentId(rs.getLong("meal_component_id"))
+                            .setFoodItemId(rs.getLong("food_item_id"))
+                            .setFoodName(rs.getString("food_name"))
+                            .setFoodComposite(rs.getInt("is_composite") == 1)
+                            .setAmountInGrams(rs.getDouble("amount_in_grams"))
+                            .setCaloriesPer100g(rs.getDouble("calories_per_100g"))
+                            .setProteinsPer100g(rs.getDouble("proteins_per_100g"))
+                            .setFatsPer100g(rs.getDouble("fats_per_100g"))
+                            .setCarbsPer100g(rs.getDouble("carbs_per_100g"));
+                    consumer.accept(row);
+                    rowCount++;
+                }
+            }
+            LOGGER.debug("Выгружено {} строк meal entries за период {}.", rowCount, logRange);
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при выгрузке MealEntries за период {}. SQLState: {}, ErrorCode: {}, message: {}",
+                    logRange, e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "выгрузке MealEntries за период " + logRange);
+        }
+        return rowCount;
+    }
+}
@@ -0,0 +1,212 @@
+package com.github.pe4enkin.bitelog.dao;
+
+import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
+import com.github.pe4enkin.bitelog.dao.util.SqlExceptionTranslator;
+import com.github.pe4enkin.bitelog.model.FoodItem;
+import com.github.pe4enkin.bitelog.sql.SqlQueries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class FoodCatalogBulkLoader implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FoodCatalogBulkLoader.class);
+    public static final int ROWS_PER_STATEMENT = 500;
+    private static final String[] RESTORED_PRAGMAS = {SqlQueries.PRAGMA_SYNCHRONOUS, SqlQueries.PRAGMA_JOURNAL_MODE,
+            SqlQueries.PRAGMA_TEMP_STORE, SqlQueries.PRAGMA_CACHE_SIZE};
+
+    private final Connection connection;
+    private final Map<String, String> savedPragmas = new LinkedHashMap<>();
+    private PreparedStatement fullChunkStatement;
+
+    public FoodCatalogBulkLoader(DataSource dataSource) {
+        try {
+            this.connection = dataSource.getConnection();
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при открытии соединения для массовой загрузки каталога. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "открытии соединения для массовой загрузки каталога");
+        }
+        try (Statement stmt = connection.createStatement()) {
+            for (String pragma : RESTORED_PRAGMAS) {
+                try (ResultSet rs = stmt.executeQuery(pragma)) {
+                    if (rs.next()) {
+                        savedPragmas.put(pragma, rs.getString(1));
+                    }
+                }
+            }
+            stmt.execute(SqlQueries.PRAGMA_BULK_LOAD_SYNCHRONOUS);
+            stmt.execute(SqlQueries.PRAGMA_BULK_LOAD_JOURNAL_MODE);
+            stmt.execute(SqlQueries.PRAGMA_BULK_LOAD_TEMP_STORE);
+            stmt.execute(SqlQueries.PRAGMA_BULK_LOAD_CACHE_SIZE);
+            connection.setAutoCommit(false);
+            LOGGER.info("Соединение переведено в профиль массовой загрузки.");
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при применении профиля массовой загрузки. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            closeQuietly();
+            throw SqlExceptionTranslator.translate(e, "применении профиля массовой загрузки");
+        }
+    }
+
+    public Set<String> findAllFoodItemNames() {
+        Set<String> names = new HashSet<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_ALL_FOOD_ITEM_NAMES);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                names.add(rs.getString("name"));
+            }
+            LOGGER.debug("Загружено {} существующих имен food items для дедупликации.", names.size());
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при получении имен FoodItem для массовой загрузки. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "получении имен FoodItem для массовой загрузки");
+        }
+        return names;
+    }
+
+    public Map<String, Long> findAllFoodCategoryIds() {
+        Map<String, Long> categoryIds = new HashMap<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_ALL_FOOD_CATEGORY);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                categoryIds.put(rs.getString("name"), rs.getLong("id"));
+            }
+            LOGGER.debug("Загружено {} food categories в кэш массовой загрузки.", categoryIds.size());
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при получении FoodCategory для массовой загрузки. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "получении FoodCategory для массовой загрузки");
+        }
+        return categoryIds;
+    }
+
+    public long insertFoodCategory(String name) {
+        try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.INSERT_FOOD_CATEGORY, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, name);
+            pstmt.executeUpdate();
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    long id = generatedKeys.getLong(1);
+                    LOGGER.debug("FoodCategory {} создана при массовой загрузке с ID {}", name, id);
+                    return id;
+                }
+                LOGGER.error("Сохранение FoodCategory при массовой загрузке не удалось, ID не было получено для {}", name);
+                throw new DataAccessException("Сохранение FoodCategory при массовой загрузке не удалось, ID не было получено.");
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при сохранении FoodCategory {} при массовой загрузке. SQLState: {}, ErrorCode: {}, message: {}",
+                    name, e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "сохранении FoodCategory " + name + " при массовой загрузке");
+        }
+    }
+
+    public void insertFoodItems(List<FoodItem> foodItems) {
+        try {
+            int offset = 0;
+            while (foodItems.size() - offset >= ROWS_PER_STATEMENT) {
+                if (fullChunkStatement == null) {
+                    fullChunkStatement = connection.prepareStatement(buildMultiRowInsert(ROWS_PER_STATEMENT));
+                }
+                bindFoodItems(fullChunkStatement, foodItems, offset, ROWS_PER_STATEMENT);
+                fullChunkStatement.executeUpdate();
+                offset += ROWS_PER_STATEMENT;
+            }
+            int remaining = foodItems.size() - offset;
+            if (remaining > 0) {
+                try (PreparedStatement pstmt = connection.prepareStatement(buildMultiRowInsert(remaining))) {
+                    bindFoodItems(pstmt, foodItems, offset, remaining);
+                    pstmt.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при массовой вставке {} FoodItem. SQLState: {}, ErrorCode: {}, message: {}",
+                    foodItems.size(), e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "массовой вставке FoodItem");
+        }
+    }
+
+    public void commit() {
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при фиксации транзакции массовой загрузки. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "фиксации транзакции массовой загрузки");
+        }
+    }
+
+    public void rollback() {
+        try {
+            connection.rollback();
+            LOGGER.warn("Откат незафиксированной транзакции массовой загрузки.");
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при откате транзакции массовой загрузки. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (fullChunkStatement != null) {
+                fullChunkStatement.close();
+            }
+            connection.setAutoCommit(true);
+            try (Statement stmt = connection.createStatement()) {
+                for (Map.Entry<String, String> pragma : savedPragmas.entrySet()) {
+                    stmt.execute(pragma.getKey() + " = " + pragma.getValue());
+                }
+            }
+            LOGGER.info("Профиль массовой загрузки снят, восстановлены прежние настройки соединения: {}.", savedPragmas);
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при восстановлении настроек соединения после массовой загрузки. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            connection.close();
+        } catch (SQLException closeEx) {
+            LOGGER.error("Ошибка при попытке закрытия соединения массовой загрузки. SQLState: {}, ErrorCode: {}, message: {}",
+                    closeEx.getSQLState(), closeEx.getErrorCode(), closeEx.getMessage(), closeEx);
+        }
+    }
+
+    private static String buildMultiRowInsert(int rows) {
+        StringBuilder sql = new StringBuilder(SqlQueries.INSERT_FOOD_ITEMS_MULTI_ROW_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(SqlQueries.INSERT_FOOD_ITEMS_MULTI_ROW_VALUES);
+        }
+        return sql.toString();
+    }
+
+    private static void bindFoodItems(PreparedStatement pstmt, List<FoodItem> foodItems, int offset, int rows) throws SQLException {
+        int index = 1;
+        for (int i = offset; i < offset + rows; i++) {
+            FoodItem foodItem = foodItems.get(i);
+            pstmt.setString(index++, foodItem.getName());
+            pstmt.setDouble(index++, foodItem.getCaloriesPer100g());
+            pstmt.setDouble(index++, foodItem.getServingSizeInGrams());
+            pstmt.setString(index++, foodItem.getUnit().name());
+            pstmt.setDouble(index++, foodItem.getProteinsPer100g());
+            pstmt.setDouble(index++, foodItem.getFatsPer100g());
+            pstmt.setDouble(index++, foodItem.getCarbsPer100g());
+            pstmt.setInt(index++, foodItem.isComposite() ? 1 : 0);
+            pstmt.setObject(index++, foodItem.getFoodCategory() != null ? foodItem.getFoodCategory().getId() : null);
+        }
+    }
+}
@@ -19,9 +19,15 @@ import java.util.Optional;
 public class FoodCategoryDao {
     private static final Logger LOGGER = LoggerFactory.getLogger(FoodCategoryDao.class);
     private final DataSource dataSource;
+    private final FoodCategoryRegistry foodCategoryRegistry;
 
     public FoodCategoryDao(DataSource dataSource) {
+        this(dataSource, new FoodCategoryRegistry());
+    }
+
+    public FoodCategoryDao(DataSource dataSource, FoodCategoryRegistry foodCategoryRegistry) {
         this.dataSource = dataSource;
+        this.foodCategoryRegistry = foodCategoryRegistry;
     }
 
     public void createTables() {
@@ -50,6 +56,7 @@ public class FoodCategoryDao {
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     foodCategory.setId(generatedKeys.getLong(1));
+                    foodCategoryRegistry.register(foodCategory);
                     LOGGER.info("FoodCategory {} сохранен c ID {}", foodCategory.getName(), foodCategory.getId());
                 } else {
                     LOGGER.error("Сохранение FoodCategory не удалось, ID не было получено для {}", foodCategory.getName());
@@ -71,10 +78,7 @@ public class FoodCategoryDao {
             pstmt.setLong(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    foodCategory = new FoodCategory(
-                            rs.getLong("id"),
-                            rs.getString("name")
-                    );
+                    foodCategory = foodCategoryRegistry.intern(rs.getLong("id"), rs.getString("name"));
                     LOGGER.debug("Найден food category {}", foodCategory.getName());
                 } else {
                     LOGGER.debug("food category c ID {} не найден.", id);
@@ -95,10 +99,7 @@ public class FoodCategoryDao {
             pstmt.setString(1, name);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    foodCategory = new FoodCategory(
-                            rs.getLong("id"),
-                            rs.getString("name")
-                    );
+                    foodCategory = foodCategoryRegistry.intern(rs.getLong("id"), rs.getString("name"));
                     LOGGER.debug("Найден food category {}", foodCategory.getName());
                 } else {
                     LOGGER.debug("food category c именем {} не найден.", name);
@@ -123,6 +124,7 @@ public class FoodCategoryDao {
                 LOGGER.warn("food category c ID {} для обновления не найден.", foodCategory.getId());
                 return false;
             }
+            foodCategoryRegistry.register(foodCategory);
             LOGGER.info("food category {} c ID {} обновлен.", foodCategory.getName(), foodCategory.getId());
             return true;
         } catch (SQLException e) {
@@ -143,6 +145,7 @@ public class FoodCategoryDao {
                 LOGGER.warn("food category c ID {} для удаления не найден.", id);
                 return false;
             } else {
+                foodCategoryRegistry.remove(id);
                 LOGGER.info("food category c ID {} успешно удален.", id);
                 return true;
             }
@@ -159,11 +162,7 @@ public class FoodCategoryDao {
              PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_ALL_FOOD_CATEGORY);
              ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
-                FoodCategory foodCategory = new FoodCategory(
-                        rs.getLong("id"),
-                        rs.getString("name")
-                );
-                foodCategories.add(foodCategory);
+                foodCategories.add(foodCategoryRegistry.intern(rs.getLong("id"), rs.getString("name")));
             }
             LOGGER.debug("Получено {} food category из БД.", foodCategories.size());
         } catch (SQLException e) {
@@ -0,0 +1,54 @@
+package com.github.pe4enkin.bitelog.dao;
+
+import com.github.pe4enkin.bitelog.model.FoodCategory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class FoodCategoryRegistry {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FoodCategoryRegistry.class);
+    private final Map<Long, FoodCategory> categories = new ConcurrentHashMap<>();
+
+    public FoodCategory intern(long id, String name) {
+        FoodCategory canonical = categories.computeIfAbsent(id, key -> new FoodCategory(key, name));
+        if (!Objects.equals(canonical.getName(), name)) {
+            LOGGER.debug("Имя food category c ID {} обновлено в реестре: {} -> {}", id, canonical.getName(), name);
+            canonical.setName(name);
+        }
+        return canonical;
+    }
+
+    public FoodCategory register(FoodCategory foodCategory) {
+        if (foodCategory.getId() == 0) {
+            return foodCategory;
+        }
+        FoodCategory canonical = categories.putIfAbsent(foodCategory.getId(), foodCategory);
+        if (canonical == null) {
+            return foodCategory;
+        }
+        if (canonical != foodCategory) {
+            canonical.setName(foodCategory.getName());
+        }
+        return canonical;
+    }
+
+    public Optional<FoodCategory> get(long id) {
+        return Optional.ofNullable(categories.get(id));
+    }
+
+    public void remove(long id) {
+        categories.remove(id);
+    }
+
+    public int size() {
+        return categories.size();
+    }
+
+    public void clear() {
+        categories.clear();
+    }
+}
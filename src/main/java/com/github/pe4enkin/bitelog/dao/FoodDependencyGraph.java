@@ -0,0 +1,289 @@
+package com.github.pe4enkin.bitelog.dao;
+
+import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
+import com.github.pe4enkin.bitelog.model.FoodComponent;
+import com.github.pe4enkin.bitelog.model.IngredientVector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+public class FoodDependencyGraph {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FoodDependencyGraph.class);
+    private final Map<Long, List<FoodComponent>> componentsByParent = new HashMap<>();
+    private final Map<Long, Set<Long>> parentsByIngredient = new HashMap<>();
+    private final Map<Long, IngredientVector> ingredientVectors = new HashMap<>();
+    private final Map<Long, List<FoodComponent>> pendingChanges = new LinkedHashMap<>();
+    private boolean loaded;
+    private boolean loading;
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized void beginLoad() {
+        if (!loaded) {
+            loading = true;
+        }
+    }
+
+    public synchronized void cancelLoad() {
+        loading = false;
+        pendingChanges.clear();
+    }
+
+    public synchronized void load(Map<Long, List<FoodComponent>> components) {
+        if (loaded) {
+            LOGGER.debug("Граф зависимостей food items уже загружен и обновляется при записи, снимок пропущен.");
+            return;
+        }
+        componentsByParent.clear();
+        parentsByIngredient.clear();
+        ingredientVectors.clear();
+        for (Map.Entry<Long, List<FoodComponent>> entry : components.entrySet()) {
+            link(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Long, List<FoodComponent>> change : pendingChanges.entrySet()) {
+            if (change.getValue() == null) {
+                applyRemove(change.getKey());
+            } else {
+                applyComponents(change.getKey(), change.getValue());
+            }
+        }
+        int replayed = pendingChanges.size();
+        pendingChanges.clear();
+        loading = false;
+        loaded = true;
+        LOGGER.info("Граф зависимостей food items загружен: {} составных продуктов, {} ингредиентов, {} изменений во время загрузки.",
+                componentsByParent.size(), parentsByIngredient.size(), replayed);
+    }
+
+    public synchronized void setComponents(long parentId, List<FoodComponent> components) {
+        if (!loaded) {
+            if (loading) {
+                pendingChanges.remove(parentId);
+                pendingChanges.put(parentId, components == null ? List.of() : List.copyOf(components));
+            }
+            return;
+        }
+        applyComponents(parentId, components);
+    }
+
+    public synchronized void remove(long id) {
+        if (!loaded) {
+            if (loading) {
+                pendingChanges.remove(id);
+                pendingChanges.put(id, null);
+            }
+            return;
+        }
+        applyRemove(id);
+    }
+
+    public synchronized void clear() {
+        componentsByParent.clear();
+        parentsByIngredient.clear();
+        ingredientVectors.clear();
+        pendingChanges.clear();
+        loading = false;
+        loaded = false;
+    }
+
+    public synchronized List<FoodComponent> getComponents(long parentId) {
+        return componentsByParent.getOrDefault(parentId, List.of());
+    }
+
+    public synchronized Set<Long> getParents(long ingredientId) {
+        Set<Long> parents = parentsByIngredient.get(ingredientId);
+        return parents == null ? Set.of() : Collections.unmodifiableSet(new LinkedHashSet<>(parents));
+    }
+
+    public synchronized List<Long> getDependentsInTopologicalOrder(long ingredientId) {
+        Set<Long> affected = new LinkedHashSet<>();
+        ArrayDeque<Long> queue = new ArrayDeque<>();
+        queue.add(ingredientId);
+        while (!queue.isEmpty()) {
+            for (long parentId : parentsByIngredient.getOrDefault(queue.poll(), Set.of())) {
+                if (affected.add(parentId)) {
+                    queue.add(parentId);
+                }
+            }
+        }
+        if (affected.isEmpty()) {
+            return List.of();
+        }
+        if (affected.contains(ingredientId)) {
+            LOGGER.error("Обнаружена циклическая зависимость в графе food items: продукт c ID {} косвенно содержит сам себя.", ingredientId);
+            throw new DataAccessException("Обнаружена циклическая зависимость: продукт c ID " + ingredientId + " косвенно содержит сам себя.");
+        }
+
+        Map<Long, Integer> pendingIngredients = new HashMap<>(affected.size() * 2);
+        for (long parentId : affected) {
+            Set<Long> affectedIngredients = new HashSet<>();
+            for (FoodComponent component : componentsByParent.getOrDefault(parentId, List.of())) {
+                if (affected.contains(component.getIngredientFoodItemId())) {
+                    affectedIngredients.add(component.getIngredientFoodItemId());
+                }
+            }
+            pendingIngredients.put(parentId, affectedIngredients.size());
+            if (affectedIngredients.isEmpty()) {
+                queue.add(parentId);
+            }
+        }
+
+        List<Long> ordered = new ArrayList<>(affected.size());
+        while (!queue.isEmpty()) {
+            long id = queue.poll();
+            ordered.add(id);
+            for (long parentId : parentsByIngredient.getOrDefault(id, Set.of())) {
+                if (pendingIngredients.merge(parentId, -1, Integer::sum) == 0) {
+                    queue.add(parentId);
+                }
+            }
+        }
+        if (ordered.size() < affected.size()) {
+            LOGGER.error("Обнаружена циклическая зависимость среди {} составных продуктов, зависящих от продукта c ID {}.",
+                    affected.size() - ordered.size(), ingredientId);
+            throw new DataAccessException("Обнаружена циклическая зависимость среди продуктов, зависящих от продукта c ID " + ingredientId);
+        }
+        return ordered;
+    }
+
+    public synchronized List<Long> sortIngredientsFirst(Collection<Long> ids) {
+        Set<Long> pending = new LinkedHashSet<>(ids);
+        Map<Long, Integer> pendingIngredients = new HashMap<>(pending.size() * 2);
+        ArrayDeque<Long> queue = new ArrayDeque<>();
+        for (long id : pending) {
+            Set<Long> pendingComponents = new HashSet<>();
+            for (FoodComponent component : componentsByParent.getOrDefault(id, List.of())) {
+                if (pending.contains(component.getIngredientFoodItemId())) {
+                    pendingComponents.add(component.getIngredientFoodItemId());
+                }
+            }
+            pendingIngredients.put(id, pendingComponents.size());
+            if (pendingComponents.isEmpty()) {
+                queue.add(id);
+            }
+        }
+
+        List<Long> ordered = new ArrayList<>(pending.size());
+        while (!queue.isEmpty()) {
+            long id = queue.poll();
+            ordered.add(id);
+            for (long parentId : parentsByIngredient.getOrDefault(id, Set.of())) {
+                if (pendingIngredients.containsKey(parentId) && pendingIngredients.merge(parentId, -1, Integer::sum) == 0) {
+                    queue.add(parentId);
+                }
+            }
+        }
+        if (ordered.size() < pending.size()) {
+            LOGGER.error("Обнаружена циклическая зависимость среди {} составных продуктов при упорядочивании.", pending.size() - ordered.size());
+            throw new DataAccessException("Обнаружена циклическая зависимость среди составных продуктов.");
+        }
+        return ordered;
+    }
+
+    public synchronized IngredientVector getIngredientVector(long foodItemId) {
+        IngredientVector cached = ingredientVectors.get(foodItemId);
+        if (cached != null) {
+            return cached;
+        }
+        return flatten(foodItemId, new HashSet<>());
+    }
+
+    public synchronized int size() {
+        return componentsByParent.size();
+    }
+
+    private IngredientVector flatten(long foodItemId, Set<Long> visiting) {
+        IngredientVector cached = ingredientVectors.get(foodItemId);
+        if (cached != null) {
+            return cached;
+        }
+        List<FoodComponent> components = componentsByParent.get(foodItemId);
+        if (components == null) {
+            return IngredientVector.empty();
+        }
+        if (!visiting.add(foodItemId)) {
+            LOGGER.error("Обнаружена циклическая зависимость при построении вектора ингредиентов продукта c ID {}.", foodItemId);
+            throw new DataAccessException("Обнаружена циклическая зависимость: продукт c ID " + foodItemId + " косвенно содержит сам себя.");
+        }
+        double totalWeight = 0.0;
+        for (FoodComponent component : components) {
+            totalWeight += component.getAmountInGrams();
+        }
+        Map<Long, Double> gramsPer100g = new HashMap<>();
+        if (totalWeight > 0) {
+            for (FoodComponent component : components) {
+                long ingredientId = component.getIngredientFoodItemId();
+                double share = component.getAmountInGrams() * 100.0 / totalWeight;
+                if (componentsByParent.containsKey(ingredientId)) {
+                    IngredientVector nested = flatten(ingredientId, visiting);
+                    for (int i = 0; i < nested.size(); i++) {
+                        gramsPer100g.merge(nested.getIngredientId(i), nested.getGramsPer100g(i) * share / 100.0, Double::sum);
+                    }
+                } else {
+                    gramsPer100g.merge(ingredientId, share, Double::sum);
+                }
+            }
+        }
+        visiting.remove(foodItemId);
+        IngredientVector vector = IngredientVector.of(gramsPer100g);
+        ingredientVectors.put(foodItemId, vector);
+        return vector;
+    }
+
+    private void invalidateIngredientVectors(long foodItemId) {
+        if (ingredientVectors.isEmpty()) {
+            return;
+        }
+        ArrayDeque<Long> queue = new ArrayDeque<>();
+        Set<Long> visited = new HashSet<>();
+        queue.add(foodItemId);
+        while (!queue.isEmpty()) {
+            long id = queue.poll();
+            if (!visited.add(id)) {
+                continue;
+            }
+            ingredientVectors.remove(id);
+            queue.addAll(parentsByIngredient.getOrDefault(id, Set.of()));
+        }
+    }
+
+    private void applyComponents(long parentId, List<FoodComponent> components) {
+        invalidateIngredientVectors(parentId);
+        unlink(parentId);
+        if (components != null && !components.isEmpty()) {
+            link(parentId, components);
+        }
+    }
+
+    private void applyRemove(long id) {
+        invalidateIngredientVectors(id);
+        unlink(id);
+        parentsByIngredient.remove(id);
+    }
+
+    private void link(long parentId, List<FoodComponent> components) {
+        componentsByParent.put(parentId, List.copyOf(components));
+        for (FoodComponent component : components) {
+            parentsByIngredient.computeIfAbsent(component.getIngredientFoodItemId(), key -> new HashSet<>()).add(parentId);
+        }
+    }
+
+    private void unlink(long parentId) {
+        List<FoodComponent> previous = componentsByParent.remove(parentId);
+        if (previous == null) {
+            return;
+        }
+        for (FoodComponent component : previous) {
+            Set<Long> parents = parentsByIngredient.get(component.getIngredientFoodItemId());
+            if (parents != null) {
+                parents.remove(parentId);
+                if (parents.isEmpty()) {
+                    parentsByIngredient.remove(component.getIngredientFoodItemId());
+                }
+            }
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.github.pe4enkin.bitelog.dao;
 
+import com.github.pe4enkin.bitelog.dao.exception.ConstraintViolationException;
+import com.github.pe4enkin.bitelog.dao.exception.CyclicDependencyException;
 import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
 import com.github.pe4enkin.bitelog.dao.util.SqlExceptionTranslator;
+import com.github.pe4enkin.bitelog.model.CategoryFacet;
 import com.github.pe4enkin.bitelog.model.FoodCategory;
 import com.github.pe4enkin.bitelog.model.FoodComponent;
 import com.github.pe4enkin.bitelog.model.FoodItem;
+import com.github.pe4enkin.bitelog.model.FoodItemFilter;
+import com.github.pe4enkin.bitelog.model.NutrientVector;
 import com.github.pe4enkin.bitelog.model.Unit;
 import com.github.pe4enkin.bitelog.sql.SqlQueries;
 import org.slf4j.Logger;
@@ -13,15 +18,41 @@ import org.slf4j.LoggerFactory;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class FoodItemDao {
     private static final Logger LOGGER = LoggerFactory.getLogger(FoodItemDao.class);
+    private static final int ID_BATCH_SIZE = 500;
     private final DataSource dataSource;
+    private final FoodCategoryRegistry foodCategoryRegistry;
+    private final FoodDependencyGraph foodDependencyGraph;
 
     public FoodItemDao(DataSource dataSource) {
+        this(dataSource, new FoodCategoryRegistry());
+    }
+
+    public FoodItemDao(DataSource dataSource, FoodCategoryRegistry foodCategoryRegistry) {
+        this(dataSource, foodCategoryRegistry, new FoodDependencyGraph());
+    }
+
+    public FoodItemDao(DataSource dataSource, FoodCategoryRegistry foodCategoryRegistry, FoodDependencyGraph foodDependencyGraph) {
         this.dataSource = dataSource;
+        this.foodCategoryRegistry = foodCategoryRegistry;
+        this.foodDependencyGraph = foodDependencyGraph;
+    }
+
+    public FoodDependencyGraph getDependencyGraph() {
+        if (!foodDependencyGraph.isLoaded()) {
+            loadDependencyGraph();
+        }
+        return foodDependencyGraph;
     }
 
     public void createTables() {
@@ -29,6 +60,10 @@ public class FoodItemDao {
              Statement stmt = connection.createStatement()) {
             stmt.execute(SqlQueries.CREATE_FOOD_ITEMS_TABLE);
             stmt.execute(SqlQueries.CREATE_FOOD_COMPONENTS_TABLE);
+            stmt.execute(SqlQueries.CREATE_FOOD_ITEMS_CATEGORY_INDEX);
+            stmt.execute(SqlQueries.CREATE_FOOD_ITEMS_COMPOSITE_INDEX);
+            stmt.execute(SqlQueries.CREATE_FOOD_ITEMS_CALORIES_INDEX);
+            stmt.execute(SqlQueries.CREATE_FOOD_COMPONENTS_INGREDIENT_INDEX);
             LOGGER.info("Таблицы food_items и food_components успешно созданы (или уже существовали).");
         } catch (SQLException e) {
             LOGGER.error("Ошибка при создании таблиц food_items и food_components. SQLState: {}, ErrorCode: {}, message: {}",
@@ -103,6 +138,7 @@ public class FoodItemDao {
                 LOGGER.info("Сохранено {} компонентов при сохранении food item {}", foodItem.getComponents().size(), foodItem.getName());
             }
             connection.commit();
+            foodDependencyGraph.setComponents(foodItem.getId(), foodItem.isComposite() ? foodItem.getComponents() : null);
             return foodItem;
         } catch (SQLException e) {
             LOGGER.error("Ошибка при сохранении FoodItem {}. SQLState: {}, ErrorCode: {}, message: {}",
@@ -130,6 +166,120 @@ public class FoodItemDao {
         }
     }
 
+    public FoodItem upsert(FoodItem foodItem) {
+        Connection connection = null;
+        long requestedId = foodItem.getId();
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.UPSERT_FOOD_ITEM)) {
+                pstmt.setString(1, foodItem.getName());
+                pstmt.setDouble(2, foodItem.getCaloriesPer100g());
+                pstmt.setDouble(3, foodItem.getServingSizeInGrams());
+                pstmt.setString(4, foodItem.getUnit().name());
+                pstmt.setDouble(5, foodItem.getProteinsPer100g());
+                pstmt.setDouble(6, foodItem.getFatsPer100g());
+                pstmt.setDouble(7, foodItem.getCarbsPer100g());
+                pstmt.setInt(8, foodItem.isComposite() ? 1 : 0);
+                pstmt.setObject(9, foodItem.getFoodCategory() != null ? foodItem.getFoodCategory().getId() : null);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        long upsertedId = rs.getLong(1);
+                        if (requestedId > 0 && upsertedId != requestedId) {
+                            connection.rollback();
+                            LOGGER.warn("Upsert FoodItem {} c ID {} отклонен: имя принадлежит продукту c ID {}.",
+                                    foodItem.getName(), requestedId, upsertedId);
+                            throw new ConstraintViolationException("Имя " + foodItem.getName() + " принадлежит продукту c ID " +
+                                    upsertedId + ", а не c ID " + requestedId + ".");
+                        }
+                        foodItem.setId(upsertedId);
+                        LOGGER.info("FoodItem {} сохранен (upsert) с ID {}", foodItem.getName(), foodItem.getId());
+                    } else {
+                        LOGGER.error("Upsert FoodItem не удался, ID не было получено для {}", foodItem.getName());
+                        throw new DataAccessException("Upsert FoodItem не удался, ID не было получено.");
+                    }
+                }
+            }
+
+            try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.DELETE_FOOD_COMPONENT)) {
+                pstmt.setLong(1, foodItem.getId());
+                int deletedComponents = pstmt.executeUpdate();
+                if (deletedComponents > 0) {
+                    LOGGER.info("Удалено {} существующих компонентов при upsert food item c ID {}", deletedComponents, foodItem.getId());
+                }
+            }
+
+            if (foodItem.isComposite() && foodItem.getComponents() != null && !foodItem.getComponents().isEmpty()) {
+                try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.INSERT_FOOD_COMPONENT, Statement.RETURN_GENERATED_KEYS)) {
+                    for (FoodComponent component : foodItem.getComponents()) {
+                        if (component.getIngredientFoodItemId() == 0) {
+                            LOGGER.error("Обнаружен FoodComponent c ID ингредиента 0 при upsert food item {}", foodItem.getName());
+                            throw new DataAccessException("Создание food component при upsert food item " + foodItem.getName() + " не удалось, обнаружен компонент с ID ингредиента 0");
+                        }
+                        pstmt.setLong(1, foodItem.getId());
+                        pstmt.setLong(2, component.getIngredientFoodItemId());
+                        pstmt.setDouble(3, component.getAmountInGrams());
+                        pstmt.executeUpdate();
+                        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                component.setId(generatedKeys.getLong(1));
+                            } else {
+                                LOGGER.error("Создание FoodComponent при upsert food item {} не удалось, ID не было получено для компонента с ID ингредиента {}",
+                                        foodItem.getName(), component.getIngredientFoodItemId());
+                                throw new DataAccessException("Создание FoodComponent не удалось, ID не было получено.");
+                            }
+                        }
+                    }
+                }
+                LOGGER.info("Сохранено {} компонентов при upsert food item {}", foodItem.getComponents().size(), foodItem.getName());
+                if (containsItself(connection, foodItem.getId())) {
+                    connection.rollback();
+                    LOGGER.error("Upsert FoodItem {} c ID {} отклонен: продукт косвенно содержит сам себя.", foodItem.getName(), foodItem.getId());
+                    foodItem.setId(requestedId);
+                    throw new CyclicDependencyException("Продукт " + foodItem.getName() + " косвенно содержит сам себя.");
+                }
+            }
+            connection.commit();
+            foodDependencyGraph.setComponents(foodItem.getId(), foodItem.isComposite() ? foodItem.getComponents() : null);
+            return foodItem;
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при upsert FoodItem {}. SQLState: {}, ErrorCode: {}, message: {}",
+                    foodItem.getName(), e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                    LOGGER.warn("Откат транзакции после неудачного upsert FoodItem {}", foodItem.getName());
+                } catch (SQLException rollbackEx) {
+                    LOGGER.error("Ошибка при откате транзакции после неудачного upsert FoodItem {}. SQLState: {}, ErrorCode: {}, message: {}",
+                            foodItem.getName(), rollbackEx.getSQLState(), rollbackEx.getErrorCode(), rollbackEx.getMessage(), rollbackEx);
+                }
+            }
+            throw SqlExceptionTranslator.translate(e, "upsert FoodItem " + foodItem.getName());
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.setAutoCommit(true);
+                    connection.close();
+                } catch (SQLException closeEx) {
+                    LOGGER.error("Ошибка при попытке закрытия соединения после upsert FoodItem {}. SQLState: {}, ErrorCode: {}, message: {}",
+                            foodItem.getName(), closeEx.getSQLState(), closeEx.getErrorCode(), closeEx.getMessage(), closeEx);
+                }
+            }
+        }
+    }
+
+    private boolean containsItself(Connection connection, long foodItemId) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_FOOD_ITEM_CONTAINS_ITSELF)) {
+            pstmt.setLong(1, foodItemId);
+            pstmt.setLong(2, foodItemId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
     public Optional<FoodItem> findById(long id) {
         FoodItem foodItem = null;
 
@@ -138,39 +288,9 @@ public class FoodItemDao {
             pstmt.setLong(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    FoodCategory foodCategory = null;
-                    if (rs.getObject("category_id") != null) {
-                        foodCategory = new FoodCategory(rs.getLong("category_id"), rs.getString("category_name"));
-                    }
-                    foodItem = new FoodItem.Builder()
-                            .setId(rs.getLong("id"))
-                            .setName(rs.getString("name"))
-                            .setCaloriesPer100g(rs.getDouble("calories_per_100g"))
-                            .setServingSizeInGrams(rs.getDouble("serving_size_in_grams"))
-                            .setUnit(Unit.valueOf(rs.getString("unit")))
-                            .setProteinsPer100g(rs.getDouble("proteins_per_100g"))
-                            .setFatsPer100g(rs.getDouble("fats_per_100g"))
-                            .setCarbsPer100g(rs.getDouble("carbs_per_100g"))
-                            .setComposite(rs.getInt("is_composite") == 1)
-                            .setFoodCategory(foodCategory)
-                            .setComponents(null)
-                            .build();
-
+                    foodItem = mapFoodItem(rs);
                     if (foodItem.isComposite()) {
-                        List<FoodComponent> components = new ArrayList<>();
-                        try (PreparedStatement pstmtComponents = connection.prepareStatement(SqlQueries.SELECT_FOOD_COMPONENT)) {
-                            pstmtComponents.setLong(1, foodItem.getId());
-                            try (ResultSet rsComponents = pstmtComponents.executeQuery()) {
-                                while (rsComponents.next()) {
-                                    components.add(new FoodComponent(
-                                            rsComponents.getLong("id"),
-                                            rsComponents.getLong("ingredient_food_item_id"),
-                                            rsComponents.getDouble("amount_in_grams")
-                                    ));
-                                }
-                            }
-                        }
-                        foodItem.setComponents(components.isEmpty() ? null : components);
+                        loadComponents(connection, foodItem);
                     }
                     LOGGER.debug("Найден food item {} по ID {}", foodItem.getName(), id);
                 } else {
@@ -193,39 +313,9 @@ public class FoodItemDao {
             pstmt.setString(1, name);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    FoodCategory foodCategory = null;
-                    if (rs.getObject("category_id") != null) {
-                        foodCategory = new FoodCategory(rs.getLong("category_id"), rs.getString("category_name"));
-                    }
-                    foodItem = new FoodItem.Builder()
-                            .setId(rs.getLong("id"))
-                            .setName(rs.getString("name"))
-                            .setCaloriesPer100g(rs.getDouble("calories_per_100g"))
-                            .setServingSizeInGrams(rs.getDouble("serving_size_in_grams"))
-                            .setUnit(Unit.valueOf(rs.getString("unit")))
-                            .setProteinsPer100g(rs.getDouble("proteins_per_100g"))
-                            .setFatsPer100g(rs.getDouble("fats_per_100g"))
-                            .setCarbsPer100g(rs.getDouble("carbs_per_100g"))
-                            .setComposite(rs.getInt("is_composite") == 1)
-                            .setFoodCategory(foodCategory)
-                            .setComponents(null)
-                            .build();
-
+                    foodItem = mapFoodItem(rs);
                     if (foodItem.isComposite()) {
-                        List<FoodComponent> components = new ArrayList<>();
-                        try (PreparedStatement pstmtComponents = connection.prepareStatement(SqlQueries.SELECT_FOOD_COMPONENT)) {
-                            pstmtComponents.setLong(1, foodItem.getId());
-                            try (ResultSet rsComponents = pstmtComponents.executeQuery()) {
-                                while (rsComponents.next()) {
-                                    components.add(new FoodComponent(
-                                            rsComponents.getLong("id"),
-                                            rsComponents.getLong("ingredient_food_item_id"),
-                                            rsComponents.getDouble("amount_in_grams")
-                                    ));
-                                }
-                            }
-                        }
-                        foodItem.setComponents(components.isEmpty() ? null : components);
+                        loadComponents(connection, foodItem);
                     }
                     LOGGER.debug("Найден food item c ID {} по имени {}", foodItem.getId(), name);
                 } else {
@@ -310,6 +400,7 @@ public class FoodItemDao {
             }
 
             connection.commit();
+            foodDependencyGraph.setComponents(foodItem.getId(), foodItem.isComposite() ? foodItem.getComponents() : null);
             return true;
         } catch (SQLException e) {
             LOGGER.error("Ошибка при обновлении FoodItem . SQLState: {}, ErrorCode: {}, message: {}",
@@ -354,6 +445,7 @@ public class FoodItemDao {
                 } else {
                     LOGGER.info("food item c ID {} успешно удален.", id);
                     connection.commit();
+                    foodDependencyGraph.remove(id);
                     return true;
                 }
             }
@@ -391,40 +483,9 @@ public class FoodItemDao {
              ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
-                FoodCategory foodCategory = null;
-                if (rs.getObject("category_id") != null) {
-                    foodCategory = new FoodCategory(rs.getLong("category_id"), rs.getString("category_name"));
-                }
-
-                FoodItem foodItem = new FoodItem.Builder()
-                        .setId(rs.getLong("id"))
-                        .setName(rs.getString("name"))
-                        .setCaloriesPer100g(rs.getDouble("calories_per_100g"))
-                        .setServingSizeInGrams(rs.getDouble("serving_size_in_grams"))
-                        .setUnit(Unit.valueOf(rs.getString("unit")))
-                        .setProteinsPer100g(rs.getDouble("proteins_per_100g"))
-                        .setFatsPer100g(rs.getDouble("fats_per_100g"))
-                        .setCarbsPer100g(rs.getDouble("carbs_per_100g"))
-                        .setComposite(rs.getInt("is_composite") == 1)
-                        .setFoodCategory(foodCategory)
-                        .setComponents(null)
-                        .build();
-
+                FoodItem foodItem = mapFoodItem(rs);
                 if (loadComponents && foodItem.isComposite()) {
-                    List<FoodComponent> components = new ArrayList<>();
-                    try (PreparedStatement pstmtComponents = connection.prepareStatement(SqlQueries.SELECT_FOOD_COMPONENT)) {
-                        pstmtComponents.setLong(1, foodItem.getId());
-                        try (ResultSet rsComponents = pstmtComponents.executeQuery()) {
-                            while (rsComponents.next()) {
-                                components.add(new FoodComponent(
-                                        rsComponents.getLong("id"),
-                                        rsComponents.getLong("ingredient_food_item_id"),
-                                        rsComponents.getDouble("amount_in_grams")
-                                ));
-                            }
-                        }
-                    }
-                    foodItem.setComponents(components.isEmpty() ? null : components);
+                    loadComponents(connection, foodItem);
                 }
                 foodItems.add(foodItem);
             }
@@ -436,4 +497,354 @@ public class FoodItemDao {
         }
         return foodItems;
     }
+
+    public void loadDependencyGraph() {
+        Map<Long, List<FoodComponent>> componentsByParent = new HashMap<>();
+
+        foodDependencyGraph.beginLoad();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_ALL_FOOD_COMPONENTS);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                componentsByParent.computeIfAbsent(rs.getLong("parent_food_item_id"), key -> new ArrayList<>())
+                        .add(new FoodComponent(
+                                rs.getLong("id"),
+                                rs.getLong("ingredient_food_item_id"),
+                                rs.getDouble("amount_in_grams")
+                        ));
+            }
+        } catch (SQLException e) {
+            foodDependencyGraph.cancelLoad();
+            LOGGER.error("Ошибка при загрузке графа зависимостей FoodItem. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "загрузке графа зависимостей FoodItem");
+        }
+        foodDependencyGraph.load(componentsByParent);
+    }
+
+    public List<Long> findDependentIds(long ingredientFoodItemId) {
+        List<Long> dependentIds = getDependencyGraph().getDependentsInTopologicalOrder(ingredientFoodItemId);
+        LOGGER.debug("Найдено {} составных food items, зависящих от food item c ID {}.", dependentIds.size(), ingredientFoodItemId);
+        return dependentIds;
+    }
+
+    public Map<Long, FoodItem> findByIds(Collection<Long> ids) {
+        return findByIds(ids, false);
+    }
+
+    public Map<Long, FoodItem> findByIds(Collection<Long> ids, boolean loadComponents) {
+        Map<Long, FoodItem> foodItems = new HashMap<>(ids.size() * 2);
+        if (ids.isEmpty()) {
+            return foodItems;
+        }
+        List<Long> idList = new ArrayList<>(ids);
+
+        try (Connection connection = dataSource.getConnection()) {
+            for (int from = 0; from < idList.size(); from += ID_BATCH_SIZE) {
+                List<Long> batch = idList.subList(from, Math.min(from + ID_BATCH_SIZE, idList.size()));
+                String sql = SqlQueries.SELECT_ALL_FOOD_ITEMS + "WHERE fi.id IN (" + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")";
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        pstmt.setLong(i + 1, batch.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            FoodItem foodItem = mapFoodItem(rs);
+                            foodItems.put(foodItem.getId(), foodItem);
+                        }
+                    }
+                }
+            }
+            if (loadComponents) {
+                loadComponents(connection, foodItems);
+            }
+            LOGGER.debug("Получено {} из {} запрошенных food items.", foodItems.size(), idList.size());
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при получении {} FoodItem по списку ID. SQLState: {}, ErrorCode: {}, message: {}",
+                    idList.size(), e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "получении FoodItem по списку ID");
+        }
+        return foodItems;
+    }
+
+    public List<Long> recalculateMissingNutrients() {
+        List<Long> missingIds = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_COMPOSITE_FOOD_ITEM_IDS_WITHOUT_NUTRIENTS);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                missingIds.add(rs.getLong("id"));
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при поиске составных FoodItem без нутриентов. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "поиске составных FoodItem без нутриентов");
+        }
+        if (missingIds.isEmpty()) {
+            return List.of();
+        }
+
+        FoodDependencyGraph dependencyGraph = getDependencyGraph();
+        List<Long> orderedIds = dependencyGraph.sortIngredientsFirst(missingIds);
+        Set<Long> requiredIds = new HashSet<>(orderedIds);
+        for (long id : orderedIds) {
+            for (FoodComponent component : dependencyGraph.getComponents(id)) {
+                requiredIds.add(component.getIngredientFoodItemId());
+            }
+        }
+        Map<Long, FoodItem> foodItems = findByIds(requiredIds);
+
+        List<FoodItem> recalculated = new ArrayList<>(orderedIds.size());
+        for (long id : orderedIds) {
+            FoodItem foodItem = foodItems.get(id);
+            double totalWeight = 0.0;
+            NutrientVector totalNutrients = new NutrientVector();
+            for (FoodComponent component : dependencyGraph.getComponents(id)) {
+                FoodItem ingredient = foodItems.get(component.getIngredientFoodItemId());
+                if (ingredient != null) {
+                    totalWeight += component.getAmountInGrams();
+                    totalNutrients.addScaled(ingredient.getNutrientsPer100g(), component.getAmountInGrams() / 100.0);
+                }
+            }
+            if (foodItem == null || totalWeight <= 0 || totalNutrients.equals(new NutrientVector())) {
+                continue;
+            }
+            foodItem.setNutrientsPer100g(totalNutrients.scale(100 / totalWeight));
+            recalculated.add(foodItem);
+        }
+        updateNutrients(recalculated);
+        List<Long> recalculatedIds = recalculated.stream().map(FoodItem::getId).toList();
+        LOGGER.info("Рассчитаны и сохранены нутриенты {} из {} составных food items без нутриентов.", recalculatedIds.size(), missingIds.size());
+        return recalculatedIds;
+    }
+
+    public int updateNutrients(List<FoodItem> foodItems) {
+        if (foodItems.isEmpty()) {
+            return 0;
+        }
+        Connection connection = null;
+
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.UPDATE_FOOD_ITEM_NUTRIENTS)) {
+                for (FoodItem foodItem : foodItems) {
+                    pstmt.setDouble(1, foodItem.getCaloriesPer100g());
+                    pstmt.setDouble(2, foodItem.getProteinsPer100g());
+                    pstmt.setDouble(3, foodItem.getFatsPer100g());
+                    pstmt.setDouble(4, foodItem.getCarbsPer100g());
+                    pstmt.setLong(5, foodItem.getId());
+                    pstmt.addBatch();
+                }
+                int updatedRows = 0;
+                for (int affectedRows : pstmt.executeBatch()) {
+                    updatedRows += Math.max(affectedRows, 0);
+                }
+                connection.commit();
+                LOGGER.info("Обновлены нутриенты {} food items.", updatedRows);
+                return updatedRows;
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при обновлении нутриентов {} FoodItem. SQLState: {}, ErrorCode: {}, message: {}",
+                    foodItems.size(), e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                    LOGGER.warn("Откат транзакции после неудачного обновления нутриентов FoodItem");
+                } catch (SQLException rollbackEx) {
+                    LOGGER.error("Ошибка при откате транзакции после неудачного обновления нутриентов FoodItem. SQLState: {}, ErrorCode: {}, message: {}",
+                            rollbackEx.getSQLState(), rollbackEx.getErrorCode(), rollbackEx.getMessage(), rollbackEx);
+                }
+            }
+            throw SqlExceptionTranslator.translate(e, "обновлении нутриентов FoodItem");
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.setAutoCommit(true);
+                    connection.close();
+                } catch (SQLException closeEx) {
+                    LOGGER.error("Ошибка при попытке закрытия соединения после обновления нутриентов FoodItem. SQLState: {}, ErrorCode: {}, message: {}",
+                            closeEx.getSQLState(), closeEx.getErrorCode(), closeEx.getMessage(), closeEx);
+                }
+            }
+        }
+    }
+
+    public List<FoodItem> findByCategory(long foodCategoryId) {
+        List<FoodItem> foodItems = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_FOOD_ITEMS_BY_CATEGORY)) {
+            pstmt.setLong(1, foodCategoryId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    foodItems.add(mapFoodItem(rs));
+                }
+            }
+            LOGGER.debug("Получено {} food items категории c ID {}.", foodItems.size(), foodCategoryId);
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при получении FoodItem категории c ID {}. SQLState: {}, ErrorCode: {}, message: {}",
+                    foodCategoryId, e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "получении FoodItem категории c ID " + foodCategoryId);
+        }
+        return foodItems;
+    }
+
+    public List<FoodItem> findByFilter(FoodItemFilter filter) {
+        List<FoodItem> foodItems = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        String sql = SqlQueries.SELECT_ALL_FOOD_ITEMS + buildWhereClause(filter, true, params) + SqlQueries.ORDER_FOOD_ITEMS_BY_NAME;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            bindParams(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    foodItems.add(mapFoodItem(rs));
+                }
+            }
+            LOGGER.debug("Получено {} food items по фильтру {}.", foodItems.size(), filter);
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при получении FoodItem по фильтру {}. SQLState: {}, ErrorCode: {}, message: {}",
+                    filter, e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "получении FoodItem по фильтру");
+        }
+        return foodItems;
+    }
+
+    public List<CategoryFacet> countByCategory(FoodItemFilter filter) {
+        List<CategoryFacet> facets = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        String sql = SqlQueries.SELECT_FOOD_ITEM_CATEGORY_FACETS + buildWhereClause(filter, false, params)
+                + SqlQueries.GROUP_FOOD_ITEM_CATEGORY_FACETS;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            bindParams(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    FoodCategory foodCategory = null;
+                    long categoryId = rs.getLong("category_id");
+                    if (!rs.wasNull()) {
+                        foodCategory = foodCategoryRegistry.intern(categoryId, rs.getString("category_name"));
+                    }
+                    facets.add(new CategoryFacet(foodCategory, rs.getLong("item_count")));
+                }
+            }
+            LOGGER.debug("Получено {} фасетов категорий по фильтру {}.", facets.size(), filter);
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при подсчете FoodItem по категориям. SQLState: {}, ErrorCode: {}, message: {}",
+                    e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "подсчете FoodItem по категориям");
+        }
+        return facets;
+    }
+
+    private String buildWhereClause(FoodItemFilter filter, boolean includeCategory, List<Object> params) {
+        if (filter == null) {
+            return "";
+        }
+        List<String> conditions = new ArrayList<>();
+        if (includeCategory && filter.getFoodCategoryId() != null) {
+            conditions.add("fi.food_category_id = ?");
+            params.add(filter.getFoodCategoryId());
+        }
+        if (filter.getComposite() != null) {
+            conditions.add("fi.is_composite = ?");
+            params.add(filter.getComposite() ? 1 : 0);
+        }
+        addRange(conditions, params, "fi.calories_per_100g", filter.getMinCalories(), filter.getMaxCalories());
+        addRange(conditions, params, "fi.proteins_per_100g", filter.getMinProteins(), filter.getMaxProteins());
+        addRange(conditions, params, "fi.fats_per_100g", filter.getMinFats(), filter.getMaxFats());
+        addRange(conditions, params, "fi.carbs_per_100g", filter.getMinCarbs(), filter.getMaxCarbs());
+        return conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + "\n";
+    }
+
+    private void addRange(List<String> conditions, List<Object> params, String column, Double min, Double max) {
+        if (min != null) {
+            conditions.add(column + " >= ?");
+            params.add(min);
+        }
+        if (max != null) {
+            conditions.add(column + " <= ?");
+            params.add(max);
+        }
+    }
+
+    private void bindParams(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    private FoodItem mapFoodItem(ResultSet rs) throws SQLException {
+        FoodCategory foodCategory = null;
+        long categoryId = rs.getLong("category_id");
+        if (!rs.wasNull()) {
+            foodCategory = foodCategoryRegistry.intern(categoryId, rs.getString("category_name"));
+        }
+        return new FoodItem.Builder()
+                .setId(rs.getLong("id"))
+                .setName(rs.getString("name"))
+                .setCaloriesPer100g(rs.getDouble("calories_per_100g"))
+                .setServingSizeInGrams(rs.getDouble("serving_size_in_grams"))
+                .setUnit(Unit.valueOf(rs.getString("unit")))
+                .setProteinsPer100g(rs.getDouble("proteins_per_100g"))
+                .setFatsPer100g(rs.getDouble("fats_per_100g"))
+                .setCarbsPer100g(rs.getDouble("carbs_per_100g"))
+                .setComposite(rs.getInt("is_composite") == 1)
+                .setFoodCategory(foodCategory)
+                .setComponents(null)
+                .build();
+    }
+
+    private void loadComponents(Connection connection, Map<Long, FoodItem> foodItems) throws SQLException {
+        List<Long> compositeIds = new ArrayList<>();
+        for (FoodItem foodItem : foodItems.values()) {
+            if (foodItem.isComposite()) {
+                compositeIds.add(foodItem.getId());
+            }
+        }
+        Map<Long, List<FoodComponent>> componentsByParent = new HashMap<>(compositeIds.size() * 2);
+        for (int from = 0; from < compositeIds.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = compositeIds.subList(from, Math.min(from + ID_BATCH_SIZE, compositeIds.size()));
+            String sql = SqlQueries.SELECT_ALL_FOOD_COMPONENTS + "WHERE parent_food_item_id IN (" + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")";
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    pstmt.setLong(i + 1, batch.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        componentsByParent.computeIfAbsent(rs.getLong("parent_food_item_id"), key -> new ArrayList<>())
+                                .add(new FoodComponent(
+                                        rs.getLong("id"),
+                                        rs.getLong("ingredient_food_item_id"),
+                                        rs.getDouble("amount_in_grams")
+                                ));
+                    }
+                }
+            }
+        }
+        for (long compositeId : compositeIds) {
+            foodItems.get(compositeId).setComponents(componentsByParent.get(compositeId));
+        }
+    }
+
+    private void loadComponents(Connection connection, FoodItem foodItem) throws SQLException {
+        List<FoodComponent> components = new ArrayList<>();
+        try (PreparedStatement pstmtComponents = connection.prepareStatement(SqlQueries.SELECT_FOOD_COMPONENT)) {
+            pstmtComponents.setLong(1, foodItem.getId());
+            try (ResultSet rsComponents = pstmtComponents.executeQuery()) {
+                while (rsComponents.next()) {
+                    components.add(new FoodComponent(
+                            rsComponents.getLong("id"),
+                            rsComponents.getLong("ingredient_food_item_id"),
+                            rsComponents.getDouble("amount_in_grams")
+                    ));
+                }
+            }
+        }
+        foodItem.setComponents(components.isEmpty() ? null : components);
+    }
 }
\ No newline at end of file
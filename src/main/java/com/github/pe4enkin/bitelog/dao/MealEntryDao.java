@@ -14,15 +14,24 @@ import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 
 public class MealEntryDao {
     private static final Logger LOGGER = LoggerFactory.getLogger(MealEntryDao.class);
     private final DataSource dataSource;
+    private final DailyTotalsDao dailyTotalsDao;
 
     public MealEntryDao(DataSource dataSource) {
+        this(dataSource, new DailyTotalsDao(dataSource));
+    }
+
+    public MealEntryDao(DataSource dataSource, DailyTotalsDao dailyTotalsDao) {
         this.dataSource = dataSource;
+        this.dailyTotalsDao = dailyTotalsDao;
     }
 
     public void createTables() {
@@ -30,6 +39,8 @@ public class MealEntryDao {
              Statement stmt = connection.createStatement()) {
             stmt.execute(SqlQueries.CREATE_MEAL_ENTRIES_TABLE);
             stmt.execute(SqlQueries.CREATE_MEAL_COMPONENTS_TABLE);
+            stmt.execute(SqlQueries.CREATE_MEAL_ENTRIES_DATE_INDEX);
+            stmt.execute(SqlQueries.CREATE_MEAL_COMPONENTS_MEAL_ENTRY_INDEX);
             LOGGER.info("Таблицы meal_entries и meal_components успешно созданы (или уже существовали).");
         } catch (SQLException e) {
             LOGGER.error("Ошибка при создании таблиц meal_entries и meal_components. SQLState: {}, ErrorCode: {}, message: {}",
@@ -99,6 +110,7 @@ public class MealEntryDao {
                 }
                 LOGGER.info("Сохранено {} компонентов при сохранении meal entry от {}", mealEntry.getComponents().size(), logMealDateTime);
             }
+            dailyTotalsDao.refresh(connection, mealEntry.getDate());
             connection.commit();
             return mealEntry;
         } catch (SQLException e) {
@@ -179,6 +191,7 @@ public class MealEntryDao {
         try {
             connection = dataSource.getConnection();
             connection.setAutoCommit(false);
+            Optional<LocalDate> previousDate = findDate(connection, mealEntry.getId());
 
             try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.UPDATE_MEAL_ENTRY)) {
                 pstmt.setDate(1, Date.valueOf(mealEntry.getDate()));
@@ -237,6 +250,10 @@ public class MealEntryDao {
                 }
                 LOGGER.info("Сохранено {} компонентов при обновлении meal entry от {}", mealEntry.getComponents().size(), logMealDateTime);
             }
+            dailyTotalsDao.refresh(connection, mealEntry.getDate());
+            if (previousDate.isPresent() && !previousDate.get().equals(mealEntry.getDate())) {
+                dailyTotalsDao.refresh(connection, previousDate.get());
+            }
             connection.commit();
             return true;
         } catch (SQLException e) {
@@ -271,6 +288,7 @@ public class MealEntryDao {
         try {
             connection = dataSource.getConnection();
             connection.setAutoCommit(false);
+            Optional<LocalDate> date = findDate(connection, id);
 
             try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.DELETE_MEAL_ENTRY)) {
                 pstmt.setLong(1, id);
@@ -281,6 +299,9 @@ public class MealEntryDao {
                     return false;
                 } else {
                     LOGGER.info("meal entry c ID {} успешно удален.", id);
+                    if (date.isPresent()) {
+                        dailyTotalsDao.refresh(connection, date.get());
+                    }
                     connection.commit();
                     return true;
                 }
@@ -313,39 +334,50 @@ public class MealEntryDao {
 
     public List<MealEntry> findAllByDate(LocalDate searchDate) {
         List<MealEntry> mealEntries = new ArrayList<>();
+        Map<Long, List<MealComponent>> componentsByEntryId = new HashMap<>();
 
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_ALL_MEAL_ENTRIES_BY_DATE)) {
-            pstmt.setDate(1, Date.valueOf(searchDate));
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Date date = rs.getDate("date");
-                    Time time = rs.getTime("time");
-                    MealEntry mealEntry = new MealEntry.Builder()
-                            .setId(rs.getLong("id"))
-                            .setDate(date != null ? date.toLocalDate() : null)
-                            .setTime(time != null ? time.toLocalTime() : null)
-                            .setMealCategory(MealCategory.valueOf(rs.getString("meal_category")))
-                            .setNotes(rs.getString("notes"))
-                            .build();
-                    List<MealComponent> components = new ArrayList<>();
-                    try (PreparedStatement pstmtComponents = connection.prepareStatement(SqlQueries.SELECT_MEAL_COMPONENT)) {
-                        pstmtComponents.setLong(1, mealEntry.getId());
-                        try (ResultSet rsComponents = pstmtComponents.executeQuery()) {
-                            while (rsComponents.next()) {
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_ALL_MEAL_ENTRIES_BY_DATE)) {
+                pstmt.setDate(1, Date.valueOf(searchDate));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        checkInterrupted(searchDate);
+                        Date date = rs.getDate("date");
+                        Time time = rs.getTime("time");
+                        MealEntry mealEntry = new MealEntry.Builder()
+                                .setId(rs.getLong("id"))
+                                .setDate(date != null ? date.toLocalDate() : null)
+                                .setTime(time != null ? time.toLocalTime() : null)
+                                .setMealCategory(MealCategory.valueOf(rs.getString("meal_category")))
+                                .setNotes(rs.getString("notes"))
+                                .build();
+                        mealEntries.add(mealEntry);
+                        componentsByEntryId.put(mealEntry.getId(), new ArrayList<>());
+                    }
+                }
+            }
+            if (!mealEntries.isEmpty()) {
+                try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_MEAL_COMPONENTS_BY_DATE)) {
+                    pstmt.setDate(1, Date.valueOf(searchDate));
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            checkInterrupted(searchDate);
+                            List<MealComponent> components = componentsByEntryId.get(rs.getLong("meal_entry_id"));
+                            if (components != null) {
                                 components.add(new MealComponent(
-                                        rsComponents.getLong("id"),
-                                        rsComponents.getLong("food_item_id"),
-                                        rsComponents.getDouble("amount_in_grams")
+                                        rs.getLong("id"),
+                                        rs.getLong("food_item_id"),
+                                        rs.getDouble("amount_in_grams")
                                 ));
                             }
                         }
                     }
-                    mealEntry.setComponents(components);
-                    mealEntries.add(mealEntry);
                 }
-                LOGGER.debug("Получено {} meal entries из БД на дату {}.", mealEntries.size(), DateTimeFormatterUtil.formatDateWithDots(searchDate));
+                for (MealEntry mealEntry : mealEntries) {
+                    mealEntry.setComponents(componentsByEntryId.get(mealEntry.getId()));
+                }
             }
+            LOGGER.debug("Получено {} meal entries из БД на дату {}.", mealEntries.size(), DateTimeFormatterUtil.formatDateWithDots(searchDate));
         } catch (SQLException e) {
             LOGGER.error("Ошибка при получении MealEntries на дату {} из БД. SQLState: {}, ErrorCode: {}, message: {}",
                     DateTimeFormatterUtil.formatDateWithDots(searchDate), e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
@@ -353,4 +385,56 @@ public class MealEntryDao {
         }
         return mealEntries;
     }
+
+    public Map<Long, Double> sumGramsByFoodItemBetween(LocalDate from, LocalDate to) {
+        String logRange = DateTimeFormatterUtil.formatDateWithDots(from) + " - " + DateTimeFormatterUtil.formatDateWithDots(to);
+        Map<Long, Double> gramsByFoodItem = new HashMap<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_FOOD_ITEM_GRAMS_BETWEEN)) {
+            pstmt.setDate(1, Date.valueOf(from));
+            pstmt.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    gramsByFoodItem.put(rs.getLong("food_item_id"), rs.getDouble("total_grams"));
+                }
+            }
+            LOGGER.debug("Получен вес {} продуктов, съеденных за период {}.", gramsByFoodItem.size(), logRange);
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при получении веса съеденных продуктов за период {}. SQLState: {}, ErrorCode: {}, message: {}",
+                    logRange, e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "получении веса съеденных продуктов за период " + logRange);
+        }
+        return gramsByFoodItem;
+    }
+
+    public Optional<LocalDate> findDateById(long id) {
+        try (Connection connection = dataSource.getConnection()) {
+            return findDate(connection, id);
+        } catch (SQLException e) {
+            LOGGER.error("Ошибка при получении даты MealEntry c ID {}. SQLState: {}, ErrorCode: {}, message: {}",
+                    id, e.getSQLState(), e.getErrorCode(), e.getMessage(), e);
+            throw SqlExceptionTranslator.translate(e, "получении даты MealEntry c ID " + id);
+        }
+    }
+
+    private void checkInterrupted(LocalDate searchDate) {
+        if (Thread.currentThread().isInterrupted()) {
+            LOGGER.debug("Получение MealEntries на дату {} прервано.", DateTimeFormatterUtil.formatDateWithDots(searchDate));
+            throw new CancellationException("Получение MealEntries на дату " + DateTimeFormatterUtil.formatDateWithDots(searchDate) + " прервано.");
+        }
+    }
+
+    private Optional<LocalDate> findDate(Connection connection, long id) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(SqlQueries.SELECT_MEAL_ENTRY_DATE_BY_ID)) {
+            pstmt.setLong(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    Date date = rs.getDate("date");
+                    return Optional.ofNullable(date != null ? date.toLocalDate() : null);
+                }
+                return Optional.empty();
+            }
+        }
+    }
 }
\ No newline at end of file
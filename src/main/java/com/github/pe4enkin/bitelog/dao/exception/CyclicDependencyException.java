@@ -0,0 +1,12 @@
+package com.github.pe4enkin.bitelog.dao.exception;
+
+public class CyclicDependencyException extends ConstraintViolationException {
+
+    public CyclicDependencyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public CyclicDependencyException(String message) {
+        super(message);
+    }
+}
@@ -1,12 +1,16 @@
 package com.github.pe4enkin.bitelog.model;
 
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
 import java.time.LocalDate;
 
 public class AppState {
+    private static final double DEFAULT_DAILY_CALORIE_GOAL = 2000.0;
     private final ObjectProperty<LocalDate> currentWorkingDate = new SimpleObjectProperty<>();
+    private final DoubleProperty dailyCalorieGoal = new SimpleDoubleProperty(DEFAULT_DAILY_CALORIE_GOAL);
 
     public AppState () {
         this.currentWorkingDate.set(LocalDate.now());
@@ -23,4 +27,16 @@ public class AppState {
     public void setCurrentWorkingDate(LocalDate date) {
         this.currentWorkingDate.set(date);
     }
+
+    public DoubleProperty dailyCalorieGoalProperty() {
+        return dailyCalorieGoal;
+    }
+
+    public double getDailyCalorieGoal() {
+        return dailyCalorieGoal.get();
+    }
+
+    public void setDailyCalorieGoal(double dailyCalorieGoal) {
+        this.dailyCalorieGoal.set(dailyCalorieGoal);
+    }
 }
\ No newline at end of file
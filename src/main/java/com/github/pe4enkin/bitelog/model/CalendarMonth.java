@@ -0,0 +1,72 @@
+package com.github.pe4enkin.bitelog.model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+public class CalendarMonth {
+    private final YearMonth yearMonth;
+    private final double[] calories;
+    private final int[] entryCounts;
+
+    public CalendarMonth(YearMonth yearMonth) {
+        this.yearMonth = yearMonth;
+        this.calories = new double[yearMonth.lengthOfMonth()];
+        this.entryCounts = new int[yearMonth.lengthOfMonth()];
+    }
+
+    public YearMonth getYearMonth() {
+        return yearMonth;
+    }
+
+    public int getLengthOfMonth() {
+        return calories.length;
+    }
+
+    public CalendarMonth setDay(int dayOfMonth, double dayCalories, int entryCount) {
+        calories[dayOfMonth - 1] = dayCalories;
+        entryCounts[dayOfMonth - 1] = entryCount;
+        return this;
+    }
+
+    public double getCalories(int dayOfMonth) {
+        return calories[dayOfMonth - 1];
+    }
+
+    public int getEntryCount(int dayOfMonth) {
+        return entryCounts[dayOfMonth - 1];
+    }
+
+    public boolean isLogged(int dayOfMonth) {
+        return entryCounts[dayOfMonth - 1] > 0;
+    }
+
+    public LocalDate getDate(int dayOfMonth) {
+        return yearMonth.atDay(dayOfMonth);
+    }
+
+    public int getLoggedDays() {
+        int loggedDays = 0;
+        for (int entryCount : entryCounts) {
+            if (entryCount > 0) {
+                loggedDays++;
+            }
+        }
+        return loggedDays;
+    }
+
+    public double getMaxCalories() {
+        double max = 0.0;
+        for (double dayCalories : calories) {
+            max = Math.max(max, dayCalories);
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "CalendarMonth{" +
+                "yearMonth=" + yearMonth +
+                ", loggedDays=" + getLoggedDays() +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.pe4enkin.bitelog.model;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+public enum CatalogFormat {
+    CSV, JSONL;
+
+    public static CatalogFormat fromPath(Path path) {
+        String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (fileName.endsWith(".csv")) {
+            return CSV;
+        }
+        if (fileName.endsWith(".jsonl") || fileName.endsWith(".ndjson")) {
+            return JSONL;
+        }
+        throw new IllegalArgumentException("Не удалось определить формат каталога по имени файла: " + fileName);
+    }
+}
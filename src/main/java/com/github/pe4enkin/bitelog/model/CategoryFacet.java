@@ -0,0 +1,31 @@
+package com.github.pe4enkin.bitelog.model;
+
+public class CategoryFacet {
+    private final FoodCategory foodCategory;
+    private final long count;
+
+    public CategoryFacet(FoodCategory foodCategory, long count) {
+        this.foodCategory = foodCategory;
+        this.count = count;
+    }
+
+    public FoodCategory getFoodCategory() {
+        return foodCategory;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isUncategorized() {
+        return foodCategory == null;
+    }
+
+    @Override
+    public String toString() {
+        return "CategoryFacet{" +
+                "foodCategory=" + foodCategory +
+                ", count=" + count +
+                '}';
+    }
+}
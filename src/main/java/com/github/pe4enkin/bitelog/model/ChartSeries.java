@@ -0,0 +1,60 @@
+package com.github.pe4enkin.bitelog.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+public class ChartSeries {
+    private final long[] epochDays;
+    private final double[] values;
+    private final int bucketDays;
+
+    public ChartSeries(long[] epochDays, double[] values, int bucketDays) {
+        if (epochDays.length != values.length) {
+            throw new IllegalArgumentException("Количество дат и значений ряда не совпадает: " + epochDays.length + " и " + values.length);
+        }
+        this.epochDays = epochDays;
+        this.values = values;
+        this.bucketDays = bucketDays;
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public long getEpochDay(int index) {
+        return epochDays[index];
+    }
+
+    public LocalDate getDate(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    public int getBucketDays() {
+        return bucketDays;
+    }
+
+    public ChartSeries slice(long fromEpochDay, long toEpochDay) {
+        int from = Arrays.binarySearch(epochDays, fromEpochDay);
+        from = from >= 0 ? from : Math.max(0, -from - 2);
+        int to = Arrays.binarySearch(epochDays, toEpochDay);
+        to = to >= 0 ? to + 1 : Math.min(epochDays.length, -to);
+        return subSeries(from, Math.max(from, to));
+    }
+
+    public ChartSeries subSeries(int fromIndex, int toIndex) {
+        return new ChartSeries(Arrays.copyOfRange(epochDays, fromIndex, toIndex),
+                Arrays.copyOfRange(values, fromIndex, toIndex), bucketDays);
+    }
+
+    @Override
+    public String toString() {
+        return "ChartSeries{" +
+                "size=" + epochDays.length +
+                ", bucketDays=" + bucketDays +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.pe4enkin.bitelog.model;
+
+import java.time.LocalDate;
+
+public class DailyCategoryTotals {
+    private final LocalDate date;
+    private final MealCategory mealCategory;
+    private final NutrientVector totalNutrients;
+    private final int entryCount;
+
+    public DailyCategoryTotals(LocalDate date, MealCategory mealCategory, NutrientVector totalNutrients, int entryCount) {
+        this.date = date;
+        this.mealCategory = mealCategory;
+        this.totalNutrients = NutrientVector.copyOf(totalNutrients);
+        this.entryCount = entryCount;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public MealCategory getMealCategory() {
+        return mealCategory;
+    }
+
+    public NutrientVector getTotalNutrients() {
+        return NutrientVector.copyOf(totalNutrients);
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyCategoryTotals{" +
+                "date=" + date +
+                ", mealCategory=" + mealCategory +
+                ", totalNutrients=" + totalNutrients +
+                ", entryCount=" + entryCount +
+                '}';
+    }
+}
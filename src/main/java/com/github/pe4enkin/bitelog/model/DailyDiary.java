@@ -1,19 +1,46 @@
 package com.github.pe4enkin.bitelog.model;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class DailyDiary {
     private final LocalDate date;
     private final List<MealEntry> mealEntries;
-    private double totalCalories;
-    private double totalProteins;
-    private double totalFats;
-    private double totalCarbs;
+    private final List<MealEntryRow> mealEntryRows;
+    private final NutrientVector totalNutrients = new NutrientVector();
 
     public DailyDiary(LocalDate date, List<MealEntry> mealEntries) {
+        this(date, mealEntries, Map.of());
+    }
+
+    public DailyDiary(LocalDate date, List<MealEntry> mealEntries, Map<Long, FoodItem> foodItems) {
+        this(date, mealEntries, toRows(mealEntries, foodItems));
+    }
+
+    private DailyDiary(LocalDate date, List<MealEntry> mealEntries, List<MealEntryRow> mealEntryRows) {
         this.date = date;
         this.mealEntries = mealEntries;
+        this.mealEntryRows = mealEntryRows;
+    }
+
+    private static List<MealEntryRow> toRows(List<MealEntry> mealEntries, Map<Long, FoodItem> foodItems) {
+        List<MealEntryRow> rows = new ArrayList<>(mealEntries.size());
+        for (MealEntry mealEntry : mealEntries) {
+            rows.add(MealEntryRow.of(mealEntry, foodItems));
+        }
+        return List.copyOf(rows);
+    }
+
+    public static DailyDiary copyOf(DailyDiary other) {
+        List<MealEntry> mealEntries = new ArrayList<>(other.mealEntries.size());
+        for (MealEntry mealEntry : other.mealEntries) {
+            mealEntries.add(MealEntry.copyOf(mealEntry));
+        }
+        DailyDiary copy = new DailyDiary(other.date, mealEntries, other.mealEntryRows);
+        copy.totalNutrients.setAll(other.totalNutrients);
+        return copy;
     }
 
     public LocalDate getDate() {
@@ -24,34 +51,36 @@ public class DailyDiary {
         return mealEntries;
     }
 
+    public List<MealEntryRow> getMealEntryRows() {
+        return mealEntryRows;
+    }
+
+    public NutrientVector getTotalNutrients() {
+        return totalNutrients;
+    }
+
     public double getTotalCalories() {
-        return totalCalories;
+        return totalNutrients.getCalories();
     }
 
     public double getTotalProteins() {
-        return totalProteins;
+        return totalNutrients.getProteins();
     }
 
     public double getTotalFats() {
-        return totalFats;
+        return totalNutrients.getFats();
     }
 
     public double getTotalCarbs() {
-        return totalCarbs;
+        return totalNutrients.getCarbs();
     }
 
-    public  void calculateAndSetAllNutrients() {
-        if (mealEntries.isEmpty()) {
-            this.totalCalories = 0.0;
-            this.totalProteins = 0.0;
-            this.totalFats = 0.0;
-            this.totalCarbs = 0.0;
-            return;
+    public void calculateAndSetAllNutrients() {
+        NutrientVector calculated = new NutrientVector();
+        for (MealEntry mealEntry : mealEntries) {
+            calculated.add(mealEntry.getTotalNutrients());
         }
-        this.totalCalories = mealEntries.stream().mapToDouble(MealEntry::getTotalCalories).sum();
-        this.totalProteins = mealEntries.stream().mapToDouble(MealEntry::getTotalProteins).sum();
-        this.totalFats = mealEntries.stream().mapToDouble(MealEntry::getTotalFats).sum();
-        this.totalCarbs = mealEntries.stream().mapToDouble(MealEntry::getTotalCarbs).sum();
+        totalNutrients.setAll(calculated);
     }
 
     @Override
@@ -59,10 +88,10 @@ public class DailyDiary {
         return "DailyDiary{" +
                 "date=" + date +
                 ", mealEntries=" + mealEntries +
-                ", totalCalories=" + totalCalories +
-                ", totalProteins=" + totalProteins +
-                ", totalFats=" + totalFats +
-                ", totalCarbs=" + totalCarbs +
+                ", totalCalories=" + getTotalCalories() +
+                ", totalProteins=" + getTotalProteins() +
+                ", totalFats=" + getTotalFats() +
+                ", totalCarbs=" + getTotalCarbs() +
                 '}';
     }
 }
\ No newline at end of file
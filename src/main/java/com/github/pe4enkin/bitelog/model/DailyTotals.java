@@ -0,0 +1,52 @@
+package com.github.pe4enkin.bitelog.model;
+
+import java.time.LocalDate;
+
+public class DailyTotals {
+    private final LocalDate date;
+    private final NutrientVector totalNutrients;
+    private final int entryCount;
+
+    public DailyTotals(LocalDate date, NutrientVector totalNutrients, int entryCount) {
+        this.date = date;
+        this.totalNutrients = NutrientVector.copyOf(totalNutrients);
+        this.entryCount = entryCount;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public NutrientVector getTotalNutrients() {
+        return NutrientVector.copyOf(totalNutrients);
+    }
+
+    public double getTotalCalories() {
+        return totalNutrients.getCalories();
+    }
+
+    public double getTotalProteins() {
+        return totalNutrients.getProteins();
+    }
+
+    public double getTotalFats() {
+        return totalNutrients.getFats();
+    }
+
+    public double getTotalCarbs() {
+        return totalNutrients.getCarbs();
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyTotals{" +
+                "date=" + date +
+                ", totalNutrients=" + totalNutrients +
+                ", entryCount=" + entryCount +
+                '}';
+    }
+}
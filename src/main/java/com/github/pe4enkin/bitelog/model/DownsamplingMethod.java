@@ -0,0 +1,20 @@
+package com.github.pe4enkin.bitelog.model;
+
+public enum DownsamplingMethod {
+    LTTB("Форма линии (LTTB)"), MIN_MAX("Минимум и максимум");
+
+    private final String name;
+
+    DownsamplingMethod(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.pe4enkin.bitelog.model;
+
+public enum ExportFormat {
+    CSV("csv"), JSONL("jsonl");
+
+    private final String fileExtension;
+
+    ExportFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
@@ -6,12 +6,9 @@ import java.util.List;
 public class FoodItem {
     private long id;
     private String name;
-    private double caloriesPer100g;
+    private final NutrientVector nutrientsPer100g;
     private double servingSizeInGrams;
     private Unit unit;
-    private double proteinsPer100g;
-    private double fatsPer100g;
-    private double carbsPer100g;
     private boolean isComposite;
     private FoodCategory foodCategory;
     private List<FoodComponent> components;
@@ -19,17 +16,34 @@ public class FoodItem {
     private FoodItem(Builder builder) {
         this.id = builder.id;
         this.name = builder.name;
-        this.caloriesPer100g = builder.caloriesPer100g;
+        this.nutrientsPer100g = NutrientVector.copyOf(builder.nutrientsPer100g);
         this.servingSizeInGrams = builder.servingSizeInGrams;
         this.unit = builder.unit;
-        this.proteinsPer100g = builder.proteinsPer100g;
-        this.fatsPer100g = builder.fatsPer100g;
-        this.carbsPer100g = builder.carbsPer100g;
         this.isComposite = builder.isComposite;
         this.foodCategory = builder.foodCategory;
         this.components = builder.components;
     }
 
+    public static FoodItem copyOf(FoodItem other) {
+        List<FoodComponent> components = null;
+        if (other.components != null) {
+            components = new ArrayList<>(other.components.size());
+            for (FoodComponent component : other.components) {
+                components.add(new FoodComponent(component.getId(), component.getIngredientFoodItemId(), component.getAmountInGrams()));
+            }
+        }
+        return new Builder()
+                .setId(other.id)
+                .setName(other.name)
+                .setNutrientsPer100g(other.nutrientsPer100g)
+                .setServingSizeInGrams(other.servingSizeInGrams)
+                .setUnit(other.unit)
+                .setComposite(other.isComposite)
+                .setFoodCategory(other.foodCategory)
+                .setComponents(components)
+                .build();
+    }
+
     public long getId() {
         return id;
     }
@@ -48,12 +62,21 @@ public class FoodItem {
         return this;
     }
 
+    public NutrientVector getNutrientsPer100g() {
+        return nutrientsPer100g;
+    }
+
+    public FoodItem setNutrientsPer100g(NutrientVector nutrientsPer100g) {
+        this.nutrientsPer100g.setAll(nutrientsPer100g);
+        return this;
+    }
+
     public double getCaloriesPer100g() {
-        return caloriesPer100g;
+        return nutrientsPer100g.getCalories();
     }
 
     public FoodItem setCaloriesPer100g(double caloriesPer100g) {
-        this.caloriesPer100g = caloriesPer100g;
+        nutrientsPer100g.setCalories(caloriesPer100g);
         return this;
     }
 
@@ -76,29 +99,29 @@ public class FoodItem {
     }
 
     public double getProteinsPer100g() {
-        return proteinsPer100g;
+        return nutrientsPer100g.getProteins();
     }
 
     public FoodItem setProteinsPer100g(double proteinsPer100g) {
-        this.proteinsPer100g = proteinsPer100g;
+        nutrientsPer100g.setProteins(proteinsPer100g);
         return this;
     }
 
     public double getFatsPer100g() {
-        return fatsPer100g;
+        return nutrientsPer100g.getFats();
     }
 
     public FoodItem setFatsPer100g(double fatsPer100g) {
-        this.fatsPer100g = fatsPer100g;
+        nutrientsPer100g.setFats(fatsPer100g);
         return this;
     }
 
     public double getCarbsPer100g() {
-        return carbsPer100g;
+        return nutrientsPer100g.getCarbs();
     }
 
     public FoodItem setCarbsPer100g(double carbsPer100g) {
-        this.carbsPer100g = carbsPer100g;
+        nutrientsPer100g.setCarbs(carbsPer100g);
         return this;
     }
 
@@ -146,12 +169,12 @@ public class FoodItem {
         return "FoodItem{" +
                 "id=" + id +
                 ", name='" + name + '\'' +
-                ", caloriesPer100g=" + caloriesPer100g +
+                ", caloriesPer100g=" + getCaloriesPer100g() +
                 ", servingSizeInGrams=" + servingSizeInGrams +
                 ", unit=" + unit +
-                ", proteinsPer100g=" + proteinsPer100g +
-                ", fatsPer100g=" + fatsPer100g +
-                ", carbsPer100g=" + carbsPer100g +
+                ", proteinsPer100g=" + getProteinsPer100g() +
+                ", fatsPer100g=" + getFatsPer100g() +
+                ", carbsPer100g=" + getCarbsPer100g() +
                 ", isComposite=" + isComposite +
                 ", foodCategory=" + foodCategory +
                 ", components=" + components +
@@ -161,12 +184,9 @@ public class FoodItem {
     public static class Builder {
         private long id;
         private String name;
-        private double caloriesPer100g;
+        private final NutrientVector nutrientsPer100g = new NutrientVector();
         private double servingSizeInGrams;
         private Unit unit;
-        private double proteinsPer100g;
-        private double fatsPer100g;
-        private double carbsPer100g;
         private boolean isComposite;
         private FoodCategory foodCategory;
         private List<FoodComponent> components;
@@ -182,7 +202,7 @@ public class FoodItem {
         }
 
         public Builder setCaloriesPer100g(double caloriesPer100g) {
-            this.caloriesPer100g = caloriesPer100g;
+            nutrientsPer100g.setCalories(caloriesPer100g);
             return this;
         }
 
@@ -197,17 +217,22 @@ public class FoodItem {
         }
 
         public Builder setProteinsPer100g(double proteinsPer100g) {
-            this.proteinsPer100g = proteinsPer100g;
+            nutrientsPer100g.setProteins(proteinsPer100g);
             return this;
         }
 
         public Builder setFatsPer100g(double fatsPer100g) {
-            this.fatsPer100g = fatsPer100g;
+            nutrientsPer100g.setFats(fatsPer100g);
             return this;
         }
 
         public Builder setCarbsPer100g(double carbsPer100g) {
-            this.carbsPer100g = carbsPer100g;
+            nutrientsPer100g.setCarbs(carbsPer100g);
+            return this;
+        }
+
+        public Builder setNutrientsPer100g(NutrientVector nutrientsPer100g) {
+            this.nutrientsPer100g.setAll(nutrientsPer100g);
             return this;
         }
 
@@ -0,0 +1,100 @@
+package com.github.pe4enkin.bitelog.model;
+
+public class FoodItemFilter {
+    private Long foodCategoryId;
+    private Boolean composite;
+    private Double minCalories;
+    private Double maxCalories;
+    private Double minProteins;
+    private Double maxProteins;
+    private Double minFats;
+    private Double maxFats;
+    private Double minCarbs;
+    private Double maxCarbs;
+
+    public Long getFoodCategoryId() {
+        return foodCategoryId;
+    }
+
+    public FoodItemFilter setFoodCategoryId(Long foodCategoryId) {
+        this.foodCategoryId = foodCategoryId;
+        return this;
+    }
+
+    public Boolean getComposite() {
+        return composite;
+    }
+
+    public FoodItemFilter setComposite(Boolean composite) {
+        this.composite = composite;
+        return this;
+    }
+
+    public Double getMinCalories() {
+        return minCalories;
+    }
+
+    public Double getMaxCalories() {
+        return maxCalories;
+    }
+
+    public FoodItemFilter setCaloriesRange(Double minCalories, Double maxCalories) {
+        this.minCalories = minCalories;
+        this.maxCalories = maxCalories;
+        return this;
+    }
+
+    public Double getMinProteins() {
+        return minProteins;
+    }
+
+    public Double getMaxProteins() {
+        return maxProteins;
+    }
+
+    public FoodItemFilter setProteinsRange(Double minProteins, Double maxProteins) {
+        this.minProteins = minProteins;
+        this.maxProteins = maxProteins;
+        return this;
+    }
+
+    public Double getMinFats() {
+        return minFats;
+    }
+
+    public Double getMaxFats() {
+        return maxFats;
+    }
+
+    public FoodItemFilter setFatsRange(Double minFats, Double maxFats) {
+        this.minFats = minFats;
+        this.maxFats = maxFats;
+        return this;
+    }
+
+    public Double getMinCarbs() {
+        return minCarbs;
+    }
+
+    public Double getMaxCarbs() {
+        return maxCarbs;
+    }
+
+    public FoodItemFilter setCarbsRange(Double minCarbs, Double maxCarbs) {
+        this.minCarbs = minCarbs;
+        this.maxCarbs = maxCarbs;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "FoodItemFilter{" +
+                "foodCategoryId=" + foodCategoryId +
+                ", composite=" + composite +
+                ", calories=[" + minCalories + ", " + maxCalories + "]" +
+                ", proteins=[" + minProteins + ", " + maxProteins + "]" +
+                ", fats=[" + minFats + ", " + maxFats + "]" +
+                ", carbs=[" + minCarbs + ", " + maxCarbs + "]" +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.pe4enkin.bitelog.model;
+
+public enum HeatmapMetric {
+    CALORIES("Калории"), GOAL_ADHERENCE("Соблюдение цели");
+
+    public static final int LEVELS = 5;
+
+    private final String name;
+
+    HeatmapMetric(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int level(double calories, double maxCalories, double dailyCalorieGoal) {
+        return switch (this) {
+            case CALORIES -> maxCalories <= 0 ? 1 : 1 + Math.min(LEVELS - 2, (int) (calories / maxCalories * (LEVELS - 1)));
+            case GOAL_ADHERENCE -> {
+                if (dailyCalorieGoal <= 0) {
+                    yield 1;
+                }
+                double deviation = Math.abs(calories - dailyCalorieGoal) / dailyCalorieGoal;
+                if (deviation <= 0.1) {
+                    yield 4;
+                } else if (deviation <= 0.2) {
+                    yield 3;
+                } else if (deviation <= 0.35) {
+                    yield 2;
+                }
+                yield 1;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
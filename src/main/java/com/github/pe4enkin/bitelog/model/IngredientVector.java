@@ -0,0 +1,89 @@
+package com.github.pe4enkin.bitelog.model;
+
+import java.util.Arrays;
+import java.util.Map;
+
+public final class IngredientVector {
+    private static final IngredientVector EMPTY = new IngredientVector(new long[0], new double[0]);
+    private final long[] ingredientIds;
+    private final double[] gramsPer100g;
+
+    private IngredientVector(long[] ingredientIds, double[] gramsPer100g) {
+        this.ingredientIds = ingredientIds;
+        this.gramsPer100g = gramsPer100g;
+    }
+
+    public static IngredientVector empty() {
+        return EMPTY;
+    }
+
+    public static IngredientVector of(Map<Long, Double> gramsPer100gById) {
+        long[] ids = new long[gramsPer100gById.size()];
+        int count = 0;
+        for (Map.Entry<Long, Double> entry : gramsPer100gById.entrySet()) {
+            if (entry.getValue() != 0.0) {
+                ids[count++] = entry.getKey();
+            }
+        }
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+        double[] grams = new double[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = gramsPer100gById.get(ids[i]);
+        }
+        return count == 0 ? EMPTY : new IngredientVector(ids, grams);
+    }
+
+    public int size() {
+        return ingredientIds.length;
+    }
+
+    public long getIngredientId(int index) {
+        return ingredientIds[index];
+    }
+
+    public double getGramsPer100g(int index) {
+        return gramsPer100g[index];
+    }
+
+    public double getGramsPer100gOf(long ingredientId) {
+        int index = Arrays.binarySearch(ingredientIds, ingredientId);
+        return index >= 0 ? gramsPer100g[index] : 0.0;
+    }
+
+    public long[] getIngredientIds() {
+        return ingredientIds.clone();
+    }
+
+    public NutrientVector nutrientsPer100g(Map<Long, FoodItem> baseFoodItems) {
+        NutrientVector nutrients = new NutrientVector();
+        for (int i = 0; i < ingredientIds.length; i++) {
+            FoodItem foodItem = baseFoodItems.get(ingredientIds[i]);
+            if (foodItem == null) {
+                throw new IllegalArgumentException("Базовый продукт с ID " + ingredientIds[i] + " не найден.");
+            }
+            nutrients.addScaled(foodItem.getNutrientsPer100g(), gramsPer100g[i] / 100.0);
+        }
+        return nutrients;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IngredientVector that)) return false;
+        return Arrays.equals(ingredientIds, that.ingredientIds) && Arrays.equals(gramsPer100g, that.gramsPer100g);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(ingredientIds) + Arrays.hashCode(gramsPer100g);
+    }
+
+    @Override
+    public String toString() {
+        return "IngredientVector{" +
+                "ingredientIds=" + Arrays.toString(ingredientIds) +
+                ", gramsPer100g=" + Arrays.toString(gramsPer100g) +
+                '}';
+    }
+}
@@ -16,6 +16,10 @@ public class MealComponent {
         this.amountInGrams = amountInGrams;
     }
 
+    public static MealComponent copyOf(MealComponent other) {
+        return new MealComponent(other.id, other.foodItemId, other.amountInGrams);
+    }
+
     public long getId() {
         return id;
     }
@@ -10,10 +10,7 @@ public class MealEntry {
     private LocalDate date;
     private LocalTime time;
     private MealCategory mealCategory;
-    private double totalCalories;
-    private double totalProteins;
-    private double totalFats;
-    private double totalCarbs;
+    private final NutrientVector totalNutrients;
     private String notes;
     private List<MealComponent> components;
 
@@ -22,14 +19,30 @@ public class MealEntry {
         this.date = builder.date;
         this.time = builder.time;
         this.mealCategory = builder.mealCategory;
-        this.totalCalories = builder.totalCalories;
-        this.totalProteins = builder.totalProteins;
-        this.totalFats = builder.totalFats;
-        this.totalCarbs = builder.totalCarbs;
+        this.totalNutrients = NutrientVector.copyOf(builder.totalNutrients);
         this.notes = builder.notes;
         this.components = builder.components;
     }
 
+    public static MealEntry copyOf(MealEntry other) {
+        List<MealComponent> components = null;
+        if (other.components != null) {
+            components = new ArrayList<>(other.components.size());
+            for (MealComponent component : other.components) {
+                components.add(MealComponent.copyOf(component));
+            }
+        }
+        return new Builder()
+                .setId(other.id)
+                .setDate(other.date)
+                .setTime(other.time)
+                .setMealCategory(other.mealCategory)
+                .setNotes(other.notes)
+                .setComponents(components)
+                .build()
+                .setTotalNutrients(other.totalNutrients);
+    }
+
     public long getId() {
         return id;
     }
@@ -66,39 +79,48 @@ public class MealEntry {
         return this;
     }
 
+    public NutrientVector getTotalNutrients() {
+        return totalNutrients;
+    }
+
+    public MealEntry setTotalNutrients(NutrientVector totalNutrients) {
+        this.totalNutrients.setAll(totalNutrients);
+        return this;
+    }
+
     public double getTotalCalories() {
-        return totalCalories;
+        return totalNutrients.getCalories();
     }
 
     public MealEntry setTotalCalories(double totalCalories) {
-        this.totalCalories = totalCalories;
+        totalNutrients.setCalories(totalCalories);
         return this;
     }
 
     public double getTotalProteins() {
-        return totalProteins;
+        return totalNutrients.getProteins();
     }
 
     public MealEntry setTotalProteins(double totalProteins) {
-        this.totalProteins = totalProteins;
+        totalNutrients.setProteins(totalProteins);
         return this;
     }
 
     public double getTotalFats() {
-        return totalFats;
+        return totalNutrients.getFats();
     }
 
     public MealEntry setTotalFats(double totalFats) {
-        this.totalFats = totalFats;
+        totalNutrients.setFats(totalFats);
         return this;
     }
 
     public double getTotalCarbs() {
-        return totalCarbs;
+        return totalNutrients.getCarbs();
     }
 
     public MealEntry setTotalCarbs(double totalCarbs) {
-        this.totalCarbs = totalCarbs;
+        totalNutrients.setCarbs(totalCarbs);
         return this;
     }
 
@@ -139,10 +161,10 @@ public class MealEntry {
                 ", date=" + date +
                 ", time=" + time +
                 ", mealCategory=" + mealCategory +
-                ", totalCalories=" + totalCalories +
-                ", totalProteins=" + totalProteins +
-                ", totalFats=" + totalFats +
-                ", totalCarbs=" + totalCarbs +
+                ", totalCalories=" + getTotalCalories() +
+                ", totalProteins=" + getTotalProteins() +
+                ", totalFats=" + getTotalFats() +
+                ", totalCarbs=" + getTotalCarbs() +
                 ", notes='" + notes + '\'' +
                 ", components=" + components +
                 '}';
@@ -153,10 +175,7 @@ public class MealEntry {
         private LocalDate date;
         private LocalTime time;
         private MealCategory mealCategory;
-        private double totalCalories;
-        private double totalProteins;
-        private double totalFats;
-        private double totalCarbs;
+        private final NutrientVector totalNutrients = new NutrientVector();
         private String notes;
         private List<MealComponent> components = new ArrayList<>();
 
@@ -181,22 +200,22 @@ public class MealEntry {
         }
 
         public Builder setTotalCalories(double totalCalories) {
-            this.totalCalories = totalCalories;
+            totalNutrients.setCalories(totalCalories);
             return this;
         }
 
         public Builder setTotalProteins(double totalProteins) {
-            this.totalProteins = totalProteins;
+            totalNutrients.setProteins(totalProteins);
             return this;
         }
 
         public Builder setTotalFats(double totalFats) {
-            this.totalFats = totalFats;
+            totalNutrients.setFats(totalFats);
             return this;
         }
 
         public Builder setTotalCarbs(double totalCarbs) {
-            this.totalCarbs = totalCarbs;
+            totalNutrients.setCarbs(totalCarbs);
             return this;
         }
 
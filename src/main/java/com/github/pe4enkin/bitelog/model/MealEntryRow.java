@@ -0,0 +1,150 @@
+package com.github.pe4enkin.bitelog.model;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public final class MealEntryRow {
+    private final long id;
+    private final LocalTime time;
+    private final MealCategory mealCategory;
+    private final NutrientVector totalNutrients;
+    private final List<ComponentRow> components;
+
+    private MealEntryRow(long id, LocalTime time, MealCategory mealCategory, NutrientVector totalNutrients,
+                         List<ComponentRow> components) {
+        this.id = id;
+        this.time = time;
+        this.mealCategory = mealCategory;
+        this.totalNutrients = NutrientVector.copyOf(totalNutrients);
+        this.components = List.copyOf(components);
+    }
+
+    public static MealEntryRow of(MealEntry mealEntry, Map<Long, FoodItem> foodItems) {
+        List<ComponentRow> components = new ArrayList<>(mealEntry.getComponents().size());
+        for (MealComponent mealComponent : mealEntry.getComponents()) {
+            components.add(ComponentRow.of(mealComponent, foodItems.get(mealComponent.getFoodItemId())));
+        }
+        return new MealEntryRow(mealEntry.getId(), mealEntry.getTime(), mealEntry.getMealCategory(),
+                mealEntry.getTotalNutrients(), components);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public LocalTime getTime() {
+        return time;
+    }
+
+    public MealCategory getMealCategory() {
+        return mealCategory;
+    }
+
+    public double getTotalCalories() {
+        return totalNutrients.getCalories();
+    }
+
+    public List<ComponentRow> getComponents() {
+        return components;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MealEntryRow that)) return false;
+        return id == that.id
+                && Objects.equals(time, that.time)
+                && mealCategory == that.mealCategory
+                && totalNutrients.equals(that.totalNutrients)
+                && components.equals(that.components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, time, mealCategory, totalNutrients, components);
+    }
+
+    @Override
+    public String toString() {
+        return "MealEntryRow{" +
+                "id=" + id +
+                ", time=" + time +
+                ", mealCategory=" + mealCategory +
+                ", totalCalories=" + getTotalCalories() +
+                ", components=" + components +
+                '}';
+    }
+
+    public static final class ComponentRow {
+        private final long id;
+        private final long foodItemId;
+        private final double amountInGrams;
+        private final String foodItemName;
+        private final NutrientVector nutrients;
+
+        private ComponentRow(long id, long foodItemId, double amountInGrams, String foodItemName, NutrientVector nutrients) {
+            this.id = id;
+            this.foodItemId = foodItemId;
+            this.amountInGrams = amountInGrams;
+            this.foodItemName = foodItemName;
+            this.nutrients = nutrients;
+        }
+
+        static ComponentRow of(MealComponent mealComponent, FoodItem foodItem) {
+            NutrientVector nutrients = new NutrientVector();
+            String foodItemName = null;
+            if (foodItem != null) {
+                foodItemName = foodItem.getName();
+                nutrients.addScaled(foodItem.getNutrientsPer100g(), mealComponent.getAmountInGrams() / 100.0);
+            }
+            return new ComponentRow(mealComponent.getId(), mealComponent.getFoodItemId(), mealComponent.getAmountInGrams(),
+                    foodItemName, nutrients);
+        }
+
+        public long getFoodItemId() {
+            return foodItemId;
+        }
+
+        public double getAmountInGrams() {
+            return amountInGrams;
+        }
+
+        public String getFoodItemName() {
+            return foodItemName;
+        }
+
+        public double getCalories() {
+            return nutrients.getCalories();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ComponentRow that)) return false;
+            return id == that.id
+                    && foodItemId == that.foodItemId
+                    && Double.compare(amountInGrams, that.amountInGrams) == 0
+                    && Objects.equals(foodItemName, that.foodItemName)
+                    && nutrients.equals(that.nutrients);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, foodItemId, amountInGrams, foodItemName, nutrients);
+        }
+
+        @Override
+        public String toString() {
+            return "ComponentRow{" +
+                    "id=" + id +
+                    ", foodItemId=" + foodItemId +
+                    ", amountInGrams=" + amountInGrams +
+                    ", foodItemName='" + foodItemName + '\'' +
+                    ", calories=" + getCalories() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.github.pe4enkin.bitelog.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public class MealExportRow {
+    private long mealEntryId;
+    private LocalDate date;
+    private LocalTime time;
+    private MealCategory mealCategory;
+    private String notes;
+    private long mealComponentId;
+    private long foodItemId;
+    private String foodName;
+    private boolean foodComposite;
+    private double amountInGrams;
+    private double caloriesPer100g;
+    private double proteinsPer100g;
+    private double fatsPer100g;
+    private double carbsPer100g;
+
+    public long getMealEntryId() {
+        return mealEntryId;
+    }
+
+    public MealExportRow setMealEntryId(long mealEntryId) {
+        this.mealEntryId = mealEntryId;
+        return this;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public MealExportRow setDate(LocalDate date) {
+        this.date = date;
+        return this;
+    }
+
+    public LocalTime getTime() {
+        return time;
+    }
+
+    public MealExportRow setTime(LocalTime time) {
+        this.time = time;
+        return this;
+    }
+
+    public MealCategory getMealCategory() {
+        return mealCategory;
+    }
+
+    public MealExportRow setMealCategory(MealCategory mealCategory) {
+        this.mealCategory = mealCategory;
+        return this;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public MealExportRow setNotes(String notes) {
+        this.notes = notes;
+        return this;
+    }
+
+    public long getMealComponentId() {
+        return mealComponentId;
+    }
+
+    public MealExportRow setMealComponentId(long mealComponentId) {
+        this.mealComponentId = mealComponentId;
+        return this;
+    }
+
+    public boolean hasComponent() {
+        return mealComponentId != 0;
+    }
+
+    public long getFoodItemId() {
+        return foodItemId;
+    }
+
+    public MealExportRow setFoodItemId(long foodItemId) {
+        this.foodItemId = foodItemId;
+        return this;
+    }
+
+    public String getFoodName() {
+        return foodName;
+    }
+
+    public MealExportRow setFoodName(String foodName) {
+        this.foodName = foodName;
+        return this;
+    }
+
+    public boolean isFoodComposite() {
+        return foodComposite;
+    }
+
+    public MealExportRow setFoodComposite(boolean foodComposite) {
+        this.foodComposite = foodComposite;
+        return this;
+    }
+
+    public double getAmountInGrams() {
+        return amountInGrams;
+    }
+
+    public MealExportRow setAmountInGrams(double amountInGrams) {
+        this.amountInGrams = amountInGrams;
+        return this;
+    }
+
+    public double getCaloriesPer100g() {
+        return caloriesPer100g;
+    }
+
+    public MealExportRow setCaloriesPer100g(double caloriesPer100g) {
+        this.caloriesPer100g = caloriesPer100g;
+        return this;
+    }
+
+    public double getProteinsPer100g() {
+        return proteinsPer100g;
+    }
+
+    public MealExportRow setProteinsPer100g(double proteinsPer100g) {
+        this.proteinsPer100g = proteinsPer100g;
+        return this;
+    }
+
+    public double getFatsPer100g() {
+        return fatsPer100g;
+    }
+
+    public MealExportRow setFatsPer100g(double fatsPer100g) {
+        this.fatsPer100g = fatsPer100g;
+        return this;
+    }
+
+    public double getCarbsPer100g() {
+        return carbsPer100g;
+    }
+
+    public MealExportRow setCarbsPer100g(double carbsPer100g) {
+        this.carbsPer100g = carbsPer100g;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "MealExportRow{" +
+                "mealEntryId=" + mealEntryId +
+                ", date=" + date +
+                ", time=" + time +
+                ", mealCategory=" + mealCategory +
+                ", mealComponentId=" + mealComponentId +
+                ", foodItemId=" + foodItemId +
+                ", foodName='" + foodName + '\'' +
+                ", amountInGrams=" + amountInGrams +
+                '}';
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.pe4enkin.bitelog.model;
+
+public enum Nutrient {
+    CALORIES("Калории"), PROTEINS("Белки"), FATS("Жиры"), CARBS("Углеводы");
+
+    private final String name;
+
+    Nutrient(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
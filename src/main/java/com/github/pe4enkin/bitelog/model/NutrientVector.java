@@ -0,0 +1,146 @@
+package com.github.pe4enkin.bitelog.model;
+
+public final class NutrientVector {
+    private double calories;
+    private double proteins;
+    private double fats;
+    private double carbs;
+
+    public NutrientVector() {
+    }
+
+    public NutrientVector(double calories, double proteins, double fats, double carbs) {
+        this.calories = calories;
+        this.proteins = proteins;
+        this.fats = fats;
+        this.carbs = carbs;
+    }
+
+    public static NutrientVector copyOf(NutrientVector other) {
+        return new NutrientVector(other.calories, other.proteins, other.fats, other.carbs);
+    }
+
+    public double get(Nutrient nutrient) {
+        return switch (nutrient) {
+            case CALORIES -> calories;
+            case PROTEINS -> proteins;
+            case FATS -> fats;
+            case CARBS -> carbs;
+        };
+    }
+
+    public NutrientVector set(Nutrient nutrient, double value) {
+        switch (nutrient) {
+            case CALORIES -> calories = value;
+            case PROTEINS -> proteins = value;
+            case FATS -> fats = value;
+            case CARBS -> carbs = value;
+        }
+        return this;
+    }
+
+    public double getCalories() {
+        return calories;
+    }
+
+    public NutrientVector setCalories(double calories) {
+        this.calories = calories;
+        return this;
+    }
+
+    public double getProteins() {
+        return proteins;
+    }
+
+    public NutrientVector setProteins(double proteins) {
+        this.proteins = proteins;
+        return this;
+    }
+
+    public double getFats() {
+        return fats;
+    }
+
+    public NutrientVector setFats(double fats) {
+        this.fats = fats;
+        return this;
+    }
+
+    public double getCarbs() {
+        return carbs;
+    }
+
+    public NutrientVector setCarbs(double carbs) {
+        this.carbs = carbs;
+        return this;
+    }
+
+    public NutrientVector setAll(NutrientVector other) {
+        this.calories = other.calories;
+        this.proteins = other.proteins;
+        this.fats = other.fats;
+        this.carbs = other.carbs;
+        return this;
+    }
+
+    public NutrientVector add(NutrientVector other) {
+        this.calories += other.calories;
+        this.proteins += other.proteins;
+        this.fats += other.fats;
+        this.carbs += other.carbs;
+        return this;
+    }
+
+    public NutrientVector addScaled(NutrientVector other, double factor) {
+        this.calories += other.calories * factor;
+        this.proteins += other.proteins * factor;
+        this.fats += other.fats * factor;
+        this.carbs += other.carbs * factor;
+        return this;
+    }
+
+    public NutrientVector scale(double factor) {
+        this.calories *= factor;
+        this.proteins *= factor;
+        this.fats *= factor;
+        this.carbs *= factor;
+        return this;
+    }
+
+    public NutrientVector reset() {
+        this.calories = 0.0;
+        this.proteins = 0.0;
+        this.fats = 0.0;
+        this.carbs = 0.0;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof NutrientVector that)) return false;
+        return Double.compare(calories, that.calories) == 0
+                && Double.compare(proteins, that.proteins) == 0
+                && Double.compare(fats, that.fats) == 0
+                && Double.compare(carbs, that.carbs) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(calories);
+        result = 31 * result + Double.hashCode(proteins);
+        result = 31 * result + Double.hashCode(fats);
+        result = 31 * result + Double.hashCode(carbs);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "NutrientVector{" +
+                "calories=" + calories +
+                ", proteins=" + proteins +
+                ", fats=" + fats +
+                ", carbs=" + carbs +
+                '}';
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.pe4enkin.bitelog.model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class NutritionRollup {
+    private final RollupPeriod period;
+    private final LocalDate periodStart;
+    private final LocalDate periodEnd;
+    private final NutrientVector totalNutrients;
+    private final Map<MealCategory, NutrientVector> categoryNutrients;
+    private final int loggedDays;
+    private final int entryCount;
+
+    public NutritionRollup(RollupPeriod period, LocalDate periodStart, LocalDate periodEnd, NutrientVector totalNutrients,
+                           Map<MealCategory, NutrientVector> categoryNutrients, int loggedDays, int entryCount) {
+        this.period = period;
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+        this.totalNutrients = NutrientVector.copyOf(totalNutrients);
+        EnumMap<MealCategory, NutrientVector> copy = new EnumMap<>(MealCategory.class);
+        for (Map.Entry<MealCategory, NutrientVector> entry : categoryNutrients.entrySet()) {
+            copy.put(entry.getKey(), NutrientVector.copyOf(entry.getValue()));
+        }
+        this.categoryNutrients = copy;
+        this.loggedDays = loggedDays;
+        this.entryCount = entryCount;
+    }
+
+    public RollupPeriod getPeriod() {
+        return period;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public LocalDate getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public int getDayCount() {
+        return (int) ChronoUnit.DAYS.between(periodStart, periodEnd) + 1;
+    }
+
+    public NutrientVector getTotalNutrients() {
+        return NutrientVector.copyOf(totalNutrients);
+    }
+
+    public NutrientVector getAverageNutrientsPerLoggedDay() {
+        return loggedDays == 0 ? new NutrientVector() : NutrientVector.copyOf(totalNutrients).scale(1.0 / loggedDays);
+    }
+
+    public NutrientVector getCategoryNutrients(MealCategory mealCategory) {
+        NutrientVector nutrients = categoryNutrients.get(mealCategory);
+        return nutrients == null ? new NutrientVector() : NutrientVector.copyOf(nutrients);
+    }
+
+    public int getLoggedDays() {
+        return loggedDays;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    @Override
+    public String toString() {
+        return "NutritionRollup{" +
+                "period=" + period +
+                ", periodStart=" + periodStart +
+                ", periodEnd=" + periodEnd +
+                ", totalNutrients=" + totalNutrients +
+                ", loggedDays=" + loggedDays +
+                ", entryCount=" + entryCount +
+                '}';
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.pe4enkin.bitelog.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum RollupPeriod {
+    WEEK("Неделя"), MONTH("Месяц"), YEAR("Год");
+
+    private final String name;
+
+    RollupPeriod(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDate startOf(LocalDate date) {
+        return switch (this) {
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    public LocalDate nextStart(LocalDate periodStart) {
+        return switch (this) {
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+            case YEAR -> periodStart.plusYears(1);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
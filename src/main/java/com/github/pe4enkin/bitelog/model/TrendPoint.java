@@ -0,0 +1,65 @@
+package com.github.pe4enkin.bitelog.model;
+
+import java.time.LocalDate;
+
+public class TrendPoint {
+    private final LocalDate date;
+    private final NutrientVector dayNutrients;
+    private final NutrientVector weeklyAverage;
+    private final NutrientVector monthlyAverage;
+    private final NutrientVector quarterlyAverage;
+    private final NutrientVector weekOverWeekDelta;
+    private final int streak;
+
+    public TrendPoint(LocalDate date, NutrientVector dayNutrients, NutrientVector weeklyAverage, NutrientVector monthlyAverage,
+                      NutrientVector quarterlyAverage, NutrientVector weekOverWeekDelta, int streak) {
+        this.date = date;
+        this.dayNutrients = dayNutrients;
+        this.weeklyAverage = weeklyAverage;
+        this.monthlyAverage = monthlyAverage;
+        this.quarterlyAverage = quarterlyAverage;
+        this.weekOverWeekDelta = weekOverWeekDelta;
+        this.streak = streak;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public NutrientVector getDayNutrients() {
+        return NutrientVector.copyOf(dayNutrients);
+    }
+
+    public NutrientVector getWeeklyAverage() {
+        return NutrientVector.copyOf(weeklyAverage);
+    }
+
+    public NutrientVector getMonthlyAverage() {
+        return NutrientVector.copyOf(monthlyAverage);
+    }
+
+    public NutrientVector getQuarterlyAverage() {
+        return NutrientVector.copyOf(quarterlyAverage);
+    }
+
+    public NutrientVector getWeekOverWeekDelta() {
+        return NutrientVector.copyOf(weekOverWeekDelta);
+    }
+
+    public int getStreak() {
+        return streak;
+    }
+
+    @Override
+    public String toString() {
+        return "TrendPoint{" +
+                "date=" + date +
+                ", dayNutrients=" + dayNutrients +
+                ", weeklyAverage=" + weeklyAverage +
+                ", monthlyAverage=" + monthlyAverage +
+                ", quarterlyAverage=" + quarterlyAverage +
+                ", weekOverWeekDelta=" + weekOverWeekDelta +
+                ", streak=" + streak +
+                '}';
+    }
+}
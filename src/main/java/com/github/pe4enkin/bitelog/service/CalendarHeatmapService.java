@@ -0,0 +1,116 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.model.CalendarMonth;
+import com.github.pe4enkin.bitelog.model.DailyTotals;
+import com.github.pe4enkin.bitelog.service.exception.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+public class CalendarHeatmapService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalendarHeatmapService.class);
+    private static final int DEFAULT_CAPACITY = 60;
+
+    private final DailyTotalsService dailyTotalsService;
+    private final int capacity;
+    private final LinkedHashMap<YearMonth, CalendarMonth> months;
+    private long queryCount;
+
+    public CalendarHeatmapService(DailyTotalsService dailyTotalsService) {
+        this(dailyTotalsService, DEFAULT_CAPACITY);
+    }
+
+    public CalendarHeatmapService(DailyTotalsService dailyTotalsService, int capacity) {
+        if (capacity < 12) {
+            throw new IllegalArgumentException("Емкость кэша календаря должна вмещать хотя бы год: " + capacity);
+        }
+        this.dailyTotalsService = dailyTotalsService;
+        this.capacity = capacity;
+        this.months = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<YearMonth, CalendarMonth> eldest) {
+                return size() > CalendarHeatmapService.this.capacity;
+            }
+        };
+    }
+
+    public CalendarMonth getMonth(YearMonth yearMonth) {
+        return getMonths(yearMonth, yearMonth).get(0);
+    }
+
+    public List<CalendarMonth> getYear(int year) {
+        return getMonths(YearMonth.of(year, 1), YearMonth.of(year, 12));
+    }
+
+    public synchronized List<CalendarMonth> getMonths(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new ServiceException("Начальный месяц периода не может быть позже конечного.");
+        }
+        Map<YearMonth, CalendarMonth> found = new HashMap<>();
+        YearMonth firstMissing = null;
+        YearMonth lastMissing = null;
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            CalendarMonth cached = months.get(month);
+            if (cached != null) {
+                found.put(month, cached);
+            } else {
+                if (firstMissing == null) {
+                    firstMissing = month;
+                }
+                lastMissing = month;
+            }
+        }
+        if (firstMissing != null) {
+            found.putAll(load(firstMissing, lastMissing, found.keySet()));
+        }
+
+        List<CalendarMonth> result = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            result.add(found.get(month));
+        }
+        return result;
+    }
+
+    public synchronized void invalidate(Collection<LocalDate> dates) {
+        for (LocalDate date : dates) {
+            months.remove(YearMonth.from(date));
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        months.clear();
+    }
+
+    public synchronized int size() {
+        return months.size();
+    }
+
+    public synchronized long getQueryCount() {
+        return queryCount;
+    }
+
+    private Map<YearMonth, CalendarMonth> load(YearMonth from, YearMonth to, Set<YearMonth> cached) {
+        long startNanos = System.nanoTime();
+        Map<YearMonth, CalendarMonth> loaded = new HashMap<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (!cached.contains(month)) {
+                loaded.put(month, new CalendarMonth(month));
+            }
+        }
+        List<DailyTotals> totals = dailyTotalsService.getTotalsBetween(from.atDay(1), to.atEndOfMonth());
+        queryCount++;
+        for (DailyTotals dailyTotals : totals) {
+            CalendarMonth calendarMonth = loaded.get(YearMonth.from(dailyTotals.getDate()));
+            if (calendarMonth != null) {
+                calendarMonth.setDay(dailyTotals.getDate().getDayOfMonth(), dailyTotals.getTotalCalories(), dailyTotals.getEntryCount());
+            }
+        }
+        months.putAll(loaded);
+        LOGGER.debug("Календарь: загружено {} месяцев ({} - {}) одним запросом за {} мс.", loaded.size(), from, to,
+                (System.nanoTime() - startNanos) / 1_000_000);
+        return loaded;
+    }
+}
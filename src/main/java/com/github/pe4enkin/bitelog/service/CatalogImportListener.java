@@ -0,0 +1,7 @@
+package com.github.pe4enkin.bitelog.service;
+
+@FunctionalInterface
+public interface CatalogImportListener {
+
+    void onProgress(CatalogImportProgress progress);
+}
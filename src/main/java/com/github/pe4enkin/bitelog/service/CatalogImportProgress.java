@@ -0,0 +1,60 @@
+package com.github.pe4enkin.bitelog.service;
+
+public class CatalogImportProgress {
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long duplicatesSkipped;
+    private final long rowsRejected;
+    private final long categoriesCreated;
+    private final long elapsedNanos;
+
+    public CatalogImportProgress(long rowsRead, long rowsImported, long duplicatesSkipped, long rowsRejected,
+                                 long categoriesCreated, long elapsedNanos) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.duplicatesSkipped = duplicatesSkipped;
+        this.rowsRejected = rowsRejected;
+        this.categoriesCreated = categoriesCreated;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getDuplicatesSkipped() {
+        return duplicatesSkipped;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public long getCategoriesCreated() {
+        return categoriesCreated;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? rowsRead * 1_000_000_000.0 / elapsedNanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogImportProgress{" +
+                "rowsRead=" + rowsRead +
+                ", rowsImported=" + rowsImported +
+                ", duplicatesSkipped=" + duplicatesSkipped +
+                ", rowsRejected=" + rowsRejected +
+                ", categoriesCreated=" + categoriesCreated +
+                ", elapsedNanos=" + elapsedNanos +
+                '}';
+    }
+}
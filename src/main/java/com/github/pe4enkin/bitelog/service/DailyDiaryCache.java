@@ -0,0 +1,150 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.model.DailyDiary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+public class DailyDiaryCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DailyDiaryCache.class);
+
+    private final int capacity;
+    private final int prefetchDays;
+    private final Executor prefetchExecutor;
+    private final LinkedHashMap<LocalDate, DailyDiary> diaries;
+    private final Set<LocalDate> prefetching = ConcurrentHashMap.newKeySet();
+    private long generation;
+
+    private long hitCount;
+    private long missCount;
+    private long prefetchCount;
+
+    public DailyDiaryCache(int capacity, int prefetchDays, Executor prefetchExecutor) {
+        if (prefetchDays < 0) {
+            throw new IllegalArgumentException("Количество дней предзагрузки не может быть отрицательным: " + prefetchDays);
+        }
+        if (capacity <= prefetchDays * 2) {
+            throw new IllegalArgumentException("Емкость кэша дневников должна быть больше " + prefetchDays * 2 + ": " + capacity);
+        }
+        this.capacity = capacity;
+        this.prefetchDays = prefetchDays;
+        this.prefetchExecutor = prefetchExecutor;
+        this.diaries = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, DailyDiary> eldest) {
+                return size() > DailyDiaryCache.this.capacity;
+            }
+        };
+    }
+
+    public synchronized DailyDiary get(LocalDate date) {
+        DailyDiary dailyDiary = diaries.get(date);
+        if (dailyDiary == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return DailyDiary.copyOf(dailyDiary);
+    }
+
+    public synchronized boolean contains(LocalDate date) {
+        return diaries.containsKey(date);
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    public synchronized boolean put(LocalDate date, DailyDiary dailyDiary, long loadedAtGeneration) {
+        if (loadedAtGeneration != generation) {
+            LOGGER.debug("КЭШ: дневник за {} устарел во время загрузки и не будет сохранен.", date);
+            return false;
+        }
+        diaries.put(date, DailyDiary.copyOf(dailyDiary));
+        return true;
+    }
+
+    public synchronized void invalidate(Collection<LocalDate> dates) {
+        generation++;
+        diaries.keySet().removeAll(dates);
+        LOGGER.debug("КЭШ: инвалидированы дневники за {}.", dates);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        diaries.clear();
+        LOGGER.debug("КЭШ: инвалидированы все дневники.");
+    }
+
+    public void prefetchAround(LocalDate date, Function<LocalDate, DailyDiary> loader) {
+        for (int offset = 1; offset <= prefetchDays; offset++) {
+            prefetch(date.plusDays(offset), loader);
+            prefetch(date.minusDays(offset), loader);
+        }
+    }
+
+    public synchronized int size() {
+        return diaries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "DailyDiaryCache{" +
+                "size=" + diaries.size() +
+                ", capacity=" + capacity +
+                ", hits=" + hitCount +
+                ", misses=" + missCount +
+                ", prefetched=" + prefetchCount +
+                '}';
+    }
+
+    private void prefetch(LocalDate date, Function<LocalDate, DailyDiary> loader) {
+        if (contains(date) || !prefetching.add(date)) {
+            return;
+        }
+        long loadedAtGeneration = getGeneration();
+        try {
+            prefetchExecutor.execute(() -> {
+                try {
+                    DailyDiary dailyDiary = loader.apply(date);
+                    if (put(date, dailyDiary, loadedAtGeneration)) {
+                        synchronized (this) {
+                            prefetchCount++;
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Не удалось предзагрузить дневник за {}: {}", date, e.getMessage());
+                } finally {
+                    prefetching.remove(date);
+                }
+            });
+        } catch (RuntimeException e) {
+            prefetching.remove(date);
+            LOGGER.warn("Не удалось запланировать предзагрузку дневника за {}: {}", date, e.getMessage());
+        }
+    }
+}
@@ -1,21 +1,64 @@
 package com.github.pe4enkin.bitelog.service;
 
 import com.github.pe4enkin.bitelog.model.DailyDiary;
+import com.github.pe4enkin.bitelog.model.FoodItem;
 import com.github.pe4enkin.bitelog.model.MealEntry;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class DailyDiaryService {
     private final MealEntryService mealEntryService;
+    private final DailyDiaryCache dailyDiaryCache;
 
     public DailyDiaryService(MealEntryService mealEntryService){
+        this(mealEntryService, null);
+    }
+
+    public DailyDiaryService(MealEntryService mealEntryService, DailyDiaryCache dailyDiaryCache) {
         this.mealEntryService = mealEntryService;
+        this.dailyDiaryCache = dailyDiaryCache;
+        if (dailyDiaryCache != null) {
+            mealEntryService.addDiaryChangeListener(dailyDiaryCache::invalidate);
+        }
     }
 
     public DailyDiary getDiaryForDate(LocalDate date) {
-        List<MealEntry> mealEntries = mealEntryService.getAllByDate(date);
-        DailyDiary dailyDiary = new DailyDiary(date, mealEntries);
+        if (dailyDiaryCache == null) {
+            return loadDiary(date);
+        }
+        DailyDiary cached = dailyDiaryCache.get(date);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = dailyDiaryCache.getGeneration();
+        DailyDiary dailyDiary = loadDiary(date);
+        dailyDiaryCache.put(date, dailyDiary, generation);
+        return dailyDiary;
+    }
+
+    public void prefetchAround(LocalDate date) {
+        if (dailyDiaryCache != null) {
+            dailyDiaryCache.prefetchAround(date, this::loadDiary);
+        }
+    }
+
+    public void invalidateCache() {
+        if (dailyDiaryCache != null) {
+            dailyDiaryCache.invalidateAll();
+        }
+    }
+
+    public DailyDiaryCache getDailyDiaryCache() {
+        return dailyDiaryCache;
+    }
+
+    private DailyDiary loadDiary(LocalDate date) {
+        Map<Long, FoodItem> foodItems = new HashMap<>();
+        List<MealEntry> mealEntries = mealEntryService.getAllByDate(date, foodItems);
+        DailyDiary dailyDiary = new DailyDiary(date, mealEntries, foodItems);
         dailyDiary.calculateAndSetAllNutrients();
 
         return dailyDiary;
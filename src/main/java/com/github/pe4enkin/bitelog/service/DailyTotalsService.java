@@ -0,0 +1,116 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.dao.DailyTotalsDao;
+import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
+import com.github.pe4enkin.bitelog.model.DailyTotals;
+import com.github.pe4enkin.bitelog.service.exception.ServiceException;
+import com.github.pe4enkin.bitelog.util.DateTimeFormatterUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class DailyTotalsService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DailyTotalsService.class);
+    private final DailyTotalsDao dailyTotalsDao;
+    private final List<DiaryChangeListener> totalsChangeListeners = new CopyOnWriteArrayList<>();
+
+    public DailyTotalsService(DailyTotalsDao dailyTotalsDao) {
+        this.dailyTotalsDao = dailyTotalsDao;
+    }
+
+    public void addTotalsChangeListener(DiaryChangeListener listener) {
+        totalsChangeListeners.add(listener);
+    }
+
+    private void notifyTotalsChanged(Set<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        Set<LocalDate> unmodifiableDates = Collections.unmodifiableSet(dates);
+        for (DiaryChangeListener listener : totalsChangeListeners) {
+            try {
+                listener.onDaysChanged(unmodifiableDates);
+            } catch (RuntimeException e) {
+                LOGGER.error("Ошибка в обработчике пересчета итогов за {} дней: {}", dates.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    public Optional<DailyTotals> getTotalsForDate(LocalDate date) {
+        try {
+            return dailyTotalsDao.findByDate(date);
+        } catch (DataAccessException e) {
+            String logDate = DateTimeFormatterUtil.formatDateWithDots(date);
+            LOGGER.error("Ошибка DAO при получении итогов за дату {}: {}", logDate, e.getMessage());
+            throw new ServiceException("Не удалось получить итоги за дату " + logDate + ": " + e.getMessage(), e);
+        }
+    }
+
+    public List<DailyTotals> getTotalsBetween(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new ServiceException("Начальная дата периода не может быть позже конечной.");
+        }
+        try {
+            return dailyTotalsDao.findBetween(from, to);
+        } catch (DataAccessException e) {
+            String logRange = DateTimeFormatterUtil.formatDateWithDots(from) + " - " + DateTimeFormatterUtil.formatDateWithDots(to);
+            LOGGER.error("Ошибка DAO при получении итогов за период {}: {}", logRange, e.getMessage());
+            throw new ServiceException("Не удалось получить итоги за период " + logRange + ": " + e.getMessage(), e);
+        }
+    }
+
+    public List<DailyTotals> getAllTotals() {
+        try {
+            return dailyTotalsDao.findAll();
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при получении всех итогов по дням: {}", e.getMessage());
+            throw new ServiceException("Не удалось получить итоги по дням: " + e.getMessage(), e);
+        }
+    }
+
+    public int rebuildAll() {
+        try {
+            return dailyTotalsDao.rebuildAll();
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при перестроении итогов по дням: {}", e.getMessage());
+            throw new ServiceException("Не удалось перестроить итоги по дням: " + e.getMessage(), e);
+        }
+    }
+
+    public int rebuildIfEmpty() {
+        try {
+            return dailyTotalsDao.rebuildIfEmpty();
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при начальном построении итогов по дням: {}", e.getMessage());
+            throw new ServiceException("Не удалось построить итоги по дням: " + e.getMessage(), e);
+        }
+    }
+
+    public Set<LocalDate> rebuildForFoodItems(Collection<Long> foodItemIds) {
+        Set<LocalDate> dates;
+        try {
+            dates = dailyTotalsDao.rebuildForFoodItems(foodItemIds);
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при пересчете итогов после изменения {} продуктов: {}", foodItemIds.size(), e.getMessage());
+            markDirty();
+            throw new ServiceException("Не удалось пересчитать итоги по дням после изменения продуктов: " + e.getMessage(), e);
+        }
+        notifyTotalsChanged(dates);
+        return dates;
+    }
+
+    private void markDirty() {
+        try {
+            dailyTotalsDao.markDirty();
+        } catch (DataAccessException e) {
+            LOGGER.error("Не удалось пометить итоги по дням для перестроения, они будут расходиться с дневником до перестроения: {}", e.getMessage());
+        }
+    }
+}
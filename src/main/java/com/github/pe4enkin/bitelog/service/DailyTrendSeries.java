@@ -0,0 +1,199 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.model.Nutrient;
+import com.github.pe4enkin.bitelog.model.NutrientVector;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+public class DailyTrendSeries {
+    private static final int NUTRIENT_COUNT = Nutrient.values().length;
+    private static final int INITIAL_CAPACITY = 512;
+
+    private long baseEpochDay;
+    private int size;
+    private double[][] daily = new double[NUTRIENT_COUNT][INITIAL_CAPACITY];
+    private double[][] prefixSums = new double[NUTRIENT_COUNT][INITIAL_CAPACITY + 1];
+    private int[] entryCounts = new int[INITIAL_CAPACITY];
+    private int[] loggedPrefix = new int[INITIAL_CAPACITY + 1];
+    private int[] streaks = new int[INITIAL_CAPACITY];
+
+    public synchronized void clear() {
+        size = 0;
+        for (int n = 0; n < NUTRIENT_COUNT; n++) {
+            Arrays.fill(daily[n], 0.0);
+            Arrays.fill(prefixSums[n], 0.0);
+        }
+        Arrays.fill(entryCounts, 0);
+        Arrays.fill(loggedPrefix, 0);
+        Arrays.fill(streaks, 0);
+    }
+
+    public synchronized void setDay(LocalDate date, NutrientVector totals, int entryCount) {
+        int index = ensureIndex(date.toEpochDay());
+        for (Nutrient nutrient : Nutrient.values()) {
+            int n = nutrient.ordinal();
+            double delta = totals.get(nutrient) - daily[n][index];
+            if (delta != 0.0) {
+                daily[n][index] += delta;
+                double[] prefix = prefixSums[n];
+                for (int i = index + 1; i <= size; i++) {
+                    prefix[i] += delta;
+                }
+            }
+        }
+        boolean wasLogged = entryCounts[index] > 0;
+        boolean logged = entryCount > 0;
+        entryCounts[index] = entryCount;
+        if (wasLogged != logged) {
+            int delta = logged ? 1 : -1;
+            for (int i = index + 1; i <= size; i++) {
+                loggedPrefix[i] += delta;
+            }
+            for (int i = index; i < size; i++) {
+                int streak = entryCounts[i] > 0 ? (i > 0 ? streaks[i - 1] : 0) + 1 : 0;
+                if (i > index && streak == streaks[i]) {
+                    break;
+                }
+                streaks[i] = streak;
+            }
+        }
+    }
+
+    public synchronized NutrientVector getDay(LocalDate date) {
+        NutrientVector day = new NutrientVector();
+        int index = indexOf(date.toEpochDay());
+        if (index >= 0 && index < size) {
+            for (Nutrient nutrient : Nutrient.values()) {
+                day.set(nutrient, daily[nutrient.ordinal()][index]);
+            }
+        }
+        return day;
+    }
+
+    public synchronized NutrientVector getWindowSum(LocalDate endDate, int windowDays) {
+        checkWindow(windowDays);
+        NutrientVector sum = new NutrientVector();
+        int to = clampedIndex(endDate.toEpochDay() + 1);
+        int from = clampedIndex(endDate.toEpochDay() + 1 - windowDays);
+        for (Nutrient nutrient : Nutrient.values()) {
+            double[] prefix = prefixSums[nutrient.ordinal()];
+            sum.set(nutrient, prefix[to] - prefix[from]);
+        }
+        return sum;
+    }
+
+    public synchronized int getLoggedDays(LocalDate endDate, int windowDays) {
+        checkWindow(windowDays);
+        int to = clampedIndex(endDate.toEpochDay() + 1);
+        int from = clampedIndex(endDate.toEpochDay() + 1 - windowDays);
+        return loggedPrefix[to] - loggedPrefix[from];
+    }
+
+    public NutrientVector getMovingAverage(LocalDate endDate, int windowDays) {
+        NutrientVector sum;
+        int loggedDays;
+        synchronized (this) {
+            sum = getWindowSum(endDate, windowDays);
+            loggedDays = getLoggedDays(endDate, windowDays);
+        }
+        return loggedDays == 0 ? sum.reset() : sum.scale(1.0 / loggedDays);
+    }
+
+    public synchronized int getStreak(LocalDate date) {
+        int index = indexOf(date.toEpochDay());
+        return index >= 0 && index < size ? streaks[index] : 0;
+    }
+
+    public synchronized int getLongestStreak() {
+        int longest = 0;
+        for (int i = 0; i < size; i++) {
+            longest = Math.max(longest, streaks[i]);
+        }
+        return longest;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void checkWindow(int windowDays) {
+        if (windowDays <= 0) {
+            throw new IllegalArgumentException("Размер окна должен быть больше 0: " + windowDays);
+        }
+    }
+
+    private int indexOf(long epochDay) {
+        long index = epochDay - baseEpochDay;
+        return index < 0 || index > Integer.MAX_VALUE ? -1 : (int) index;
+    }
+
+    private int clampedIndex(long epochDayExclusive) {
+        long index = epochDayExclusive - baseEpochDay;
+        return (int) Math.max(0, Math.min(size, index));
+    }
+
+    private int ensureIndex(long epochDay) {
+        if (size == 0) {
+            baseEpochDay = epochDay;
+            size = 1;
+            return 0;
+        }
+        if (epochDay < baseEpochDay) {
+            shiftRight(Math.toIntExact(baseEpochDay - epochDay));
+            baseEpochDay = epochDay;
+            return 0;
+        }
+        int index = Math.toIntExact(epochDay - baseEpochDay);
+        if (index >= size) {
+            ensureCapacity(index + 1);
+            for (int i = size + 1; i <= index + 1; i++) {
+                for (int n = 0; n < NUTRIENT_COUNT; n++) {
+                    prefixSums[n][i] = prefixSums[n][size];
+                }
+                loggedPrefix[i] = loggedPrefix[size];
+            }
+            size = index + 1;
+        }
+        return index;
+    }
+
+    private void shiftRight(int offset) {
+        int newSize = size + offset;
+        int capacity = Math.max(newSize, entryCounts.length);
+        for (int n = 0; n < NUTRIENT_COUNT; n++) {
+            daily[n] = shifted(daily[n], offset, capacity);
+            prefixSums[n] = shifted(prefixSums[n], offset, capacity + 1);
+        }
+        entryCounts = shifted(entryCounts, offset, capacity);
+        loggedPrefix = shifted(loggedPrefix, offset, capacity + 1);
+        streaks = shifted(streaks, offset, capacity);
+        size = newSize;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= entryCounts.length) {
+            return;
+        }
+        int capacity = Math.max(required, entryCounts.length * 2);
+        for (int n = 0; n < NUTRIENT_COUNT; n++) {
+            daily[n] = Arrays.copyOf(daily[n], capacity);
+            prefixSums[n] = Arrays.copyOf(prefixSums[n], capacity + 1);
+        }
+        entryCounts = Arrays.copyOf(entryCounts, capacity);
+        loggedPrefix = Arrays.copyOf(loggedPrefix, capacity + 1);
+        streaks = Arrays.copyOf(streaks, capacity);
+    }
+
+    private static double[] shifted(double[] source, int offset, int length) {
+        double[] target = new double[length];
+        System.arraycopy(source, 0, target, offset, Math.min(source.length, length - offset));
+        return target;
+    }
+
+    private static int[] shifted(int[] source, int offset, int length) {
+        int[] target = new int[length];
+        System.arraycopy(source, 0, target, offset, Math.min(source.length, length - offset));
+        return target;
+    }
+}
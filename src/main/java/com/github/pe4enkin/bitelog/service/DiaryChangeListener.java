@@ -0,0 +1,10 @@
+package com.github.pe4enkin.bitelog.service;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+@FunctionalInterface
+public interface DiaryChangeListener {
+
+    void onDaysChanged(Set<LocalDate> dates);
+}
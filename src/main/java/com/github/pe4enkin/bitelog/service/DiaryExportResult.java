@@ -0,0 +1,50 @@
+package com.github.pe4enkin.bitelog.service;
+
+import java.nio.file.Path;
+
+public class DiaryExportResult {
+    private final Path target;
+    private final long mealEntries;
+    private final long mealComponents;
+    private final long bytesWritten;
+    private final long elapsedNanos;
+
+    public DiaryExportResult(Path target, long mealEntries, long mealComponents, long bytesWritten, long elapsedNanos) {
+        this.target = target;
+        this.mealEntries = mealEntries;
+        this.mealComponents = mealComponents;
+        this.bytesWritten = bytesWritten;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    public long getMealEntries() {
+        return mealEntries;
+    }
+
+    public long getMealComponents() {
+        return mealComponents;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "DiaryExportResult{" +
+                "target=" + target +
+                ", mealEntries=" + mealEntries +
+                ", mealComponents=" + mealComponents +
+                ", bytesWritten=" + bytesWritten +
+                ", elapsedNanos=" + elapsedNanos +
+                '}';
+    }
+}
@@ -0,0 +1,256 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.dao.DiaryExportDao;
+import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
+import com.github.pe4enkin.bitelog.model.ExportFormat;
+import com.github.pe4enkin.bitelog.model.FoodItem;
+import com.github.pe4enkin.bitelog.model.MealExportRow;
+import com.github.pe4enkin.bitelog.service.exception.ServiceException;
+import com.github.pe4enkin.bitelog.util.BufferedChannelWriter;
+import com.github.pe4enkin.bitelog.util.DateTimeFormatterUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+public class DiaryExportService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiaryExportService.class);
+    private static final char CSV_DELIMITER = ',';
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+    private static final int NUTRIENT_SCALE = 2;
+    private static final String CSV_HEADER = "date,time,meal_entry_id,meal_category,notes,meal_component_id,food_item_id," +
+            "food_name,amount_in_grams,calories,proteins,fats,carbs\n";
+
+    private final DiaryExportDao diaryExportDao;
+    private final FoodItemService foodItemService;
+
+    public DiaryExportService(DiaryExportDao diaryExportDao, FoodItemService foodItemService) {
+        this.diaryExportDao = diaryExportDao;
+        this.foodItemService = foodItemService;
+    }
+
+    public DiaryExportResult export(LocalDate from, LocalDate to, ExportFormat format, Path target, boolean gzip) {
+        String logRange = DateTimeFormatterUtil.formatDateWithDots(from) + " - " + DateTimeFormatterUtil.formatDateWithDots(to);
+        if (from.isAfter(to)) {
+            LOGGER.warn("Попытка экспорта дневника с некорректным периодом {}", logRange);
+            throw new ServiceException("Начальная дата периода экспорта не может быть позже конечной.");
+        }
+        long startNanos = System.nanoTime();
+        LOGGER.info("Начат экспорт дневника за период {} в {} (формат {}, gzip {}).", logRange, target, format, gzip);
+
+        try (BufferedChannelWriter writer = new BufferedChannelWriter(openChannel(target, gzip))) {
+            ExportState state = new ExportState(writer, format);
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            try {
+                diaryExportDao.streamRowsByDateRange(from, to, row -> {
+                    try {
+                        state.accept(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            state.finish();
+            writer.flush();
+
+            DiaryExportResult result = new DiaryExportResult(target, state.mealEntries, state.mealComponents,
+                    writer.getBytesWritten(), System.nanoTime() - startNanos);
+            LOGGER.info("Экспорт дневника за период {} завершен: {} приемов пищи, {} компонентов, {} байт.",
+                    logRange, result.getMealEntries(), result.getMealComponents(), result.getBytesWritten());
+            return result;
+        } catch (IOException e) {
+            LOGGER.error("Ошибка ввода-вывода при экспорте дневника за период {} в {}: {}", logRange, target, e.getMessage());
+            throw new ServiceException("Не удалось записать экспорт дневника в " + target + ": " + e.getMessage(), e);
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при экспорте дневника за период {}: {}", logRange, e.getMessage());
+            throw new ServiceException("Не удалось выгрузить дневник за период " + logRange + ": " + e.getMessage(), e);
+        }
+    }
+
+    private WritableByteChannel openChannel(Path target, boolean gzip) throws IOException {
+        FileChannel fileChannel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (!gzip) {
+            return fileChannel;
+        }
+        return Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(fileChannel), GZIP_BUFFER_SIZE));
+    }
+
+    private double[] resolveCompositeNutrients(long foodItemId, Map<Long, double[]> compositeNutrients) {
+        double[] nutrients = compositeNutrients.get(foodItemId);
+        if (nutrients == null) {
+            Optional<FoodItem> foodItemOptional = foodItemService.getFoodItemById(foodItemId);
+            if (foodItemOptional.isEmpty()) {
+                LOGGER.error("Составной FoodItem с ID {} не найден при экспорте дневника.", foodItemId);
+                throw new ServiceException("Не удалось рассчитать нутриенты для экспорта: продукт с ID " + foodItemId + " не найден.");
+            }
+            FoodItem foodItem = foodItemOptional.get();
+            nutrients = new double[]{foodItem.getCaloriesPer100g(), foodItem.getProteinsPer100g(),
+                    foodItem.getFatsPer100g(), foodItem.getCarbsPer100g()};
+            compositeNutrients.put(foodItemId, nutrients);
+        }
+        return nutrients;
+    }
+
+    private final class ExportState {
+        private final BufferedChannelWriter writer;
+        private final ExportFormat format;
+        private final Map<Long, double[]> compositeNutrients = new HashMap<>();
+        private final double[] basePer100g = new double[4];
+        private long mealEntries;
+        private long mealComponents;
+
+        private long currentEntryId;
+        private MealExportRow currentEntry = new MealExportRow();
+        private int componentCount;
+        private long[] componentIds = new long[8];
+        private long[] foodItemIds = new long[8];
+        private String[] foodNames = new String[8];
+        private double[] amounts = new double[8];
+        private double[] componentNutrients = new double[8 * 4];
+        private final double[] entryTotals = new double[4];
+
+        private ExportState(BufferedChannelWriter writer, ExportFormat format) {
+            this.writer = writer;
+            this.format = format;
+        }
+
+        private void accept(MealExportRow row) throws IOException {
+            if (row.getMealEntryId() != currentEntryId) {
+                finishEntry();
+                startEntry(row);
+            }
+            if (!row.hasComponent()) {
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(row, null, 0);
+                }
+                return;
+            }
+            mealComponents++;
+            double[] per100g = nutrientsPer100g(row);
+            double scaleFactor = row.getAmountInGrams() / 100.0;
+            if (format == ExportFormat.CSV) {
+                writeCsvRow(row, per100g, scaleFactor);
+            } else {
+                bufferComponent(row, per100g, scaleFactor);
+            }
+        }
+
+        private void finish() throws IOException {
+            finishEntry();
+        }
+
+        private double[] nutrientsPer100g(MealExportRow row) {
+            if (row.isFoodComposite()) {
+                return resolveCompositeNutrients(row.getFoodItemId(), compositeNutrients);
+            }
+            basePer100g[0] = row.getCaloriesPer100g();
+            basePer100g[1] = row.getProteinsPer100g();
+            basePer100g[2] = row.getFatsPer100g();
+            basePer100g[3] = row.getCarbsPer100g();
+            return basePer100g;
+        }
+
+        private void startEntry(MealExportRow row) {
+            mealEntries++;
+            currentEntryId = row.getMealEntryId();
+            currentEntry.setMealEntryId(row.getMealEntryId())
+                    .setDate(row.getDate())
+                    .setTime(row.getTime())
+                    .setMealCategory(row.getMealCategory())
+                    .setNotes(row.getNotes());
+            componentCount = 0;
+            Arrays.fill(entryTotals, 0.0);
+        }
+
+        private void writeCsvRow(MealExportRow row, double[] per100g, double scaleFactor) throws IOException {
+            writer.write(String.valueOf(row.getDate())).write(CSV_DELIMITER)
+                    .write(DateTimeFormatterUtil.formatTimeCompact(row.getTime())).write(CSV_DELIMITER)
+                    .writeLong(row.getMealEntryId()).write(CSV_DELIMITER)
+                    .write(row.getMealCategory().name()).write(CSV_DELIMITER)
+                    .writeCsvField(row.getNotes(), CSV_DELIMITER).write(CSV_DELIMITER);
+            if (per100g != null) {
+                writer.writeLong(row.getMealComponentId()).write(CSV_DELIMITER)
+                        .writeLong(row.getFoodItemId()).write(CSV_DELIMITER)
+                        .writeCsvField(row.getFoodName(), CSV_DELIMITER).write(CSV_DELIMITER)
+                        .writeDecimal(row.getAmountInGrams(), NUTRIENT_SCALE);
+                for (double value : per100g) {
+                    writer.write(CSV_DELIMITER).writeDecimal(value * scaleFactor, NUTRIENT_SCALE);
+                }
+            } else {
+                writer.write(",,,,,,,");
+            }
+            writer.write('\n');
+        }
+
+        private void bufferComponent(MealExportRow row, double[] per100g, double scaleFactor) {
+            if (componentCount == componentIds.length) {
+                int capacity = componentIds.length * 2;
+                componentIds = Arrays.copyOf(componentIds, capacity);
+                foodItemIds = Arrays.copyOf(foodItemIds, capacity);
+                foodNames = Arrays.copyOf(foodNames, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                componentNutrients = Arrays.copyOf(componentNutrients, capacity * 4);
+            }
+            componentIds[componentCount] = row.getMealComponentId();
+            foodItemIds[componentCount] = row.getFoodItemId();
+            foodNames[componentCount] = row.getFoodName();
+            amounts[componentCount] = row.getAmountInGrams();
+            for (int i = 0; i < 4; i++) {
+                double value = per100g[i] * scaleFactor;
+                componentNutrients[componentCount * 4 + i] = value;
+                entryTotals[i] += value;
+            }
+            componentCount++;
+        }
+
+        private void finishEntry() throws IOException {
+            if (currentEntryId == 0 || format != ExportFormat.JSONL) {
+                return;
+            }
+            writer.write("{\"meal_entry_id\":").writeLong(currentEntry.getMealEntryId())
+                    .write(",\"date\":\"").write(String.valueOf(currentEntry.getDate()))
+                    .write("\",\"time\":\"").write(DateTimeFormatterUtil.formatTimeCompact(currentEntry.getTime()))
+                    .write("\",\"meal_category\":\"").write(currentEntry.getMealCategory().name())
+                    .write("\",\"notes\":").writeJsonString(currentEntry.getNotes());
+            writeJsonNutrients(entryTotals, 0);
+            writer.write(",\"components\":[");
+            for (int i = 0; i < componentCount; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write("{\"meal_component_id\":").writeLong(componentIds[i])
+                        .write(",\"food_item_id\":").writeLong(foodItemIds[i])
+                        .write(",\"food_name\":").writeJsonString(foodNames[i])
+                        .write(",\"amount_in_grams\":").writeDecimal(amounts[i], NUTRIENT_SCALE);
+                writeJsonNutrients(componentNutrients, i * 4);
+                writer.write('}');
+            }
+            writer.write("]}\n");
+            Arrays.fill(foodNames, 0, componentCount, null);
+        }
+
+        private void writeJsonNutrients(double[] values, int offset) throws IOException {
+            writer.write(",\"calories\":").writeDecimal(values[offset], NUTRIENT_SCALE)
+                    .write(",\"proteins\":").writeDecimal(values[offset + 1], NUTRIENT_SCALE)
+                    .write(",\"fats\":").writeDecimal(values[offset + 2], NUTRIENT_SCALE)
+                    .write(",\"carbs\":").writeDecimal(values[offset + 3], NUTRIENT_SCALE);
+        }
+    }
+}
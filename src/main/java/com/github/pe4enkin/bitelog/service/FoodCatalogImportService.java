@@ -0,0 +1,330 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.dao.FoodCatalogBulkLoader;
+import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
+import com.github.pe4enkin.bitelog.model.CatalogFormat;
+import com.github.pe4enkin.bitelog.model.FoodCategory;
+import com.github.pe4enkin.bitelog.model.FoodItem;
+import com.github.pe4enkin.bitelog.model.Unit;
+import com.github.pe4enkin.bitelog.service.exception.ServiceException;
+import com.github.pe4enkin.bitelog.util.CsvLineParser;
+import com.github.pe4enkin.bitelog.util.JsonLineParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class FoodCatalogImportService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FoodCatalogImportService.class);
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final int ROWS_PER_FLUSH = FoodCatalogBulkLoader.ROWS_PER_STATEMENT * 10;
+    private static final int DEFAULT_ROWS_PER_TRANSACTION = 100_000;
+    private static final int PROGRESS_INTERVAL_ROWS = 100_000;
+
+    private static final String COLUMN_NAME = "name";
+    private static final String COLUMN_CALORIES = "calories_per_100g";
+    private static final String COLUMN_SERVING_SIZE = "serving_size_in_grams";
+    private static final String COLUMN_UNIT = "unit";
+    private static final String COLUMN_PROTEINS = "proteins_per_100g";
+    private static final String COLUMN_FATS = "fats_per_100g";
+    private static final String COLUMN_CARBS = "carbs_per_100g";
+    private static final String COLUMN_CATEGORY = "category";
+    private static final String[] COLUMNS = {COLUMN_NAME, COLUMN_CALORIES, COLUMN_SERVING_SIZE, COLUMN_UNIT,
+            COLUMN_PROTEINS, COLUMN_FATS, COLUMN_CARBS, COLUMN_CATEGORY};
+
+    private static final Map<String, Unit> UNITS_BY_NAME = new HashMap<>();
+
+    static {
+        for (Unit unit : Unit.values()) {
+            UNITS_BY_NAME.put(unit.name().toLowerCase(Locale.ROOT), unit);
+            UNITS_BY_NAME.put(unit.getShortName().toLowerCase(Locale.ROOT), unit);
+            UNITS_BY_NAME.put(unit.getFullName().toLowerCase(Locale.ROOT), unit);
+        }
+    }
+
+    private final DataSource dataSource;
+    private final int rowsPerTransaction;
+
+    public FoodCatalogImportService(DataSource dataSource) {
+        this(dataSource, DEFAULT_ROWS_PER_TRANSACTION);
+    }
+
+    public FoodCatalogImportService(DataSource dataSource, int rowsPerTransaction) {
+        if (rowsPerTransaction <= 0) {
+            throw new IllegalArgumentException("Размер транзакции импорта должен быть положительным: " + rowsPerTransaction);
+        }
+        this.dataSource = dataSource;
+        this.rowsPerTransaction = rowsPerTransaction;
+    }
+
+    public CatalogImportProgress importCatalog(Path path, CatalogImportListener listener) {
+        return importCatalog(path, CatalogFormat.fromPath(path), listener);
+    }
+
+    public CatalogImportProgress importCatalog(Path path, CatalogFormat format, CatalogImportListener listener) {
+        LOGGER.info("Начат импорт каталога продуктов из {} в формате {}.", path, format);
+        ImportState state = new ImportState(System.nanoTime());
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+             FoodCatalogBulkLoader loader = new FoodCatalogBulkLoader(dataSource)) {
+            state.knownNames = loader.findAllFoodItemNames();
+            for (Map.Entry<String, Long> entry : loader.findAllFoodCategoryIds().entrySet()) {
+                state.categories.put(entry.getKey(), new FoodCategory(entry.getValue(), entry.getKey()));
+            }
+            try {
+                if (format == CatalogFormat.CSV) {
+                    readCsv(reader, loader, state, listener);
+                } else {
+                    readJsonLines(reader, loader, state, listener);
+                }
+                commit(loader, state);
+            } catch (RuntimeException | IOException e) {
+                loader.rollback();
+                logCommittedProgress(path, state);
+                throw e;
+            }
+        } catch (IOException e) {
+            LOGGER.error("Ошибка ввода-вывода при импорте каталога из {}: {}", path, e.getMessage());
+            throw new ServiceException("Не удалось прочитать файл каталога " + path + ": " + e.getMessage() + resumeHint(state), e);
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при импорте каталога из {}: {}", path, e.getMessage());
+            throw new ServiceException("Не удалось импортировать каталог из " + path + ": " + e.getMessage() + resumeHint(state), e);
+        }
+
+        CatalogImportProgress result = state.snapshot();
+        LOGGER.info("Импорт каталога из {} завершен: прочитано {}, импортировано {}, дубликатов {}, отклонено {}, {} строк/с.",
+                path, result.getRowsRead(), result.getRowsImported(), result.getDuplicatesSkipped(),
+                result.getRowsRejected(), String.format("%.0f", result.getRowsPerSecond()));
+        if (listener != null) {
+            listener.onProgress(result);
+        }
+        return result;
+    }
+
+    private void readCsv(BufferedReader reader, FoodCatalogBulkLoader loader, ImportState state,
+                         CatalogImportListener listener) throws IOException {
+        String header = reader.readLine();
+        state.lineNumber++;
+        if (header == null) {
+            LOGGER.warn("Файл каталога CSV пуст.");
+            return;
+        }
+        header = stripByteOrderMark(header);
+        char delimiter = header.indexOf(',') < 0 && header.indexOf(';') >= 0 ? ';' : ',';
+        List<String> headerFields = CsvLineParser.parseLine(header, delimiter);
+        int[] columnIndexes = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columnIndexes[i] = headerFields.indexOf(COLUMNS[i]);
+        }
+        if (columnIndexes[0] < 0 || columnIndexes[1] < 0) {
+            throw new ServiceException("Заголовок CSV должен содержать колонки " + COLUMN_NAME + " и " + COLUMN_CALORIES + ".");
+        }
+
+        String[] values = new String[COLUMNS.length];
+        String line;
+        while ((line = reader.readLine()) != null) {
+            state.lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            state.rowsRead++;
+            try {
+                List<String> fields = CsvLineParser.parseLine(line, delimiter);
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    int index = columnIndexes[i];
+                    values[i] = index >= 0 && index < fields.size() ? fields.get(index) : null;
+                }
+                accept(values, loader, state);
+            } catch (IllegalArgumentException e) {
+                reject(state, line, e);
+            }
+            afterRow(loader, state, listener);
+        }
+    }
+
+    private void readJsonLines(BufferedReader reader, FoodCatalogBulkLoader loader, ImportState state,
+                               CatalogImportListener listener) throws IOException {
+        String[] values = new String[COLUMNS.length];
+        String line;
+        boolean firstLine = true;
+        while ((line = reader.readLine()) != null) {
+            state.lineNumber++;
+            if (firstLine) {
+                line = stripByteOrderMark(line);
+                firstLine = false;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            state.rowsRead++;
+            try {
+                Map<String, String> object = JsonLineParser.parseFlatObject(line);
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    values[i] = object.get(COLUMNS[i]);
+                }
+                accept(values, loader, state);
+            } catch (IllegalArgumentException e) {
+                reject(state, line, e);
+            }
+            afterRow(loader, state, listener);
+        }
+    }
+
+    private void accept(String[] values, FoodCatalogBulkLoader loader, ImportState state) {
+        String name = values[0] != null ? values[0].trim() : "";
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Пустое имя продукта.");
+        }
+        double calories = parseNonNegative(values[1], COLUMN_CALORIES, true);
+        double servingSize = parseNonNegative(values[2], COLUMN_SERVING_SIZE, false);
+        Unit unit = parseUnit(values[3]);
+        double proteins = parseNonNegative(values[4], COLUMN_PROTEINS, false);
+        double fats = parseNonNegative(values[5], COLUMN_FATS, false);
+        double carbs = parseNonNegative(values[6], COLUMN_CARBS, false);
+
+        if (!state.knownNames.add(name)) {
+            state.duplicatesSkipped++;
+            return;
+        }
+
+        FoodItem foodItem = new FoodItem.Builder()
+                .setName(name)
+                .setCaloriesPer100g(calories)
+                .setServingSizeInGrams(servingSize > 0 ? servingSize : 100.0)
+                .setUnit(unit)
+                .setProteinsPer100g(proteins)
+                .setFatsPer100g(fats)
+                .setCarbsPer100g(carbs)
+                .setComposite(false)
+                .setFoodCategory(resolveCategory(values[7], loader, state))
+                .setComponents(null)
+                .build();
+        state.pending.add(foodItem);
+    }
+
+    private FoodCategory resolveCategory(String rawName, FoodCatalogBulkLoader loader, ImportState state) {
+        if (rawName == null || rawName.isBlank()) {
+            return null;
+        }
+        String name = rawName.trim();
+        FoodCategory foodCategory = state.categories.get(name);
+        if (foodCategory == null) {
+            foodCategory = new FoodCategory(loader.insertFoodCategory(name), name);
+            state.categories.put(name, foodCategory);
+            state.categoriesCreated++;
+        }
+        return foodCategory;
+    }
+
+    private void afterRow(FoodCatalogBulkLoader loader, ImportState state, CatalogImportListener listener) {
+        if (state.pending.size() >= ROWS_PER_FLUSH) {
+            flush(loader, state);
+        }
+        if (state.rowsImported - state.rowsCommitted >= rowsPerTransaction) {
+            commit(loader, state);
+        }
+        if (state.rowsRead % PROGRESS_INTERVAL_ROWS == 0) {
+            CatalogImportProgress progress = state.snapshot();
+            LOGGER.info("Импорт каталога: прочитано {} строк, импортировано {}, {} строк/с.",
+                    progress.getRowsRead(), progress.getRowsImported(), String.format("%.0f", progress.getRowsPerSecond()));
+            if (listener != null) {
+                listener.onProgress(progress);
+            }
+        }
+    }
+
+    private void flush(FoodCatalogBulkLoader loader, ImportState state) {
+        if (state.pending.isEmpty()) {
+            return;
+        }
+        loader.insertFoodItems(state.pending);
+        state.rowsImported += state.pending.size();
+        state.pending.clear();
+    }
+
+    private void commit(FoodCatalogBulkLoader loader, ImportState state) {
+        flush(loader, state);
+        loader.commit();
+        state.rowsCommitted = state.rowsImported;
+        state.lastCommittedLine = state.lineNumber;
+    }
+
+    private void logCommittedProgress(Path path, ImportState state) {
+        if (state.lastCommittedLine == 0) {
+            return;
+        }
+        LOGGER.warn("Импорт каталога из {} прерван: строки файла по {} включительно зафиксированы ({} продуктов). "
+                + "Повторный импорт пропустит их как дубликаты.", path, state.lastCommittedLine, state.rowsCommitted);
+    }
+
+    private static String resumeHint(ImportState state) {
+        return state.lastCommittedLine == 0 ? "" : " Строки файла по " + state.lastCommittedLine
+                + " включительно уже зафиксированы (" + state.rowsCommitted + " продуктов).";
+    }
+
+    private void reject(ImportState state, String line, IllegalArgumentException e) {
+        state.rowsRejected++;
+        LOGGER.debug("Строка {} каталога отклонена: {}. Содержимое: {}", state.lineNumber, e.getMessage(), line);
+    }
+
+    private static double parseNonNegative(String value, String column, boolean required) {
+        if (value == null || value.isBlank()) {
+            if (required) {
+                throw new IllegalArgumentException("Отсутствует значение колонки " + column + ".");
+            }
+            return 0.0;
+        }
+        double parsed = Double.parseDouble(value.trim().replace(',', '.'));
+        if (parsed < 0 || Double.isNaN(parsed) || Double.isInfinite(parsed)) {
+            throw new IllegalArgumentException("Некорректное значение колонки " + column + ": " + value);
+        }
+        return parsed;
+    }
+
+    private static Unit parseUnit(String value) {
+        if (value == null || value.isBlank()) {
+            return Unit.GRAM;
+        }
+        Unit unit = UNITS_BY_NAME.get(value.trim().toLowerCase(Locale.ROOT));
+        if (unit == null) {
+            throw new IllegalArgumentException("Неизвестная единица измерения: " + value);
+        }
+        return unit;
+    }
+
+    private static String stripByteOrderMark(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    private static final class ImportState {
+        private final long startNanos;
+        private final List<FoodItem> pending = new ArrayList<>(ROWS_PER_FLUSH);
+        private final Map<String, FoodCategory> categories = new HashMap<>();
+        private Set<String> knownNames = new HashSet<>();
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsCommitted;
+        private long lineNumber;
+        private long lastCommittedLine;
+        private long duplicatesSkipped;
+        private long rowsRejected;
+        private long categoriesCreated;
+
+        private ImportState(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        private CatalogImportProgress snapshot() {
+            return new CatalogImportProgress(rowsRead, rowsImported, duplicatesSkipped, rowsRejected,
+                    categoriesCreated, System.nanoTime() - startNanos);
+        }
+    }
+}
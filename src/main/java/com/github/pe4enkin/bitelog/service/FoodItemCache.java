@@ -0,0 +1,251 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.model.FoodItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class FoodItemCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FoodItemCache.class);
+    private static final long[] NO_DEPENDENCIES = new long[0];
+    private static final int NONE = -1;
+
+    private final int capacity;
+    private final long[] keys;
+    private final FoodItem[] values;
+    private final long[][] dependencies;
+    private final int[] prev;
+    private final int[] next;
+    private final int[] table;
+    private final int mask;
+    private final int[] freeEntries;
+    private final Map<Long, Set<Long>> dependentsByIngredient = new HashMap<>();
+    private int freeCount;
+    private int head = NONE;
+    private int tail = NONE;
+    private int size;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+
+    public FoodItemCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Емкость кэша FoodItem должна быть больше 0: " + capacity);
+        }
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.values = new FoodItem[capacity];
+        this.dependencies = new long[capacity][];
+        this.prev = new int[capacity];
+        this.next = new int[capacity];
+        this.freeEntries = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            freeEntries[i] = capacity - 1 - i;
+        }
+        this.freeCount = capacity;
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.table = new int[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    public synchronized FoodItem get(long id) {
+        int entry = table[findSlot(id)] - 1;
+        if (entry < 0) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        moveToHead(entry);
+        return FoodItem.copyOf(values[entry]);
+    }
+
+    public synchronized void put(long id, FoodItem foodItem, long[] dependsOn) {
+        int slot = findSlot(id);
+        int entry = table[slot] - 1;
+        if (entry < 0) {
+            if (freeCount == 0) {
+                evict(tail);
+                evictionCount++;
+                slot = findSlot(id);
+            }
+            entry = freeEntries[--freeCount];
+            keys[entry] = id;
+            table[slot] = entry + 1;
+            linkAtHead(entry);
+            size++;
+        } else {
+            moveToHead(entry);
+            unlinkDependencies(entry);
+        }
+        values[entry] = FoodItem.copyOf(foodItem);
+        dependencies[entry] = dependsOn != null && dependsOn.length > 0 ? dependsOn.clone() : NO_DEPENDENCIES;
+        for (long dependency : dependencies[entry]) {
+            dependentsByIngredient.computeIfAbsent(dependency, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    public synchronized int invalidate(long id) {
+        int removed = 0;
+        int entry = table[findSlot(id)] - 1;
+        if (entry >= 0) {
+            evict(entry);
+            removed++;
+        }
+        Set<Long> dependents = dependentsByIngredient.remove(id);
+        if (dependents != null) {
+            for (long dependentId : dependents.toArray(new Long[0])) {
+                int dependentEntry = table[findSlot(dependentId)] - 1;
+                if (dependentEntry >= 0) {
+                    evict(dependentEntry);
+                    removed++;
+                }
+            }
+        }
+        invalidationCount += removed;
+        if (removed > 0) {
+            LOGGER.debug("КЭШ: инвалидировано {} FoodItem после изменения продукта с ID {}.", removed, id);
+        }
+        return removed;
+    }
+
+    public synchronized void clear() {
+        while (head != NONE) {
+            evict(head);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public synchronized double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "FoodItemCache{" +
+                "size=" + size +
+                ", capacity=" + capacity +
+                ", hits=" + hitCount +
+                ", misses=" + missCount +
+                ", evictions=" + evictionCount +
+                ", invalidations=" + invalidationCount +
+                '}';
+    }
+
+    private void unlinkDependencies(int entry) {
+        for (long dependency : dependencies[entry]) {
+            Set<Long> dependents = dependentsByIngredient.get(dependency);
+            if (dependents != null) {
+                dependents.remove(keys[entry]);
+                if (dependents.isEmpty()) {
+                    dependentsByIngredient.remove(dependency);
+                }
+            }
+        }
+    }
+
+    private void evict(int entry) {
+        unlinkDependencies(entry);
+        removeSlot(findSlot(keys[entry]));
+        unlink(entry);
+        values[entry] = null;
+        dependencies[entry] = null;
+        freeEntries[freeCount++] = entry;
+        size--;
+    }
+
+    private int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private int findSlot(long id) {
+        int slot = hash(id);
+        while (table[slot] != 0 && keys[table[slot] - 1] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void removeSlot(int slot) {
+        int gap = slot;
+        table[gap] = 0;
+        int current = gap;
+        while (true) {
+            current = (current + 1) & mask;
+            if (table[current] == 0) {
+                return;
+            }
+            int ideal = hash(keys[table[current] - 1]);
+            boolean stays = gap <= current ? gap < ideal && ideal <= current : gap < ideal || ideal <= current;
+            if (!stays) {
+                table[gap] = table[current];
+                table[current] = 0;
+                gap = current;
+            }
+        }
+    }
+
+    private void linkAtHead(int entry) {
+        prev[entry] = NONE;
+        next[entry] = head;
+        if (head != NONE) {
+            prev[head] = entry;
+        }
+        head = entry;
+        if (tail == NONE) {
+            tail = entry;
+        }
+    }
+
+    private void unlink(int entry) {
+        int before = prev[entry];
+        int after = next[entry];
+        if (before != NONE) {
+            next[before] = after;
+        } else {
+            head = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        } else {
+            tail = before;
+        }
+    }
+
+    private void moveToHead(int entry) {
+        if (entry != head) {
+            unlink(entry);
+            linkAtHead(entry);
+        }
+    }
+}
@@ -1,21 +1,87 @@
 package com.github.pe4enkin.bitelog.service;
 
+import com.github.pe4enkin.bitelog.dao.FoodDependencyGraph;
 import com.github.pe4enkin.bitelog.dao.FoodItemDao;
+import com.github.pe4enkin.bitelog.dao.exception.CyclicDependencyException;
 import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
+import com.github.pe4enkin.bitelog.dao.exception.DuplicateKeyException;
+import com.github.pe4enkin.bitelog.model.CategoryFacet;
 import com.github.pe4enkin.bitelog.model.FoodComponent;
 import com.github.pe4enkin.bitelog.model.FoodItem;
+import com.github.pe4enkin.bitelog.model.FoodItemFilter;
+import com.github.pe4enkin.bitelog.model.IngredientVector;
+import com.github.pe4enkin.bitelog.model.NutrientVector;
 import com.github.pe4enkin.bitelog.service.exception.ServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class FoodItemService {
     private static final Logger LOGGER = LoggerFactory.getLogger(FoodItemService.class);
+    private static final int DEFAULT_CACHE_CAPACITY = 10_000;
     private final FoodItemDao foodItemDao;
+    private final FoodItemCache foodItemCache;
+    private final List<FoodNutrientsListener> nutrientsListeners = new CopyOnWriteArrayList<>();
 
     public FoodItemService(FoodItemDao foodItemDao) {
+        this(foodItemDao, new FoodItemCache(DEFAULT_CACHE_CAPACITY));
+    }
+
+    public FoodItemService(FoodItemDao foodItemDao, FoodItemCache foodItemCache) {
         this.foodItemDao = foodItemDao;
+        this.foodItemCache = foodItemCache;
+    }
+
+    public FoodItemCache getFoodItemCache() {
+        return foodItemCache;
+    }
+
+    public void addNutrientsListener(FoodNutrientsListener listener) {
+        nutrientsListeners.add(listener);
+    }
+
+    private void notifyNutrientsChanged(long changedId, List<Long> recalculatedIds) {
+        if (nutrientsListeners.isEmpty()) {
+            return;
+        }
+        Set<Long> changedIds = new LinkedHashSet<>();
+        changedIds.add(changedId);
+        changedIds.addAll(recalculatedIds);
+        Set<Long> unmodifiableIds = Collections.unmodifiableSet(changedIds);
+        for (FoodNutrientsListener listener : nutrientsListeners) {
+            try {
+                listener.onNutrientsChanged(unmodifiableIds);
+            } catch (RuntimeException e) {
+                LOGGER.error("Ошибка в обработчике изменения нутриентов {} FoodItem: {}", changedIds.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void cacheResolvedFoodItem(long id, FoodItem foodItem, Map<Long, FoodItem> calculationCache) {
+        long[] dependsOn = new long[calculationCache.size()];
+        int count = 0;
+        for (long ingredientId : calculationCache.keySet()) {
+            if (ingredientId != id) {
+                dependsOn[count++] = ingredientId;
+            }
+        }
+        foodItemCache.put(id, foodItem, Arrays.copyOf(dependsOn, count));
+    }
+
+    private long[] collectIngredientIds(long id, FoodDependencyGraph dependencyGraph) {
+        Set<Long> ingredientIds = new LinkedHashSet<>();
+        ArrayDeque<Long> queue = new ArrayDeque<>();
+        queue.add(id);
+        while (!queue.isEmpty()) {
+            for (FoodComponent component : dependencyGraph.getComponents(queue.poll())) {
+                if (ingredientIds.add(component.getIngredientFoodItemId())) {
+                    queue.add(component.getIngredientFoodItemId());
+                }
+            }
+        }
+        return ingredientIds.stream().mapToLong(Long::longValue).toArray();
     }
 
     private Optional<FoodItem> getFoodItemFromDaoOrCache(long id, Map<Long, FoodItem> cache) throws DataAccessException {
@@ -32,28 +98,73 @@ public class FoodItemService {
         return foodItemOptional;
     }
 
-    private void checkForComponents(FoodItem foodItem, Long componentId, Set<Long> visitedIds, Map<Long, FoodItem> validationCache) {
-        if (visitedIds.contains(componentId)) {
-            LOGGER.error("Обнаружена циклическая зависимость при валидации FoodItem {} c ID {}. Компонент с ID {} уже находится в пути обхода",
-                    foodItem.getName(), foodItem.getId(), componentId);
-            throw new ServiceException("Обнаружена циклическая зависимость: продукт " + foodItem.getName() +
-                    " не может содержать компонент c ID " + componentId + " который косвенно содержит его самого.");
+    private Map<Long, FoodItem> validateComponents(FoodItem foodItem, long targetId) {
+        Map<Long, FoodItem> ingredients = new HashMap<>();
+        if (!foodItem.isComposite() || foodItem.getComponents() == null || foodItem.getComponents().isEmpty()) {
+            return ingredients;
+        }
+        Set<Long> directIds = new LinkedHashSet<>();
+        for (FoodComponent component : foodItem.getComponents()) {
+            directIds.add(component.getIngredientFoodItemId());
+        }
+        if (targetId > 0 && directIds.contains(targetId)) {
+            throw cyclicDependency(foodItem, targetId);
         }
-        visitedIds.add(componentId);
 
-        Optional<FoodItem> componentOptional = getFoodItemFromDaoOrCache(componentId, validationCache);
-        if (componentOptional.isEmpty()) {
-            LOGGER.error("Попытка создать/изменить составной FoodItem с несуществующим ингредиентом с ID {}", componentId);
-            throw new ServiceException("Ингредиент с ID " + componentId + " не найден.");
+        ingredients.putAll(foodItemDao.findByIds(directIds, true));
+        for (long ingredientId : directIds) {
+            if (!ingredients.containsKey(ingredientId)) {
+                LOGGER.error("Попытка создать/изменить составной FoodItem с несуществующим ингредиентом с ID {}", ingredientId);
+                throw new ServiceException("Ингредиент с ID " + ingredientId + " не найден.");
+            }
+        }
+        if (targetId > 0) {
+            checkForCycles(foodItem, targetId, directIds, foodItemDao.getDependencyGraph());
         }
-        FoodItem component = componentOptional.get();
+        return ingredients;
+    }
 
-        if (component.isComposite() && component.getComponents() != null) {
-            for (FoodComponent subComponent : component.getComponents()) {
-                checkForComponents(foodItem, subComponent.getIngredientFoodItemId(), new HashSet<>(visitedIds), validationCache);
+    private void checkForCycles(FoodItem foodItem, long targetId, Set<Long> directIds, FoodDependencyGraph dependencyGraph) {
+        Set<Long> grey = new HashSet<>();
+        Set<Long> black = new HashSet<>();
+        ArrayDeque<Long> path = new ArrayDeque<>();
+        ArrayDeque<Iterator<FoodComponent>> pending = new ArrayDeque<>();
+
+        for (long rootId : directIds) {
+            if (black.contains(rootId)) {
+                continue;
+            }
+            grey.add(rootId);
+            path.push(rootId);
+            pending.push(dependencyGraph.getComponents(rootId).iterator());
+            while (!path.isEmpty()) {
+                Iterator<FoodComponent> iterator = pending.peek();
+                if (!iterator.hasNext()) {
+                    pending.pop();
+                    long finishedId = path.pop();
+                    grey.remove(finishedId);
+                    black.add(finishedId);
+                    continue;
+                }
+                long ingredientId = iterator.next().getIngredientFoodItemId();
+                if (ingredientId == targetId || grey.contains(ingredientId)) {
+                    throw cyclicDependency(foodItem, rootId);
+                }
+                if (!black.contains(ingredientId)) {
+                    grey.add(ingredientId);
+                    path.push(ingredientId);
+                    pending.push(dependencyGraph.getComponents(ingredientId).iterator());
+                }
             }
         }
-        visitedIds.remove(componentId);
+        LOGGER.debug("Проверка циклов для FoodItem {} завершена, просмотрено {} продуктов.", foodItem.getName(), black.size());
+    }
+
+    private ServiceException cyclicDependency(FoodItem foodItem, long componentId) {
+        LOGGER.error("Обнаружена циклическая зависимость при валидации FoodItem {} c ID {}. Компонент с ID {} косвенно содержит его самого",
+                foodItem.getName(), foodItem.getId(), componentId);
+        return new ServiceException("Обнаружена циклическая зависимость: продукт " + foodItem.getName() +
+                " не может содержать компонент c ID " + componentId + " который косвенно содержит его самого.");
     }
 
     private void calculateAndSetAllNutrients(FoodItem foodItem, Set<Long> visitedIds, Map<Long, FoodItem> calculationCache) {
@@ -69,10 +180,7 @@ public class FoodItemService {
         visitedIds.add(foodItem.getId());
 
         double totalWeight = 0.0;
-        double totalCalories = 0.0;
-        double totalProteins = 0.0;
-        double totalFats = 0.0;
-        double totalCarbs = 0.0;
+        NutrientVector totalNutrients = new NutrientVector();
 
         for (FoodComponent component : foodItem.getComponents()) {
             Optional<FoodItem> ingredientOptional = getFoodItemFromDaoOrCache(component.getIngredientFoodItemId(), calculationCache);
@@ -85,58 +193,124 @@ public class FoodItemService {
                 calculateAndSetAllNutrients(ingredient, new HashSet<>(), calculationCache);
             }
 
-            double scaleFactor = component.getAmountInGrams() / 100.0;
             totalWeight += component.getAmountInGrams();
-            totalCalories += ingredient.getCaloriesPer100g() * scaleFactor;
-            totalProteins += ingredient.getProteinsPer100g() * scaleFactor;
-            totalFats += ingredient.getFatsPer100g() * scaleFactor;
-            totalCarbs += ingredient.getCarbsPer100g() * scaleFactor;
+            totalNutrients.addScaled(ingredient.getNutrientsPer100g(), component.getAmountInGrams() / 100.0);
         }
         visitedIds.remove(foodItem.getId());
 
         if (totalWeight > 0) {
-            foodItem.setCaloriesPer100g(totalCalories / totalWeight * 100);
-            foodItem.setProteinsPer100g(totalProteins / totalWeight * 100);
-            foodItem.setFatsPer100g(totalFats / totalWeight * 100);
-            foodItem.setCarbsPer100g(totalCarbs / totalWeight * 100);
+            foodItem.setNutrientsPer100g(totalNutrients.scale(100 / totalWeight));
         } else {
             LOGGER.warn("Составной FoodItem {} c ID {} имеет нулевой вес компонентов. Все нутриенты установлены в 0.", foodItem.getName(), foodItem.getId());
-            foodItem.setCaloriesPer100g(0);
-            foodItem.setProteinsPer100g(0);
-            foodItem.setFatsPer100g(0);
-            foodItem.setCarbsPer100g(0);
+            foodItem.setNutrientsPer100g(totalNutrients.reset());
         }
     }
 
-    public FoodItem createFoodItem(FoodItem foodItem) {
-        if (foodItemDao.findByName(foodItem.getName()).isPresent()) {
-            LOGGER.warn("Попытка создать FoodItem с уже существующим именем: {}", foodItem.getName());
-            throw new ServiceException("Продукт с именем " + foodItem.getName() + " уже существует.");
+    private void calculateMissingNutrients(FoodItem foodItem, Map<Long, FoodItem> calculationCache) {
+        if (foodItem.isComposite() && foodItem.getCaloriesPer100g() == 0) {
+            LOGGER.debug("Нутриенты составного FoodItem {} c ID {} не сохранены в БД, выполняется расчет.",
+                    foodItem.getName(), foodItem.getId());
+            calculateAndSetAllNutrients(foodItem, new HashSet<>(), calculationCache);
+        }
+    }
+
+    private List<Long> recalculateDependentNutrients(FoodItem changedFoodItem) {
+        List<Long> dependentIds = foodItemDao.findDependentIds(changedFoodItem.getId());
+        if (dependentIds.isEmpty()) {
+            return List.of();
         }
+        long startTime = System.nanoTime();
+        FoodDependencyGraph dependencyGraph = foodItemDao.getDependencyGraph();
+        Map<Long, IngredientVector> ingredientVectors = new HashMap<>(dependentIds.size() * 2);
+        Set<Long> requiredIds = new HashSet<>(dependentIds);
+        for (long dependentId : dependentIds) {
+            IngredientVector ingredientVector = dependencyGraph.getIngredientVector(dependentId);
+            ingredientVectors.put(dependentId, ingredientVector);
+            for (int i = 0; i < ingredientVector.size(); i++) {
+                requiredIds.add(ingredientVector.getIngredientId(i));
+            }
+        }
+        requiredIds.remove(changedFoodItem.getId());
 
-        if (foodItem.isComposite() && foodItem.getComponents() != null) {
-            Map<Long, FoodItem> validationCache = new HashMap<>();
-            for (FoodComponent component : foodItem.getComponents()) {
-                checkForComponents(foodItem, component.getIngredientFoodItemId(), new HashSet<>(), validationCache);
+        Map<Long, FoodItem> foodItems = foodItemDao.findByIds(requiredIds);
+        foodItems.put(changedFoodItem.getId(), changedFoodItem);
+        List<FoodItem> recalculated = new ArrayList<>(dependentIds.size());
+        List<Long> recalculatedIds = new ArrayList<>(dependentIds.size());
+        for (long dependentId : dependentIds) {
+            FoodItem dependent = foodItems.get(dependentId);
+            if (dependent == null) {
+                continue;
             }
+            try {
+                dependent.setNutrientsPer100g(ingredientVectors.get(dependentId).nutrientsPer100g(foodItems));
+            } catch (IllegalArgumentException e) {
+                LOGGER.error("Не удалось пересчитать нутриенты FoodItem {} c ID {}: {}", dependent.getName(), dependentId, e.getMessage());
+                throw new ServiceException("Не удалось рассчитать нутриенты продукта " + dependent.getName() + ": " + e.getMessage(), e);
+            }
+            recalculated.add(dependent);
+            recalculatedIds.add(dependentId);
+            foodItemCache.invalidate(dependentId);
         }
+        foodItemDao.updateNutrients(recalculated);
+        LOGGER.info("Пересчитаны нутриенты {} составных продуктов после изменения FoodItem {} c ID {} за {} мс.",
+                recalculated.size(), changedFoodItem.getName(), changedFoodItem.getId(), (System.nanoTime() - startTime) / 1_000_000);
+        return recalculatedIds;
+    }
+
+    public IngredientVector getIngredientVector(long foodItemId) {
         try {
-            FoodItem resultFoodItem = foodItemDao.save(foodItem);
-            Map<Long, FoodItem> calculationCache = new HashMap<>();
-            calculationCache.put(resultFoodItem.getId(), resultFoodItem);
-            calculateAndSetAllNutrients(resultFoodItem, new HashSet<>(), calculationCache);
-            return resultFoodItem;
+            return foodItemDao.getDependencyGraph().getIngredientVector(foodItemId);
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при построении вектора ингредиентов FoodItem c ID {}: {}", foodItemId, e.getMessage());
+            throw new ServiceException("Не удалось построить состав продукта с ID " + foodItemId + ": " + e.getMessage(), e);
+        }
+    }
+
+    public FoodItem createFoodItem(FoodItem foodItem) {
+        Map<Long, FoodItem> calculationCache = validateComponents(foodItem, foodItem.getId());
+        try {
+            calculateAndSetAllNutrients(foodItem, new HashSet<>(), calculationCache);
+            return foodItemDao.save(foodItem);
+        } catch (DuplicateKeyException e) {
+            LOGGER.warn("Попытка создать FoodItem с уже существующим именем: {}", foodItem.getName());
+            throw new ServiceException("Продукт с именем " + foodItem.getName() + " уже существует.", e);
         } catch (DataAccessException e) {
             LOGGER.error("Ошибка DAO при создании FoodItem {}: {}", foodItem.getName(), e.getMessage());
             throw new ServiceException("Не удалось создать продукт " + foodItem.getName() + ": " + e.getMessage(), e);
         }
     }
 
+    public FoodItem upsertFoodItem(FoodItem foodItem) {
+        Map<Long, FoodItem> calculationCache = validateComponents(foodItem, foodItem.getId());
+        try {
+            calculateAndSetAllNutrients(foodItem, new HashSet<>(), calculationCache);
+            FoodItem resultFoodItem = foodItemDao.upsert(foodItem);
+            foodItemCache.invalidate(resultFoodItem.getId());
+            List<Long> recalculatedIds = recalculateDependentNutrients(resultFoodItem);
+            notifyNutrientsChanged(resultFoodItem.getId(), recalculatedIds);
+            return resultFoodItem;
+        } catch (CyclicDependencyException e) {
+            LOGGER.warn("Upsert составного FoodItem {} отклонен из-за циклической зависимости.", foodItem.getName());
+            throw new ServiceException("Обнаружена циклическая зависимость: продукт " + foodItem.getName() +
+                    " косвенно содержит сам себя.", e);
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при upsert FoodItem {}: {}", foodItem.getName(), e.getMessage());
+            throw new ServiceException("Не удалось сохранить продукт " + foodItem.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
     public Optional<FoodItem> getFoodItemById(long id) {
+        FoodItem cachedFoodItem = foodItemCache.get(id);
+        if (cachedFoodItem != null) {
+            return Optional.of(cachedFoodItem);
+        }
         try {
             Optional<FoodItem> foodItemOptional = foodItemDao.findById(id);
             Map<Long, FoodItem> calculationCache = new HashMap<>();
-            foodItemOptional.ifPresent(foodItem -> calculateAndSetAllNutrients(foodItem, new HashSet<>(), calculationCache));
+            foodItemOptional.ifPresent(foodItem -> {
+                calculateMissingNutrients(foodItem, calculationCache);
+                cacheResolvedFoodItem(id, foodItem, calculationCache);
+            });
             return foodItemOptional;
         } catch (DataAccessException e) {
             LOGGER.error("Ошибка DAO при получении FoodItem по ID {}: {}", id, e.getMessage());
@@ -144,11 +318,69 @@ public class FoodItemService {
         }
     }
 
+    public Map<Long, FoodItem> getFoodItemsByIds(Collection<Long> ids) {
+        Map<Long, FoodItem> foodItems = new HashMap<>(ids.size() * 2);
+        Set<Long> missingIds = new LinkedHashSet<>();
+        for (long id : ids) {
+            FoodItem cachedFoodItem = foodItemCache.get(id);
+            if (cachedFoodItem != null) {
+                foodItems.put(id, cachedFoodItem);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        if (missingIds.isEmpty()) {
+            return foodItems;
+        }
+        int cachedCount = foodItems.size();
+        try {
+            Map<Long, FoodItem> loaded = foodItemDao.findByIds(missingIds, true);
+            Map<Long, long[]> dependencies = new HashMap<>();
+            FoodDependencyGraph dependencyGraph = null;
+            for (FoodItem foodItem : loaded.values()) {
+                if (foodItem.isComposite()) {
+                    dependencyGraph = dependencyGraph == null ? foodItemDao.getDependencyGraph() : dependencyGraph;
+                    dependencies.put(foodItem.getId(), collectIngredientIds(foodItem.getId(), dependencyGraph));
+                }
+            }
+
+            Map<Long, FoodItem> calculationCache = new HashMap<>(foodItems);
+            calculationCache.putAll(loaded);
+            Set<Long> nestedIds = new HashSet<>();
+            for (FoodItem foodItem : loaded.values()) {
+                if (foodItem.isComposite() && foodItem.getCaloriesPer100g() == 0) {
+                    for (long ingredientId : dependencies.get(foodItem.getId())) {
+                        if (!calculationCache.containsKey(ingredientId)) {
+                            nestedIds.add(ingredientId);
+                        }
+                    }
+                }
+            }
+            if (!nestedIds.isEmpty()) {
+                calculationCache.putAll(foodItemDao.findByIds(nestedIds, true));
+            }
+
+            for (FoodItem foodItem : loaded.values()) {
+                calculateMissingNutrients(foodItem, calculationCache);
+                foodItems.put(foodItem.getId(), foodItem);
+                foodItemCache.put(foodItem.getId(), foodItem, dependencies.get(foodItem.getId()));
+            }
+            LOGGER.debug("Получено {} FoodItem по списку ID, из них {} из кэша.", foodItems.size(), cachedCount);
+            return foodItems;
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при получении {} FoodItem по списку ID: {}", missingIds.size(), e.getMessage());
+            throw new ServiceException("Не удалось получить продукты по списку ID: " + e.getMessage(), e);
+        }
+    }
+
     public Optional<FoodItem> getFoodItemByName(String name) {
         try {
             Optional<FoodItem> foodItemOptional = foodItemDao.findByName(name);
             Map<Long, FoodItem> calculationCache = new HashMap<>();
-            foodItemOptional.ifPresent(foodItem -> calculateAndSetAllNutrients(foodItem, new HashSet<>(), calculationCache));
+            foodItemOptional.ifPresent(foodItem -> {
+                calculateMissingNutrients(foodItem, calculationCache);
+                cacheResolvedFoodItem(foodItem.getId(), foodItem, calculationCache);
+            });
             return foodItemOptional;
         } catch (DataAccessException e) {
             LOGGER.error("Ошибка DAO при получении FoodItem по имени {}: {}", name, e.getMessage());
@@ -162,31 +394,22 @@ public class FoodItemService {
             throw new ServiceException("ID продукта должен быть указан для обновления.");
         }
 
-        Optional<FoodItem> existingFoodItem = foodItemDao.findByName(foodItem.getName());
-        if (existingFoodItem.isPresent() && existingFoodItem.get().getId() != foodItem.getId()) {
-            LOGGER.warn("Попытка обновить FoodItem с именем, уже существующим у другого продукта - {}", foodItem.getName());
-            throw new ServiceException("Продукт с именем " + foodItem.getName() + " уже существует.");
-        }
-
-        if (foodItem.isComposite() && foodItem.getComponents() != null) {
-            Set<Long> visitedIds = new HashSet<>();
-            Map<Long, FoodItem> validationCache = new HashMap<>();
-            visitedIds.add(foodItem.getId());
-            validationCache.put(foodItem.getId(), foodItem);
-            for (FoodComponent component : foodItem.getComponents()) {
-                checkForComponents(foodItem, component.getIngredientFoodItemId(), visitedIds, validationCache);
-            }
-        }
+        Map<Long, FoodItem> calculationCache = validateComponents(foodItem, foodItem.getId());
         try {
+            calculationCache.put(foodItem.getId(), foodItem);
+            calculateAndSetAllNutrients(foodItem, new HashSet<>(), calculationCache);
             boolean updated = foodItemDao.update(foodItem);
             if (!updated) {
                 LOGGER.warn("FoodItem {} c ID {} не найден для обновления.", foodItem.getName(), foodItem.getId());
                 throw new ServiceException("Продукт с именем " + foodItem.getName() + " не найден для обновления.");
             }
-            Map<Long, FoodItem> calculationCache = new HashMap<>();
-            calculationCache.put(foodItem.getId(), foodItem);
-            calculateAndSetAllNutrients(foodItem, new HashSet<>(), calculationCache);
+            foodItemCache.invalidate(foodItem.getId());
+            List<Long> recalculatedIds = recalculateDependentNutrients(foodItem);
+            notifyNutrientsChanged(foodItem.getId(), recalculatedIds);
             return foodItem;
+        } catch (DuplicateKeyException e) {
+            LOGGER.warn("Попытка обновить FoodItem с именем, уже существующим у другого продукта - {}", foodItem.getName());
+            throw new ServiceException("Продукт с именем " + foodItem.getName() + " уже существует.", e);
         } catch (DataAccessException e) {
             LOGGER.error("Ошибка DAO при обновлении FoodItem {}: {}", foodItem.getName(), e.getMessage());
             throw new ServiceException("Не удалось обновить продукт " + foodItem.getName() + ": " + e.getMessage(), e);
@@ -196,7 +419,9 @@ public class FoodItemService {
     public boolean deleteFoodItem(long id) {
         try {
             boolean deleted = foodItemDao.delete(id);
-            if (!deleted) {
+            if (deleted) {
+                foodItemCache.invalidate(id);
+            } else {
                 LOGGER.warn("FoodItem c ID {} не найден для удаления.", id);
             }
             return deleted;
@@ -211,10 +436,7 @@ public class FoodItemService {
             List<FoodItem> foodItems = foodItemDao.findAll(loadComponents);
             if (loadComponents) {
                 for (FoodItem item : foodItems) {
-                    if (item.isComposite()) {
-                        Map<Long, FoodItem> calculationCache = new HashMap<>();
-                        calculateAndSetAllNutrients(item, new HashSet<>(), calculationCache);
-                    }
+                    calculateMissingNutrients(item, new HashMap<>());
                 }
             }
             return foodItems;
@@ -223,4 +445,31 @@ public class FoodItemService {
             throw new ServiceException("Не удалось получить список всех продуктов: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    public List<FoodItem> getFoodItemsByCategory(long foodCategoryId) {
+        try {
+            return foodItemDao.findByCategory(foodCategoryId);
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при получении FoodItem категории c ID {}: {}", foodCategoryId, e.getMessage());
+            throw new ServiceException("Не удалось получить продукты категории с ID " + foodCategoryId + ": " + e.getMessage(), e);
+        }
+    }
+
+    public List<FoodItem> findFoodItems(FoodItemFilter filter) {
+        try {
+            return foodItemDao.findByFilter(filter);
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при поиске FoodItem по фильтру {}: {}", filter, e.getMessage());
+            throw new ServiceException("Не удалось найти продукты по фильтру: " + e.getMessage(), e);
+        }
+    }
+
+    public List<CategoryFacet> getCategoryFacets(FoodItemFilter filter) {
+        try {
+            return foodItemDao.countByCategory(filter);
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при подсчете FoodItem по категориям: {}", e.getMessage());
+            throw new ServiceException("Не удалось подсчитать продукты по категориям: " + e.getMessage(), e);
+        }
+    }
+}
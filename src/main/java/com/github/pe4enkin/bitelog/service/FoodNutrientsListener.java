@@ -0,0 +1,9 @@
+package com.github.pe4enkin.bitelog.service;
+
+import java.util.Set;
+
+@FunctionalInterface
+public interface FoodNutrientsListener {
+
+    void onNutrientsChanged(Set<Long> foodItemIds);
+}
@@ -2,10 +2,11 @@ package com.github.pe4enkin.bitelog.service;
 
 import com.github.pe4enkin.bitelog.dao.MealEntryDao;
 import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
-import com.github.pe4enkin.bitelog.model.FoodComponent;
 import com.github.pe4enkin.bitelog.model.FoodItem;
+import com.github.pe4enkin.bitelog.model.IngredientVector;
 import com.github.pe4enkin.bitelog.model.MealComponent;
 import com.github.pe4enkin.bitelog.model.MealEntry;
+import com.github.pe4enkin.bitelog.model.NutrientVector;
 import com.github.pe4enkin.bitelog.service.exception.ServiceException;
 import com.github.pe4enkin.bitelog.util.DateTimeFormatterUtil;
 import org.slf4j.Logger;
@@ -13,53 +14,90 @@ import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class MealEntryService {
     private static final Logger LOGGER = LoggerFactory.getLogger(MealEntryService.class);
     private final MealEntryDao mealEntryDao;
     private final FoodItemService foodItemService;
+    private final List<DiaryChangeListener> diaryChangeListeners = new CopyOnWriteArrayList<>();
 
     public MealEntryService(MealEntryDao mealEntryDao, FoodItemService foodItemService) {
         this.mealEntryDao = mealEntryDao;
         this.foodItemService = foodItemService;
     }
 
-    private void calculateAndSetAllNutrients(MealEntry mealEntry) {
-        if (mealEntry.getComponents().isEmpty()) {
-            mealEntry.setTotalCalories(0.0);
-            mealEntry.setTotalProteins(0.0);
-            mealEntry.setTotalFats(0.0);
-            mealEntry.setTotalCarbs(0.0);
+    public void addDiaryChangeListener(DiaryChangeListener listener) {
+        diaryChangeListeners.add(listener);
+    }
+
+    private Optional<LocalDate> findPreviousDate(long id) {
+        return diaryChangeListeners.isEmpty() ? Optional.empty() : mealEntryDao.findDateById(id);
+    }
+
+    private void notifyDaysChanged(LocalDate date, Optional<LocalDate> previousDate) {
+        if (diaryChangeListeners.isEmpty()) {
             return;
         }
-        double totalCalories = 0.0;
-        double totalProteins = 0.0;
-        double totalFats = 0.0;
-        double totalCarbs = 0.0;
+        Set<LocalDate> dates = new TreeSet<>();
+        if (date != null) {
+            dates.add(date);
+        }
+        previousDate.ifPresent(dates::add);
+        if (dates.isEmpty()) {
+            return;
+        }
+        Set<LocalDate> unmodifiableDates = Collections.unmodifiableSet(dates);
+        for (DiaryChangeListener listener : diaryChangeListeners) {
+            try {
+                listener.onDaysChanged(unmodifiableDates);
+            } catch (RuntimeException e) {
+                LOGGER.error("Ошибка в обработчике изменения дневника за {} дней: {}", dates.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    public Map<Long, FoodItem> getFoodItemsFor(Collection<MealEntry> mealEntries) {
+        Set<Long> foodItemIds = new LinkedHashSet<>();
+        for (MealEntry mealEntry : mealEntries) {
+            for (MealComponent component : mealEntry.getComponents()) {
+                foodItemIds.add(component.getFoodItemId());
+            }
+        }
+        if (foodItemIds.isEmpty()) {
+            return Map.of();
+        }
+        return foodItemService.getFoodItemsByIds(foodItemIds);
+    }
+
+    private Map<Long, FoodItem> calculateAndSetAllNutrients(Collection<MealEntry> mealEntries) {
+        Map<Long, FoodItem> foodItems = getFoodItemsFor(mealEntries);
+        for (MealEntry mealEntry : mealEntries) {
+            calculateAndSetAllNutrients(mealEntry, foodItems);
+        }
+        return foodItems;
+    }
+
+    private void calculateAndSetAllNutrients(MealEntry mealEntry, Map<Long, FoodItem> foodItems) {
+        NutrientVector totalNutrients = new NutrientVector();
         for (MealComponent component : mealEntry.getComponents()) {
-            Optional<FoodItem> foodItemOptional = foodItemService.getFoodItemById(component.getFoodItemId());
-            if (foodItemOptional.isEmpty()) {
+            FoodItem foodItem = foodItems.get(component.getFoodItemId());
+            if (foodItem == null) {
                 LOGGER.error("FoodItem с ID {} не найден при расчете нутриентов для MealComponent.", component.getFoodItemId());
                 throw new ServiceException("Не удалось рассчитать нутриенты: продукт с ID " + component.getFoodItemId() + " не найден.");
             }
-            FoodItem foodItem = foodItemOptional.get();
-            double scaleFactor = component.getAmountInGrams() / 100.0;
-            totalCalories += foodItem.getCaloriesPer100g() * scaleFactor;
-            totalProteins += foodItem.getProteinsPer100g() * scaleFactor;
-            totalFats += foodItem.getFatsPer100g() * scaleFactor;
-            totalCarbs += foodItem.getCarbsPer100g() * scaleFactor;
-        }
-        mealEntry.setTotalCalories(totalCalories);
-        mealEntry.setTotalProteins(totalProteins);
-        mealEntry.setTotalFats(totalFats);
-        mealEntry.setTotalCarbs(totalCarbs);
+            totalNutrients.addScaled(foodItem.getNutrientsPer100g(), component.getAmountInGrams() / 100.0);
+        }
+        mealEntry.setTotalNutrients(totalNutrients);
     }
 
     public MealEntry createMealEntry(MealEntry mealEntry) {
         String logMealDateTime = DateTimeFormatterUtil.formatDateTime(mealEntry.getDate(), mealEntry.getTime());
         try {
             MealEntry resultMealEntry = mealEntryDao.save(mealEntry);
-            calculateAndSetAllNutrients(resultMealEntry);
+            calculateAndSetAllNutrients(List.of(resultMealEntry));
+            notifyDaysChanged(resultMealEntry.getDate(), Optional.empty());
             return resultMealEntry;
         } catch (DataAccessException e) {
             LOGGER.error("Ошибка DAO при создании MealEntry от {}: {}", logMealDateTime, e.getMessage());
@@ -70,7 +108,7 @@ public class MealEntryService {
     public Optional<MealEntry> getMealEntryById(long id) {
         try {
             Optional<MealEntry> mealEntryOptional = mealEntryDao.findById(id);
-            mealEntryOptional.ifPresent(mealEntry -> calculateAndSetAllNutrients(mealEntry));
+            mealEntryOptional.ifPresent(mealEntry -> calculateAndSetAllNutrients(List.of(mealEntry)));
             return mealEntryOptional;
         } catch (DataAccessException e) {
             LOGGER.error("Ошибка DAO при получении MealEntry по ID {}: {}", id, e.getMessage());
@@ -85,12 +123,14 @@ public class MealEntryService {
             throw new ServiceException("ID MealEntry должен быть указан для обновления.");
         }
         try {
+            Optional<LocalDate> previousDate = findPreviousDate(mealEntry.getId());
             boolean updated = mealEntryDao.update(mealEntry);
             if (!updated) {
                 LOGGER.warn("MealEntry от {} c ID {} не найден для обновления.", logMealDateTime, mealEntry.getId());
                 throw new ServiceException("MealEntry от " + logMealDateTime + " не найден для обновления.");
             }
-            calculateAndSetAllNutrients(mealEntry);
+            calculateAndSetAllNutrients(List.of(mealEntry));
+            notifyDaysChanged(mealEntry.getDate(), previousDate);
             return mealEntry;
         } catch (DataAccessException e) {
             LOGGER.error("Ошибка DAO при обновлении MealEntry от {}: {}", logMealDateTime, e.getMessage());
@@ -100,9 +140,12 @@ public class MealEntryService {
 
     public boolean deleteMealEntry(long id) {
         try {
+            Optional<LocalDate> date = findPreviousDate(id);
             boolean deleted = mealEntryDao.delete(id);
             if (!deleted) {
                 LOGGER.warn("MealEntry c ID {} не найден для удаления.", id);
+            } else {
+                notifyDaysChanged(null, date);
             }
             return deleted;
         } catch (DataAccessException e) {
@@ -111,13 +154,40 @@ public class MealEntryService {
         }
     }
 
+    public double getConsumedGrams(long ingredientId, LocalDate from, LocalDate to) {
+        String logRange = DateTimeFormatterUtil.formatDateWithDots(from) + " - " + DateTimeFormatterUtil.formatDateWithDots(to);
+        if (from.isAfter(to)) {
+            throw new ServiceException("Начальная дата периода не может быть позже конечной.");
+        }
+        try {
+            double totalGrams = 0.0;
+            for (Map.Entry<Long, Double> entry : mealEntryDao.sumGramsByFoodItemBetween(from, to).entrySet()) {
+                if (entry.getKey() == ingredientId) {
+                    totalGrams += entry.getValue();
+                } else {
+                    IngredientVector ingredientVector = foodItemService.getIngredientVector(entry.getKey());
+                    totalGrams += ingredientVector.getGramsPer100gOf(ingredientId) * entry.getValue() / 100.0;
+                }
+            }
+            return totalGrams;
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при расчете веса продукта с ID {} за период {}: {}", ingredientId, logRange, e.getMessage());
+            throw new ServiceException("Не удалось рассчитать вес продукта с ID " + ingredientId + " за период " + logRange + ": " + e.getMessage(), e);
+        }
+    }
+
     public List<MealEntry> getAllByDate(LocalDate searchDate) {
+        return getAllByDate(searchDate, new HashMap<>());
+    }
+
+    public List<MealEntry> getAllByDate(LocalDate searchDate, Map<Long, FoodItem> resolvedFoodItems) {
         try {
             List<MealEntry> mealEntries = mealEntryDao.findAllByDate(searchDate);
-            for (MealEntry mealEntry : mealEntries) {
-                calculateAndSetAllNutrients(mealEntry);
-            }
+            resolvedFoodItems.putAll(calculateAndSetAllNutrients(mealEntries));
             return mealEntries;
+        } catch (CancellationException e) {
+            LOGGER.debug("Получение MealEntries на дату {} отменено.", DateTimeFormatterUtil.formatDateWithDots(searchDate));
+            throw e;
         } catch (DataAccessException e) {
             LOGGER.error("Ошибка DAO при получении MealEntries на дату {}: {}", DateTimeFormatterUtil.formatDateWithDots(searchDate), e.getMessage());
             throw new ServiceException("Не удалось получить список MealEntries на дату " + DateTimeFormatterUtil.formatDateWithDots(searchDate) + ": " + e.getMessage(), e);
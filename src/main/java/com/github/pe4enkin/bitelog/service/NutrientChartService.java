@@ -0,0 +1,299 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.model.ChartSeries;
+import com.github.pe4enkin.bitelog.model.DailyTotals;
+import com.github.pe4enkin.bitelog.model.DownsamplingMethod;
+import com.github.pe4enkin.bitelog.model.Nutrient;
+import com.github.pe4enkin.bitelog.model.NutrientVector;
+import com.github.pe4enkin.bitelog.service.exception.ServiceException;
+import com.github.pe4enkin.bitelog.util.Downsampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+public class NutrientChartService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NutrientChartService.class);
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final int NUTRIENT_COUNT = Nutrient.values().length;
+    private static final int METHOD_COUNT = DownsamplingMethod.values().length;
+    private static final int ZOOM_LEVEL_COUNT = Long.SIZE;
+    private static final int TILE_BUCKETS = 512;
+
+    private final DailyTotalsService dailyTotalsService;
+    private final int capacity;
+    private final LinkedHashMap<Long, SeriesTile> seriesCache;
+    private long[] epochDays;
+    private double[][] values;
+    private long historyLoadCount;
+    private long downsampleCount;
+
+    public NutrientChartService(DailyTotalsService dailyTotalsService) {
+        this(dailyTotalsService, DEFAULT_CAPACITY);
+    }
+
+    public NutrientChartService(DailyTotalsService dailyTotalsService, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Емкость кэша графиков должна быть больше 0: " + capacity);
+        }
+        this.dailyTotalsService = dailyTotalsService;
+        this.capacity = capacity;
+        this.seriesCache = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SeriesTile> eldest) {
+                return size() > NutrientChartService.this.capacity;
+            }
+        };
+    }
+
+    public synchronized ChartSeries getSeries(Nutrient nutrient, DownsamplingMethod method, LocalDate from, LocalDate to, int widthPx) {
+        if (from.isAfter(to)) {
+            throw new ServiceException("Начальная дата периода не может быть позже конечной.");
+        }
+        if (widthPx <= 0) {
+            throw new ServiceException("Ширина графика должна быть больше 0: " + widthPx);
+        }
+        ensureHistoryLoaded();
+        int zoomLevel = zoomLevel(from, to, widthPx);
+        int bucketDays = 1 << zoomLevel;
+        if (epochDays.length == 0) {
+            return new ChartSeries(new long[0], new double[0], bucketDays);
+        }
+        long tileSpanDays = tileSpanDays(zoomLevel);
+        long firstTile = Math.max(Math.floorDiv(epochDays[0], tileSpanDays), Math.floorDiv(from.toEpochDay(), tileSpanDays) - 1);
+        long lastTile = Math.min(Math.floorDiv(epochDays[epochDays.length - 1], tileSpanDays), Math.floorDiv(to.toEpochDay(), tileSpanDays) + 1);
+        List<ChartSeries> tiles = new ArrayList<>();
+        int size = 0;
+        for (long tileIndex = firstTile; tileIndex <= lastTile; tileIndex++) {
+            long key = tileKey(nutrient, method, zoomLevel, tileIndex);
+            SeriesTile tile = seriesCache.get(key);
+            if (tile == null) {
+                tile = new SeriesTile(zoomLevel, tileIndex, downsample(nutrient, method, zoomLevel, tileIndex));
+                seriesCache.put(key, tile);
+            }
+            tiles.add(tile.series);
+            size += tile.series.size();
+        }
+        long[] seriesDays = new long[size];
+        double[] seriesValues = new double[size];
+        int offset = 0;
+        for (ChartSeries tile : tiles) {
+            for (int i = 0; i < tile.size(); i++) {
+                seriesDays[offset] = tile.getEpochDay(i);
+                seriesValues[offset] = tile.getValue(i);
+                offset++;
+            }
+        }
+        return new ChartSeries(seriesDays, seriesValues, bucketDays).slice(from.toEpochDay(), to.toEpochDay());
+    }
+
+    public void streamSeries(Nutrient nutrient, DownsamplingMethod method, LocalDate from, LocalDate to, int widthPx,
+                             int chunkSize, Consumer<ChartSeries> chunkConsumer) {
+        if (chunkSize <= 0) {
+            throw new ServiceException("Размер порции точек должен быть больше 0: " + chunkSize);
+        }
+        ChartSeries series = getSeries(nutrient, method, from, to, widthPx);
+        for (int start = 0; start < series.size(); start += chunkSize) {
+            if (Thread.currentThread().isInterrupted()) {
+                LOGGER.debug("Передача точек графика {} прервана на {} из {}.", nutrient, start, series.size());
+                return;
+            }
+            chunkConsumer.accept(series.subSeries(start, Math.min(series.size(), start + chunkSize)));
+        }
+    }
+
+    public static int zoomLevel(LocalDate from, LocalDate to, int widthPx) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        long daysPerPixel = (days + widthPx - 1) / widthPx;
+        return daysPerPixel <= 1 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(daysPerPixel - 1);
+    }
+
+    public synchronized void invalidate(Collection<LocalDate> dates) {
+        if (dates.isEmpty() || epochDays == null) {
+            return;
+        }
+        TreeMap<Long, NutrientVector> changes = new TreeMap<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (LocalDate date : dates) {
+            changes.put(date.toEpochDay(), null);
+            from = from == null || date.isBefore(from) ? date : from;
+            to = to == null || date.isAfter(to) ? date : to;
+        }
+        List<DailyTotals> changedTotals;
+        try {
+            changedTotals = dailyTotalsService.getTotalsBetween(from, to);
+        } catch (ServiceException e) {
+            invalidateAll();
+            throw e;
+        }
+        for (DailyTotals dailyTotals : changedTotals) {
+            long epochDay = dailyTotals.getDate().toEpochDay();
+            if (changes.containsKey(epochDay) && dailyTotals.getEntryCount() > 0) {
+                changes.put(epochDay, dailyTotals.getTotalNutrients());
+            }
+        }
+        patchHistory(changes);
+        int dropped = 0;
+        Iterator<SeriesTile> iterator = seriesCache.values().iterator();
+        while (iterator.hasNext()) {
+            SeriesTile tile = iterator.next();
+            long tileSpanDays = tileSpanDays(tile.zoomLevel);
+            long tileStart = tile.tileIndex * tileSpanDays;
+            Long changedDay = changes.ceilingKey(tileStart);
+            if (changedDay != null && changedDay < tileStart + tileSpanDays) {
+                iterator.remove();
+                dropped++;
+            }
+        }
+        LOGGER.debug("История графиков обновлена за {} дней, сброшено {} фрагментов рядов.", changes.size(), dropped);
+    }
+
+    public synchronized void invalidateAll() {
+        epochDays = null;
+        values = null;
+        seriesCache.clear();
+    }
+
+    public synchronized int getCacheSize() {
+        return seriesCache.size();
+    }
+
+    public synchronized long getHistoryLoadCount() {
+        return historyLoadCount;
+    }
+
+    public synchronized long getDownsampleCount() {
+        return downsampleCount;
+    }
+
+    private void ensureHistoryLoaded() {
+        if (epochDays != null) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        List<DailyTotals> totals = dailyTotalsService.getAllTotals();
+        long[] loadedDays = new long[totals.size()];
+        double[][] loadedValues = new double[NUTRIENT_COUNT][totals.size()];
+        int size = 0;
+        for (DailyTotals dailyTotals : totals) {
+            if (dailyTotals.getEntryCount() == 0) {
+                continue;
+            }
+            NutrientVector nutrients = dailyTotals.getTotalNutrients();
+            loadedDays[size] = dailyTotals.getDate().toEpochDay();
+            for (Nutrient nutrient : Nutrient.values()) {
+                loadedValues[nutrient.ordinal()][size] = nutrients.get(nutrient);
+            }
+            size++;
+        }
+        epochDays = Arrays.copyOf(loadedDays, size);
+        values = new double[NUTRIENT_COUNT][];
+        for (int n = 0; n < NUTRIENT_COUNT; n++) {
+            values[n] = Arrays.copyOf(loadedValues[n], size);
+        }
+        historyLoadCount++;
+        LOGGER.debug("История для графиков загружена: {} дней за {} мс.", size, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private void patchHistory(TreeMap<Long, NutrientVector> changes) {
+        long[] patchedDays = new long[epochDays.length + changes.size()];
+        double[][] patchedValues = new double[NUTRIENT_COUNT][patchedDays.length];
+        int size = 0;
+        int index = 0;
+        for (Map.Entry<Long, NutrientVector> change : changes.entrySet()) {
+            long changedDay = change.getKey();
+            while (index < epochDays.length && epochDays[index] < changedDay) {
+                patchedDays[size] = epochDays[index];
+                for (int n = 0; n < NUTRIENT_COUNT; n++) {
+                    patchedValues[n][size] = values[n][index];
+                }
+                size++;
+                index++;
+            }
+            if (index < epochDays.length && epochDays[index] == changedDay) {
+                index++;
+            }
+            if (change.getValue() != null) {
+                patchedDays[size] = changedDay;
+                for (Nutrient nutrient : Nutrient.values()) {
+                    patchedValues[nutrient.ordinal()][size] = change.getValue().get(nutrient);
+                }
+                size++;
+            }
+        }
+        int tail = epochDays.length - index;
+        System.arraycopy(epochDays, index, patchedDays, size, tail);
+        for (int n = 0; n < NUTRIENT_COUNT; n++) {
+            System.arraycopy(values[n], index, patchedValues[n], size, tail);
+            values[n] = Arrays.copyOf(patchedValues[n], size + tail);
+        }
+        epochDays = Arrays.copyOf(patchedDays, size + tail);
+    }
+
+    private static long tileSpanDays(int zoomLevel) {
+        return (long) TILE_BUCKETS << zoomLevel;
+    }
+
+    private static long tileKey(Nutrient nutrient, DownsamplingMethod method, int zoomLevel, long tileIndex) {
+        return ((tileIndex * ZOOM_LEVEL_COUNT + zoomLevel) * METHOD_COUNT + method.ordinal()) * NUTRIENT_COUNT + nutrient.ordinal();
+    }
+
+    private ChartSeries downsample(Nutrient nutrient, DownsamplingMethod method, int zoomLevel, long tileIndex) {
+        long startNanos = System.nanoTime();
+        int bucketDays = 1 << zoomLevel;
+        long tileStart = tileIndex * tileSpanDays(zoomLevel);
+        int from = lowerBound(tileStart);
+        int to = lowerBound(tileStart + tileSpanDays(zoomLevel));
+        int size = to - from;
+        long[] tileEpochDays = Arrays.copyOfRange(epochDays, from, to);
+        double[] tileValues = Arrays.copyOfRange(values[nutrient.ordinal()], from, to);
+        int[] indices;
+        if (size == 0) {
+            indices = new int[0];
+        } else if (method == DownsamplingMethod.MIN_MAX) {
+            indices = Downsampler.minMax(tileEpochDays, tileValues, size, bucketDays);
+        } else {
+            long spanDays = tileEpochDays[size - 1] - tileEpochDays[0] + 1;
+            int threshold = (int) ((spanDays + bucketDays - 1) / bucketDays);
+            indices = Downsampler.lttb(tileEpochDays, tileValues, size, threshold);
+        }
+        long[] seriesDays = new long[indices.length];
+        double[] seriesValues = new double[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            seriesDays[i] = tileEpochDays[indices[i]];
+            seriesValues[i] = tileValues[indices[i]];
+        }
+        downsampleCount++;
+        LOGGER.debug("Фрагмент {} ряда {} ({}, {} дн. на точку) построен: {} из {} точек за {} мкс.", tileIndex, nutrient, method,
+                bucketDays, indices.length, size, (System.nanoTime() - startNanos) / 1_000);
+        return new ChartSeries(seriesDays, seriesValues, bucketDays);
+    }
+
+    private int lowerBound(long epochDay) {
+        int index = Arrays.binarySearch(epochDays, epochDay);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static final class SeriesTile {
+        private final int zoomLevel;
+        private final long tileIndex;
+        private final ChartSeries series;
+
+        private SeriesTile(int zoomLevel, long tileIndex, ChartSeries series) {
+            this.zoomLevel = zoomLevel;
+            this.tileIndex = tileIndex;
+            this.series = series;
+        }
+    }
+}
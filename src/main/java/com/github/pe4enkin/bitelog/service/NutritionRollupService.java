@@ -0,0 +1,169 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.dao.DailyTotalsDao;
+import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
+import com.github.pe4enkin.bitelog.model.DailyCategoryTotals;
+import com.github.pe4enkin.bitelog.model.MealCategory;
+import com.github.pe4enkin.bitelog.model.NutrientVector;
+import com.github.pe4enkin.bitelog.model.NutritionRollup;
+import com.github.pe4enkin.bitelog.model.RollupPeriod;
+import com.github.pe4enkin.bitelog.service.exception.ServiceException;
+import com.github.pe4enkin.bitelog.util.DateTimeFormatterUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serial;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class NutritionRollupService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NutritionRollupService.class);
+    private static final int DEFAULT_CHUNK_DAYS = 366;
+    private static final int DEFAULT_PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private static final ForkJoinPool DEFAULT_POOL = new ForkJoinPool(DEFAULT_PARALLELISM);
+    private final DailyTotalsDao dailyTotalsDao;
+    private final ForkJoinPool forkJoinPool;
+    private final int chunkDays;
+
+    public NutritionRollupService(DailyTotalsDao dailyTotalsDao) {
+        this(dailyTotalsDao, DEFAULT_POOL, DEFAULT_CHUNK_DAYS);
+    }
+
+    public NutritionRollupService(DailyTotalsDao dailyTotalsDao, ForkJoinPool forkJoinPool, int chunkDays) {
+        if (chunkDays <= 0) {
+            throw new IllegalArgumentException("Размер части периода должен быть больше 0: " + chunkDays);
+        }
+        this.dailyTotalsDao = dailyTotalsDao;
+        this.forkJoinPool = forkJoinPool;
+        this.chunkDays = chunkDays;
+    }
+
+    public List<NutritionRollup> getRollups(LocalDate from, LocalDate to, RollupPeriod period) {
+        String logRange = DateTimeFormatterUtil.formatDateWithDots(from) + " - " + DateTimeFormatterUtil.formatDateWithDots(to);
+        if (from.isAfter(to)) {
+            throw new ServiceException("Начальная дата периода не может быть позже конечной.");
+        }
+        long startTime = System.nanoTime();
+        Map<LocalDate, PeriodAccumulator> accumulators;
+        try {
+            accumulators = forkJoinPool.invoke(new RollupTask(from, to, period));
+        } catch (DataAccessException e) {
+            LOGGER.error("Ошибка DAO при расчете сводки ({}) за период {}: {}", period, logRange, e.getMessage());
+            throw new ServiceException("Не удалось рассчитать сводку за период " + logRange + ": " + e.getMessage(), e);
+        }
+
+        List<NutritionRollup> rollups = new ArrayList<>();
+        for (LocalDate periodStart = period.startOf(from); !periodStart.isAfter(to); periodStart = period.nextStart(periodStart)) {
+            LocalDate start = periodStart.isBefore(from) ? from : periodStart;
+            LocalDate periodEnd = period.nextStart(periodStart).minusDays(1);
+            LocalDate end = periodEnd.isAfter(to) ? to : periodEnd;
+            PeriodAccumulator accumulator = accumulators.getOrDefault(periodStart, new PeriodAccumulator());
+            rollups.add(new NutritionRollup(period, start, end, accumulator.totals, accumulator.categoryNutrients,
+                    accumulator.loggedDays, accumulator.entryCount));
+        }
+        LOGGER.info("Сводка ({}) за период {} рассчитана: {} периодов за {} мс.",
+                period, logRange, rollups.size(), (System.nanoTime() - startTime) / 1_000_000);
+        return rollups;
+    }
+
+    private final class RollupTask extends RecursiveTask<Map<LocalDate, PeriodAccumulator>> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final RollupPeriod period;
+
+        private RollupTask(LocalDate from, LocalDate to, RollupPeriod period) {
+            this.from = from;
+            this.to = to;
+            this.period = period;
+        }
+
+        @Override
+        protected Map<LocalDate, PeriodAccumulator> compute() {
+            long days = ChronoUnit.DAYS.between(from, to) + 1;
+            if (days <= chunkDays) {
+                return accumulate();
+            }
+            LocalDate middle = from.plusDays(days / 2 - 1);
+            RollupTask left = new RollupTask(from, middle, period);
+            RollupTask right = new RollupTask(middle.plusDays(1), to, period);
+            left.fork();
+            Map<LocalDate, PeriodAccumulator> merged = right.compute();
+            for (Map.Entry<LocalDate, PeriodAccumulator> entry : left.join().entrySet()) {
+                merged.merge(entry.getKey(), entry.getValue(), PeriodAccumulator::merge);
+            }
+            return merged;
+        }
+
+        private Map<LocalDate, PeriodAccumulator> accumulate() {
+            CategoryTotalsLoader loader = new CategoryTotalsLoader(from, to);
+            try {
+                ForkJoinPool.managedBlock(loader);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Расчет сводки прерван.");
+            }
+            Map<LocalDate, PeriodAccumulator> accumulators = new HashMap<>();
+            for (DailyCategoryTotals totals : loader.result) {
+                accumulators.computeIfAbsent(period.startOf(totals.getDate()), key -> new PeriodAccumulator()).add(totals);
+            }
+            return accumulators;
+        }
+    }
+
+    private final class CategoryTotalsLoader implements ForkJoinPool.ManagedBlocker {
+        private final LocalDate from;
+        private final LocalDate to;
+        private List<DailyCategoryTotals> result;
+
+        private CategoryTotalsLoader(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean block() {
+            result = dailyTotalsDao.findCategoryTotalsBetween(from, to);
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return result != null;
+        }
+    }
+
+    private static final class PeriodAccumulator {
+        private final NutrientVector totals = new NutrientVector();
+        private final Map<MealCategory, NutrientVector> categoryNutrients = new EnumMap<>(MealCategory.class);
+        private LocalDate lastDate;
+        private int loggedDays;
+        private int entryCount;
+
+        private void add(DailyCategoryTotals dailyTotals) {
+            NutrientVector nutrients = dailyTotals.getTotalNutrients();
+            totals.add(nutrients);
+            categoryNutrients.computeIfAbsent(dailyTotals.getMealCategory(), key -> new NutrientVector()).add(nutrients);
+            if (!dailyTotals.getDate().equals(lastDate)) {
+                lastDate = dailyTotals.getDate();
+                loggedDays++;
+            }
+            entryCount += dailyTotals.getEntryCount();
+        }
+
+        private PeriodAccumulator merge(PeriodAccumulator other) {
+            totals.add(other.totals);
+            for (Map.Entry<MealCategory, NutrientVector> entry : other.categoryNutrients.entrySet()) {
+                categoryNutrients.computeIfAbsent(entry.getKey(), key -> new NutrientVector()).add(entry.getValue());
+            }
+            loggedDays += other.loggedDays;
+            entryCount += other.entryCount;
+            return this;
+        }
+    }
+}
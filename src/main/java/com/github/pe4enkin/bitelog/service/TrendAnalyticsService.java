@@ -0,0 +1,119 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.model.DailyTotals;
+import com.github.pe4enkin.bitelog.model.NutrientVector;
+import com.github.pe4enkin.bitelog.model.TrendPoint;
+import com.github.pe4enkin.bitelog.service.exception.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TrendAnalyticsService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrendAnalyticsService.class);
+    public static final int WEEK_WINDOW_DAYS = 7;
+    public static final int MONTH_WINDOW_DAYS = 30;
+    public static final int QUARTER_WINDOW_DAYS = 90;
+    private final DailyTotalsService dailyTotalsService;
+    private final DailyTrendSeries series = new DailyTrendSeries();
+
+    public TrendAnalyticsService(DailyTotalsService dailyTotalsService) {
+        this.dailyTotalsService = dailyTotalsService;
+    }
+
+    public void reload() {
+        long startTime = System.nanoTime();
+        List<DailyTotals> allTotals = dailyTotalsService.getAllTotals();
+        synchronized (series) {
+            series.clear();
+            for (DailyTotals totals : allTotals) {
+                series.setDay(totals.getDate(), totals.getTotalNutrients(), totals.getEntryCount());
+            }
+        }
+        LOGGER.info("Ряд трендов загружен: {} дней с записями, {} дней в диапазоне, за {} мс.",
+                allTotals.size(), series.size(), (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    public void onDaysChanged(Set<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        LocalDate from = Collections.min(dates);
+        LocalDate to = Collections.max(dates);
+        Map<LocalDate, DailyTotals> totalsByDate = new HashMap<>();
+        for (DailyTotals totals : dailyTotalsService.getTotalsBetween(from, to)) {
+            totalsByDate.put(totals.getDate(), totals);
+        }
+        synchronized (series) {
+            for (LocalDate date : dates) {
+                DailyTotals totals = totalsByDate.get(date);
+                if (totals != null) {
+                    series.setDay(date, totals.getTotalNutrients(), totals.getEntryCount());
+                } else {
+                    series.setDay(date, new NutrientVector(), 0);
+                }
+            }
+        }
+        LOGGER.debug("Ряд трендов обновлен за {} дней.", dates.size());
+    }
+
+    public NutrientVector getMovingAverage(LocalDate date, int windowDays) {
+        checkWindow(windowDays);
+        return series.getMovingAverage(date, windowDays);
+    }
+
+    public NutrientVector getWeekOverWeekDelta(LocalDate date) {
+        synchronized (series) {
+            NutrientVector currentWeek = series.getMovingAverage(date, WEEK_WINDOW_DAYS);
+            NutrientVector previousWeek = series.getMovingAverage(date.minusDays(WEEK_WINDOW_DAYS), WEEK_WINDOW_DAYS);
+            return currentWeek.addScaled(previousWeek, -1.0);
+        }
+    }
+
+    public int getStreak(LocalDate date) {
+        return series.getStreak(date);
+    }
+
+    public int getLongestStreak() {
+        return series.getLongestStreak();
+    }
+
+    public TrendPoint getTrendPoint(LocalDate date) {
+        synchronized (series) {
+            return new TrendPoint(
+                    date,
+                    series.getDay(date),
+                    series.getMovingAverage(date, WEEK_WINDOW_DAYS),
+                    series.getMovingAverage(date, MONTH_WINDOW_DAYS),
+                    series.getMovingAverage(date, QUARTER_WINDOW_DAYS),
+                    getWeekOverWeekDelta(date),
+                    series.getStreak(date));
+        }
+    }
+
+    public List<TrendPoint> getTrend(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new ServiceException("Начальная дата периода не может быть позже конечной.");
+        }
+        List<TrendPoint> points = new ArrayList<>((int) ChronoUnit.DAYS.between(from, to) + 1);
+        synchronized (series) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                points.add(getTrendPoint(date));
+            }
+        }
+        return points;
+    }
+
+    private void checkWindow(int windowDays) {
+        if (windowDays <= 0) {
+            throw new ServiceException("Размер окна скользящего среднего должен быть больше 0: " + windowDays);
+        }
+    }
+}
@@ -56,12 +56,106 @@ public class SqlQueries {
             )
             """;
 
+    public static final String CREATE_DAILY_TOTALS_TABLE = """
+            CREATE TABLE IF NOT EXISTS daily_totals (
+                date DATE PRIMARY KEY,
+                total_calories REAL NOT NULL,
+                total_proteins REAL NOT NULL,
+                total_fats REAL NOT NULL,
+                total_carbs REAL NOT NULL,
+                entry_count INTEGER NOT NULL
+            )
+            """;
+
+    public static final String CREATE_DAILY_TOTALS_STATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS daily_totals_state (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                dirty INTEGER NOT NULL
+            )
+            """;
+
+    public static final String CREATE_FOOD_ITEMS_CATEGORY_INDEX = """
+            CREATE INDEX IF NOT EXISTS idx_food_items_category_name
+            ON food_items (food_category_id, name)
+            """;
+
+    public static final String CREATE_FOOD_ITEMS_COMPOSITE_INDEX = """
+            CREATE INDEX IF NOT EXISTS idx_food_items_is_composite
+            ON food_items (is_composite)
+            """;
+
+    public static final String CREATE_FOOD_ITEMS_CALORIES_INDEX = """
+            CREATE INDEX IF NOT EXISTS idx_food_items_calories
+            ON food_items (calories_per_100g)
+            """;
+
+    public static final String CREATE_FOOD_COMPONENTS_INGREDIENT_INDEX = """
+            CREATE INDEX IF NOT EXISTS idx_food_components_ingredient
+            ON food_components (ingredient_food_item_id)
+            """;
+
+    public static final String CREATE_MEAL_ENTRIES_DATE_INDEX = """
+            CREATE INDEX IF NOT EXISTS idx_meal_entries_date_time
+            ON meal_entries (date, time)
+            """;
+
+    public static final String CREATE_MEAL_COMPONENTS_MEAL_ENTRY_INDEX = """
+            CREATE INDEX IF NOT EXISTS idx_meal_components_meal_entry_id
+            ON meal_components (meal_entry_id)
+            """;
+
     public static final String INSERT_FOOD_ITEM = """
             INSERT INTO food_items (name, calories_per_100g, serving_size_in_grams, unit, proteins_per_100g,
                                     fats_per_100g, carbs_per_100g, is_composite, food_category_id)
             VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
 
+    public static final String UPSERT_FOOD_ITEM = """
+            INSERT INTO food_items (name, calories_per_100g, serving_size_in_grams, unit, proteins_per_100g,
+                                    fats_per_100g, carbs_per_100g, is_composite, food_category_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT(name) DO UPDATE SET
+                calories_per_100g = excluded.calories_per_100g,
+                serving_size_in_grams = excluded.serving_size_in_grams,
+                unit = excluded.unit,
+                proteins_per_100g = excluded.proteins_per_100g,
+                fats_per_100g = excluded.fats_per_100g,
+                carbs_per_100g = excluded.carbs_per_100g,
+                is_composite = excluded.is_composite,
+                food_category_id = excluded.food_category_id
+            RETURNING id
+            """;
+
+    public static final String INSERT_DAILY_TOTALS_SELECT = """
+            INSERT INTO daily_totals (date, total_calories, total_proteins, total_fats, total_carbs, entry_count)
+            SELECT me.date,
+                   COALESCE(SUM(fi.calories_per_100g * mc.amount_in_grams), 0) / 100.0,
+                   COALESCE(SUM(fi.proteins_per_100g * mc.amount_in_grams), 0) / 100.0,
+                   COALESCE(SUM(fi.fats_per_100g * mc.amount_in_grams), 0) / 100.0,
+                   COALESCE(SUM(fi.carbs_per_100g * mc.amount_in_grams), 0) / 100.0,
+                   COUNT(DISTINCT me.id)
+            FROM meal_entries me
+            LEFT JOIN meal_components mc
+            ON mc.meal_entry_id = me.id
+            LEFT JOIN food_items fi
+            ON fi.id = mc.food_item_id
+            """;
+
+    public static final String WHERE_MEAL_ENTRY_DATE = """
+            WHERE me.date = ?
+            """;
+
+    public static final String GROUP_DAILY_TOTALS_BY_DATE = """
+            GROUP BY me.date
+            """;
+
+    public static final String INSERT_FOOD_ITEMS_MULTI_ROW_PREFIX = """
+            INSERT INTO food_items (name, calories_per_100g, serving_size_in_grams, unit, proteins_per_100g,
+                                    fats_per_100g, carbs_per_100g, is_composite, food_category_id)
+            VALUES\s""";
+
+    public static final String INSERT_FOOD_ITEMS_MULTI_ROW_VALUES = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     public static final String INSERT_FOOD_COMPONENT = """
             INSERT INTO food_components (parent_food_item_id, ingredient_food_item_id, amount_in_grams)
             VALUES (?, ?, ?)
@@ -111,12 +205,72 @@ public class SqlQueries {
             ON fi.food_category_id = fc.id
             """;
 
+    public static final String SELECT_FOOD_ITEMS_BY_CATEGORY = """
+            SELECT fi.id, fi.name, fi.calories_per_100g, fi.serving_size_in_grams, fi.unit,
+                   fi.proteins_per_100g, fi.fats_per_100g, fi.carbs_per_100g, fi.is_composite,
+                   fc.id AS category_id, fc.name AS category_name
+            FROM food_items fi
+            LEFT JOIN food_categories fc
+            ON fi.food_category_id = fc.id
+            WHERE fi.food_category_id = ?
+            ORDER BY fi.name
+            """;
+
+    public static final String SELECT_FOOD_ITEM_CATEGORY_FACETS = """
+            SELECT fc.id AS category_id, fc.name AS category_name, COUNT(*) AS item_count
+            FROM food_items fi
+            LEFT JOIN food_categories fc
+            ON fi.food_category_id = fc.id
+            """;
+
+    public static final String GROUP_FOOD_ITEM_CATEGORY_FACETS = """
+            GROUP BY fi.food_category_id
+            ORDER BY item_count DESC, category_name
+            """;
+
+    public static final String ORDER_FOOD_ITEMS_BY_NAME = """
+            ORDER BY fi.name
+            """;
+
+    public static final String SELECT_ALL_FOOD_ITEM_NAMES = """
+            SELECT name
+            FROM food_items
+            """;
+
     public static final String SELECT_FOOD_COMPONENT = """
             SELECT id, parent_food_item_id, ingredient_food_item_id, amount_in_grams
             FROM food_components
             WHERE parent_food_item_id = ?
             """;
 
+    public static final String SELECT_ALL_FOOD_COMPONENTS = """
+            SELECT id, parent_food_item_id, ingredient_food_item_id, amount_in_grams
+            FROM food_components
+            """;
+
+    public static final String SELECT_FOOD_ITEM_CONTAINS_ITSELF = """
+            WITH RECURSIVE reachable(id) AS (
+                SELECT ingredient_food_item_id
+                FROM food_components
+                WHERE parent_food_item_id = ?
+                UNION
+                SELECT fc.ingredient_food_item_id
+                FROM food_components fc
+                JOIN reachable r ON fc.parent_food_item_id = r.id
+            )
+            SELECT 1
+            FROM reachable
+            WHERE id = ?
+            LIMIT 1
+            """;
+
+    public static final String SELECT_COMPOSITE_FOOD_ITEM_IDS_WITHOUT_NUTRIENTS = """
+            SELECT id
+            FROM food_items
+            WHERE is_composite = 1
+            AND calories_per_100g = 0 AND proteins_per_100g = 0 AND fats_per_100g = 0 AND carbs_per_100g = 0
+            """;
+
     public static final String SELECT_COUNT_FOOD_COMPONENTS = """
             SELECT COUNT(*)
             FROM food_components
@@ -152,12 +306,97 @@ public class SqlQueries {
             WHERE date = ?
             """;
 
+    public static final String SELECT_MEAL_EXPORT_ROWS_BY_DATE_RANGE = """
+            SELECT me.id AS meal_entry_id, me.date, me.time, me.meal_category, me.notes,
+                   mc.id AS meal_component_id, mc.food_item_id, mc.amount_in_grams,
+                   fi.name AS food_name, fi.is_composite, fi.calories_per_100g, fi.proteins_per_100g,
+                   fi.fats_per_100g, fi.carbs_per_100g
+            FROM meal_entries me
+            LEFT JOIN meal_components mc
+            ON mc.meal_entry_id = me.id
+            LEFT JOIN food_items fi
+            ON fi.id = mc.food_item_id
+            WHERE me.date BETWEEN ? AND ?
+            ORDER BY me.date, me.time, me.id
+            """;
+
+    public static final String SELECT_MEAL_ENTRY_DATE_BY_ID = """
+            SELECT date
+            FROM meal_entries
+            WHERE id = ?
+            """;
+
+    public static final String SELECT_MEAL_ENTRY_DATES_BY_FOOD_ITEM_PREFIX = """
+            SELECT DISTINCT me.date
+            FROM meal_entries me
+            JOIN meal_components mc
+            ON mc.meal_entry_id = me.id
+            WHERE mc.food_item_id IN\s""";
+
+    public static final String SELECT_FOOD_ITEM_GRAMS_BETWEEN = """
+            SELECT mc.food_item_id, SUM(mc.amount_in_grams) AS total_grams
+            FROM meal_components mc
+            JOIN meal_entries me
+            ON me.id = mc.meal_entry_id
+            WHERE me.date BETWEEN ? AND ?
+            GROUP BY mc.food_item_id
+            """;
+
+    public static final String SELECT_DAILY_TOTALS_BY_DATE = """
+            SELECT date, total_calories, total_proteins, total_fats, total_carbs, entry_count
+            FROM daily_totals
+            WHERE date = ?
+            """;
+
+    public static final String SELECT_ALL_DAILY_TOTALS = """
+            SELECT date, total_calories, total_proteins, total_fats, total_carbs, entry_count
+            FROM daily_totals
+            ORDER BY date
+            """;
+
+    public static final String SELECT_DAILY_TOTALS_BETWEEN = """
+            SELECT date, total_calories, total_proteins, total_fats, total_carbs, entry_count
+            FROM daily_totals
+            WHERE date BETWEEN ? AND ?
+            ORDER BY date
+            """;
+
+    public static final String SELECT_DAILY_CATEGORY_TOTALS_BETWEEN = """
+            SELECT me.date, me.meal_category,
+                   COALESCE(SUM(fi.calories_per_100g * mc.amount_in_grams), 0) / 100.0 AS total_calories,
+                   COALESCE(SUM(fi.proteins_per_100g * mc.amount_in_grams), 0) / 100.0 AS total_proteins,
+                   COALESCE(SUM(fi.fats_per_100g * mc.amount_in_grams), 0) / 100.0 AS total_fats,
+                   COALESCE(SUM(fi.carbs_per_100g * mc.amount_in_grams), 0) / 100.0 AS total_carbs,
+                   COUNT(DISTINCT me.id) AS entry_count
+            FROM meal_entries me
+            LEFT JOIN meal_components mc
+            ON mc.meal_entry_id = me.id
+            LEFT JOIN food_items fi
+            ON fi.id = mc.food_item_id
+            WHERE me.date BETWEEN ? AND ?
+            GROUP BY me.date, me.meal_category
+            ORDER BY me.date
+            """;
+
+    public static final String SELECT_DAILY_TOTALS_REBUILD_STATE = """
+            SELECT (SELECT COUNT(*) FROM daily_totals) AS total_count,
+                   COALESCE((SELECT dirty FROM daily_totals_state WHERE id = 1), 0) AS dirty
+            """;
+
     public static final String SELECT_MEAL_COMPONENT = """
             SELECT id, meal_entry_id, food_item_id, amount_in_grams
             FROM meal_components
             WHERE meal_entry_id = ?
             """;
 
+    public static final String SELECT_MEAL_COMPONENTS_BY_DATE = """
+            SELECT mc.id, mc.meal_entry_id, mc.food_item_id, mc.amount_in_grams
+            FROM meal_components mc
+            JOIN meal_entries me ON me.id = mc.meal_entry_id
+            WHERE me.date = ?
+            ORDER BY mc.id
+            """;
+
     public static final String SELECT_COUNT_MEAL_COMPONENTS = """
             SELECT COUNT(*)
             FROM meal_components
@@ -185,6 +424,12 @@ public class SqlQueries {
             WHERE id = ?
             """;
 
+    public static final String UPDATE_FOOD_ITEM_NUTRIENTS = """
+            UPDATE food_items
+            SET calories_per_100g = ?, proteins_per_100g = ?, fats_per_100g = ?, carbs_per_100g = ?
+            WHERE id = ?
+            """;
+
     public static final String UPDATE_FOOD_CATEGORY = """
             UPDATE food_categories SET
                 name = ?
@@ -225,6 +470,21 @@ public class SqlQueries {
             WHERE meal_entry_id = ?
             """;
 
+    public static final String DELETE_DAILY_TOTALS_BY_DATE = """
+            DELETE FROM daily_totals
+            WHERE date = ?
+            """;
+
+    public static final String UPSERT_DAILY_TOTALS_DIRTY = """
+            INSERT INTO daily_totals_state (id, dirty)
+            VALUES (1, ?)
+            ON CONFLICT(id) DO UPDATE SET dirty = excluded.dirty
+            """;
+
+    public static final String DELETE_ALL_DAILY_TOTALS = """
+            DELETE FROM daily_totals
+            """;
+
     public static final String DROP_TABLE_FOOD_ITEMS = """
             DROP TABLE IF EXISTS food_items
             """;
@@ -244,4 +504,28 @@ public class SqlQueries {
     public static final String DROP_TABLE_MEAL_COMPONENTS = """
             DROP TABLE IF EXISTS meal_components
             """;
+
+    public static final String DROP_TABLE_DAILY_TOTALS = """
+            DROP TABLE IF EXISTS daily_totals
+            """;
+
+    public static final String DROP_TABLE_DAILY_TOTALS_STATE = """
+            DROP TABLE IF EXISTS daily_totals_state
+            """;
+
+    public static final String PRAGMA_BULK_LOAD_SYNCHRONOUS = "PRAGMA synchronous = OFF";
+
+    public static final String PRAGMA_BULK_LOAD_JOURNAL_MODE = "PRAGMA journal_mode = MEMORY";
+
+    public static final String PRAGMA_BULK_LOAD_TEMP_STORE = "PRAGMA temp_store = MEMORY";
+
+    public static final String PRAGMA_BULK_LOAD_CACHE_SIZE = "PRAGMA cache_size = -262144";
+
+    public static final String PRAGMA_SYNCHRONOUS = "PRAGMA synchronous";
+
+    public static final String PRAGMA_JOURNAL_MODE = "PRAGMA journal_mode";
+
+    public static final String PRAGMA_TEMP_STORE = "PRAGMA temp_store";
+
+    public static final String PRAGMA_CACHE_SIZE = "PRAGMA cache_size";
 }
\ No newline at end of file
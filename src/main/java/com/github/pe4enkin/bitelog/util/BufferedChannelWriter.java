@@ -0,0 +1,187 @@
+package com.github.pe4enkin.bitelog.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+public class BufferedChannelWriter implements Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    private static final char[] DIGITS = "0123456789".toCharArray();
+
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final CharBuffer charBuffer;
+    private final ByteBuffer byteBuffer;
+    private final char[] numberScratch = new char[24];
+    private long bytesWritten;
+
+    public BufferedChannelWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public BufferedChannelWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.charBuffer = CharBuffer.allocate(bufferSize / 4);
+        this.byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public BufferedChannelWriter write(char c) throws IOException {
+        if (!charBuffer.hasRemaining()) {
+            encodeChars(false);
+        }
+        charBuffer.put(c);
+        return this;
+    }
+
+    public BufferedChannelWriter write(CharSequence text) throws IOException {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            write(text.charAt(i));
+        }
+        return this;
+    }
+
+    public BufferedChannelWriter writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            return write(Long.toString(value));
+        }
+        if (value < 0) {
+            write('-');
+            value = -value;
+        }
+        int position = numberScratch.length;
+        do {
+            numberScratch[--position] = DIGITS[(int) (value % 10)];
+            value /= 10;
+        } while (value != 0);
+        for (int i = position; i < numberScratch.length; i++) {
+            write(numberScratch[i]);
+        }
+        return this;
+    }
+
+    public BufferedChannelWriter writeDecimal(double value, int scale) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return write(Double.toString(value));
+        }
+        long factor = 1;
+        for (int i = 0; i < scale; i++) {
+            factor *= 10;
+        }
+        long scaled = Math.round(Math.abs(value) * factor);
+        if (value < 0 && scaled != 0) {
+            write('-');
+        }
+        writeLong(scaled / factor);
+        long fraction = scaled % factor;
+        if (fraction != 0) {
+            write('.');
+            long divisor = factor / 10;
+            while (fraction != 0) {
+                write(DIGITS[(int) (fraction / divisor)]);
+                fraction %= divisor;
+                divisor /= 10;
+            }
+        }
+        return this;
+    }
+
+    public BufferedChannelWriter writeCsvField(String value, char delimiter) throws IOException {
+        if (value == null) {
+            return this;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == delimiter || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            return write(value);
+        }
+        write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                write('"');
+            }
+            write(c);
+        }
+        return write('"');
+    }
+
+    public BufferedChannelWriter writeJsonString(String value) throws IOException {
+        if (value == null) {
+            return write("null");
+        }
+        write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> write("\\\"");
+                case '\\' -> write("\\\\");
+                case '\n' -> write("\\n");
+                case '\r' -> write("\\r");
+                case '\t' -> write("\\t");
+                case '\b' -> write("\\b");
+                case '\f' -> write("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        write("\\u00");
+                        write(DIGITS[c >> 4]);
+                        write(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        write(c);
+                    }
+                }
+            }
+        }
+        return write('"');
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public void flush() throws IOException {
+        encodeChars(true);
+        encoder.reset();
+        drainBytes();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void encodeChars(boolean endOfInput) throws IOException {
+        charBuffer.flip();
+        while (true) {
+            CoderResult result = encoder.encode(charBuffer, byteBuffer, endOfInput);
+            if (result.isOverflow()) {
+                drainBytes();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        charBuffer.compact();
+    }
+
+    private void drainBytes() throws IOException {
+        byteBuffer.flip();
+        while (byteBuffer.hasRemaining()) {
+            bytesWritten += channel.write(byteBuffer);
+        }
+        byteBuffer.clear();
+    }
+}
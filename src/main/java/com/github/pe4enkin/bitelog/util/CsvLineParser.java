@@ -0,0 +1,46 @@
+package com.github.pe4enkin.bitelog.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CsvLineParser {
+
+    private CsvLineParser() {
+        throw new UnsupportedOperationException("CsvLineParser утилитарный класс и не может быть инстанцирован.");
+    }
+
+    public static List<String> parseLine(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        int length = line.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i + 1 < length && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (inQuotes) {
+            throw new IllegalArgumentException("Незакрытая кавычка в строке CSV.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.pe4enkin.bitelog.util;
+
+import java.util.Arrays;
+
+public final class Downsampler {
+
+    private Downsampler() {
+        throw new UnsupportedOperationException("Downsampler утилитарный класс и не может быть инстанцирован.");
+    }
+
+    public static int[] lttb(long[] x, double[] y, int size, int threshold) {
+        if (threshold >= size || threshold < 3) {
+            return allIndices(size);
+        }
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) (bucket * bucketSize) + 1;
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0.0;
+            double averageY = 0.0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+
+            double maxArea = -1.0;
+            int maxIndex = start;
+            for (int i = start; i < nextStart; i++) {
+                double area = Math.abs((x[previous] - averageX) * (y[i] - y[previous])
+                        - (x[previous] - x[i]) * (averageY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            selected[bucket + 1] = maxIndex;
+            previous = maxIndex;
+        }
+        selected[threshold - 1] = size - 1;
+        return selected;
+    }
+
+    public static int[] minMax(long[] x, double[] y, int size, long bucketWidth) {
+        if (bucketWidth <= 1) {
+            return allIndices(size);
+        }
+        int[] selected = new int[size];
+        int count = 0;
+        int start = 0;
+        while (start < size) {
+            long bucket = Math.floorDiv(x[start], bucketWidth);
+            int min = start;
+            int max = start;
+            int end = start + 1;
+            while (end < size && Math.floorDiv(x[end], bucketWidth) == bucket) {
+                if (y[end] < y[min]) {
+                    min = end;
+                }
+                if (y[end] > y[max]) {
+                    max = end;
+                }
+                end++;
+            }
+            selected[count++] = Math.min(min, max);
+            if (min != max) {
+                selected[count++] = Math.max(min, max);
+            }
+            start = end;
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    private static int[] allIndices(int size) {
+        int[] indices = new int[size];
+        Arrays.setAll(indices, i -> i);
+        return indices;
+    }
+}
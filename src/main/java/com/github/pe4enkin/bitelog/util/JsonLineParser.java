@@ -0,0 +1,142 @@
+package com.github.pe4enkin.bitelog.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public final class JsonLineParser {
+
+    private JsonLineParser() {
+        throw new UnsupportedOperationException("JsonLineParser утилитарный класс и не может быть инстанцирован.");
+    }
+
+    public static Map<String, String> parseFlatObject(String line) {
+        Cursor cursor = new Cursor(line);
+        Map<String, String> values = new HashMap<>();
+
+        cursor.skipWhitespace();
+        cursor.expect('{');
+        cursor.skipWhitespace();
+        if (cursor.peek() == '}') {
+            cursor.position++;
+            return values;
+        }
+        while (true) {
+            cursor.skipWhitespace();
+            String key = cursor.readString();
+            cursor.skipWhitespace();
+            cursor.expect(':');
+            cursor.skipWhitespace();
+            values.put(key, cursor.readValue());
+            cursor.skipWhitespace();
+            char c = cursor.next();
+            if (c == '}') {
+                break;
+            }
+            if (c != ',') {
+                throw new IllegalArgumentException("Ожидался символ ',' или '}' в позиции " + (cursor.position - 1));
+            }
+        }
+        cursor.skipWhitespace();
+        if (cursor.position != line.length()) {
+            throw new IllegalArgumentException("Лишние символы после JSON объекта в позиции " + cursor.position);
+        }
+        return values;
+    }
+
+    private static final class Cursor {
+        private final String text;
+        private int position;
+
+        private Cursor(String text) {
+            this.text = text;
+        }
+
+        private char peek() {
+            if (position >= text.length()) {
+                throw new IllegalArgumentException("Неожиданный конец JSON строки.");
+            }
+            return text.charAt(position);
+        }
+
+        private char next() {
+            char c = peek();
+            position++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            char c = next();
+            if (c != expected) {
+                throw new IllegalArgumentException("Ожидался символ '" + expected + "' в позиции " + (position - 1));
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private String readValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("Вложенные объекты и массивы не поддерживаются, позиция " + position);
+            }
+            int start = position;
+            while (position < text.length()) {
+                char current = text.charAt(position);
+                if (current == ',' || current == '}' || Character.isWhitespace(current)) {
+                    break;
+                }
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException("Пустое значение в позиции " + start);
+            }
+            return "null".equals(literal) ? null : literal;
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder sb = null;
+            int start = position;
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    if (sb == null) {
+                        return text.substring(start, position - 1);
+                    }
+                    return sb.toString();
+                }
+                if (c == '\\') {
+                    if (sb == null) {
+                        sb = new StringBuilder(text.substring(start, position - 1));
+                    }
+                    char escaped = next();
+                    switch (escaped) {
+                        case '"', '\\', '/' -> sb.append(escaped);
+                        case 'n' -> sb.append('\n');
+                        case 'r' -> sb.append('\r');
+                        case 't' -> sb.append('\t');
+                        case 'b' -> sb.append('\b');
+                        case 'f' -> sb.append('\f');
+                        case 'u' -> {
+                            if (position + 4 > text.length()) {
+                                throw new IllegalArgumentException("Некорректная unicode-последовательность в позиции " + position);
+                            }
+                            sb.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                            position += 4;
+                        }
+                        default -> throw new IllegalArgumentException("Некорректная escape-последовательность в позиции " + (position - 1));
+                    }
+                } else if (sb != null) {
+                    sb.append(c);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.pe4enkin.bitelog.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+public class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + (Long.SIZE - 1 - 4) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count;
+    private long totalMicros;
+    private long maxMicros;
+
+    public synchronized void record(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        counts[bucketOf(micros)]++;
+        count++;
+        totalMicros += micros;
+        maxMicros = Math.max(maxMicros, micros);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMaxMicros() {
+        return maxMicros;
+    }
+
+    public synchronized double getMeanMicros() {
+        return count == 0 ? 0.0 : (double) totalMicros / count;
+    }
+
+    public synchronized long getPercentileMicros(double percentile) {
+        if (percentile <= 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("Перцентиль должен быть в диапазоне (0, 100]: " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(maxMicros, upperBoundOf(bucket));
+            }
+        }
+        return maxMicros;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        totalMicros = 0;
+        maxMicros = 0;
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - 4) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+        int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        long lowerBound = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.ROOT, "n=%d, p50=%.1f мс, p95=%.1f мс, p99=%.1f мс, max=%.1f мс", count,
+                getPercentileMicros(50) / 1000.0, getPercentileMicros(95) / 1000.0, getPercentileMicros(99) / 1000.0,
+                maxMicros / 1000.0);
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.pe4enkin.bitelog.util;
+
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public final class Lazy<T> implements Supplier<T> {
+    private final Supplier<? extends T> initializer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile T value;
+
+    public Lazy(Supplier<? extends T> initializer) {
+        this.initializer = Objects.requireNonNull(initializer, "Инициализатор не может быть null.");
+    }
+
+    @Override
+    public T get() {
+        T result = value;
+        if (result == null) {
+            lock.lock();
+            try {
+                result = value;
+                if (result == null) {
+                    result = initializer.get();
+                    if (result == null) {
+                        throw new IllegalStateException("Ленивая инициализация вернула null.");
+                    }
+                    value = result;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    public boolean isInitialized() {
+        return value != null;
+    }
+
+    public T getIfInitialized() {
+        return value;
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.pe4enkin.bitelog.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class StartupTimer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupTimer.class);
+
+    public enum Phase {
+        MAIN_STARTED("вызов main"),
+        JAVAFX_STARTED("запуск JavaFX"),
+        SCENE_LOADED("построение сцены"),
+        FIRST_PAINT("первая отрисовка"),
+        DATABASE_READY("подготовка базы данных"),
+        FIRST_DATA("первые данные"),
+        SERVICES_READY("готовность сервисов");
+
+        private final String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private final long originNanos;
+    private final long originMillisSinceJvmStart;
+    private final Map<Phase, Long> phases = new EnumMap<>(Phase.class);
+    private long lastMarkMillis;
+
+    public StartupTimer() {
+        Instant now = Instant.now();
+        Instant jvmStart = ProcessHandle.current().info().startInstant().orElse(now);
+        this.originNanos = System.nanoTime();
+        this.originMillisSinceJvmStart = Math.max(0, Duration.between(jvmStart, now).toMillis());
+    }
+
+    public synchronized long mark(Phase phase) {
+        Long recorded = phases.get(phase);
+        if (recorded != null) {
+            return recorded;
+        }
+        long millis = getMillisSinceJvmStart();
+        phases.put(phase, millis);
+        LOGGER.info("Запуск: {} - {} мс от старта JVM (+{} мс).", phase, millis, millis - lastMarkMillis);
+        lastMarkMillis = Math.max(lastMarkMillis, millis);
+        return millis;
+    }
+
+    public long getMillisSinceJvmStart() {
+        return originMillisSinceJvmStart + (System.nanoTime() - originNanos) / 1_000_000;
+    }
+
+    public synchronized Map<Phase, Long> getPhases() {
+        return Collections.unmodifiableMap(new EnumMap<>(phases));
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.pe4enkin.bitelog;
+
+import com.github.pe4enkin.bitelog.db.DatabaseConnectionManager;
+import com.github.pe4enkin.bitelog.model.DailyDiary;
+import com.github.pe4enkin.bitelog.model.FoodItem;
+import com.github.pe4enkin.bitelog.model.MealCategory;
+import com.github.pe4enkin.bitelog.model.MealComponent;
+import com.github.pe4enkin.bitelog.model.MealEntry;
+import com.github.pe4enkin.bitelog.model.Unit;
+import com.github.pe4enkin.bitelog.service.DailyDiaryService;
+import com.github.pe4enkin.bitelog.util.StartupTimer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppServicesTest {
+    @TempDir
+    Path tempDir;
+
+    private File dbFile;
+
+    @BeforeEach
+    void setUp() {
+        dbFile = tempDir.resolve("data").resolve("bitelog_test.db").toFile();
+        DatabaseConnectionManager.configureForTesting(dbFile.getPath());
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseConnectionManager.resetToDefault();
+        DatabaseConnectionManager.closeDataSource();
+    }
+
+    @Test
+    @DisplayName("Сервисы должны создаваться лениво и только один раз.")
+    void services_shouldBeCreatedLazilyOnce() {
+        StartupTimer startupTimer = new StartupTimer();
+        AppServices appServices = new AppServices(startupTimer);
+
+        assertFalse(dbFile.exists(), "База данных не должна открываться до первого обращения к сервису.");
+
+        DailyDiaryService dailyDiaryService = appServices.getDailyDiaryService();
+        DailyDiary dailyDiary = dailyDiaryService.getDiaryForDate(LocalDate.of(2025, 1, 1));
+
+        assertTrue(dbFile.exists());
+        assertTrue(dailyDiary.getMealEntries().isEmpty());
+        assertSame(dailyDiaryService, appServices.getDailyDiaryService());
+        assertSame(appServices.getMealEntryService(), appServices.getMealEntryService());
+        assertTrue(startupTimer.getPhases().containsKey(StartupTimer.Phase.DATABASE_READY));
+        assertFalse(startupTimer.getPhases().containsKey(StartupTimer.Phase.SERVICES_READY));
+        assertEquals(startupTimer.getPhases().get(StartupTimer.Phase.DATABASE_READY),
+                startupTimer.mark(StartupTimer.Phase.DATABASE_READY));
+    }
+
+    @Test
+    @DisplayName("Изменение нутриентов продукта должно пересчитывать daily_totals, даже если DailyTotalsService еще не запрашивался.")
+    void foodItemService_shouldRebuildDailyTotalsWithoutDailyTotalsServiceRequested() {
+        AppServices appServices = new AppServices(new StartupTimer());
+        LocalDate date = LocalDate.of(2025, 1, 1);
+        FoodItem oatmeal = appServices.getFoodItemService().createFoodItem(new FoodItem.Builder()
+                .setName("Овсянка")
+                .setCaloriesPer100g(350.0)
+                .setServingSizeInGrams(100.0)
+                .setUnit(Unit.GRAM)
+                .build());
+        appServices.getMealEntryService().createMealEntry(new MealEntry.Builder()
+                .setDate(date)
+                .setTime(LocalTime.of(8, 0))
+                .setMealCategory(MealCategory.BREAKFAST)
+                .setComponents(List.of(new MealComponent(oatmeal.getId(), 200.0)))
+                .build());
+
+        appServices.getFoodItemService().updateFoodItem(oatmeal.setCaloriesPer100g(400.0));
+
+        assertEquals(800.0, appServices.getDailyTotalsService().getTotalsForDate(date).orElseThrow().getTotalCalories(), 1e-9);
+    }
+}
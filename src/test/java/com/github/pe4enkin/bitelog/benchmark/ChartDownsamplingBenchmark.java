@@ -0,0 +1,90 @@
+package com.github.pe4enkin.bitelog.benchmark;
+
+import com.github.pe4enkin.bitelog.model.ChartSeries;
+import com.github.pe4enkin.bitelog.model.DailyTotals;
+import com.github.pe4enkin.bitelog.model.DownsamplingMethod;
+import com.github.pe4enkin.bitelog.model.Nutrient;
+import com.github.pe4enkin.bitelog.model.NutrientVector;
+import com.github.pe4enkin.bitelog.service.DailyTotalsService;
+import com.github.pe4enkin.bitelog.service.NutrientChartService;
+import com.github.pe4enkin.bitelog.util.Downsampler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChartDownsamplingBenchmark {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2015, 1, 1);
+    private static final int WIDTH_PX = 800;
+
+    @Param({"3650"})
+    private int historyDays;
+
+    private long[] epochDays;
+    private double[] calories;
+    private NutrientChartService nutrientChartService;
+    private LocalDate lastDay;
+    private int panOffset;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<DailyTotals> history = new ArrayList<>(historyDays);
+        epochDays = new long[historyDays];
+        calories = new double[historyDays];
+        for (int day = 0; day < historyDays; day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            epochDays[day] = date.toEpochDay();
+            calories[day] = random.nextDouble(1200, 3500);
+            history.add(new DailyTotals(date, new NutrientVector(calories[day], 90.0, 70.0, 250.0), 4));
+        }
+        lastDay = FIRST_DAY.plusDays(historyDays - 1);
+        nutrientChartService = new NutrientChartService(new DailyTotalsService(null) {
+            @Override
+            public List<DailyTotals> getAllTotals() {
+                return history;
+            }
+        });
+    }
+
+    @Benchmark
+    public int[] lttbWholeHistory() {
+        return Downsampler.lttb(epochDays, calories, historyDays, WIDTH_PX);
+    }
+
+    @Benchmark
+    public int[] minMaxWholeHistory() {
+        return Downsampler.minMax(epochDays, calories, historyDays, 8);
+    }
+
+    @Benchmark
+    public ChartSeries panCachedTwoYears() {
+        panOffset = (panOffset + 7) % (historyDays - 730);
+        LocalDate from = FIRST_DAY.plusDays(panOffset);
+        return nutrientChartService.getSeries(Nutrient.CALORIES, DownsamplingMethod.LTTB, from, from.plusDays(729), WIDTH_PX);
+    }
+
+    @Benchmark
+    public ChartSeries zoomUncachedWholeHistory() {
+        nutrientChartService.invalidateAll();
+        return nutrientChartService.getSeries(Nutrient.CALORIES, DownsamplingMethod.LTTB, FIRST_DAY, lastDay, WIDTH_PX);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ChartDownsamplingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.pe4enkin.bitelog.benchmark;
+
+import com.github.pe4enkin.bitelog.controller.MealEntryViewFactory;
+import com.github.pe4enkin.bitelog.model.*;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.control.Label;
+import javafx.scene.control.TitledPane;
+import javafx.scene.layout.VBox;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dglass.platform=Monocle", "-Dmonocle.platform=Headless", "-Dprism.order=sw"})
+public class MealEntryRenderBenchmark {
+
+    @Param({"8", "64"})
+    private int entriesPerDay;
+
+    @Param({"6"})
+    private int componentsPerEntry;
+
+    @Param({"10"})
+    private int visibleCells;
+
+    private List<MealEntry>[] days;
+    private Map<Long, FoodItem> foodItems;
+    private VBox mealEntriesVBox;
+    private MealEntryViewFactory mealEntryViewFactory;
+    private TitledPane[] cellPanes;
+    private int dayIndex;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            Platform.startup(started::countDown);
+        } catch (IllegalStateException e) {
+            started.countDown();
+        }
+        started.await();
+
+        SplittableRandom random = new SplittableRandom(42);
+        foodItems = new HashMap<>();
+        for (long id = 1; id <= 200; id++) {
+            foodItems.put(id, new FoodItem.Builder()
+                    .setId(id)
+                    .setName("Продукт " + id)
+                    .setCaloriesPer100g(random.nextDouble(0, 900))
+                    .setServingSizeInGrams(100.0)
+                    .setUnit(Unit.GRAM)
+                    .build());
+        }
+        days = new List[2];
+        for (int day = 0; day < days.length; day++) {
+            days[day] = new ArrayList<>(entriesPerDay);
+            for (int i = 0; i < entriesPerDay; i++) {
+                List<MealComponent> components = new ArrayList<>(componentsPerEntry);
+                for (int j = 0; j < componentsPerEntry; j++) {
+                    components.add(new MealComponent(random.nextLong(1, 201), random.nextDouble(5, 400)));
+                }
+                days[day].add(new MealEntry.Builder()
+                        .setId(day * entriesPerDay + i + 1)
+                        .setDate(LocalDate.of(2025, 7, 29).plusDays(day))
+                        .setTime(LocalTime.of(8, 0).plusMinutes(i))
+                        .setMealCategory(MealCategory.values()[i % MealCategory.values().length])
+                        .setTotalCalories(random.nextDouble(0, 1500))
+                        .setComponents(components)
+                        .build());
+            }
+        }
+        mealEntriesVBox = new VBox();
+        mealEntryViewFactory = new MealEntryViewFactory();
+        cellPanes = new TitledPane[visibleCells];
+        for (int i = 0; i < visibleCells; i++) {
+            cellPanes[i] = mealEntryViewFactory.createPane();
+        }
+    }
+
+    @Benchmark
+    public VBox fxmlLoaderPerEntry() throws IOException {
+        mealEntriesVBox.getChildren().clear();
+        for (MealEntry mealEntry : nextDay()) {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/github/pe4enkin/bitelog/view/meal-entry-template.fxml"));
+            TitledPane mealPane = loader.load();
+            mealPane.setText(String.format("%s (%,.0f ккал)", mealEntry.getMealCategory(), mealEntry.getTotalCalories()));
+            VBox mealComponentsVBox = (VBox) mealPane.getContent();
+            for (MealComponent mealComponent : mealEntry.getComponents()) {
+                FoodItem foodItem = foodItems.get(mealComponent.getFoodItemId());
+                mealComponentsVBox.getChildren().add(new Label(
+                        String.format("- %s (%,.0f ккал)", foodItem.getName(), mealComponent.getAmountInGrams() / 100 * foodItem.getCaloriesPer100g())
+                ));
+            }
+            mealEntriesVBox.getChildren().add(mealPane);
+        }
+        return mealEntriesVBox;
+    }
+
+    @Benchmark
+    public TitledPane[] recycledVisibleCells() {
+        List<MealEntry> mealEntries = nextDay();
+        int visible = Math.min(visibleCells, mealEntries.size());
+        for (int i = 0; i < visible; i++) {
+            mealEntryViewFactory.bind(cellPanes[i], MealEntryRow.of(mealEntries.get(i), foodItems));
+        }
+        return cellPanes;
+    }
+
+    private List<MealEntry> nextDay() {
+        dayIndex ^= 1;
+        return days[dayIndex];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MealEntryRenderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.pe4enkin.bitelog.benchmark;
+
+import com.github.pe4enkin.bitelog.model.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NutrientAggregationBenchmark {
+
+    @Param({"8", "64"})
+    private int entriesPerDay;
+
+    @Param({"6"})
+    private int componentsPerEntry;
+
+    private DailyDiary dailyDiary;
+    private List<MealEntry> mealEntries;
+    private FoodItem[][] foodItems;
+    private double[][] amounts;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        mealEntries = new ArrayList<>(entriesPerDay);
+        foodItems = new FoodItem[entriesPerDay][componentsPerEntry];
+        amounts = new double[entriesPerDay][componentsPerEntry];
+        for (int i = 0; i < entriesPerDay; i++) {
+            for (int j = 0; j < componentsPerEntry; j++) {
+                foodItems[i][j] = new FoodItem.Builder()
+                        .setId(i * componentsPerEntry + j + 1)
+                        .setName("Продукт " + i + "-" + j)
+                        .setCaloriesPer100g(random.nextDouble(0, 900))
+                        .setProteinsPer100g(random.nextDouble(0, 40))
+                        .setFatsPer100g(random.nextDouble(0, 60))
+                        .setCarbsPer100g(random.nextDouble(0, 90))
+                        .setServingSizeInGrams(100.0)
+                        .setUnit(Unit.GRAM)
+                        .build();
+                amounts[i][j] = random.nextDouble(5, 400);
+            }
+            mealEntries.add(new MealEntry.Builder()
+                    .setId(i + 1)
+                    .setDate(LocalDate.of(2025, 7, 29))
+                    .setTime(LocalTime.of(8, 0).plusMinutes(i))
+                    .setMealCategory(MealCategory.values()[i % MealCategory.values().length])
+                    .setTotalCalories(random.nextDouble(0, 1500))
+                    .setTotalProteins(random.nextDouble(0, 80))
+                    .setTotalFats(random.nextDouble(0, 80))
+                    .setTotalCarbs(random.nextDouble(0, 200))
+                    .build());
+        }
+        dailyDiary = new DailyDiary(LocalDate.of(2025, 7, 29), mealEntries);
+    }
+
+    @Benchmark
+    public void dailyTotals_fourStreams(Blackhole blackhole) {
+        blackhole.consume(mealEntries.stream().mapToDouble(MealEntry::getTotalCalories).sum());
+        blackhole.consume(mealEntries.stream().mapToDouble(MealEntry::getTotalProteins).sum());
+        blackhole.consume(mealEntries.stream().mapToDouble(MealEntry::getTotalFats).sum());
+        blackhole.consume(mealEntries.stream().mapToDouble(MealEntry::getTotalCarbs).sum());
+    }
+
+    @Benchmark
+    public NutrientVector dailyTotals_nutrientVector() {
+        dailyDiary.calculateAndSetAllNutrients();
+        return dailyDiary.getTotalNutrients();
+    }
+
+    @Benchmark
+    public void mealTotals_separateDoubles(Blackhole blackhole) {
+        for (int i = 0; i < entriesPerDay; i++) {
+            double totalCalories = 0.0;
+            double totalProteins = 0.0;
+            double totalFats = 0.0;
+            double totalCarbs = 0.0;
+            for (int j = 0; j < componentsPerEntry; j++) {
+                FoodItem foodItem = foodItems[i][j];
+                double scaleFactor = amounts[i][j] / 100.0;
+                totalCalories += foodItem.getCaloriesPer100g() * scaleFactor;
+                totalProteins += foodItem.getProteinsPer100g() * scaleFactor;
+                totalFats += foodItem.getFatsPer100g() * scaleFactor;
+                totalCarbs += foodItem.getCarbsPer100g() * scaleFactor;
+            }
+            mealEntries.get(i)
+                    .setTotalCalories(totalCalories)
+                    .setTotalProteins(totalProteins)
+                    .setTotalFats(totalFats)
+                    .setTotalCarbs(totalCarbs);
+        }
+        blackhole.consume(mealEntries);
+    }
+
+    @Benchmark
+    public void mealTotals_nutrientVector(Blackhole blackhole) {
+        for (int i = 0; i < entriesPerDay; i++) {
+            NutrientVector totalNutrients = mealEntries.get(i).getTotalNutrients().reset();
+            for (int j = 0; j < componentsPerEntry; j++) {
+                totalNutrients.addScaled(foodItems[i][j].getNutrientsPer100g(), amounts[i][j] / 100.0);
+            }
+        }
+        blackhole.consume(mealEntries);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NutrientAggregationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.pe4enkin.bitelog.controller;
+
+import com.github.pe4enkin.bitelog.model.*;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DayViewModelTest {
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 5);
+
+    private final FoodItem oatmeal = new FoodItem.Builder()
+            .setId(1L)
+            .setName("Овсянка")
+            .setCaloriesPer100g(350.0)
+            .setServingSizeInGrams(100.0)
+            .setUnit(Unit.GRAM)
+            .build();
+
+    private MealEntry entry(long id, LocalTime time, double amountInGrams) {
+        return new MealEntry.Builder()
+                .setId(id)
+                .setDate(DATE)
+                .setTime(time)
+                .setMealCategory(MealCategory.SNACK)
+                .setTotalCalories(amountInGrams * 3.5)
+                .setComponents(new ArrayList<>(List.of(new MealComponent(id * 10, 1L, amountInGrams))))
+                .build();
+    }
+
+    private DailyDiary diary(LocalDate date, MealEntry... mealEntries) {
+        return diary(date, oatmeal, mealEntries);
+    }
+
+    private DailyDiary diary(LocalDate date, FoodItem foodItem, MealEntry... mealEntries) {
+        DailyDiary dailyDiary = new DailyDiary(date, new ArrayList<>(List.of(mealEntries)), Map.of(foodItem.getId(), foodItem));
+        dailyDiary.calculateAndSetAllNutrients();
+        return dailyDiary;
+    }
+
+    @Test
+    @DisplayName("Добавление одного приема пищи за тот же день должно приводить к одной вставке без перестроения списка.")
+    void apply_shouldInsertOnlyNewMealEntry() {
+        DayViewModel dayViewModel = new DayViewModel();
+        dayViewModel.apply(diary(DATE, entry(1L, LocalTime.of(8, 0), 100.0), entry(2L, LocalTime.of(19, 0), 200.0)));
+        MealEntryRow breakfast = dayViewModel.getMealEntries().get(0);
+        List<ListChangeListener.Change<? extends MealEntryRow>> changes = new ArrayList<>();
+        dayViewModel.getMealEntries().addListener((ListChangeListener<MealEntryRow>) change -> {
+            while (change.next()) {
+                assertTrue(change.wasAdded() && !change.wasRemoved(), "Изменение должно быть только вставкой.");
+                assertEquals(1, change.getFrom());
+                assertEquals(1, change.getAddedSize());
+                changes.add(change);
+            }
+        });
+
+        dayViewModel.apply(diary(DATE, entry(1L, LocalTime.of(8, 0), 100.0), entry(3L, LocalTime.of(12, 0), 50.0),
+                entry(2L, LocalTime.of(19, 0), 200.0)));
+
+        assertEquals(1, changes.size());
+        assertEquals(List.of(1L, 3L, 2L), dayViewModel.getMealEntries().stream().map(MealEntryRow::getId).toList());
+        assertEquals("Овсянка", dayViewModel.getMealEntries().get(1).getComponents().get(0).getFoodItemName());
+        assertEquals(175.0, dayViewModel.getMealEntries().get(1).getComponents().get(0).getCalories(), 1e-9);
+        assertSame(breakfast, dayViewModel.getMealEntries().get(0), "Неизмененные записи не должны заменяться.");
+        assertEquals(1, dayViewModel.getLastInserted());
+        assertEquals(0, dayViewModel.getLastUpdated());
+        assertEquals(0, dayViewModel.getLastRemoved());
+        assertEquals(1225.0, dayViewModel.totalCaloriesProperty().get(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Изменение и удаление записей должно обновлять только затронутые элементы, а смена даты - заменять список.")
+    void apply_shouldUpdateChangedAndRemoveMissingEntries() {
+        DayViewModel dayViewModel = new DayViewModel();
+        dayViewModel.apply(diary(DATE, entry(1L, LocalTime.of(8, 0), 100.0), entry(2L, LocalTime.of(12, 0), 100.0),
+                entry(3L, LocalTime.of(19, 0), 100.0)));
+
+        dayViewModel.apply(diary(DATE, entry(1L, LocalTime.of(8, 0), 100.0), entry(2L, LocalTime.of(12, 0), 150.0)));
+
+        assertEquals(2, dayViewModel.getMealEntries().size());
+        assertEquals(2L, dayViewModel.getMealEntries().get(1).getId());
+        assertEquals(525.0, dayViewModel.getMealEntries().get(1).getTotalCalories(), 1e-9);
+        assertEquals(0, dayViewModel.getLastInserted());
+        assertEquals(1, dayViewModel.getLastUpdated());
+        assertEquals(1, dayViewModel.getLastRemoved());
+
+        FoodItem renamedOatmeal = new FoodItem.Builder()
+                .setId(1L)
+                .setName("Овсяные хлопья")
+                .setCaloriesPer100g(350.0)
+                .setServingSizeInGrams(100.0)
+                .setUnit(Unit.GRAM)
+                .build();
+        dayViewModel.apply(diary(DATE, renamedOatmeal, entry(1L, LocalTime.of(8, 0), 100.0),
+                entry(2L, LocalTime.of(12, 0), 150.0)));
+        assertEquals(2, dayViewModel.getLastUpdated(), "Переименование продукта должно обновлять записи, которые его содержат.");
+
+        dayViewModel.apply(diary(DATE.plusDays(1)));
+        assertTrue(dayViewModel.getMealEntries().isEmpty());
+        assertEquals(2, dayViewModel.getLastRemoved());
+        assertEquals(0.0, dayViewModel.totalCaloriesProperty().get(), 1e-9);
+    }
+}
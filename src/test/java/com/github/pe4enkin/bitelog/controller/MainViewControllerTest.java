@@ -1,13 +1,14 @@
 package com.github.pe4enkin.bitelog.controller;
 
 import com.github.pe4enkin.bitelog.model.*;
+import com.github.pe4enkin.bitelog.service.CalendarHeatmapService;
 import com.github.pe4enkin.bitelog.service.DailyDiaryService;
-import com.github.pe4enkin.bitelog.service.FoodItemService;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TitledPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
@@ -22,14 +23,18 @@ import org.testfx.util.WaitForAsyncUtils;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -40,28 +45,34 @@ class MainViewControllerTest extends ApplicationTest {
     @Mock
     private DailyDiaryService dailyDiaryService;
     @Mock
-    private FoodItemService foodItemService;
+    private CalendarHeatmapService calendarHeatmapService;
     private DatePicker datePicker;
     private Label totalCaloriesLabel;
     private Label totalProteinsLabel;
     private Label totalFatsLabel;
     private Label totalCarbsLabel;
+    private List<Runnable> deferredLoads;
 
     @Override
     public void start(Stage stage) throws Exception {
         appState = new AppState();
 
         when(dailyDiaryService.getDiaryForDate(LocalDate.now())).thenReturn(createTodayDailyDiary());
-        List<FoodItem> foodItems = createFoodItems();
-        when(foodItemService.getFoodItemById(1)).thenReturn(Optional.of(foodItems.get(0)));
-        when(foodItemService.getFoodItemById(2)).thenReturn(Optional.of(foodItems.get(1)));
-        when(foodItemService.getFoodItemById(3)).thenReturn(Optional.of(foodItems.get(2)));
+        when(calendarHeatmapService.getMonth(any(YearMonth.class))).thenAnswer(invocation -> new CalendarMonth(invocation.getArgument(0)));
 
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/github/pe4enkin/bitelog/view/main-view.fxml"));
         loader.setControllerFactory(type -> {
             if (type == MainViewController.class) {
-                controller = new MainViewController(appState, foodItemService, dailyDiaryService);
+                controller = new MainViewController(appState, dailyDiaryService, command -> {
+                    if (deferredLoads != null) {
+                        deferredLoads.add(command);
+                    } else {
+                        command.run();
+                    }
+                });
                 return controller;
+            } else if (type == CalendarHeatmapController.class) {
+                return new CalendarHeatmapController(appState, calendarHeatmapService);
             } else {
                 try {
                     return type.getDeclaredConstructor().newInstance();
@@ -95,9 +106,9 @@ class MainViewControllerTest extends ApplicationTest {
                 "Текстовая метка калорий должна корректно установить значение.");
         assertEquals("Всего углеводов: 57", totalCarbsLabel.getText().replace('\u00A0', ' '),
                 "Текстовая метка калорий должна корректно установить значение.");
-        assertEquals(2, ((VBox) lookup("#mealEntriesVBox").query()).getChildren().size(),
+        assertEquals(2, ((ListView<?>) lookup("#mealEntriesListView").query()).getItems().size(),
                 "Должно быть 2 записи о приемах пищи.");
-        TitledPane firstMealPane = lookup("#mealEntriesVBox > TitledPane").nth(0).query();
+        TitledPane firstMealPane = mealPane(0);
         assertEquals("Обед (380 ккал)", firstMealPane.getText().replace('\u00A0', ' '));
         VBox firstMealComponents = (VBox) firstMealPane.getContent();
         assertEquals(2, firstMealComponents.getChildren().size(), "Первый прием пищи должен содержать 2 продукта.");
@@ -105,7 +116,7 @@ class MainViewControllerTest extends ApplicationTest {
         assertEquals("- Говядина (250 ккал)", firstComponentLabel.getText().replace('\u00A0', ' '));
         Label secondComponentLabel = (Label) firstMealComponents.getChildren().get(1);
         assertEquals("- Овощи (130 ккал)", secondComponentLabel.getText().replace('\u00A0', ' '));
-        TitledPane secondMealPane = lookup("#mealEntriesVBox > TitledPane").nth(1).query();
+        TitledPane secondMealPane = mealPane(1);
         assertEquals("Ужин (1 020 ккал)", secondMealPane.getText().replace('\u00A0', ' '));
         VBox secondMealComponents = (VBox) secondMealPane.getContent();
         assertEquals(2, secondMealComponents.getChildren().size(), "Второй прием пищи должен содержать 2 продукта.");
@@ -113,13 +124,13 @@ class MainViewControllerTest extends ApplicationTest {
         assertEquals("- Курица (760 ккал)", thirdComponentLabel.getText().replace('\u00A0', ' '));
         Label fourthComponentLabel = (Label) secondMealComponents.getChildren().get(1);
         assertEquals("- Овощи (260 ккал)", fourthComponentLabel.getText().replace('\u00A0', ' '));
-        verify(foodItemService, atLeastOnce()).getFoodItemById(anyLong());
         verify(dailyDiaryService, atLeastOnce()).getDiaryForDate(appState.getCurrentWorkingDate());
         reset(dailyDiaryService);
     }
 
     @BeforeEach
     void setUp() throws TimeoutException {
+        deferredLoads = null;
         appState.setCurrentWorkingDate(LocalDate.now());
         interact(() -> {
             datePicker.setValue(appState.getCurrentWorkingDate());
@@ -194,6 +205,7 @@ class MainViewControllerTest extends ApplicationTest {
     void handleTodayButtonActionSetsToday() throws TimeoutException{
         when(dailyDiaryService.getDiaryForDate(LocalDate.now().plusDays(5))).thenReturn(createEmptyDailyDiary(LocalDate.now().plusDays(5)));
         when(dailyDiaryService.getDiaryForDate(LocalDate.now())).thenReturn(createTodayDailyDiary());
+        when(calendarHeatmapService.getMonth(any(YearMonth.class))).thenAnswer(invocation -> new CalendarMonth(invocation.getArgument(0)));
         LocalDate initialDate = LocalDate.now().plusDays(5);
         interact(() -> datePicker.setValue(initialDate));
         assertEquals("Всего калорий: 0", totalCaloriesLabel.getText().replace('\u00A0', ' '),
@@ -242,6 +254,37 @@ class MainViewControllerTest extends ApplicationTest {
         verify(dailyDiaryService, atLeastOnce()).getDiaryForDate(expectedDate);
     }
 
+    @Test
+    @DisplayName("Результат загрузки дневника за пройденную дату должен отбрасываться при быстрой навигации.")
+    void rapidNavigationDiscardsStaleDiaryLoads() {
+        LocalDate staleDate = LocalDate.now().plusDays(1);
+        LocalDate targetDate = LocalDate.now().plusDays(2);
+        when(dailyDiaryService.getDiaryForDate(targetDate)).thenReturn(createEmptyDailyDiary(targetDate));
+        deferredLoads = new ArrayList<>();
+
+        interact(() -> appState.setCurrentWorkingDate(staleDate));
+        interact(() -> appState.setCurrentWorkingDate(targetDate));
+        assertEquals(2, deferredLoads.size());
+        assertTrue(controller.loadingProperty().get(), "Во время загрузки должно отображаться состояние загрузки.");
+
+        deferredLoads.get(1).run();
+        deferredLoads.get(0).run();
+        WaitForAsyncUtils.waitForFxEvents();
+
+        assertFalse(controller.loadingProperty().get());
+        assertEquals("Всего калорий: 0", totalCaloriesLabel.getText().replace('\u00A0', ' '));
+        assertEquals(0, ((ListView<?>) lookup("#mealEntriesListView").query()).getItems().size());
+        verify(dailyDiaryService, never()).getDiaryForDate(staleDate);
+    }
+
+    private TitledPane mealPane(int index) {
+        return lookup(".list-cell").queryAllAs(MealEntryListCell.class).stream()
+                .filter(cell -> cell.getIndex() == index && !cell.isEmpty())
+                .findFirst()
+                .map(MealEntryListCell::getMealPane)
+                .orElseThrow();
+    }
+
     private List<FoodItem> createFoodItems() {
         FoodItem foodItem1 = new FoodItem.Builder()
                 .setId(1)
@@ -331,7 +374,11 @@ class MainViewControllerTest extends ApplicationTest {
     }
 
     private DailyDiary createTodayDailyDiary() {
-        DailyDiary dailyDiary = new DailyDiary(LocalDate.now(), createMealEntries());
+        Map<Long, FoodItem> foodItems = new HashMap<>();
+        for (FoodItem foodItem : createFoodItems()) {
+            foodItems.put(foodItem.getId(), foodItem);
+        }
+        DailyDiary dailyDiary = new DailyDiary(LocalDate.now(), createMealEntries(), foodItems);
         dailyDiary.calculateAndSetAllNutrients();
         return dailyDiary;
     }
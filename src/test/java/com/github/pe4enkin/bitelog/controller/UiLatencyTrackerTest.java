@@ -0,0 +1,70 @@
+package com.github.pe4enkin.bitelog.controller;
+
+import com.github.pe4enkin.bitelog.util.LatencyHistogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UiLatencyTrackerTest {
+    private long nowNanos;
+
+    private void advanceMillis(long millis) {
+        nowNanos += millis * 1_000_000;
+    }
+
+    @Test
+    @DisplayName("Отклик должен измеряться от действия до пульса после обновления сцены.")
+    void interaction_shouldBeMeasuredUntilNextPulseAfterSceneUpdate() {
+        UiLatencyTracker tracker = new UiLatencyTracker(() -> nowNanos);
+
+        tracker.beginInteraction("Следующий день");
+        advanceMillis(3);
+        tracker.onPulseStarted();
+        advanceMillis(1);
+        tracker.onPulseFinished();
+        advanceMillis(16);
+        tracker.markDataReady();
+        tracker.markSceneUpdated();
+        advanceMillis(4);
+        tracker.onPulseStarted();
+        advanceMillis(6);
+        tracker.onPulseFinished();
+        tracker.onPulseStarted();
+        advanceMillis(2);
+        tracker.onPulseFinished();
+
+        assertEquals(1, tracker.getDataReadyHistogram().getCount());
+        assertEquals(20_000, tracker.getDataReadyHistogram().getMaxMicros());
+        assertEquals(1, tracker.getClickToPulseHistogram().getCount());
+        assertEquals(30_000, tracker.getClickToPulseHistogram().getMaxMicros());
+        assertEquals(3, tracker.getPulseHistogram().getCount());
+        assertEquals(6_000, tracker.getPulseHistogram().getMaxMicros());
+
+        tracker.beginInteraction("Предыдущий день");
+        tracker.beginInteraction("Предыдущий день");
+        tracker.cancelInteraction();
+        tracker.markDataReady();
+        tracker.onPulseFinished();
+
+        assertEquals(1, tracker.getSupersededCount());
+        assertEquals(1, tracker.getClickToPulseHistogram().getCount());
+    }
+
+    @Test
+    @DisplayName("Перцентили гистограммы должны иметь погрешность не больше ширины корзины.")
+    void histogram_shouldReportPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(millis * 1_000_000L);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50_500.0, histogram.getMeanMicros(), 1e-9);
+        assertEquals(50_000, histogram.getPercentileMicros(50), 50_000 / 8.0);
+        assertEquals(95_000, histogram.getPercentileMicros(95), 95_000 / 8.0);
+        assertTrue(histogram.getPercentileMicros(95) >= 95_000);
+        assertEquals(100_000, histogram.getPercentileMicros(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileMicros(0));
+    }
+}
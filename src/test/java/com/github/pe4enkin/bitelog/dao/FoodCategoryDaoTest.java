@@ -18,6 +18,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class FoodCategoryDaoTest {
     private FoodCategoryDao foodCategoryDao;
+    private FoodCategoryRegistry foodCategoryRegistry;
     private DataSource testDataSource;
     private Connection testConnection;
 
@@ -26,7 +27,8 @@ public class FoodCategoryDaoTest {
         DatabaseConnectionManager.configureForTesting("file:memdb1?mode=memory&cache=shared");
         testDataSource = DatabaseConnectionManager.getDataSource();
         testConnection = testDataSource.getConnection();
-        foodCategoryDao = new FoodCategoryDao(testDataSource);
+        foodCategoryRegistry = new FoodCategoryRegistry();
+        foodCategoryDao = new FoodCategoryDao(testDataSource, foodCategoryRegistry);
         try (Statement stmt = testConnection.createStatement()) {
             stmt.execute(SqlQueries.DROP_TABLE_FOOD_CATEGORIES);
         }
@@ -194,4 +196,26 @@ public class FoodCategoryDaoTest {
         assertNotNull(allCategories);
         assertTrue(allCategories.isEmpty(), "Метод findAll должен вернуть пустой список если food category нет.");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Методы поиска должны возвращать канонический экземпляр FoodCategory из реестра.")
+    void find_shouldReturnCanonicalInstance() {
+        FoodCategory savedCategory = foodCategoryDao.save(new FoodCategory("Мясо"));
+
+        assertSame(savedCategory, foodCategoryDao.findById(savedCategory.getId()).get());
+        assertSame(savedCategory, foodCategoryDao.findByName("Мясо").get());
+        assertSame(savedCategory, foodCategoryDao.findAll().get(0));
+    }
+
+    @Test
+    @DisplayName("Реестр FoodCategory должен оставаться согласованным при обновлении и удалении.")
+    void updateAndDelete_shouldKeepRegistryCoherent() {
+        FoodCategory savedCategory = foodCategoryDao.save(new FoodCategory("Мясо"));
+
+        assertTrue(foodCategoryDao.update(new FoodCategory(savedCategory.getId(), "Рыба")));
+        assertEquals("Рыба", savedCategory.getName(), "Канонический экземпляр должен получить новое имя.");
+
+        assertTrue(foodCategoryDao.delete(savedCategory.getId()));
+        assertTrue(foodCategoryRegistry.get(savedCategory.getId()).isEmpty(), "Удаленная категория должна исчезнуть из реестра.");
+    }
+}
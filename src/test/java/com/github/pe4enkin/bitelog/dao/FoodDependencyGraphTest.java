@@ -0,0 +1,124 @@
+package com.github.pe4enkin.bitelog.dao;
+
+import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
+import com.github.pe4enkin.bitelog.model.FoodComponent;
+import com.github.pe4enkin.bitelog.model.IngredientVector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FoodDependencyGraphTest {
+
+    private FoodComponent component(long ingredientId) {
+        return new FoodComponent(ingredientId, 100.0);
+    }
+
+    @Test
+    @DisplayName("Зависящие продукты должны возвращаться в топологическом порядке, включая ромбовидные зависимости.")
+    void getDependentsInTopologicalOrder_shouldOrderParentsAfterIngredients() {
+        FoodDependencyGraph graph = new FoodDependencyGraph();
+        graph.load(Map.of(
+                10L, List.of(component(1L)),
+                11L, List.of(component(1L), component(2L)),
+                20L, List.of(component(10L), component(11L)),
+                30L, List.of(component(20L), component(1L)),
+                40L, List.of(component(2L))
+        ));
+
+        List<Long> dependents = graph.getDependentsInTopologicalOrder(1L);
+
+        assertEquals(Set.of(10L, 11L, 20L, 30L), Set.copyOf(dependents), "Продукты, не содержащие ингредиент, не должны пересчитываться.");
+        assertTrue(dependents.indexOf(10L) < dependents.indexOf(20L));
+        assertTrue(dependents.indexOf(11L) < dependents.indexOf(20L));
+        assertTrue(dependents.indexOf(20L) < dependents.indexOf(30L));
+        assertTrue(graph.getDependentsInTopologicalOrder(30L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Граф должен отражать замену компонентов и удаление продуктов.")
+    void setComponentsAndRemove_shouldKeepReverseEdgesConsistent() {
+        FoodDependencyGraph graph = new FoodDependencyGraph();
+        graph.setComponents(10L, List.of(component(1L)));
+        assertEquals(0, graph.size(), "До загрузки граф не должен принимать изменения.");
+
+        graph.load(Map.of(10L, List.of(component(1L)), 20L, List.of(component(10L))));
+        graph.setComponents(10L, List.of(component(2L)));
+
+        assertTrue(graph.getParents(1L).isEmpty());
+        assertEquals(Set.of(10L), graph.getParents(2L));
+        assertEquals(List.of(10L, 20L), graph.getDependentsInTopologicalOrder(2L));
+
+        graph.remove(20L);
+        assertTrue(graph.getParents(10L).isEmpty());
+        assertEquals(List.of(10L), graph.getDependentsInTopologicalOrder(2L));
+
+        graph.setComponents(2L, List.of(component(20L)));
+        graph.setComponents(20L, List.of(component(10L)));
+        assertThrows(DataAccessException.class, () -> graph.getDependentsInTopologicalOrder(2L),
+                "Цикл в графе должен приводить к исключению.");
+    }
+
+    @Test
+    @DisplayName("Изменения, пришедшие во время загрузки графа, должны применяться поверх снимка, а не теряться.")
+    void load_shouldReplayChangesRecordedDuringLoading() {
+        FoodDependencyGraph graph = new FoodDependencyGraph();
+        graph.beginLoad();
+        graph.setComponents(10L, List.of(component(2L)));
+        graph.remove(30L);
+        graph.setComponents(40L, List.of(component(1L)));
+
+        graph.load(Map.of(
+                10L, List.of(component(1L)),
+                20L, List.of(component(10L)),
+                30L, List.of(component(1L))
+        ));
+
+        assertTrue(graph.isLoaded());
+        assertEquals(2L, graph.getComponents(10L).get(0).getIngredientFoodItemId(),
+                "Компоненты, сохраненные во время загрузки, должны заменить устаревший снимок.");
+        assertEquals(Set.of(40L), graph.getParents(1L), "Удаленный и измененный продукты не должны оставаться родителями старого ингредиента.");
+        assertEquals(Set.of(10L), graph.getParents(2L));
+        assertTrue(graph.getComponents(30L).isEmpty(), "Продукт, удаленный во время загрузки, не должен появиться из снимка.");
+        assertEquals(List.of(10L, 20L), graph.getDependentsInTopologicalOrder(2L));
+
+        graph.load(Map.of(10L, List.of(component(1L))));
+        assertEquals(Set.of(10L), graph.getParents(2L), "Повторный снимок не должен затирать уже актуальный граф.");
+    }
+
+    private FoodComponent component(long ingredientId, double amountInGrams) {
+        return new FoodComponent(ingredientId, amountInGrams);
+    }
+
+    @Test
+    @DisplayName("Вектор ингредиентов должен разворачивать вложенные рецепты и сбрасываться при изменении подрецепта.")
+    void getIngredientVector_shouldFlattenNestedRecipesAndInvalidateParents() {
+        FoodDependencyGraph graph = new FoodDependencyGraph();
+        graph.load(Map.of(
+                10L, List.of(component(1L, 300.0), component(2L, 100.0)),
+                20L, List.of(component(10L, 200.0), component(1L, 100.0), component(3L, 100.0))
+        ));
+
+        IngredientVector sauce = graph.getIngredientVector(10L);
+        assertEquals(75.0, sauce.getGramsPer100gOf(1L), 1e-9);
+        assertEquals(25.0, sauce.getGramsPer100gOf(2L), 1e-9);
+
+        IngredientVector dish = graph.getIngredientVector(20L);
+        assertArrayEquals(new long[]{1L, 2L, 3L}, dish.getIngredientIds());
+        assertEquals(37.5 + 25.0, dish.getGramsPer100gOf(1L), 1e-9);
+        assertEquals(12.5, dish.getGramsPer100gOf(2L), 1e-9);
+        assertEquals(25.0, dish.getGramsPer100gOf(3L), 1e-9);
+        assertSame(dish, graph.getIngredientVector(20L), "Вектор ингредиентов должен кэшироваться.");
+        assertEquals(0, graph.getIngredientVector(1L).size(), "Базовый продукт не должен иметь вектора ингредиентов.");
+
+        graph.setComponents(10L, List.of(component(2L, 100.0)));
+        IngredientVector updatedDish = graph.getIngredientVector(20L);
+        assertNotSame(dish, updatedDish, "Изменение подрецепта должно сбрасывать вектор родительского рецепта.");
+        assertEquals(25.0, updatedDish.getGramsPer100gOf(1L), 1e-9);
+        assertEquals(50.0, updatedDish.getGramsPer100gOf(2L), 1e-9);
+    }
+}
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.github.pe4enkin.bitelog.dao;
 
+import com.github.pe4enkin.bitelog.dao.exception.ConstraintViolationException;
+import com.github.pe4enkin.bitelog.dao.exception.CyclicDependencyException;
 import com.github.pe4enkin.bitelog.dao.exception.DuplicateKeyException;
 import com.github.pe4enkin.bitelog.dao.exception.ForeignKeyViolationException;
 import com.github.pe4enkin.bitelog.db.DatabaseConnectionManager;
@@ -23,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.*;
 public class FoodItemDaoTest {
     private FoodItemDao foodItemDao;
     private FoodCategoryDao foodCategoryDao;
+    private FoodCategoryRegistry foodCategoryRegistry;
     private FoodCategory category;
     private DataSource testDataSource;
     private Connection testConnection;
@@ -32,8 +35,9 @@ public class FoodItemDaoTest {
         DatabaseConnectionManager.configureForTesting("file:memdb1?mode=memory&cache=shared");
         testDataSource = DatabaseConnectionManager.getDataSource();
         testConnection = testDataSource.getConnection();
-        foodItemDao = new FoodItemDao(testDataSource);
-        foodCategoryDao = new FoodCategoryDao(testDataSource);
+        foodCategoryRegistry = new FoodCategoryRegistry();
+        foodItemDao = new FoodItemDao(testDataSource, foodCategoryRegistry);
+        foodCategoryDao = new FoodCategoryDao(testDataSource, foodCategoryRegistry);
         try (Statement stmt = testConnection.createStatement()) {
             stmt.execute(SqlQueries.DROP_TABLE_FOOD_COMPONENTS);
             stmt.execute(SqlQueries.DROP_TABLE_FOOD_ITEMS);
@@ -1081,6 +1085,7 @@ public class FoodItemDaoTest {
         FoodItem savedItem = foodItemDao.save(item);
         MealEntryDao mealEntryDao = new MealEntryDao(testDataSource);
         mealEntryDao.createTables();
+        new DailyTotalsDao(testDataSource).createTables();
         MealComponent mealComponent = new MealComponent(savedItem.getId(), 100);
         List<MealComponent> components = List.of(mealComponent);
         MealEntry mealEntry = new MealEntry.Builder()
@@ -1410,4 +1415,337 @@ public class FoodItemDaoTest {
         assertTrue(foundItem.isPresent(), "food item должен остаться в БД.");
         assertNull(foundItem.get().getFoodCategory());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Метод findAll должен возвращать food item с общим каноническим экземпляром FoodCategory.")
+    void findAll_shouldShareCanonicalFoodCategoryInstance() {
+        for (int i = 0; i < 3; i++) {
+            foodItemDao.save(new FoodItem.Builder()
+                    .setName("Продукт " + i)
+                    .setCaloriesPer100g(100.0)
+                    .setServingSizeInGrams(100.0)
+                    .setUnit(Unit.GRAM)
+                    .setComposite(false)
+                    .setFoodCategory(category)
+                    .build());
+        }
+
+        List<FoodItem> allItems = foodItemDao.findAll(false);
+
+        assertEquals(3, allItems.size());
+        for (FoodItem item : allItems) {
+            assertSame(category, item.getFoodCategory(), "Все food item должны ссылаться на один экземпляр FoodCategory.");
+        }
+        assertSame(category, foodItemDao.findByName("Продукт 0").get().getFoodCategory(),
+                "Метод findByName должен использовать канонический экземпляр FoodCategory.");
+        assertEquals(1, foodCategoryRegistry.size(), "Реестр должен содержать одну категорию.");
+    }
+
+    @Test
+    @DisplayName("Переименование FoodCategory должно отражаться в ранее загруженных food item.")
+    void updateFoodCategory_shouldBeVisibleInLoadedFoodItems() {
+        FoodItem item = foodItemDao.save(new FoodItem.Builder()
+                .setName("Говядина")
+                .setCaloriesPer100g(250.0)
+                .setServingSizeInGrams(200.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(false)
+                .setFoodCategory(category)
+                .build());
+        FoodItem loadedItem = foodItemDao.findById(item.getId()).orElseThrow();
+
+        foodCategoryDao.update(new FoodCategory(category.getId(), "Мясо"));
+
+        assertEquals("Мясо", loadedItem.getFoodCategory().getName(),
+                "Загруженный food item должен видеть новое имя категории.");
+    }
+
+    private FoodItem saveSimpleItem(String name, double calories, double proteins, boolean composite, FoodCategory foodCategory) {
+        return foodItemDao.save(new FoodItem.Builder()
+                .setName(name)
+                .setCaloriesPer100g(calories)
+                .setServingSizeInGrams(100.0)
+                .setUnit(Unit.GRAM)
+                .setProteinsPer100g(proteins)
+                .setComposite(composite)
+                .setFoodCategory(foodCategory)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Метод findByCategory должен возвращать только food item указанной категории, отсортированные по имени.")
+    void findByCategory_shouldReturnItemsOfCategory() {
+        FoodCategory otherCategory = foodCategoryDao.save(new FoodCategory("Напитки"));
+        saveSimpleItem("Яблоко", 52.0, 0.3, false, category);
+        saveSimpleItem("Груша", 57.0, 0.4, false, category);
+        saveSimpleItem("Сок", 45.0, 0.1, false, otherCategory);
+        saveSimpleItem("Соль", 0.0, 0.0, false, null);
+
+        List<FoodItem> items = foodItemDao.findByCategory(category.getId());
+
+        assertEquals(List.of("Груша", "Яблоко"), items.stream().map(FoodItem::getName).toList());
+        assertTrue(foodItemDao.findByCategory(9999L).isEmpty(), "Для несуществующей категории список должен быть пустым.");
+    }
+
+    @Test
+    @DisplayName("Метод findByFilter должен учитывать категорию, признак составного продукта и диапазоны нутриентов.")
+    void findByFilter_shouldApplyAllConditions() {
+        FoodCategory otherCategory = foodCategoryDao.save(new FoodCategory("Мясо"));
+        saveSimpleItem("Яблоко", 52.0, 0.3, false, category);
+        saveSimpleItem("Творог", 120.0, 17.0, false, category);
+        saveSimpleItem("Говядина", 250.0, 19.0, false, otherCategory);
+        saveSimpleItem("Курица", 110.0, 23.0, false, otherCategory);
+
+        List<FoodItem> proteinRich = foodItemDao.findByFilter(new FoodItemFilter()
+                .setProteinsRange(15.0, null)
+                .setCaloriesRange(null, 200.0));
+        assertEquals(List.of("Курица", "Творог"), proteinRich.stream().map(FoodItem::getName).toList());
+
+        List<FoodItem> inCategory = foodItemDao.findByFilter(new FoodItemFilter()
+                .setFoodCategoryId(otherCategory.getId())
+                .setCaloriesRange(100.0, 200.0)
+                .setComposite(false));
+        assertEquals(List.of("Курица"), inCategory.stream().map(FoodItem::getName).toList());
+
+        assertTrue(foodItemDao.findByFilter(new FoodItemFilter().setComposite(true)).isEmpty(),
+                "Составных продуктов нет, список должен быть пустым.");
+        assertEquals(4, foodItemDao.findByFilter(new FoodItemFilter()).size(), "Пустой фильтр должен возвращать все продукты.");
+    }
+
+    @Test
+    @DisplayName("Метод countByCategory должен возвращать количество food item по категориям одним запросом с учетом фильтра.")
+    void countByCategory_shouldReturnFacetsRespectingFilter() {
+        FoodCategory otherCategory = foodCategoryDao.save(new FoodCategory("Мясо"));
+        saveSimpleItem("Яблоко", 52.0, 0.3, false, category);
+        saveSimpleItem("Говядина", 250.0, 19.0, false, otherCategory);
+        saveSimpleItem("Курица", 110.0, 23.0, false, otherCategory);
+        saveSimpleItem("Соль", 0.0, 0.0, false, null);
+
+        List<CategoryFacet> facets = foodItemDao.countByCategory(new FoodItemFilter().setFoodCategoryId(category.getId()));
+
+        assertEquals(3, facets.size(), "Фасеты должны игнорировать выбранную категорию и включать продукты без категории.");
+        assertSame(otherCategory, facets.get(0).getFoodCategory(), "Категория с наибольшим количеством должна быть первой.");
+        assertEquals(2, facets.get(0).getCount());
+        assertTrue(facets.stream().anyMatch(facet -> facet.isUncategorized() && facet.getCount() == 1));
+
+        List<CategoryFacet> filteredFacets = foodItemDao.countByCategory(new FoodItemFilter().setCaloriesRange(100.0, null));
+        assertEquals(1, filteredFacets.size(), "Фасеты должны учитывать диапазон калорий.");
+        assertEquals(2, filteredFacets.get(0).getCount());
+    }
+
+    @Test
+    @DisplayName("Метод upsert должен вставить новый FoodItem, а при повторном вызове с тем же именем обновить его и компоненты.")
+    void upsert_shouldInsertThenUpdateByName() throws SQLException {
+        FoodItem flour = saveSimpleItem("Мука", 350.0, 10.0, false, category);
+        FoodItem sugar = saveSimpleItem("Сахар", 400.0, 0.0, false, category);
+
+        FoodItem inserted = foodItemDao.upsert(new FoodItem.Builder()
+                .setName("Тесто")
+                .setServingSizeInGrams(200.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(true)
+                .setFoodCategory(category)
+                .setComponents(List.of(new FoodComponent(flour.getId(), 100.0)))
+                .build());
+        assertTrue(inserted.getId() > 0, "ID должен быть получен через RETURNING.");
+        assertEquals(1, countFoodComponentsByParentId(inserted.getId()));
+
+        FoodItem updated = foodItemDao.upsert(new FoodItem.Builder()
+                .setName("Тесто")
+                .setServingSizeInGrams(300.0)
+                .setUnit(Unit.PACK)
+                .setComposite(true)
+                .setFoodCategory(null)
+                .setComponents(List.of(new FoodComponent(flour.getId(), 200.0), new FoodComponent(sugar.getId(), 50.0)))
+                .build());
+
+        assertEquals(inserted.getId(), updated.getId(), "Повторный upsert по имени должен вернуть тот же ID.");
+        assertEquals(2, countFoodComponentsByParentId(updated.getId()), "Компоненты должны быть заменены.");
+        FoodItem found = foodItemDao.findById(updated.getId()).orElseThrow();
+        assertEquals(300.0, found.getServingSizeInGrams(), 0.001);
+        assertEquals(Unit.PACK, found.getUnit());
+        assertNull(found.getFoodCategory(), "Категория должна быть обновлена.");
+        assertEquals(3, foodItemDao.findAll(false).size(), "Upsert не должен создавать дубликаты.");
+    }
+
+    @Test
+    @DisplayName("Метод upsert должен откатить транзакцию, если продукт с тем же именем косвенно содержит сам себя.")
+    void upsert_shouldRollbackOnCyclicDependencyByName() throws SQLException {
+        FoodItem flour = saveSimpleItem("Мука", 350.0, 10.0, false, category);
+        FoodItem dough = foodItemDao.save(new FoodItem.Builder()
+                .setName("Тесто")
+                .setServingSizeInGrams(200.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(flour.getId(), 100.0)))
+                .build());
+        FoodItem pie = foodItemDao.save(new FoodItem.Builder()
+                .setName("Пирог")
+                .setServingSizeInGrams(300.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(dough.getId(), 200.0)))
+                .build());
+
+        FoodItem cyclicDough = new FoodItem.Builder()
+                .setName("Тесто")
+                .setServingSizeInGrams(200.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(pie.getId(), 100.0)))
+                .build();
+
+        assertThrows(CyclicDependencyException.class, () -> foodItemDao.upsert(cyclicDough),
+                "Upsert, создающий цикл через существующую строку с тем же именем, должен быть отклонен.");
+        assertEquals(0L, cyclicDough.getId(), "ID переданного продукта не должен меняться после отката.");
+        FoodItem storedDough = foodItemDao.findById(dough.getId()).orElseThrow();
+        assertEquals(1, storedDough.getComponents().size(), "Компоненты существующего продукта должны сохраниться.");
+        assertEquals(flour.getId(), storedDough.getComponents().get(0).getIngredientFoodItemId());
+        assertEquals(List.of(pie.getId()), foodItemDao.findDependentIds(dough.getId()), "Граф зависимостей не должен измениться.");
+    }
+
+    @Test
+    @DisplayName("Метод upsert должен отклонить FoodItem, если его ID не совпадает с ID продукта с тем же именем.")
+    void upsert_shouldRejectIdOfAnotherFoodItem() {
+        FoodItem flour = saveSimpleItem("Мука", 350.0, 10.0, false, category);
+        FoodItem sugar = saveSimpleItem("Сахар", 400.0, 0.0, false, category);
+
+        FoodItem mismatched = new FoodItem.Builder()
+                .setId(flour.getId())
+                .setName("Сахар")
+                .setCaloriesPer100g(100.0)
+                .setServingSizeInGrams(100.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(false)
+                .build();
+
+        assertThrows(ConstraintViolationException.class, () -> foodItemDao.upsert(mismatched),
+                "Upsert с ID другого продукта должен быть отклонен.");
+        assertEquals(400.0, foodItemDao.findById(sugar.getId()).orElseThrow().getCaloriesPer100g(), 0.001,
+                "Продукт, которому принадлежит имя, не должен измениться.");
+        assertEquals(350.0, foodItemDao.findById(flour.getId()).orElseThrow().getCaloriesPer100g(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Метод findDependentIds должен возвращать зависящие составные продукты снизу вверх, а updateNutrients сохранять их нутриенты.")
+    void findDependentIds_shouldReturnDependentsBottomUpAndUpdateNutrients() {
+        FoodItem flour = saveSimpleItem("Мука", 350.0, 10.0, false, category);
+        FoodItem dough = foodItemDao.save(new FoodItem.Builder()
+                .setName("Тесто")
+                .setServingSizeInGrams(200.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(flour.getId(), 100.0)))
+                .build());
+        FoodItem pie = foodItemDao.save(new FoodItem.Builder()
+                .setName("Пирог")
+                .setServingSizeInGrams(300.0)
+                .setUnit(Unit.SLICE)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(flour.getId(), 50.0), new FoodComponent(dough.getId(), 200.0)))
+                .build());
+        saveSimpleItem("Сахар", 400.0, 0.0, false, category);
+
+        assertEquals(List.of(dough.getId(), pie.getId()), foodItemDao.findDependentIds(flour.getId()),
+                "Составной продукт должен идти после всех своих составных ингредиентов.");
+        assertEquals(List.of(pie.getId()), foodItemDao.findDependentIds(dough.getId()));
+        assertTrue(foodItemDao.findDependentIds(pie.getId()).isEmpty());
+
+        dough.setCaloriesPer100g(350.0).setProteinsPer100g(10.0);
+        pie.setCaloriesPer100g(350.0).setProteinsPer100g(10.0);
+        assertEquals(2, foodItemDao.updateNutrients(List.of(dough, pie)));
+        assertEquals(0, foodItemDao.updateNutrients(List.of()));
+
+        FoodItem found = foodItemDao.findById(pie.getId()).orElseThrow();
+        assertEquals(350.0, found.getCaloriesPer100g(), 0.001);
+        assertEquals(10.0, found.getProteinsPer100g(), 0.001);
+        assertEquals(2, found.getComponents().size(), "Обновление нутриентов не должно затрагивать компоненты.");
+    }
+
+    @Test
+    @DisplayName("Граф зависимостей должен оставаться согласованным с изменениями FoodItem в БД.")
+    void dependencyGraph_shouldFollowDaoMutations() {
+        FoodItem flour = saveSimpleItem("Мука", 350.0, 10.0, false, category);
+        FoodItem sugar = saveSimpleItem("Сахар", 400.0, 0.0, false, category);
+        FoodItem dough = foodItemDao.save(new FoodItem.Builder()
+                .setName("Тесто")
+                .setServingSizeInGrams(200.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(flour.getId(), 100.0)))
+                .build());
+        assertEquals(List.of(dough.getId()), foodItemDao.findDependentIds(flour.getId()), "Граф должен загружаться из БД при первом обращении.");
+
+        FoodItem pie = foodItemDao.save(new FoodItem.Builder()
+                .setName("Пирог")
+                .setServingSizeInGrams(300.0)
+                .setUnit(Unit.SLICE)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(dough.getId(), 200.0)))
+                .build());
+        assertEquals(List.of(dough.getId(), pie.getId()), foodItemDao.findDependentIds(flour.getId()));
+
+        dough.setComponents(List.of(new FoodComponent(sugar.getId(), 100.0)));
+        assertTrue(foodItemDao.update(dough));
+        assertTrue(foodItemDao.findDependentIds(flour.getId()).isEmpty());
+        assertEquals(List.of(dough.getId(), pie.getId()), foodItemDao.findDependentIds(sugar.getId()));
+
+        assertTrue(foodItemDao.delete(pie.getId()));
+        assertEquals(List.of(dough.getId()), foodItemDao.findDependentIds(sugar.getId()));
+
+        Map<Long, FoodItem> found = foodItemDao.findByIds(List.of(flour.getId(), dough.getId(), 999L));
+        assertEquals(Set.of(flour.getId(), dough.getId()), found.keySet(), "Несуществующие ID должны пропускаться.");
+    }
+
+    @Test
+    @DisplayName("Метод recalculateMissingNutrients должен рассчитать и сохранить нутриенты составных продуктов, созданных без них.")
+    void recalculateMissingNutrients_shouldPersistNutrientsOfLegacyCompositeRows() throws SQLException {
+        FoodItem flour = saveSimpleItem("Мука", 350.0, 10.0, false, category);
+        FoodItem sugar = saveSimpleItem("Сахар", 400.0, 0.0, false, category);
+        long pieId = insertLegacyComposite("Пирог");
+        long doughId = insertLegacyComposite("Тесто");
+        insertLegacyComponent(doughId, flour.getId(), 100.0);
+        insertLegacyComponent(doughId, sugar.getId(), 100.0);
+        insertLegacyComponent(pieId, doughId, 200.0);
+        insertLegacyComponent(pieId, flour.getId(), 200.0);
+
+        List<Long> recalculatedIds = foodItemDao.recalculateMissingNutrients();
+
+        assertEquals(List.of(doughId, pieId), recalculatedIds, "Вложенный составной продукт должен рассчитываться раньше содержащего его.");
+        FoodItem dough = foodItemDao.findById(doughId).orElseThrow();
+        assertEquals(375.0, dough.getCaloriesPer100g(), 0.001);
+        assertEquals(5.0, dough.getProteinsPer100g(), 0.001);
+        FoodItem pie = foodItemDao.findById(pieId).orElseThrow();
+        assertEquals(362.5, pie.getCaloriesPer100g(), 0.001);
+        assertEquals(7.5, pie.getProteinsPer100g(), 0.001);
+        assertTrue(foodItemDao.recalculateMissingNutrients().isEmpty(), "Повторный запуск не должен ничего пересчитывать.");
+    }
+
+    private long insertLegacyComposite(String name) throws SQLException {
+        try (PreparedStatement pstmt = testConnection.prepareStatement(SqlQueries.INSERT_FOOD_ITEM, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, name);
+            pstmt.setDouble(2, 0.0);
+            pstmt.setDouble(3, 100.0);
+            pstmt.setString(4, Unit.GRAM.name());
+            pstmt.setDouble(5, 0.0);
+            pstmt.setDouble(6, 0.0);
+            pstmt.setDouble(7, 0.0);
+            pstmt.setInt(8, 1);
+            pstmt.setObject(9, null);
+            pstmt.executeUpdate();
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                generatedKeys.next();
+                return generatedKeys.getLong(1);
+            }
+        }
+    }
+
+    private void insertLegacyComponent(long parentId, long ingredientId, double amountInGrams) throws SQLException {
+        try (PreparedStatement pstmt = testConnection.prepareStatement(SqlQueries.INSERT_FOOD_COMPONENT)) {
+            pstmt.setLong(1, parentId);
+            pstmt.setLong(2, ingredientId);
+            pstmt.setDouble(3, amountInGrams);
+            pstmt.executeUpdate();
+        }
+    }
+}
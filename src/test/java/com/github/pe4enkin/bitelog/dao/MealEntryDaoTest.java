@@ -17,6 +17,8 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 public class MealEntryDaoTest {
     private MealEntryDao mealEntryDao;
@@ -39,6 +41,8 @@ public class MealEntryDaoTest {
         try (Statement stmt = testConnection.createStatement()) {
             stmt.execute(SqlQueries.DROP_TABLE_MEAL_COMPONENTS);
             stmt.execute(SqlQueries.DROP_TABLE_FOOD_COMPONENTS);
+            stmt.execute(SqlQueries.DROP_TABLE_DAILY_TOTALS);
+            stmt.execute(SqlQueries.DROP_TABLE_DAILY_TOTALS_STATE);
             stmt.execute(SqlQueries.DROP_TABLE_MEAL_ENTRIES);
             stmt.execute(SqlQueries.DROP_TABLE_FOOD_ITEMS);
             stmt.execute(SqlQueries.DROP_TABLE_FOOD_CATEGORIES);
@@ -46,6 +50,7 @@ public class MealEntryDaoTest {
         foodItemDao.createTables();
         foodCategoryDao.createTables();
         mealEntryDao.createTables();
+        new DailyTotalsDao(testDataSource).createTables();
         foodCategory = foodCategoryDao.save(new FoodCategory("Еда"));
 
         item1 = new FoodItem.Builder()
@@ -602,6 +607,46 @@ public class MealEntryDaoTest {
         }
     }
 
+    @Test
+    @DisplayName("Метод findAllByDate должен загружать день с несколькими meal entry за постоянное число запросов.")
+    void findAllByDate_shouldUseConstantNumberOfQueries() throws SQLException {
+        LocalDate date = LocalDate.of(2025, 7, 21);
+        for (int i = 0; i < 5; i++) {
+            mealEntryDao.save(new MealEntry.Builder()
+                    .setDate(date)
+                    .setTime(LocalTime.of(8 + i, 0))
+                    .setMealCategory(MealCategory.SNACK)
+                    .setComponents(List.of(new MealComponent(item1.getId(), 100 + i), new MealComponent(item2.getId(), 50 + i)))
+                    .build());
+        }
+        mealEntryDao.save(new MealEntry.Builder()
+                .setDate(date.minusDays(1))
+                .setTime(LocalTime.of(9, 0))
+                .setMealCategory(MealCategory.BREAKFAST)
+                .setComponents(List.of(new MealComponent(item1.getId(), 300)))
+                .build());
+
+        List<Connection> connections = new ArrayList<>();
+        DataSource countingDataSource = spy(testDataSource);
+        doAnswer(invocation -> {
+            Connection connection = spy((Connection) invocation.callRealMethod());
+            connections.add(connection);
+            return connection;
+        }).when(countingDataSource).getConnection();
+
+        List<MealEntry> entries = new MealEntryDao(countingDataSource).findAllByDate(date);
+
+        assertEquals(5, entries.size(), "Должны быть найдены все 5 meal entry за день.");
+        for (MealEntry entry : entries) {
+            assertEquals(2, entry.getComponents().size(), "Каждый meal entry должен получить только свои компоненты.");
+            double expectedGrams = 100 + entry.getTime().getHour() - 8;
+            assertEquals(expectedGrams, entry.getComponents().get(0).getAmountInGrams(), 0.0001,
+                    "Компоненты должны быть сгруппированы по своим meal entry.");
+        }
+        assertEquals(1, connections.size(), "Загрузка дня должна использовать одно соединение.");
+        verify(connections.get(0), times(2)).prepareStatement(anyString());
+    }
+
     @Test
     @DisplayName("Метод findAllByDate должен возвращать пустой список, если meal entry с нужной датой нет.")
     void findAllByDate_shouldReturnEmptyListIfNoEntriesByDate() {
@@ -618,4 +663,76 @@ public class MealEntryDaoTest {
         assertNotNull(allEntries);
         assertTrue(allEntries.isEmpty(), "Метод findAllByDate должен вернуть пустой список если meal entry нет.");
     }
+
+    @Test
+    @DisplayName("Таблица daily_totals должна обновляться в той же транзакции, что и save, update и delete.")
+    void saveUpdateDelete_shouldMaintainDailyTotals() {
+        DailyTotalsDao dailyTotalsDao = new DailyTotalsDao(testDataSource);
+        LocalDate firstDate = LocalDate.of(2025, 7, 21);
+        LocalDate secondDate = LocalDate.of(2025, 7, 22);
+        MealEntry breakfast = mealEntryDao.save(new MealEntry.Builder()
+                .setDate(firstDate)
+                .setTime(LocalTime.of(8, 0))
+                .setMealCategory(MealCategory.BREAKFAST)
+                .setComponents(List.of(new MealComponent(item1.getId(), 200)))
+                .build());
+        mealEntryDao.save(new MealEntry.Builder()
+                .setDate(firstDate)
+                .setTime(LocalTime.of(13, 0))
+                .setMealCategory(MealCategory.LUNCH)
+                .setComponents(List.of(new MealComponent(item1.getId(), 100), new MealComponent(item2.getId(), 50)))
+                .build());
+
+        DailyTotals totals = dailyTotalsDao.findByDate(firstDate).orElseThrow();
+        assertEquals(2, totals.getEntryCount());
+        assertEquals(250.0 * 3 + 190.0 * 0.5, totals.getTotalCalories(), 1e-9);
+        assertEquals(19.0 * 3 + 16.0 * 0.5, totals.getTotalProteins(), 1e-9);
+
+        breakfast.setDate(secondDate);
+        assertTrue(mealEntryDao.update(breakfast));
+        assertEquals(250.0 + 95.0, dailyTotalsDao.findByDate(firstDate).orElseThrow().getTotalCalories(), 1e-9,
+                "Итоги старой даты должны пересчитываться при переносе meal entry.");
+        assertEquals(500.0, dailyTotalsDao.findByDate(secondDate).orElseThrow().getTotalCalories(), 1e-9);
+        assertEquals(List.of(firstDate, secondDate),
+                dailyTotalsDao.findBetween(firstDate, secondDate).stream().map(DailyTotals::getDate).toList());
+
+        assertTrue(mealEntryDao.delete(breakfast.getId()));
+        assertTrue(dailyTotalsDao.findByDate(secondDate).isEmpty(), "Итоги дня без meal entries должны удаляться.");
+        assertEquals(1, dailyTotalsDao.findByDate(firstDate).orElseThrow().getEntryCount());
+    }
+
+    @Test
+    @DisplayName("Метод rebuildForFoodItems должен пересчитывать только дни, в которых используется измененный продукт.")
+    void rebuildForFoodItems_shouldRefreshDaysUsingChangedFood() {
+        DailyTotalsDao dailyTotalsDao = new DailyTotalsDao(testDataSource);
+        LocalDate firstDate = LocalDate.of(2025, 7, 21);
+        LocalDate secondDate = LocalDate.of(2025, 7, 22);
+        mealEntryDao.save(new MealEntry.Builder()
+                .setDate(firstDate)
+                .setTime(LocalTime.of(8, 0))
+                .setMealCategory(MealCategory.BREAKFAST)
+                .setComponents(List.of(new MealComponent(item1.getId(), 100)))
+                .build());
+        mealEntryDao.save(new MealEntry.Builder()
+                .setDate(secondDate)
+                .setTime(LocalTime.of(8, 0))
+                .setMealCategory(MealCategory.BREAKFAST)
+                .setComponents(List.of(new MealComponent(item2.getId(), 100)))
+                .build());
+
+        item1.setCaloriesPer100g(300.0);
+        assertTrue(foodItemDao.update(item1));
+        assertEquals(250.0, dailyTotalsDao.findByDate(firstDate).orElseThrow().getTotalCalories(), 1e-9);
+
+        assertEquals(Set.of(firstDate), dailyTotalsDao.rebuildForFoodItems(Set.of(item1.getId())));
+        assertEquals(300.0, dailyTotalsDao.findByDate(firstDate).orElseThrow().getTotalCalories(), 1e-9);
+        assertEquals(190.0, dailyTotalsDao.findByDate(secondDate).orElseThrow().getTotalCalories(), 1e-9);
+
+        assertEquals(2, dailyTotalsDao.rebuildAll());
+        assertEquals(0, dailyTotalsDao.rebuildIfEmpty(), "Непустая таблица daily_totals не должна перестраиваться.");
+
+        dailyTotalsDao.markDirty();
+        assertEquals(2, dailyTotalsDao.rebuildIfEmpty(), "Помеченная таблица daily_totals должна перестраиваться при следующем запуске.");
+        assertEquals(0, dailyTotalsDao.rebuildIfEmpty(), "Перестроение должно снимать пометку.");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.github.pe4enkin.bitelog.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NutrientVectorTest {
+
+    @Test
+    @DisplayName("Метод addScaled должен прибавлять масштабированный вектор ко всем нутриентам.")
+    void addScaled_shouldAccumulateScaledValues() {
+        NutrientVector total = new NutrientVector();
+        total.addScaled(new NutrientVector(250.0, 19.0, 16.0, 1.0), 2.0)
+                .addScaled(new NutrientVector(52.0, 0.3, 0.2, 14.0), 0.5);
+
+        assertEquals(526.0, total.getCalories(), 0.001);
+        assertEquals(38.15, total.get(Nutrient.PROTEINS), 0.001);
+        assertEquals(32.1, total.getFats(), 0.001);
+        assertEquals(9.0, total.getCarbs(), 0.001);
+        assertEquals(new NutrientVector(263.0, 19.075, 16.05, 4.5), NutrientVector.copyOf(total).scale(0.5));
+        assertEquals(new NutrientVector(), total.reset());
+    }
+
+    @Test
+    @DisplayName("Нутриенты FoodItem и MealEntry должны храниться в NutrientVector и изменяться через сеттеры.")
+    void modelSetters_shouldWriteThroughToNutrientVector() {
+        FoodItem foodItem = new FoodItem.Builder()
+                .setName("Говядина")
+                .setCaloriesPer100g(250.0)
+                .setProteinsPer100g(19.0)
+                .build();
+        foodItem.setFatsPer100g(16.0).setCarbsPer100g(1.0);
+        assertEquals(new NutrientVector(250.0, 19.0, 16.0, 1.0), foodItem.getNutrientsPer100g());
+
+        MealEntry mealEntry = new MealEntry.Builder().build();
+        mealEntry.setTotalNutrients(foodItem.getNutrientsPer100g());
+        foodItem.setCaloriesPer100g(0.0);
+        assertEquals(250.0, mealEntry.getTotalCalories(), 0.001, "MealEntry должен хранить собственную копию нутриентов.");
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.model.CalendarMonth;
+import com.github.pe4enkin.bitelog.model.DailyTotals;
+import com.github.pe4enkin.bitelog.model.HeatmapMetric;
+import com.github.pe4enkin.bitelog.model.NutrientVector;
+import com.github.pe4enkin.bitelog.service.exception.ServiceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CalendarHeatmapServiceTest {
+
+    @Mock
+    private DailyTotalsService dailyTotalsService;
+
+    private DailyTotals totals(LocalDate date, double calories) {
+        return new DailyTotals(date, new NutrientVector(calories, 0.0, 0.0, 0.0), 2);
+    }
+
+    @Test
+    @DisplayName("Год должен загружаться одним запросом, а переход между месяцами - обслуживаться из кэша.")
+    void getYear_shouldLoadWholeYearWithSingleQuery() {
+        when(dailyTotalsService.getTotalsBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31))).thenReturn(List.of(
+                totals(LocalDate.of(2025, 2, 14), 2600.0),
+                totals(LocalDate.of(2025, 12, 31), 1800.0)));
+        CalendarHeatmapService calendarHeatmapService = new CalendarHeatmapService(dailyTotalsService);
+
+        List<CalendarMonth> year = calendarHeatmapService.getYear(2025);
+
+        assertEquals(12, year.size());
+        assertEquals(2600.0, year.get(1).getCalories(14), 1e-9);
+        assertTrue(year.get(11).isLogged(31));
+        assertFalse(year.get(0).isLogged(1));
+        assertSame(year.get(1), calendarHeatmapService.getMonth(YearMonth.of(2025, 2)));
+        assertSame(year.get(2), calendarHeatmapService.getMonth(YearMonth.of(2025, 3)));
+        assertEquals(1, calendarHeatmapService.getQueryCount());
+        verify(dailyTotalsService, times(1)).getTotalsBetween(any(LocalDate.class), any(LocalDate.class));
+        assertEquals(4, HeatmapMetric.GOAL_ADHERENCE.level(1850.0, 2600.0, 2000.0));
+        assertEquals(2, HeatmapMetric.GOAL_ADHERENCE.level(2600.0, 2600.0, 2000.0));
+        assertEquals(1, HeatmapMetric.GOAL_ADHERENCE.level(3200.0, 3200.0, 2000.0));
+        assertEquals(4, HeatmapMetric.CALORIES.level(2600.0, 2600.0, 2000.0));
+    }
+
+    @Test
+    @DisplayName("Инвалидация даты должна перезагружать только затронутый месяц.")
+    void invalidate_shouldReloadOnlyAffectedMonth() {
+        when(dailyTotalsService.getTotalsBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31))).thenReturn(List.of());
+        when(dailyTotalsService.getTotalsBetween(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28)))
+                .thenReturn(List.of(totals(LocalDate.of(2025, 2, 3), 500.0)));
+        CalendarHeatmapService calendarHeatmapService = new CalendarHeatmapService(dailyTotalsService);
+        List<CalendarMonth> before = calendarHeatmapService.getMonths(YearMonth.of(2025, 1), YearMonth.of(2025, 3));
+
+        calendarHeatmapService.invalidate(Set.of(LocalDate.of(2025, 2, 3)));
+        List<CalendarMonth> after = calendarHeatmapService.getMonths(YearMonth.of(2025, 1), YearMonth.of(2025, 3));
+
+        assertSame(before.get(0), after.get(0));
+        assertNotSame(before.get(1), after.get(1));
+        assertSame(before.get(2), after.get(2));
+        assertEquals(500.0, after.get(1).getCalories(3), 1e-9);
+        assertEquals(2, calendarHeatmapService.getQueryCount());
+        assertThrows(ServiceException.class,
+                () -> calendarHeatmapService.getMonths(YearMonth.of(2025, 3), YearMonth.of(2025, 1)));
+    }
+
+    @Test
+    @DisplayName("Период длиннее емкости кэша должен возвращаться полностью, без пропущенных месяцев.")
+    void getMonths_shouldReturnEveryMonthWhenRangeExceedsCapacity() {
+        when(dailyTotalsService.getTotalsBetween(any(LocalDate.class), any(LocalDate.class))).thenReturn(List.of());
+        when(dailyTotalsService.getTotalsBetween(LocalDate.of(2023, 7, 1), LocalDate.of(2024, 12, 31)))
+                .thenReturn(List.of(totals(LocalDate.of(2024, 1, 10), 900.0)));
+        CalendarHeatmapService calendarHeatmapService = new CalendarHeatmapService(dailyTotalsService, 12);
+        calendarHeatmapService.getYear(2025);
+
+        List<CalendarMonth> months = calendarHeatmapService.getMonths(YearMonth.of(2023, 7), YearMonth.of(2025, 12));
+
+        assertEquals(30, months.size());
+        for (int i = 0; i < months.size(); i++) {
+            assertNotNull(months.get(i), "Месяц " + YearMonth.of(2023, 7).plusMonths(i) + " не должен быть пропущен.");
+            assertEquals(YearMonth.of(2023, 7).plusMonths(i), months.get(i).getYearMonth());
+        }
+        assertEquals(900.0, months.get(6).getCalories(10), 1e-9);
+        assertEquals(12, calendarHeatmapService.size());
+    }
+}
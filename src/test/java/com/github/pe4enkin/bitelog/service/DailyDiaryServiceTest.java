@@ -1,11 +1,15 @@
 package com.github.pe4enkin.bitelog.service;
 
 import com.github.pe4enkin.bitelog.model.DailyDiary;
+import com.github.pe4enkin.bitelog.model.FoodItem;
+import com.github.pe4enkin.bitelog.model.MealComponent;
 import com.github.pe4enkin.bitelog.model.MealEntry;
+import com.github.pe4enkin.bitelog.model.MealEntryRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -13,8 +17,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,13 +39,16 @@ public class DailyDiaryServiceTest {
         LocalDate testDate = LocalDate.of(2025, 8, 5);
 
         MealEntry mealEntry1 = new MealEntry.Builder()
+                .setId(1L)
                 .setTotalCalories(1050.0)
                 .setTotalProteins(24.5)
                 .setTotalFats(49.1)
                 .setTotalCarbs(99.9)
+                .setComponents(List.of(new MealComponent(10L, 1L, 200.0)))
                 .build();
 
         MealEntry mealEntry2 = new MealEntry.Builder()
+                .setId(2L)
                 .setTotalCalories(950.0)
                 .setTotalProteins(100.5)
                 .setTotalFats(50.9)
@@ -47,11 +57,20 @@ public class DailyDiaryServiceTest {
 
         List<MealEntry> mealEntries = List.of(mealEntry1, mealEntry2);
 
-        when(mealEntryService.getAllByDate(testDate)).thenReturn(mealEntries);
+        FoodItem oatmeal = new FoodItem.Builder().setId(1L).setName("Овсянка").setCaloriesPer100g(350.0).build();
+        when(mealEntryService.getAllByDate(eq(testDate), anyMap())).thenAnswer(invocation -> {
+            Map<Long, FoodItem> resolvedFoodItems = invocation.getArgument(1);
+            resolvedFoodItems.put(1L, oatmeal);
+            return mealEntries;
+        });
 
         DailyDiary result = dailyDiaryService.getDiaryForDate(testDate);
 
         assertNotNull(result);
+        assertEquals(2, result.getMealEntryRows().size(), "DailyDiary должен содержать готовые строки своих записей.");
+        MealEntryRow.ComponentRow componentRow = result.getMealEntryRows().get(0).getComponents().get(0);
+        assertEquals("Овсянка", componentRow.getFoodItemName(), "Имя продукта должно быть подставлено в сервисе.");
+        assertEquals(700.0, componentRow.getCalories(), 0.001, "Нутриенты компонента должны быть рассчитаны в сервисе.");
         assertEquals(testDate, result.getDate(), "DailyDiary должен иметь корректную дату.");
         assertEquals(mealEntries, result.getMealEntries(), "DailyDiary должен иметь корректный список.");
         assertEquals(2000.0, result.getTotalCalories(), 0.001, "Значение калорийности должно корректно рассчитаться.");
@@ -59,7 +78,8 @@ public class DailyDiaryServiceTest {
         assertEquals(100.0, result.getTotalFats(), 0.001, "Значение жиров должно корректно рассчитаться.");
         assertEquals(150.0, result.getTotalCarbs(), 0.001, "Значение углеводов должно корректно рассчитаться.");
 
-        verify(mealEntryService, times(1)).getAllByDate(testDate);
+        verify(mealEntryService, never()).getFoodItemsFor(anyCollection());
+        verify(mealEntryService, times(1)).getAllByDate(eq(testDate), anyMap());
     }
 
     @Test
@@ -67,7 +87,7 @@ public class DailyDiaryServiceTest {
     void getDiaryForDate_shouldReturnDailyDiaryWithEmptyList() {
         LocalDate testDate = LocalDate.of(2025, 8, 5);
 
-        when(mealEntryService.getAllByDate(testDate)).thenReturn(new ArrayList<>());
+        when(mealEntryService.getAllByDate(eq(testDate), anyMap())).thenReturn(new ArrayList<>());
 
         DailyDiary result = dailyDiaryService.getDiaryForDate(testDate);
 
@@ -79,6 +99,84 @@ public class DailyDiaryServiceTest {
         assertEquals(0.0, result.getTotalFats(), 0.001, "Значение жиров должно быть 0 при пустом списке.");
         assertEquals(0.0, result.getTotalCarbs(), 0.001, "Значение углеводов должно быть 0 при пустом списке.");
 
-        verify(mealEntryService, times(1)).getAllByDate(testDate);
+        verify(mealEntryService, times(1)).getAllByDate(eq(testDate), anyMap());
+    }
+
+    @Test
+    @DisplayName("Кэш дневников должен отдавать дневник из памяти до изменения даты в MealEntryService.")
+    void getDiaryForDate_shouldServeCachedDiaryUntilDateChanges() {
+        LocalDate testDate = LocalDate.of(2025, 8, 5);
+        ArgumentCaptor<DiaryChangeListener> listenerCaptor = ArgumentCaptor.forClass(DiaryChangeListener.class);
+        DailyDiaryService cachedService = new DailyDiaryService(mealEntryService, new DailyDiaryCache(8, 1, Runnable::run));
+        verify(mealEntryService).addDiaryChangeListener(listenerCaptor.capture());
+        when(mealEntryService.getAllByDate(eq(testDate), anyMap())).thenReturn(new ArrayList<>());
+
+        DailyDiary first = cachedService.getDiaryForDate(testDate);
+        DailyDiary cached = cachedService.getDiaryForDate(testDate);
+        assertNotSame(first, cached, "Кэш должен отдавать копию, а не общий экземпляр дневника.");
+        assertEquals(testDate, cached.getDate());
+        verify(mealEntryService, times(1)).getAllByDate(eq(testDate), anyMap());
+
+        listenerCaptor.getValue().onDaysChanged(Set.of(testDate));
+        assertNotSame(first, cachedService.getDiaryForDate(testDate), "После изменения даты дневник должен загружаться заново.");
+        verify(mealEntryService, times(2)).getAllByDate(eq(testDate), anyMap());
+        assertEquals(1, cachedService.getDailyDiaryCache().getHitCount());
+    }
+
+    @Test
+    @DisplayName("Изменение дневника, полученного из кэша, не должно влиять на закэшированную копию.")
+    void getDiaryForDate_shouldNotShareMutableEntriesWithCache() {
+        LocalDate testDate = LocalDate.of(2025, 8, 5);
+        DailyDiaryService cachedService = new DailyDiaryService(mealEntryService, new DailyDiaryCache(8, 1, Runnable::run));
+        MealEntry mealEntry = new MealEntry.Builder()
+                .setId(1L)
+                .setDate(testDate)
+                .setTotalCalories(500.0)
+                .setComponents(List.of(new MealComponent(1L, 100L, 200.0)))
+                .build();
+        when(mealEntryService.getAllByDate(eq(testDate), anyMap())).thenReturn(new ArrayList<>(List.of(mealEntry)));
+
+        DailyDiary loaded = cachedService.getDiaryForDate(testDate);
+        loaded.getMealEntries().get(0).setTotalCalories(0.0);
+        loaded.getMealEntries().get(0).getComponents().get(0).setAmountInGrams(0.0);
+        DailyDiary cached = cachedService.getDiaryForDate(testDate);
+        cached.getMealEntries().clear();
+
+        DailyDiary again = cachedService.getDiaryForDate(testDate);
+        assertEquals(1, again.getMealEntries().size());
+        assertEquals(500.0, again.getMealEntries().get(0).getTotalCalories(), 1e-9);
+        assertEquals(200.0, again.getMealEntries().get(0).getComponents().get(0).getAmountInGrams(), 1e-9);
+        assertEquals(500.0, again.getTotalCalories(), 1e-9);
+        verify(mealEntryService, times(1)).getAllByDate(eq(testDate), anyMap());
+    }
+
+    @Test
+    @DisplayName("Метод prefetchAround должен предзагружать соседние дни и не хранить дневник, устаревший во время загрузки.")
+    void prefetchAround_shouldLoadNeighbourDaysAndDropStaleResults() {
+        LocalDate testDate = LocalDate.of(2025, 8, 5);
+        List<Runnable> pendingLoads = new ArrayList<>();
+        DailyDiaryCache dailyDiaryCache = new DailyDiaryCache(8, 2, pendingLoads::add);
+        DailyDiaryService cachedService = new DailyDiaryService(mealEntryService, dailyDiaryCache);
+        when(mealEntryService.getAllByDate(any(LocalDate.class), anyMap())).thenReturn(new ArrayList<>());
+
+        cachedService.prefetchAround(testDate);
+        cachedService.prefetchAround(testDate);
+        assertEquals(4, pendingLoads.size(), "Каждый соседний день должен предзагружаться только один раз.");
+
+        pendingLoads.get(0).run();
+        cachedService.invalidateCache();
+        pendingLoads.subList(1, pendingLoads.size()).forEach(Runnable::run);
+
+        assertEquals(0, dailyDiaryCache.size(), "Дневники, загруженные до инвалидации, не должны попадать в кэш.");
+        assertEquals(1, dailyDiaryCache.getPrefetchCount());
+
+        cachedService.prefetchAround(testDate);
+        assertEquals(8, pendingLoads.size());
+        pendingLoads.subList(4, 8).forEach(Runnable::run);
+        assertTrue(dailyDiaryCache.contains(testDate.plusDays(2)));
+        assertTrue(dailyDiaryCache.contains(testDate.minusDays(2)));
+        assertFalse(dailyDiaryCache.contains(testDate), "Текущий день не должен предзагружаться.");
+        cachedService.getDiaryForDate(testDate.minusDays(1));
+        verify(mealEntryService, times(2)).getAllByDate(eq(testDate.minusDays(1)), anyMap());
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.model.NutrientVector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DailyTrendSeriesTest {
+    private static final LocalDate START = LocalDate.of(2025, 7, 1);
+
+    private NutrientVector calories(double calories) {
+        return new NutrientVector(calories, calories / 10, calories / 20, calories / 5);
+    }
+
+    @Test
+    @DisplayName("Скользящие суммы и средние должны обновляться инкрементально при изменении и удалении дня.")
+    void setDay_shouldUpdateWindowSumsIncrementally() {
+        DailyTrendSeries series = new DailyTrendSeries();
+        for (int day = 0; day < 10; day++) {
+            series.setDay(START.plusDays(day), calories(1000 + day * 100), 3);
+        }
+
+        assertEquals(1700 + 1800 + 1900, series.getWindowSum(START.plusDays(9), 3).getCalories(), 1e-9);
+        assertEquals(1800.0, series.getMovingAverage(START.plusDays(9), 3).getCalories(), 1e-9);
+        assertEquals(180.0, series.getMovingAverage(START.plusDays(9), 3).getProteins(), 1e-9);
+
+        series.setDay(START.plusDays(8), new NutrientVector(), 0);
+        assertEquals(1700 + 1900, series.getWindowSum(START.plusDays(9), 3).getCalories(), 1e-9);
+        assertEquals(2, series.getLoggedDays(START.plusDays(9), 3));
+        assertEquals(1800.0, series.getMovingAverage(START.plusDays(9), 3).getCalories(), 1e-9,
+                "Среднее должно считаться по дням с записями.");
+
+        series.setDay(START.minusDays(5), calories(500), 1);
+        assertEquals(500.0, series.getWindowSum(START.minusDays(1), 90).getCalories(), 1e-9,
+                "Добавление дня раньше начала ряда не должно искажать суммы.");
+        assertEquals(500.0 + 14500.0 - 1800.0, series.getWindowSum(START.plusDays(30), 90).getCalories(), 1e-9);
+        assertEquals(0.0, series.getMovingAverage(START.plusDays(400), 7).getCalories(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> series.getWindowSum(START, 0));
+    }
+
+    @Test
+    @DisplayName("Серии дней с записями должны пересчитываться при заполнении и удалении пропусков.")
+    void setDay_shouldMaintainStreaks() {
+        DailyTrendSeries series = new DailyTrendSeries();
+        for (int day = 0; day < 10; day++) {
+            if (day != 4) {
+                series.setDay(START.plusDays(day), calories(1000), 1);
+            }
+        }
+        assertEquals(4, series.getStreak(START.plusDays(3)));
+        assertEquals(0, series.getStreak(START.plusDays(4)));
+        assertEquals(5, series.getStreak(START.plusDays(9)));
+
+        series.setDay(START.plusDays(4), calories(1000), 2);
+        assertEquals(10, series.getStreak(START.plusDays(9)));
+        assertEquals(10, series.getLongestStreak());
+
+        series.setDay(START.plusDays(1), new NutrientVector(), 0);
+        assertEquals(8, series.getStreak(START.plusDays(9)));
+        assertEquals(1, series.getStreak(START));
+        assertEquals(0, series.getStreak(START.plusDays(20)));
+        assertEquals(8, series.getLongestStreak());
+    }
+}
@@ -0,0 +1,196 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.dao.DailyTotalsDao;
+import com.github.pe4enkin.bitelog.dao.DiaryExportDao;
+import com.github.pe4enkin.bitelog.dao.FoodCategoryDao;
+import com.github.pe4enkin.bitelog.dao.FoodItemDao;
+import com.github.pe4enkin.bitelog.dao.MealEntryDao;
+import com.github.pe4enkin.bitelog.db.DatabaseConnectionManager;
+import com.github.pe4enkin.bitelog.model.*;
+import com.github.pe4enkin.bitelog.service.exception.ServiceException;
+import com.github.pe4enkin.bitelog.sql.SqlQueries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiaryExportServiceTest {
+    private MealEntryDao mealEntryDao;
+    private DiaryExportService diaryExportService;
+    private Connection testConnection;
+    private FoodItem beef;
+    private FoodItem salad;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DatabaseConnectionManager.configureForTesting("file:memdb1?mode=memory&cache=shared");
+        DataSource testDataSource = DatabaseConnectionManager.getDataSource();
+        testConnection = testDataSource.getConnection();
+        FoodItemDao foodItemDao = new FoodItemDao(testDataSource);
+        FoodCategoryDao foodCategoryDao = new FoodCategoryDao(testDataSource);
+        mealEntryDao = new MealEntryDao(testDataSource);
+        try (Statement stmt = testConnection.createStatement()) {
+            stmt.execute(SqlQueries.DROP_TABLE_MEAL_COMPONENTS);
+            stmt.execute(SqlQueries.DROP_TABLE_FOOD_COMPONENTS);
+            stmt.execute(SqlQueries.DROP_TABLE_DAILY_TOTALS);
+            stmt.execute(SqlQueries.DROP_TABLE_DAILY_TOTALS_STATE);
+            stmt.execute(SqlQueries.DROP_TABLE_MEAL_ENTRIES);
+            stmt.execute(SqlQueries.DROP_TABLE_FOOD_ITEMS);
+            stmt.execute(SqlQueries.DROP_TABLE_FOOD_CATEGORIES);
+        }
+        foodItemDao.createTables();
+        foodCategoryDao.createTables();
+        mealEntryDao.createTables();
+        new DailyTotalsDao(testDataSource).createTables();
+        FoodItemService foodItemService = new FoodItemService(foodItemDao);
+        diaryExportService = new DiaryExportService(new DiaryExportDao(testDataSource), foodItemService);
+
+        beef = foodItemService.createFoodItem(new FoodItem.Builder()
+                .setName("Говядина, \"мраморная\"")
+                .setCaloriesPer100g(250.0)
+                .setServingSizeInGrams(200.0)
+                .setUnit(Unit.GRAM)
+                .setProteinsPer100g(20.0)
+                .setFatsPer100g(16.0)
+                .setCarbsPer100g(0.0)
+                .setComposite(false)
+                .build());
+        FoodItem cucumber = foodItemService.createFoodItem(new FoodItem.Builder()
+                .setName("Огурец")
+                .setCaloriesPer100g(10.0)
+                .setServingSizeInGrams(100.0)
+                .setUnit(Unit.GRAM)
+                .setProteinsPer100g(1.0)
+                .setFatsPer100g(0.0)
+                .setCarbsPer100g(2.0)
+                .setComposite(false)
+                .build());
+        salad = foodItemService.createFoodItem(new FoodItem.Builder()
+                .setName("Салат")
+                .setServingSizeInGrams(300.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(beef.getId(), 100), new FoodComponent(cucumber.getId(), 100)))
+                .build());
+
+        saveEntry(LocalDate.of(2025, 7, 20), LocalTime.of(8, 30), MealCategory.BREAKFAST, "утро",
+                List.of(new MealComponent(beef.getId(), 150)));
+        saveEntry(LocalDate.of(2025, 7, 21), LocalTime.of(13, 0), MealCategory.LUNCH, "обед\nс переносом",
+                List.of(new MealComponent(beef.getId(), 100), new MealComponent(salad.getId(), 200)));
+        saveEntry(LocalDate.of(2025, 7, 21), LocalTime.of(19, 0), MealCategory.DINNER, null, null);
+        saveEntry(LocalDate.of(2025, 7, 25), LocalTime.of(9, 0), MealCategory.BREAKFAST, null,
+                List.of(new MealComponent(beef.getId(), 50)));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (testConnection != null && !testConnection.isClosed()) {
+            testConnection.close();
+        }
+        DatabaseConnectionManager.resetToDefault();
+        DatabaseConnectionManager.closeDataSource();
+    }
+
+    private void saveEntry(LocalDate date, LocalTime time, MealCategory category, String notes, List<MealComponent> components) {
+        mealEntryDao.save(new MealEntry.Builder()
+                .setDate(date)
+                .setTime(time)
+                .setMealCategory(category)
+                .setNotes(notes)
+                .setComponents(components)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Метод export должен выгрузить CSV по строке на компонент с экранированием и нутриентами составных продуктов.")
+    void export_shouldWriteCsvRowPerComponent() throws IOException {
+        Path target = tempDir.resolve("diary.csv");
+
+        DiaryExportResult result = diaryExportService.export(LocalDate.of(2025, 7, 20), LocalDate.of(2025, 7, 21),
+                ExportFormat.CSV, target, false);
+
+        List<String> lines = Files.readAllLines(target, StandardCharsets.UTF_8);
+        assertEquals(3, result.getMealEntries(), "В период должно попасть 3 приема пищи.");
+        assertEquals(3, result.getMealComponents(), "В период должно попасть 3 компонента.");
+        assertEquals(Files.size(target), result.getBytesWritten(), "Количество записанных байт должно совпадать с размером файла.");
+        assertTrue(lines.get(0).startsWith("date,time,meal_entry_id"), "Первая строка должна быть заголовком.");
+        assertTrue(lines.get(1).startsWith("2025-07-20,08:30,"), "Записи должны идти по возрастанию даты и времени.");
+        assertTrue(lines.get(1).endsWith(",\"Говядина, \"\"мраморная\"\"\",150,375,30,24,0"),
+                "Имя с запятой и кавычками должно экранироваться, нутриенты - пересчитываться на вес.");
+        String saladLine = String.join("\n", lines).lines()
+                .filter(line -> line.contains(",Салат,"))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(saladLine.endsWith(",Салат,200,260,21,16,2"),
+                "Нутриенты составного продукта должны рассчитываться через FoodItemService.");
+        assertTrue(lines.stream().anyMatch(line -> line.contains(",DINNER,,,,,,,,,")),
+                "Прием пищи без компонентов должен выгружаться пустой строкой компонентов.");
+        assertTrue(lines.stream().noneMatch(line -> line.startsWith("2025-07-25")), "Записи вне периода не должны выгружаться.");
+    }
+
+    @Test
+    @DisplayName("Метод export должен выгрузить JSON Lines по объекту на прием пищи с итогами и компонентами.")
+    void export_shouldWriteJsonLinePerMealEntry() throws IOException {
+        Path target = tempDir.resolve("diary.jsonl");
+
+        DiaryExportResult result = diaryExportService.export(LocalDate.of(2025, 7, 21), LocalDate.of(2025, 7, 31),
+                ExportFormat.JSONL, target, false);
+
+        List<String> lines = Files.readAllLines(target, StandardCharsets.UTF_8);
+        assertEquals(3, result.getMealEntries());
+        assertEquals(3, lines.size(), "На каждый прием пищи должна приходиться одна строка.");
+        assertTrue(lines.get(0).contains("\"notes\":\"обед\\nс переносом\""), "Перенос строки в заметке должен экранироваться.");
+        assertTrue(lines.get(0).contains("\"calories\":510"), "Итог по калориям должен суммировать все компоненты.");
+        assertTrue(lines.get(0).contains("\"food_name\":\"Салат\""));
+        assertTrue(lines.get(1).contains("\"notes\":null,\"calories\":0,\"proteins\":0,\"fats\":0,\"carbs\":0,\"components\":[]"),
+                "Прием пищи без компонентов должен иметь пустой массив компонентов.");
+        assertTrue(lines.get(2).startsWith("{\"meal_entry_id\":") && lines.get(2).contains("\"date\":\"2025-07-25\""));
+    }
+
+    @Test
+    @DisplayName("Метод export должен сжимать файл gzip по запросу.")
+    void export_shouldWriteGzipCompressedFile() throws IOException {
+        Path plain = tempDir.resolve("diary.csv");
+        Path compressed = tempDir.resolve("diary.csv.gz");
+        diaryExportService.export(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 31), ExportFormat.CSV, plain, false);
+
+        DiaryExportResult result = diaryExportService.export(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 31),
+                ExportFormat.CSV, compressed, true);
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed))) {
+            assertEquals(Files.readString(plain, StandardCharsets.UTF_8), new String(in.readAllBytes(), StandardCharsets.UTF_8),
+                    "Распакованный файл должен совпадать с несжатым экспортом.");
+        }
+        assertEquals(4, result.getMealEntries());
+    }
+
+    @Test
+    @DisplayName("ServiceException при экспорте с начальной датой позже конечной.")
+    void export_shouldThrowServiceExceptionOnInvalidRange() {
+        Path target = tempDir.resolve("diary.csv");
+
+        assertThrows(ServiceException.class, () -> diaryExportService.export(LocalDate.of(2025, 7, 21),
+                LocalDate.of(2025, 7, 20), ExportFormat.CSV, target, false));
+        assertFalse(Files.exists(target), "Файл не должен создаваться при некорректном периоде.");
+    }
+}
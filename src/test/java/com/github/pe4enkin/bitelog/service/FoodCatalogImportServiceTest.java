@@ -0,0 +1,255 @@
+package com.github.pe4enkin.bitelog.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.github.pe4enkin.bitelog.dao.FoodCategoryDao;
+import com.github.pe4enkin.bitelog.dao.FoodItemDao;
+import com.github.pe4enkin.bitelog.db.DatabaseConnectionManager;
+import com.github.pe4enkin.bitelog.model.FoodCategory;
+import com.github.pe4enkin.bitelog.model.FoodItem;
+import com.github.pe4enkin.bitelog.model.Unit;
+import com.github.pe4enkin.bitelog.service.exception.ServiceException;
+import com.github.pe4enkin.bitelog.sql.SqlQueries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FoodCatalogImportServiceTest {
+    private FoodItemDao foodItemDao;
+    private FoodCategoryDao foodCategoryDao;
+    private FoodCatalogImportService importService;
+    private Connection testConnection;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DatabaseConnectionManager.configureForTesting("file:memdb1?mode=memory&cache=shared");
+        DataSource testDataSource = DatabaseConnectionManager.getDataSource();
+        testConnection = testDataSource.getConnection();
+        foodItemDao = new FoodItemDao(testDataSource);
+        foodCategoryDao = new FoodCategoryDao(testDataSource);
+        try (Statement stmt = testConnection.createStatement()) {
+            stmt.execute(SqlQueries.DROP_TABLE_FOOD_COMPONENTS);
+            stmt.execute(SqlQueries.DROP_TABLE_FOOD_ITEMS);
+            stmt.execute(SqlQueries.DROP_TABLE_FOOD_CATEGORIES);
+        }
+        foodItemDao.createTables();
+        foodCategoryDao.createTables();
+        importService = new FoodCatalogImportService(testDataSource);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (testConnection != null && !testConnection.isClosed()) {
+            testConnection.close();
+        }
+        DatabaseConnectionManager.resetToDefault();
+        DatabaseConnectionManager.closeDataSource();
+    }
+
+    private Path writeFile(String fileName, String content) throws IOException {
+        Path file = tempDir.resolve(fileName);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    @DisplayName("Метод importCatalog должен импортировать CSV, создать категории и пропустить дубликаты и некорректные строки.")
+    void importCatalog_shouldImportCsvWithCategoriesAndSkipDuplicates() throws IOException {
+        Path file = writeFile("catalog.csv", """
+                name,calories_per_100g,proteins_per_100g,fats_per_100g,carbs_per_100g,serving_size_in_grams,unit,category
+                Говядина,250,19,16,1,200,GRAM,Мясо
+                "Курица, филе",110,23,1.5,0,350,упак,Мясо
+                Овощи,65,3,0,9,,,Овощи
+                Говядина,260,18,17,1.5,400,PACK,Мясо
+                Сломанная строка,не число,1,1,1,100,GRAM,Мясо
+                """);
+
+        CatalogImportProgress result = importService.importCatalog(file, null);
+
+        assertEquals(5, result.getRowsRead(), "Должно быть прочитано 5 строк данных.");
+        assertEquals(3, result.getRowsImported(), "Должно быть импортировано 3 уникальных продукта.");
+        assertEquals(1, result.getDuplicatesSkipped(), "Дубликат по имени должен быть пропущен.");
+        assertEquals(1, result.getRowsRejected(), "Строка с некорректным числом должна быть отклонена.");
+        assertEquals(2, result.getCategoriesCreated(), "Должно быть создано 2 категории.");
+
+        Optional<FoodItem> chicken = foodItemDao.findByName("Курица, филе");
+        assertTrue(chicken.isPresent(), "Продукт с запятой в кавычках должен быть импортирован.");
+        assertEquals(Unit.PACK, chicken.get().getUnit(), "Единица измерения должна распознаваться по короткому имени.");
+        assertEquals("Мясо", chicken.get().getFoodCategory().getName(), "Категория должна быть присвоена.");
+
+        Optional<FoodItem> vegetables = foodItemDao.findByName("Овощи");
+        assertTrue(vegetables.isPresent());
+        assertEquals(Unit.GRAM, vegetables.get().getUnit(), "Единица измерения по умолчанию - граммы.");
+        assertEquals(100.0, vegetables.get().getServingSizeInGrams(), 0.001, "Размер порции по умолчанию - 100 грамм.");
+
+        assertEquals(250.0, foodItemDao.findByName("Говядина").get().getCaloriesPer100g(), 0.001,
+                "Должна остаться первая запись из дубликатов.");
+    }
+
+    @Test
+    @DisplayName("Метод importCatalog должен импортировать JSON Lines и использовать существующие категории и имена.")
+    void importCatalog_shouldImportJsonLinesUsingExistingData() throws IOException {
+        FoodCategory meat = foodCategoryDao.save(new FoodCategory("Мясо"));
+        foodItemDao.save(new FoodItem.Builder()
+                .setName("Говядина")
+                .setCaloriesPer100g(250.0)
+                .setServingSizeInGrams(200.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(false)
+                .setFoodCategory(meat)
+                .build());
+        Path file = writeFile("catalog.jsonl", """
+                {"name": "Говядина", "calories_per_100g": 999, "category": "Мясо"}
+                {"name": "Свинина \\"деревенская\\"", "calories_per_100g": 320.5, "proteins_per_100g": 15, "category": "Мясо", "unit": null}
+                {"name": "Сахар", "calories_per_100g": 400, "carbs_per_100g": 100}
+                {"name": "Вложенный", "calories_per_100g": {"value": 1}}
+                """);
+        List<CatalogImportProgress> reports = new ArrayList<>();
+
+        CatalogImportProgress result = importService.importCatalog(file, reports::add);
+
+        assertEquals(4, result.getRowsRead());
+        assertEquals(2, result.getRowsImported());
+        assertEquals(1, result.getDuplicatesSkipped(), "Продукт, уже существующий в БД, должен быть пропущен.");
+        assertEquals(1, result.getRowsRejected(), "Вложенные объекты должны отклоняться.");
+        assertEquals(0, result.getCategoriesCreated(), "Существующая категория должна браться из кэша.");
+        assertFalse(reports.isEmpty(), "Слушатель должен получить итоговый отчет.");
+        assertEquals(result.getRowsImported(), reports.get(reports.size() - 1).getRowsImported());
+
+        Optional<FoodItem> pork = foodItemDao.findByName("Свинина \"деревенская\"");
+        assertTrue(pork.isPresent(), "Экранированные кавычки должны корректно разбираться.");
+        assertEquals(meat, pork.get().getFoodCategory());
+        assertNull(foodItemDao.findByName("Сахар").get().getFoodCategory(), "Продукт без категории не должен получать категорию.");
+        assertEquals(3, foodItemDao.findAll(false).size());
+    }
+
+    @Test
+    @DisplayName("ServiceException при импорте CSV без обязательных колонок.")
+    void importCatalog_shouldThrowServiceExceptionOnMissingColumns() throws IOException {
+        Path file = writeFile("catalog.csv", """
+                title,kcal
+                Говядина,250
+                """);
+
+        assertThrows(ServiceException.class, () -> importService.importCatalog(file, null),
+                "Должно быть ServiceException при отсутствии колонок name и calories_per_100g.");
+        assertTrue(foodItemDao.findAll(false).isEmpty(), "Ни один продукт не должен быть импортирован.");
+    }
+
+    @Test
+    @DisplayName("ServiceException при импорте несуществующего файла.")
+    void importCatalog_shouldThrowServiceExceptionOnMissingFile() {
+        Path file = tempDir.resolve("missing.csv");
+
+        assertThrows(ServiceException.class, () -> importService.importCatalog(file, null),
+                "Должно быть ServiceException при отсутствии файла.");
+    }
+
+    @Test
+    @DisplayName("Прерванный импорт должен сообщать последнюю зафиксированную строку, а повторный импорт - продолжать с нее.")
+    void importCatalog_shouldReportLastCommittedLineAndResume() throws IOException, SQLException {
+        StringBuilder content = new StringBuilder("name,calories_per_100g\n");
+        for (int i = 1; i <= 5000; i++) {
+            content.append("Продукт ").append(i).append(",100\n");
+        }
+        content.append("Сбой,100\nПродукт 5001,100\n");
+        Path file = writeFile("catalog.csv", content.toString());
+        try (Statement stmt = testConnection.createStatement()) {
+            stmt.execute("CREATE TRIGGER fail_import BEFORE INSERT ON food_items WHEN NEW.name = 'Сбой' "
+                    + "BEGIN SELECT RAISE(ABORT, 'сбой импорта'); END");
+        }
+        FoodCatalogImportService smallTransactionService = new FoodCatalogImportService(DatabaseConnectionManager.getDataSource(), 1);
+
+        ServiceException exception = assertThrows(ServiceException.class, () -> smallTransactionService.importCatalog(file, null));
+        assertTrue(exception.getMessage().contains("Строки файла по 5001 включительно уже зафиксированы (5000 продуктов)"),
+                "Сообщение должно указывать последнюю зафиксированную строку: " + exception.getMessage());
+        assertEquals(5000, foodItemDao.findAll(false).size(), "Незафиксированный хвост файла должен быть откачен.");
+
+        try (Statement stmt = testConnection.createStatement()) {
+            stmt.execute("DROP TRIGGER fail_import");
+        }
+        CatalogImportProgress progress = smallTransactionService.importCatalog(file, null);
+        assertEquals(2, progress.getRowsImported());
+        assertEquals(5000, progress.getDuplicatesSkipped());
+        assertEquals(5002, foodItemDao.findAll(false).size());
+    }
+
+    @Test
+    @DisplayName("Массовая загрузка должна восстанавливать прежний режим журнала базы, а не сбрасывать его в DELETE.")
+    void importCatalog_shouldRestorePreviousJournalMode() throws IOException, SQLException {
+        SQLiteDataSource fileDataSource = new SQLiteDataSource();
+        fileDataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("wal.db"));
+        new FoodItemDao(fileDataSource).createTables();
+        new FoodCategoryDao(fileDataSource).createTables();
+        try (Connection connection = fileDataSource.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL");
+        }
+        Path file = writeFile("catalog.csv", """
+                name,calories_per_100g
+                Говядина,250
+                """);
+
+        new FoodCatalogImportService(fileDataSource).importCatalog(file, null);
+
+        try (Connection connection = fileDataSource.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(SqlQueries.PRAGMA_JOURNAL_MODE)) {
+            assertTrue(rs.next());
+            assertEquals("wal", rs.getString(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Отклоненная строка должна логироваться с физическим номером строки файла.")
+    void importCatalog_shouldLogPhysicalLineNumberOfRejectedRow() throws IOException {
+        Path file = writeFile("catalog.csv", """
+                name,calories_per_100g
+                Говядина,250
+
+                Сломанная строка,не число
+                """);
+        Logger logger = (Logger) LoggerFactory.getLogger(FoodCatalogImportService.class);
+        Level previousLevel = logger.getLevel();
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.setLevel(Level.DEBUG);
+        logger.addAppender(appender);
+
+        try {
+            CatalogImportProgress result = importService.importCatalog(file, null);
+
+            assertEquals(1, result.getRowsRejected());
+            assertTrue(appender.list.stream().anyMatch(event ->
+                            event.getFormattedMessage().startsWith("Строка 4 каталога отклонена")),
+                    "В логе должен быть номер строки файла с учетом заголовка и пустых строк.");
+        } finally {
+            logger.detachAppender(appender);
+            logger.setLevel(previousLevel);
+        }
+    }
+}
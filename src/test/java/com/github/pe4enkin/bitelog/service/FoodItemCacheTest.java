@@ -0,0 +1,112 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.model.FoodComponent;
+import com.github.pe4enkin.bitelog.model.FoodItem;
+import com.github.pe4enkin.bitelog.model.Unit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FoodItemCacheTest {
+
+    private FoodItem item(long id) {
+        return new FoodItem.Builder()
+                .setId(id)
+                .setName("Продукт " + id)
+                .setCaloriesPer100g(100.0)
+                .setServingSizeInGrams(100.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(false)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Кэш должен вытеснять давно не использованный FoodItem при превышении емкости.")
+    void put_shouldEvictLeastRecentlyUsedEntry() {
+        FoodItemCache cache = new FoodItemCache(3);
+        cache.put(1L, item(1L), null);
+        cache.put(2L, item(2L), null);
+        cache.put(3L, item(3L), null);
+        assertNotNull(cache.get(1L));
+
+        cache.put(4L, item(4L), null);
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get(2L), "Вытесняться должен наименее недавно использованный элемент.");
+        assertNotNull(cache.get(1L));
+        assertNotNull(cache.get(3L));
+        assertNotNull(cache.get(4L));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(4, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Метод invalidate должен удалять FoodItem и все составные продукты, зависящие от него.")
+    void invalidate_shouldRemoveItemAndDependents() {
+        FoodItemCache cache = new FoodItemCache(10);
+        cache.put(1L, item(1L), null);
+        cache.put(2L, item(2L), null);
+        cache.put(10L, item(10L), new long[]{1L, 2L});
+        cache.put(11L, item(11L), new long[]{2L});
+        cache.put(12L, item(12L), new long[]{10L, 1L});
+
+        int removed = cache.invalidate(1L);
+
+        assertEquals(3, removed, "Должны быть удалены сам продукт и два зависящих от него составных продукта.");
+        assertNull(cache.get(1L));
+        assertNull(cache.get(10L));
+        assertNull(cache.get(12L));
+        assertNotNull(cache.get(2L));
+        assertNotNull(cache.get(11L));
+        assertEquals(0, cache.invalidate(999L), "Инвалидация отсутствующего ID ничего не должна удалять.");
+    }
+
+    @Test
+    @DisplayName("Кэш должен хранить снимок FoodItem и возвращать его копию, не затрагиваемую изменениями вызывающего кода.")
+    void get_shouldReturnIndependentCopies() {
+        FoodItemCache cache = new FoodItemCache(10);
+        FoodItem original = item(1L).setComposite(true).setComponents(new ArrayList<>(List.of(new FoodComponent(2L, 50.0))));
+        cache.put(1L, original, new long[]{2L});
+        original.setCaloriesPer100g(999.0);
+
+        FoodItem first = cache.get(1L);
+        first.setCaloriesPer100g(0.0);
+        first.getComponents().get(0).setAmountInGrams(10.0);
+        FoodItem second = cache.get(1L);
+
+        assertNotSame(first, second);
+        assertEquals(100.0, second.getCaloriesPer100g(), 0.001, "Изменения переданного и полученного объекта не должны попадать в кэш.");
+        assertEquals(50.0, second.getComponents().get(0).getAmountInGrams(), 0.001);
+        assertEquals(1, cache.invalidate(2L), "Обновление записи не должно терять обратный индекс зависимостей.");
+    }
+
+    @Test
+    @DisplayName("Кэш должен корректно работать при многократном вытеснении и коллизиях ключей.")
+    void put_shouldStayConsistentUnderChurn() {
+        FoodItemCache cache = new FoodItemCache(64);
+        for (long id = 1; id <= 10_000; id++) {
+            cache.put(id * 1024, item(id * 1024), null);
+            if (id % 7 == 0) {
+                cache.invalidate((id - 3) * 1024);
+            }
+        }
+
+        assertTrue(cache.size() <= 64);
+        for (long id = 9_990; id <= 10_000; id++) {
+            boolean invalidated = (id + 3) % 7 == 0 && id + 3 <= 10_000;
+            if (!invalidated) {
+                assertEquals(id * 1024, cache.get(id * 1024).getId(), "Последние добавленные элементы должны находиться в кэше.");
+            } else {
+                assertNull(cache.get(id * 1024), "Инвалидированные элементы не должны находиться в кэше.");
+            }
+        }
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(10_000L * 1024));
+    }
+}
@@ -1,7 +1,10 @@
 package com.github.pe4enkin.bitelog.service;
 
+import com.github.pe4enkin.bitelog.dao.FoodDependencyGraph;
 import com.github.pe4enkin.bitelog.dao.FoodItemDao;
+import com.github.pe4enkin.bitelog.dao.exception.CyclicDependencyException;
 import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
+import com.github.pe4enkin.bitelog.dao.exception.DuplicateKeyException;
 import com.github.pe4enkin.bitelog.model.FoodCategory;
 import com.github.pe4enkin.bitelog.model.FoodComponent;
 import com.github.pe4enkin.bitelog.model.FoodItem;
@@ -11,7 +14,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -26,9 +28,13 @@ public class FoodItemServiceTest {
     @Mock
     private FoodItemDao foodItemDao;
 
-    @InjectMocks
     private FoodItemService foodItemService;
 
+    @BeforeEach
+    void setUp() {
+        foodItemService = new FoodItemService(foodItemDao, new FoodItemCache(100));
+    }
+
     private Optional<FoodItem> mockFindById(long id) {
         if (id == 1L) {
             FoodItem flour = new FoodItem.Builder()
@@ -80,6 +86,25 @@ public class FoodItemServiceTest {
         return Optional.empty();
     }
 
+    private Map<Long, FoodItem> mockFindByIds(Collection<Long> ids, boolean loadComponents) {
+        Map<Long, FoodItem> found = new HashMap<>();
+        for (Long id : ids) {
+            mockFindById(id).ifPresent(foodItem -> found.put(id, loadComponents ? foodItem.setId(id) : foodItem.setId(id).setComponents(null)));
+        }
+        return found;
+    }
+
+    private void mockFindByIds() {
+        when(foodItemDao.findByIds(anyCollection(), anyBoolean())).thenAnswer(invocation ->
+                mockFindByIds(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    private FoodDependencyGraph mockDependencyGraph() {
+        FoodDependencyGraph dependencyGraph = new FoodDependencyGraph();
+        dependencyGraph.load(Map.of(3L, mockFindById(3L).get().getComponents()));
+        return dependencyGraph;
+    }
+
     @Test
     @DisplayName("Метод createFoodItem должен успешно создать простой FoodItem.")
     void createFoodItem_shouldCreateNonCompositeFoodItem() {
@@ -109,7 +134,6 @@ public class FoodItemServiceTest {
                 .setComponents(null)
                 .build();
 
-        when(foodItemDao.findByName("Говядина")).thenReturn(Optional.empty());
         when(foodItemDao.save(item)).thenReturn(savedItem);
 
         FoodItem createdItem = foodItemService.createFoodItem(item);
@@ -121,7 +145,7 @@ public class FoodItemServiceTest {
         assertEquals(19.0, createdItem.getProteinsPer100g(), 0.001, "Значение белков не должно измениться для простого продукта.");
         assertEquals(16.0, createdItem.getFatsPer100g(), 0.001, "Значение жиров не должно измениться для простого продукта.");
         assertEquals(1.0, createdItem.getCarbsPer100g(), 0.001, "Значение углеводов не должно измениться для простого продукта.");
-        verify(foodItemDao).findByName("Говядина");
+        verify(foodItemDao, never()).findByName(anyString());
         verify(foodItemDao).save(item);
         verify(foodItemDao, never()).findById(anyLong());
     }
@@ -129,9 +153,8 @@ public class FoodItemServiceTest {
     @Test
     @DisplayName("Метод createFoodItem должен успешно создать составной FoodItem и рассчитать нутриенты.")
     void createFoodItem_shouldCreateCompositeFoodItemAndCalculateNutrients() {
+        mockFindByIds();
         when(foodItemDao.findById(1L)).thenReturn(mockFindById(1L));
-        when(foodItemDao.findById(2L)).thenReturn(mockFindById(2L));
-        when(foodItemDao.findById(3L)).thenReturn(mockFindById(3L));
 
         List<FoodComponent> components = List.of(
                 new FoodComponent(2L, 100),
@@ -151,22 +174,11 @@ public class FoodItemServiceTest {
                 .setFoodCategory(new FoodCategory(1L, "Еда"))
                 .setComponents(components)
                 .build();
-        FoodItem savedItem = new FoodItem.Builder()
-                .setId(100L)
-                .setName("Пирог")
-                .setCaloriesPer100g(0.0)
-                .setServingSizeInGrams(100.0)
-                .setUnit(Unit.SLICE)
-                .setProteinsPer100g(0.0)
-                .setFatsPer100g(0.0)
-                .setCarbsPer100g(0.0)
-                .setComposite(true)
-                .setFoodCategory(new FoodCategory(1L, "Еда"))
-                .setComponents(components)
-                .build();
-
-        when(foodItemDao.findByName("Пирог")).thenReturn(Optional.empty());
-        when(foodItemDao.save(item)).thenReturn(savedItem);
+        when(foodItemDao.save(item)).thenAnswer(invocation -> {
+            FoodItem toSave = invocation.getArgument(0);
+            assertEquals(331.25, toSave.getCaloriesPer100g(), 0.001, "Нутриенты составного продукта должны быть рассчитаны до сохранения.");
+            return toSave.setId(100L);
+        });
         FoodItem createdItem = foodItemService.createFoodItem(item);
 
         assertNotNull(createdItem);
@@ -176,32 +188,40 @@ public class FoodItemServiceTest {
         assertEquals(6.25, createdItem.getProteinsPer100g(), 0.001, "Значение белков должно корректно рассчитаться для составного продукта.");
         assertEquals(0.625, createdItem.getFatsPer100g(), 0.001, "Значение жиров должно корректно рассчитаться для составного продукта.");
         assertEquals(81.25, createdItem.getCarbsPer100g(), 0.001, "Значение углеводов должно корректно рассчитаться для составного продукта.");
-        verify(foodItemDao).findByName("Пирог");
         verify(foodItemDao).save(item);
-        verify(foodItemDao, times(6)).findById(anyLong());
-        verify(foodItemDao, times(2)).findById(1L);
-        verify(foodItemDao, times(2)).findById(2L);
-        verify(foodItemDao, times(2)).findById(3L);
+        verify(foodItemDao).findByIds(Set.of(2L, 3L), true);
+        verify(foodItemDao, times(1)).findById(anyLong());
+        verify(foodItemDao, times(1)).findById(1L);
+        verify(foodItemDao, never()).getDependencyGraph();
     }
 
     @Test
-    @DisplayName("ServiceException при вызове метода createFoodItem на FoodItem с неуникальным именем.")
-    void createFoodItem_shouldThrowServiceExceptionOnDuplicateName() {
-        FoodItem existingItem = new FoodItem.Builder()
-                .setId(100L)
-                .setName("Говядина")
-                .setCaloriesPer100g(250.0)
-                .setServingSizeInGrams(200.0)
-                .setUnit(Unit.GRAM)
-                .setProteinsPer100g(19.0)
-                .setFatsPer100g(16.0)
-                .setCarbsPer100g(1.0)
-                .setComposite(false)
-                .setFoodCategory(new FoodCategory(1L, "Еда"))
-                .setComponents(null)
+    @DisplayName("Метод createFoodItem должен рассчитать нутриенты из составного ингредиента без сохраненных нутриентов.")
+    void createFoodItem_shouldCalculateNutrientsFromLegacyCompositeIngredient() {
+        mockFindByIds();
+        when(foodItemDao.findById(1L)).thenReturn(mockFindById(1L));
+        when(foodItemDao.findById(2L)).thenReturn(mockFindById(2L));
+        FoodItem item = new FoodItem.Builder()
+                .setName("Пирожок")
+                .setServingSizeInGrams(50.0)
+                .setUnit(Unit.PIECE)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(3L, 200.0)))
                 .build();
-        when(foodItemDao.findByName("Говядина")).thenReturn(Optional.of(existingItem));
+        when(foodItemDao.save(item)).thenAnswer(invocation -> invocation.<FoodItem>getArgument(0).setId(100L));
+
+        FoodItem createdItem = foodItemService.createFoodItem(item);
 
+        assertEquals(337.5, createdItem.getCaloriesPer100g(), 0.001, "Нутриенты должны рассчитываться по компонентам составного ингредиента.");
+        assertEquals(7.5, createdItem.getProteinsPer100g(), 0.001);
+        assertEquals(77.5, createdItem.getCarbsPer100g(), 0.001);
+        verify(foodItemDao).findByIds(Set.of(3L), true);
+        verify(foodItemDao, never()).findById(3L);
+    }
+
+    @Test
+    @DisplayName("ServiceException при вызове метода createFoodItem на FoodItem с неуникальным именем.")
+    void createFoodItem_shouldThrowServiceExceptionOnDuplicateName() {
         FoodItem newItem = new FoodItem.Builder()
                 .setName("Говядина")
                 .setCaloriesPer100g(260.0)
@@ -215,12 +235,14 @@ public class FoodItemServiceTest {
                 .setComponents(null)
                 .build();
 
+        when(foodItemDao.save(newItem)).thenThrow(new DuplicateKeyException("Нарушение уникального ограничения при сохранении FoodItem Говядина"));
+
         ServiceException exception = assertThrows(ServiceException.class, () ->foodItemService.createFoodItem(newItem),
                 "Должно быть ServiceException при вызове метода createFoodItem на FoodItem с неуникальным именем.");
         assertEquals("Продукт с именем Говядина уже существует.", exception.getMessage(),
                 "Сообщение об ошибке должно указывать на проблему с именем.");
-        verify(foodItemDao).findByName("Говядина");
-        verify(foodItemDao, never()).save(any(FoodItem.class));
+        verify(foodItemDao, never()).findByName(anyString());
+        verify(foodItemDao).save(newItem);
     }
 
     @Test
@@ -240,16 +262,11 @@ public class FoodItemServiceTest {
                 .setComponents(List.of(new FoodComponent(100L, 100.0)))
                 .build();
 
-        when(foodItemDao.findByName(anyString())).thenReturn(Optional.empty());
-        when(foodItemDao.findById(100L)).thenReturn(Optional.of(cyclicItem));
-
-
         ServiceException exception = assertThrows(ServiceException.class, () -> foodItemService.createFoodItem(cyclicItem),
                 "Должно быть ServiceException при вызове метода createFoodItem на FoodItem с циклической зависимостью.");
         assertTrue(exception.getMessage().contains("Обнаружена циклическая зависимость: продукт Тесто"),
                 "Сообщение об ошибке должно указывать на проблему с циклической зависимостью.");
-        verify(foodItemDao).findByName("Тесто");
-        verify(foodItemDao, times(1)).findById(100L);
+        verify(foodItemDao, never()).findByIds(anyCollection(), anyBoolean());
         verify(foodItemDao, never()).save(any(FoodItem.class));
     }
 
@@ -269,15 +286,14 @@ public class FoodItemServiceTest {
                 .setComponents(List.of(new FoodComponent(999L, 100.0)))
                 .build();
 
-        when(foodItemDao.findByName(anyString())).thenReturn(Optional.empty());
-        when(foodItemDao.findById(999L)).thenReturn(Optional.empty());
+        when(foodItemDao.findByIds(Set.of(999L), true)).thenReturn(Map.of());
 
         ServiceException exception = assertThrows(ServiceException.class, () -> foodItemService.createFoodItem(itemWithNonExistentIngredient),
                 "Должно быть ServiceException при вызове метода createFoodItem на FoodItem с несуществующим ингредиентом.");
 
         assertEquals("Ингредиент с ID 999 не найден.", exception.getMessage(),
                 "Сообщение об ошибке должно указывать на проблему с ненайденным ингредиентом.");
-        verify(foodItemDao).findById(999L);
+        verify(foodItemDao).findByIds(Set.of(999L), true);
         verify(foodItemDao, never()).save(any(FoodItem.class));
     }
 
@@ -296,7 +312,6 @@ public class FoodItemServiceTest {
                 .setFoodCategory(new FoodCategory(1L, "Еда"))
                 .setComponents(null)
                 .build();
-        when(foodItemDao.findByName(anyString())).thenReturn(Optional.empty());
         when(foodItemDao.save(item)).thenThrow(new DataAccessException("Ошибка БД."));
 
         ServiceException exception = assertThrows(ServiceException.class, () -> foodItemService.createFoodItem(item),
@@ -521,7 +536,6 @@ public class FoodItemServiceTest {
                 .setComponents(null)
                 .build();
 
-        when(foodItemDao.findByName("Говядина")).thenReturn(Optional.empty());
         when(foodItemDao.update(updatedItem)).thenReturn(true);
 
         FoodItem result = foodItemService.updateFoodItem(updatedItem);
@@ -533,7 +547,7 @@ public class FoodItemServiceTest {
         assertEquals(19.0, result.getProteinsPer100g(), 0.001, "После операции обновления мы должны получить обратно продукт с тем же значением белков.");
         assertEquals(16.0, result.getFatsPer100g(), 0.001, "После операции обновления мы должны получить обратно продукт с тем же значением жиров.");
         assertEquals(1.0, result.getCarbsPer100g(), 0.001, "После операции обновления мы должны получить обратно продукт с тем же значением углеводов.");
-        verify(foodItemDao).findByName("Говядина");
+        verify(foodItemDao, never()).findByName(anyString());
         verify(foodItemDao).update(updatedItem);
         verify(foodItemDao, never()).findById(anyLong());
     }
@@ -541,9 +555,9 @@ public class FoodItemServiceTest {
     @Test
     @DisplayName("Метод updateFoodItem должен успешно обновить до составного FoodItem.")
     void updateFoodItem_shouldUpdateToCompositeFoodItem() {
+        mockFindByIds();
         when(foodItemDao.findById(1L)).thenReturn(mockFindById(1L));
-        when(foodItemDao.findById(2L)).thenReturn(mockFindById(2L));
-        when(foodItemDao.findById(3L)).thenReturn(mockFindById(3L));
+        when(foodItemDao.getDependencyGraph()).thenReturn(mockDependencyGraph());
 
         List<FoodComponent> components = List.of(
                 new FoodComponent(2L, 100),
@@ -565,7 +579,6 @@ public class FoodItemServiceTest {
                 .setComponents(components)
                 .build();
 
-        when(foodItemDao.findByName("Пирог")).thenReturn(Optional.empty());
         when(foodItemDao.update(updatedItem)).thenReturn(true);
 
         FoodItem result = foodItemService.updateFoodItem(updatedItem);
@@ -577,12 +590,10 @@ public class FoodItemServiceTest {
         assertEquals(6.25, result.getProteinsPer100g(), 0.001, "Значение белков должно корректно рассчитаться для составного продукта после операции обновления.");
         assertEquals(0.625, result.getFatsPer100g(), 0.001, "Значение жиров должно корректно рассчитаться для составного продукта после операции обновления.");
         assertEquals(81.25, result.getCarbsPer100g(), 0.001, "Значение углеводов должно корректно рассчитаться для составного продукта после операции обновления.");
-        verify(foodItemDao).findByName("Пирог");
         verify(foodItemDao).update(updatedItem);
-        verify(foodItemDao, times(6)).findById(anyLong());
-        verify(foodItemDao, times(2)).findById(1L);
-        verify(foodItemDao, times(2)).findById(2L);
-        verify(foodItemDao, times(2)).findById(3L);
+        verify(foodItemDao).findByIds(Set.of(2L, 3L), true);
+        verify(foodItemDao, times(1)).findById(anyLong());
+        verify(foodItemDao, times(1)).findById(1L);
     }
 
     @Test
@@ -612,21 +623,6 @@ public class FoodItemServiceTest {
     @Test
     @DisplayName("ServiceException при вызове метода updateFoodItem на FoodItem с неуникальным именем.")
     void updateFoodItem_shouldThrowServiceExceptionOnDuplicateName() {
-        FoodItem existingItem = new FoodItem.Builder()
-                .setId(100L)
-                .setName("Говядина")
-                .setCaloriesPer100g(250.0)
-                .setServingSizeInGrams(200.0)
-                .setUnit(Unit.GRAM)
-                .setProteinsPer100g(19.0)
-                .setFatsPer100g(16.0)
-                .setCarbsPer100g(1.0)
-                .setComposite(false)
-                .setFoodCategory(new FoodCategory(1L, "Еда"))
-                .setComponents(null)
-                .build();
-        when(foodItemDao.findByName("Говядина")).thenReturn(Optional.of(existingItem));
-
         FoodItem updatedItem = new FoodItem.Builder()
                 .setId(101L)
                 .setName("Говядина")
@@ -641,12 +637,14 @@ public class FoodItemServiceTest {
                 .setComponents(null)
                 .build();
 
+        when(foodItemDao.update(updatedItem)).thenThrow(new DuplicateKeyException("Нарушение уникального ограничения при обновлении FoodItem Говядина"));
+
         ServiceException exception = assertThrows(ServiceException.class, () ->foodItemService.updateFoodItem(updatedItem),
                 "Должно быть ServiceException при вызове метода updateFoodItem на FoodItem с неуникальным именем.");
         assertEquals("Продукт с именем Говядина уже существует.", exception.getMessage(),
                 "Сообщение об ошибке должно указывать на проблему с именем.");
-        verify(foodItemDao).findByName("Говядина");
-        verify(foodItemDao, never()).update(any(FoodItem.class));
+        verify(foodItemDao, never()).findByName(anyString());
+        verify(foodItemDao).update(updatedItem);
     }
 
     @Test
@@ -666,13 +664,11 @@ public class FoodItemServiceTest {
                 .setComponents(List.of(new FoodComponent(100L, 100.0)))
                 .build();
 
-        when(foodItemDao.findByName("Тесто")).thenReturn(Optional.of(cyclicItem));
 
         ServiceException exception = assertThrows(ServiceException.class, () -> foodItemService.updateFoodItem(cyclicItem),
                 "Должно быть ServiceException при вызове метода updateFoodItem на FoodItem с циклической зависимостью.");
         assertTrue(exception.getMessage().contains("Обнаружена циклическая зависимость: продукт Тесто"),
                 "Сообщение об ошибке должно указывать на проблему с циклической зависимостью.");
-        verify(foodItemDao).findByName("Тесто");
         verify(foodItemDao, never()).findById(100L);
         verify(foodItemDao, never()).update(any(FoodItem.class));
     }
@@ -694,15 +690,14 @@ public class FoodItemServiceTest {
                 .setComponents(List.of(new FoodComponent(999L, 100.0)))
                 .build();
 
-        when(foodItemDao.findByName("Тесто")).thenReturn(Optional.of(itemWithNonExistentIngredient));
-        when(foodItemDao.findById(999L)).thenReturn(Optional.empty());
+        when(foodItemDao.findByIds(Set.of(999L), true)).thenReturn(Map.of());
 
         ServiceException exception = assertThrows(ServiceException.class, () -> foodItemService.updateFoodItem(itemWithNonExistentIngredient),
                 "Должно быть ServiceException при вызове метода updateFoodItem на FoodItem с несуществующим ингредиентом.");
 
         assertEquals("Ингредиент с ID 999 не найден.", exception.getMessage(),
                 "Сообщение об ошибке должно указывать на проблему с ненайденным ингредиентом.");
-        verify(foodItemDao).findById(999L);
+        verify(foodItemDao).findByIds(Set.of(999L), true);
         verify(foodItemDao, never()).update(any(FoodItem.class));
     }
 
@@ -722,7 +717,6 @@ public class FoodItemServiceTest {
                 .setFoodCategory(new FoodCategory(1L, "Еда"))
                 .setComponents(null)
                 .build();
-        when(foodItemDao.findByName("Говядина")).thenReturn(Optional.of(updatedItem));
         when(foodItemDao.update(updatedItem)).thenThrow(new DataAccessException("Ошибка БД."));
 
         ServiceException exception = assertThrows(ServiceException.class, () -> foodItemService.updateFoodItem(updatedItem),
@@ -909,4 +903,138 @@ public class FoodItemServiceTest {
                 "Сообщение об ошибке должно указывать на проблему с получением продуктов.");
         verify(foodItemDao).findAll(false);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Метод upsertFoodItem должен сохранить FoodItem одним вызовом DAO без предварительной проверки имени.")
+    void upsertFoodItem_shouldUpsertWithoutNameLookup() {
+        FoodItem item = new FoodItem.Builder()
+                .setName("Говядина")
+                .setCaloriesPer100g(250.0)
+                .setServingSizeInGrams(200.0)
+                .setUnit(Unit.GRAM)
+                .setProteinsPer100g(19.0)
+                .setFatsPer100g(16.0)
+                .setCarbsPer100g(1.0)
+                .setComposite(false)
+                .setFoodCategory(new FoodCategory(1L, "Еда"))
+                .setComponents(null)
+                .build();
+        when(foodItemDao.upsert(item)).thenAnswer(invocation -> item.setId(100L));
+
+        FoodItem result = foodItemService.upsertFoodItem(item);
+
+        assertEquals(100L, result.getId(), "ID должен быть получен из upsert.");
+        verify(foodItemDao).upsert(item);
+        verify(foodItemDao, never()).findByName(anyString());
+        verify(foodItemDao, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("ServiceException при вызове метода upsertFoodItem на составной FoodItem, который косвенно содержит продукт с тем же именем.")
+    void upsertFoodItem_shouldThrowServiceExceptionOnCyclicDependencyByName() {
+        FoodItem existingDough = new FoodItem.Builder()
+                .setId(100L)
+                .setName("Тесто")
+                .setCaloriesPer100g(350.0)
+                .setServingSizeInGrams(200.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(1L, 100.0)))
+                .build();
+        FoodItem dough = new FoodItem.Builder()
+                .setName("Тесто")
+                .setServingSizeInGrams(200.0)
+                .setUnit(Unit.GRAM)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(100L, 100.0)))
+                .build();
+        when(foodItemDao.findByIds(Set.of(100L), true)).thenReturn(new HashMap<>(Map.of(100L, existingDough)));
+        when(foodItemDao.upsert(dough)).thenThrow(new CyclicDependencyException("Продукт Тесто косвенно содержит сам себя."));
+
+        ServiceException exception = assertThrows(ServiceException.class, () -> foodItemService.upsertFoodItem(dough),
+                "Должно быть ServiceException при upsert составного продукта, содержащего самого себя.");
+        assertTrue(exception.getMessage().contains("Обнаружена циклическая зависимость: продукт Тесто"),
+                "Сообщение об ошибке должно указывать на проблему с циклической зависимостью.");
+        verify(foodItemDao, never()).findByName(anyString());
+        verify(foodItemDao, never()).updateNutrients(anyList());
+    }
+
+    @Test
+    @DisplayName("Метод getFoodItemById должен брать составной FoodItem из кэша при повторном обращении.")
+    void getFoodItemById_shouldServeRepeatedCallsFromCache() {
+        when(foodItemDao.findById(1L)).thenReturn(mockFindById(1L));
+        when(foodItemDao.findById(2L)).thenReturn(mockFindById(2L));
+        when(foodItemDao.findById(3L)).thenReturn(mockFindById(3L));
+
+        Optional<FoodItem> first = foodItemService.getFoodItemById(3L);
+        Optional<FoodItem> second = foodItemService.getFoodItemById(3L);
+
+        assertTrue(first.isPresent());
+        assertNotSame(first.get(), second.get(), "Кэш должен возвращать копию, а не общий изменяемый экземпляр.");
+        assertEquals(337.5, second.get().getCaloriesPer100g(), 0.001, "Повторный вызов должен вернуть FoodItem из кэша.");
+        verify(foodItemDao, times(1)).findById(3L);
+        assertEquals(1, foodItemService.getFoodItemCache().getHitCount());
+        assertEquals(1, foodItemService.getFoodItemCache().getMissCount());
+    }
+
+    @Test
+    @DisplayName("Обновление ингредиента должно инвалидировать закэшированные составные продукты, которые от него зависят.")
+    void updateFoodItem_shouldInvalidateDependentCachedItems() {
+        when(foodItemDao.findById(1L)).thenReturn(mockFindById(1L));
+        when(foodItemDao.findById(2L)).thenReturn(mockFindById(2L));
+        when(foodItemDao.findById(3L)).thenReturn(mockFindById(3L));
+        foodItemService.getFoodItemById(2L);
+        foodItemService.getFoodItemById(3L);
+
+        FoodItem flour = mockFindById(1L).get().setId(1L);
+        when(foodItemDao.update(flour)).thenReturn(true);
+        foodItemService.updateFoodItem(flour);
+
+        foodItemService.getFoodItemById(2L);
+        foodItemService.getFoodItemById(3L);
+        verify(foodItemDao, times(2)).findById(3L);
+        assertEquals(1, foodItemService.getFoodItemCache().getHitCount(), "Простой ингредиент 2 не зависит от 1 и должен остаться в кэше.");
+    }
+
+    @Test
+    @DisplayName("ServiceException при вызове метода updateFoodItem, если ингредиент косвенно содержит обновляемый продукт.")
+    void updateFoodItem_shouldThrowServiceExceptionOnIndirectCyclicDependency() {
+        mockFindByIds();
+        when(foodItemDao.getDependencyGraph()).thenReturn(mockDependencyGraph());
+        FoodItem flour = mockFindById(1L).get()
+                .setId(1L)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(2L, 50.0), new FoodComponent(3L, 100.0)));
+
+        ServiceException exception = assertThrows(ServiceException.class, () -> foodItemService.updateFoodItem(flour),
+                "Должно быть ServiceException, если продукт косвенно содержит самого себя через другой составной продукт.");
+        assertEquals("Обнаружена циклическая зависимость: продукт Мука не может содержать компонент c ID 3 который косвенно содержит его самого.",
+                exception.getMessage());
+        verify(foodItemDao, never()).findById(anyLong());
+        verify(foodItemDao, never()).update(any(FoodItem.class));
+    }
+
+    @Test
+    @DisplayName("Метод getFoodItemsByIds должен загружать отсутствующие в кэше FoodItem одним запросом.")
+    void getFoodItemsByIds_shouldLoadMissingItemsInOneQuery() {
+        mockFindByIds();
+        when(foodItemDao.findById(1L)).thenReturn(mockFindById(1L));
+        when(foodItemDao.getDependencyGraph()).thenReturn(mockDependencyGraph());
+        foodItemService.getFoodItemById(1L);
+
+        Map<Long, FoodItem> foodItems = foodItemService.getFoodItemsByIds(List.of(1L, 2L, 3L, 999L));
+
+        assertEquals(Set.of(1L, 2L, 3L), foodItems.keySet(), "Несуществующие продукты не должны попадать в результат.");
+        assertEquals(350.0, foodItems.get(1L).getCaloriesPer100g(), 0.001);
+        assertEquals(337.5, foodItems.get(3L).getCaloriesPer100g(), 0.001, "Нутриенты составного продукта без сохраненных значений должны быть рассчитаны.");
+        verify(foodItemDao, times(1)).findByIds(Set.of(2L, 3L, 999L), true);
+        verify(foodItemDao, never()).findById(3L);
+
+        foodItemService.getFoodItemsByIds(List.of(2L, 3L));
+        verify(foodItemDao, times(1)).findByIds(anyCollection(), anyBoolean());
+
+        foodItemService.getFoodItemCache().invalidate(1L);
+        assertNull(foodItemService.getFoodItemCache().get(3L), "Составной продукт должен вытесняться из кэша при изменении своего ингредиента.");
+        assertNotNull(foodItemService.getFoodItemCache().get(2L));
+    }
+}
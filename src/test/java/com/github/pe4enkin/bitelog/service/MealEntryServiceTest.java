@@ -1,5 +1,9 @@
 package com.github.pe4enkin.bitelog.service;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import com.github.pe4enkin.bitelog.dao.MealEntryDao;
 import com.github.pe4enkin.bitelog.dao.exception.DataAccessException;
 import com.github.pe4enkin.bitelog.model.*;
@@ -11,12 +15,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -101,8 +110,7 @@ public class MealEntryServiceTest {
     @DisplayName("Метод createMealEntry должен успешно создать MealEntry.")
     void createMealEntry_shouldCreateMealEntry() {
         when(mealEntryDao.save(mealEntry)).thenReturn(savedMealEntry);
-        when(foodItemService.getFoodItemById(100L)).thenReturn(Optional.of(foodItem1));
-        when(foodItemService.getFoodItemById(101L)).thenReturn(Optional.of(foodItem2));
+        when(foodItemService.getFoodItemsByIds(Set.of(100L, 101L))).thenReturn(Map.of(100L, foodItem1, 101L, foodItem2));
 
         MealEntry createdMealEntry = mealEntryService.createMealEntry(mealEntry);
 
@@ -114,8 +122,7 @@ public class MealEntryServiceTest {
         assertEquals(50.0, createdMealEntry.getTotalFats(), 0.001, "Значение жиров должно корректно рассчитаться после операции создания.");
         assertEquals(2.0, createdMealEntry.getTotalCarbs(), 0.001, "Значение углеводов должно корректно рассчитаться после операции создания.");
         verify(mealEntryDao, times(1)).save(mealEntry);
-        verify(foodItemService, times(1)).getFoodItemById(100L);
-        verify(foodItemService, times(1)).getFoodItemById(101L);
+        verify(foodItemService, times(1)).getFoodItemsByIds(Set.of(100L, 101L));
     }
 
     @Test
@@ -135,21 +142,21 @@ public class MealEntryServiceTest {
         assertEquals(0.0, createdMealEntry.getTotalFats(), 0.001, "Значение жиров должно быть 0 при пустом списке.");
         assertEquals(0.0, createdMealEntry.getTotalCarbs(), 0.001, "Значение углеводов должно быть 0 при пустом списке.");
         verify(mealEntryDao, times(1)).save(mealEntry);
-        verify(foodItemService, never()).getFoodItemById(anyLong());
+        verify(foodItemService, never()).getFoodItemsByIds(anyCollection());
     }
 
     @Test
     @DisplayName("ServiceException при вызове метода createMealEntry на MealEntry с несуществующим продуктом")
     void createMealEntry_shouldThrowServiceExceptionOnNonExistentFoodItem() {
         when(mealEntryDao.save(mealEntry)).thenReturn(savedMealEntry);
-        when(foodItemService.getFoodItemById(anyLong())).thenReturn(Optional.empty());
+        when(foodItemService.getFoodItemsByIds(anyCollection())).thenReturn(Map.of());
 
         ServiceException exception = assertThrows(ServiceException.class, () -> mealEntryService.createMealEntry(mealEntry),
                 "Должно быть ServiceException при вызове метода createMealEntry на MealEntry с несуществующим продуктом.");
 
         assertEquals("Не удалось рассчитать нутриенты: продукт с ID 100 не найден.", exception.getMessage(),
                 "Сообщение об ошибке должно указывать на проблему с ненайденным продуктом.");
-        verify(foodItemService, times(1)).getFoodItemById(anyLong());
+        verify(foodItemService, times(1)).getFoodItemsByIds(anyCollection());
     }
 
     @Test
@@ -167,8 +174,7 @@ public class MealEntryServiceTest {
     @Test
     @DisplayName("Метод getMealEntryById должен вернуть существующий MealEntry и расчитать нутриенты.")
     void getMealEntryById_shouldReturnExistingMealEntryAndCalculateNutrients() {
-        when(foodItemService.getFoodItemById(100L)).thenReturn(Optional.of(foodItem1));
-        when(foodItemService.getFoodItemById(101L)).thenReturn(Optional.of(foodItem2));
+        when(foodItemService.getFoodItemsByIds(Set.of(100L, 101L))).thenReturn(Map.of(100L, foodItem1, 101L, foodItem2));
 
         when(mealEntryDao.findById(100L)).thenReturn(Optional.of(savedMealEntry));
 
@@ -183,8 +189,7 @@ public class MealEntryServiceTest {
         assertEquals(2.0, foundMealEntry.get().getTotalCarbs(), 0.001, "Значение углеводов должно корректно рассчитаться после операции поиска.");
 
         verify(mealEntryDao, times(1)).findById(100L);
-        verify(foodItemService, times(1)).getFoodItemById(100L);
-        verify(foodItemService, times(1)).getFoodItemById(101L);
+        verify(foodItemService, times(1)).getFoodItemsByIds(Set.of(100L, 101L));
     }
 
     @Test
@@ -197,7 +202,7 @@ public class MealEntryServiceTest {
         assertFalse(foundMealEntry.isPresent(), "MealEntry не должен быть найден.");
 
         verify(mealEntryDao, times(1)).findById(999L);
-        verify(foodItemService, never()).getFoodItemById(anyLong());
+        verify(foodItemService, never()).getFoodItemsByIds(anyCollection());
     }
 
     @Test
@@ -216,8 +221,7 @@ public class MealEntryServiceTest {
     @DisplayName("Метод updateMealEntry должен успешно обновить MealEntry.")
     void updateMealEntry_shouldUpdateMealEntry() {
         when(mealEntryDao.update(savedMealEntry)).thenReturn(true);
-        when(foodItemService.getFoodItemById(100L)).thenReturn(Optional.of(foodItem1));
-        when(foodItemService.getFoodItemById(101L)).thenReturn(Optional.of(foodItem2));
+        when(foodItemService.getFoodItemsByIds(Set.of(100L, 101L))).thenReturn(Map.of(100L, foodItem1, 101L, foodItem2));
 
         MealEntry updatedMealEntry = mealEntryService.updateMealEntry(savedMealEntry);
 
@@ -229,8 +233,21 @@ public class MealEntryServiceTest {
         assertEquals(50.0, updatedMealEntry.getTotalFats(), 0.001, "Значение жиров должно корректно рассчитаться после операции обновления.");
         assertEquals(2.0, updatedMealEntry.getTotalCarbs(), 0.001, "Значение углеводов должно корректно рассчитаться после операции обновления.");
         verify(mealEntryDao, times(1)).update(savedMealEntry);
-        verify(foodItemService, times(1)).getFoodItemById(100L);
-        verify(foodItemService, times(1)).getFoodItemById(101L);
+        verify(foodItemService, times(1)).getFoodItemsByIds(Set.of(100L, 101L));
+    }
+
+    @Test
+    @DisplayName("Метод updateMealEntry должен уведомлять слушателей о старой и новой дате meal entry.")
+    void updateMealEntry_shouldNotifyDiaryChangeListenersAboutBothDates() {
+        List<Set<LocalDate>> notifications = new ArrayList<>();
+        mealEntryService.addDiaryChangeListener(notifications::add);
+        when(mealEntryDao.findDateById(100L)).thenReturn(Optional.of(LocalDate.of(2025, 7, 28)));
+        when(mealEntryDao.update(savedMealEntry)).thenReturn(true);
+        when(foodItemService.getFoodItemsByIds(Set.of(100L, 101L))).thenReturn(Map.of(100L, foodItem1, 101L, foodItem2));
+
+        mealEntryService.updateMealEntry(savedMealEntry);
+
+        assertEquals(List.of(Set.of(LocalDate.of(2025, 7, 28), LocalDate.of(2025, 7, 29))), notifications);
     }
 
     @Test
@@ -247,14 +264,14 @@ public class MealEntryServiceTest {
     @DisplayName("ServiceException при вызове метода updateMealEntry на MealEntry с несуществующим продуктом")
     void updateMealEntry_shouldThrowServiceExceptionOnNonExistentFoodItem() {
         when(mealEntryDao.update(savedMealEntry)).thenReturn(true);
-        when(foodItemService.getFoodItemById(anyLong())).thenReturn(Optional.empty());
+        when(foodItemService.getFoodItemsByIds(anyCollection())).thenReturn(Map.of());
 
         ServiceException exception = assertThrows(ServiceException.class, () -> mealEntryService.updateMealEntry(savedMealEntry),
                 "Должно быть ServiceException при вызове метода updateMealEntry на MealEntry с несуществующим продуктом.");
 
         assertEquals("Не удалось рассчитать нутриенты: продукт с ID 100 не найден.", exception.getMessage(),
                 "Сообщение об ошибке должно указывать на проблему с ненайденным продуктом.");
-        verify(foodItemService, times(1)).getFoodItemById(anyLong());
+        verify(foodItemService, times(1)).getFoodItemsByIds(anyCollection());
     }
 
     @Test
@@ -306,8 +323,7 @@ public class MealEntryServiceTest {
     @Test
     @DisplayName("Метод getAllByDate должен возвращать список MealEntry на нужную дату с загрузкой компонентов и расчетом нутриентов.")
     void getAllByDate_shouldReturnAllMealEntriesByDateAndCalculateNutrients() {
-        when(foodItemService.getFoodItemById(100L)).thenReturn(Optional.of(foodItem1));
-        when(foodItemService.getFoodItemById(101L)).thenReturn(Optional.of(foodItem2));
+        when(foodItemService.getFoodItemsByIds(Set.of(100L, 101L))).thenReturn(Map.of(100L, foodItem1, 101L, foodItem2));
 
         MealEntry anotherSavedMealEntry = new MealEntry.Builder()
                 .setId(101L)
@@ -341,8 +357,22 @@ public class MealEntryServiceTest {
         assertEquals(2.0, mealEntries.get(1).getTotalCarbs(), 0.001, "Значение углеводов должно корректно рассчитаться после операции поиска.");
 
         verify(mealEntryDao).findAllByDate(LocalDate.of(2025, 7, 29));
-        verify(foodItemService, times(2)).getFoodItemById(100L);
-        verify(foodItemService, times(1)).getFoodItemById(101L);
+        verify(foodItemService, times(1)).getFoodItemsByIds(Set.of(100L, 101L));
+        verify(foodItemService, never()).getFoodItemById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Метод getAllByDate должен отдавать продукты, разрешенные при расчете нутриентов, без повторного запроса.")
+    void getAllByDate_shouldExposeResolvedFoodItems() {
+        when(foodItemService.getFoodItemsByIds(Set.of(100L, 101L))).thenReturn(Map.of(100L, foodItem1, 101L, foodItem2));
+        when(mealEntryDao.findAllByDate(LocalDate.of(2025, 7, 29))).thenReturn(List.of(savedMealEntry));
+        Map<Long, FoodItem> resolvedFoodItems = new HashMap<>();
+
+        List<MealEntry> mealEntries = mealEntryService.getAllByDate(LocalDate.of(2025, 7, 29), resolvedFoodItems);
+
+        assertEquals(1, mealEntries.size());
+        assertEquals(Map.of(100L, foodItem1, 101L, foodItem2), resolvedFoodItems, "Должны быть отданы продукты всех компонентов дня.");
+        verify(foodItemService, times(1)).getFoodItemsByIds(anyCollection());
     }
 
     @Test
@@ -355,7 +385,7 @@ public class MealEntryServiceTest {
         assertTrue(mealEntries.isEmpty(), "Метод getAllByDate должен вернуть пустой список если meal entry нет.");
 
         verify(mealEntryDao).findAllByDate(LocalDate.of(2025, 7, 29));
-        verify(foodItemService, never()).getFoodItemById(anyLong());
+        verify(foodItemService, never()).getFoodItemsByIds(anyCollection());
     }
 
     @Test
@@ -369,4 +399,38 @@ public class MealEntryServiceTest {
                 "Сообщение об ошибке должно указывать на проблему с поиском MealEntry.");
         verify(mealEntryDao).findAllByDate(LocalDate.of(2025, 7, 29));
     }
+
+    @Test
+    @DisplayName("Отмененная загрузка getAllByDate должна пробрасывать CancellationException без логирования ошибки.")
+    void getAllByDate_shouldRethrowCancellationWithoutErrorLog() {
+        Logger logger = (Logger) LoggerFactory.getLogger(MealEntryService.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        when(mealEntryDao.findAllByDate(LocalDate.of(2025, 7, 29)))
+                .thenThrow(new CancellationException("Получение MealEntries на дату 29.07.2025 прервано."));
+
+        try {
+            assertThrows(CancellationException.class, () -> mealEntryService.getAllByDate(LocalDate.of(2025, 7, 29)),
+                    "Отмена загрузки не должна превращаться в ServiceException.");
+            assertTrue(appender.list.stream().noneMatch(event -> event.getLevel() == Level.ERROR),
+                    "Отмена загрузки не должна логироваться как ошибка.");
+            verify(foodItemService, never()).getFoodItemsByIds(anyCollection());
+        } finally {
+            logger.detachAppender(appender);
+        }
+    }
+
+    @Test
+    @DisplayName("Метод getConsumedGrams должен учитывать продукт, съеденный напрямую и в составе рецептов.")
+    void getConsumedGrams_shouldSumDirectAndNestedConsumption() {
+        LocalDate from = LocalDate.of(2025, 7, 1);
+        LocalDate to = LocalDate.of(2025, 7, 31);
+        when(mealEntryDao.sumGramsByFoodItemBetween(from, to)).thenReturn(Map.of(100L, 150.0, 200L, 400.0, 101L, 50.0));
+        when(foodItemService.getIngredientVector(200L)).thenReturn(IngredientVector.of(Map.of(100L, 25.0, 101L, 75.0)));
+        when(foodItemService.getIngredientVector(101L)).thenReturn(IngredientVector.empty());
+
+        assertEquals(150.0 + 100.0, mealEntryService.getConsumedGrams(100L, from, to), 1e-9);
+        verify(mealEntryDao, times(1)).sumGramsByFoodItemBetween(from, to);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.model.ChartSeries;
+import com.github.pe4enkin.bitelog.model.DailyTotals;
+import com.github.pe4enkin.bitelog.model.DownsamplingMethod;
+import com.github.pe4enkin.bitelog.model.Nutrient;
+import com.github.pe4enkin.bitelog.model.NutrientVector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NutrientChartServiceTest {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2016, 1, 1);
+    private static final int HISTORY_DAYS = 3650;
+
+    @Mock
+    private DailyTotalsService dailyTotalsService;
+
+    private List<DailyTotals> createHistory() {
+        List<DailyTotals> history = new ArrayList<>();
+        for (int day = 0; day < HISTORY_DAYS; day++) {
+            double calories = day == 1234 ? 9000.0 : 2000.0 + 300.0 * Math.sin(day / 7.0);
+            history.add(new DailyTotals(FIRST_DAY.plusDays(day), new NutrientVector(calories, 100.0, 70.0, 250.0), 3));
+        }
+        return history;
+    }
+
+    @Test
+    @DisplayName("Ряд должен прореживаться до ширины графика с сохранением краев и выбросов.")
+    void getSeries_shouldDownsampleToPixelWidth() {
+        when(dailyTotalsService.getAllTotals()).thenReturn(createHistory());
+        NutrientChartService nutrientChartService = new NutrientChartService(dailyTotalsService);
+        LocalDate lastDay = FIRST_DAY.plusDays(HISTORY_DAYS - 1);
+
+        ChartSeries lttb = nutrientChartService.getSeries(Nutrient.CALORIES, DownsamplingMethod.LTTB, FIRST_DAY, lastDay, 500);
+        ChartSeries minMax = nutrientChartService.getSeries(Nutrient.CALORIES, DownsamplingMethod.MIN_MAX, FIRST_DAY, lastDay, 500);
+
+        assertEquals(8, lttb.getBucketDays());
+        assertTrue(lttb.size() <= 500);
+        assertEquals(FIRST_DAY, lttb.getDate(0));
+        assertEquals(lastDay, lttb.getDate(lttb.size() - 1));
+        assertTrue(minMax.size() <= 2 * 500);
+        assertEquals(9000.0, maxValue(lttb), 1e-9);
+        assertEquals(9000.0, maxValue(minMax), 1e-9);
+        for (int i = 1; i < minMax.size(); i++) {
+            assertTrue(minMax.getEpochDay(i) > minMax.getEpochDay(i - 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Панорамирование на том же масштабе должно использовать закэшированный ряд.")
+    void getSeries_shouldReuseSeriesForSameZoomLevel() {
+        when(dailyTotalsService.getAllTotals()).thenReturn(createHistory());
+        NutrientChartService nutrientChartService = new NutrientChartService(dailyTotalsService);
+        LocalDate from = FIRST_DAY.plusDays(1000);
+
+        ChartSeries first = nutrientChartService.getSeries(Nutrient.PROTEINS, DownsamplingMethod.LTTB, from, from.plusDays(729), 365);
+        long downsampleCount = nutrientChartService.getDownsampleCount();
+        ChartSeries panned = nutrientChartService.getSeries(Nutrient.PROTEINS, DownsamplingMethod.LTTB,
+                from.plusDays(30), from.plusDays(759), 365);
+        List<ChartSeries> chunks = new ArrayList<>();
+        nutrientChartService.streamSeries(Nutrient.PROTEINS, DownsamplingMethod.LTTB, from, from.plusDays(729), 365, 100, chunks::add);
+
+        assertEquals(downsampleCount, nutrientChartService.getDownsampleCount(), "Панорамирование не должно заново прореживать ряд.");
+        assertEquals(1, nutrientChartService.getHistoryLoadCount());
+        assertFalse(first.getDate(0).isAfter(from));
+        assertFalse(panned.getDate(panned.size() - 1).isBefore(from.plusDays(759)));
+        assertEquals(first.size(), chunks.stream().mapToInt(ChartSeries::size).sum());
+        assertEquals(first.getEpochDay(100), chunks.get(1).getEpochDay(0));
+
+        nutrientChartService.invalidateAll();
+        nutrientChartService.getSeries(Nutrient.PROTEINS, DownsamplingMethod.LTTB, from, from.plusDays(729), 365);
+
+        assertEquals(2, nutrientChartService.getHistoryLoadCount());
+        verify(dailyTotalsService, times(2)).getAllTotals();
+    }
+
+    @Test
+    @DisplayName("Изменение одного дня должно обновлять историю на месте и перестраивать только фрагменты ряда с этим днем.")
+    void invalidate_shouldPatchHistoryAndRebuildOnlyAffectedTiles() {
+        when(dailyTotalsService.getAllTotals()).thenReturn(createHistory());
+        NutrientChartService nutrientChartService = new NutrientChartService(dailyTotalsService);
+        LocalDate lastDay = FIRST_DAY.plusDays(HISTORY_DAYS - 1);
+        LocalDate changedDay = FIRST_DAY.plusDays(2000);
+        LocalDate removedDay = FIRST_DAY.plusDays(2001);
+        LocalDate addedDay = lastDay.plusDays(1);
+        nutrientChartService.getSeries(Nutrient.CALORIES, DownsamplingMethod.MIN_MAX, FIRST_DAY, lastDay, HISTORY_DAYS);
+        nutrientChartService.getSeries(Nutrient.CALORIES, DownsamplingMethod.LTTB, FIRST_DAY, lastDay, 500);
+        long downsampleCount = nutrientChartService.getDownsampleCount();
+        int cacheSize = nutrientChartService.getCacheSize();
+
+        when(dailyTotalsService.getTotalsBetween(changedDay, addedDay)).thenReturn(List.of(
+                new DailyTotals(changedDay, new NutrientVector(7777.0, 100.0, 70.0, 250.0), 4),
+                new DailyTotals(removedDay, new NutrientVector(), 0),
+                new DailyTotals(addedDay, new NutrientVector(1500.0, 100.0, 70.0, 250.0), 1)));
+        nutrientChartService.invalidate(Set.of(changedDay, removedDay, addedDay));
+
+        ChartSeries daily = nutrientChartService.getSeries(Nutrient.CALORIES, DownsamplingMethod.MIN_MAX, FIRST_DAY, addedDay, HISTORY_DAYS + 1);
+        assertEquals(HISTORY_DAYS, daily.size(), "Удаленный день должен исчезнуть, а новый день - добавиться.");
+        assertEquals(7777.0, daily.getValue(2000), 1e-9);
+        assertEquals(removedDay.plusDays(1), daily.getDate(2001));
+        assertEquals(addedDay, daily.getDate(daily.size() - 1));
+        assertEquals(1, nutrientChartService.getHistoryLoadCount(), "История не должна перечитываться целиком.");
+        verify(dailyTotalsService, times(1)).getAllTotals();
+        assertEquals(2, nutrientChartService.getDownsampleCount() - downsampleCount,
+                "Должны перестраиваться только фрагменты, содержащие измененные дни.");
+        assertEquals(cacheSize - 1, nutrientChartService.getCacheSize(),
+                "Из кэша должны удаляться только фрагменты с измененными днями на всех масштабах.");
+    }
+
+    private double maxValue(ChartSeries series) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < series.size(); i++) {
+            max = Math.max(max, series.getValue(i));
+        }
+        return max;
+    }
+}
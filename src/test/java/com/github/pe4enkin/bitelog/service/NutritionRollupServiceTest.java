@@ -0,0 +1,193 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.dao.DailyTotalsDao;
+import com.github.pe4enkin.bitelog.dao.FoodCategoryDao;
+import com.github.pe4enkin.bitelog.dao.FoodItemDao;
+import com.github.pe4enkin.bitelog.dao.MealEntryDao;
+import com.github.pe4enkin.bitelog.db.DatabaseConnectionManager;
+import com.github.pe4enkin.bitelog.model.*;
+import com.github.pe4enkin.bitelog.service.exception.ServiceException;
+import com.github.pe4enkin.bitelog.sql.SqlQueries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NutritionRollupServiceTest {
+    private MealEntryDao mealEntryDao;
+    private FoodItemDao foodItemDao;
+    private NutritionRollupService nutritionRollupService;
+    private ForkJoinPool forkJoinPool;
+    private Connection testConnection;
+    private FoodItem beef;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DatabaseConnectionManager.configureForTesting("file:memdb1?mode=memory&cache=shared");
+        DataSource testDataSource = DatabaseConnectionManager.getDataSource();
+        testConnection = testDataSource.getConnection();
+        foodItemDao = new FoodItemDao(testDataSource);
+        FoodCategoryDao foodCategoryDao = new FoodCategoryDao(testDataSource);
+        mealEntryDao = new MealEntryDao(testDataSource);
+        try (Statement stmt = testConnection.createStatement()) {
+            stmt.execute(SqlQueries.DROP_TABLE_MEAL_COMPONENTS);
+            stmt.execute(SqlQueries.DROP_TABLE_FOOD_COMPONENTS);
+            stmt.execute(SqlQueries.DROP_TABLE_DAILY_TOTALS);
+            stmt.execute(SqlQueries.DROP_TABLE_DAILY_TOTALS_STATE);
+            stmt.execute(SqlQueries.DROP_TABLE_MEAL_ENTRIES);
+            stmt.execute(SqlQueries.DROP_TABLE_FOOD_ITEMS);
+            stmt.execute(SqlQueries.DROP_TABLE_FOOD_CATEGORIES);
+        }
+        foodItemDao.createTables();
+        foodCategoryDao.createTables();
+        mealEntryDao.createTables();
+        new DailyTotalsDao(testDataSource).createTables();
+        forkJoinPool = new ForkJoinPool(4);
+        nutritionRollupService = new NutritionRollupService(new DailyTotalsDao(testDataSource), forkJoinPool, 3);
+
+        beef = foodItemDao.save(new FoodItem.Builder()
+                .setName("Говядина")
+                .setCaloriesPer100g(250.0)
+                .setServingSizeInGrams(200.0)
+                .setUnit(Unit.GRAM)
+                .setProteinsPer100g(20.0)
+                .setFatsPer100g(16.0)
+                .setCarbsPer100g(0.0)
+                .setComposite(false)
+                .build());
+
+        saveEntry(LocalDate.of(2025, 6, 30), MealCategory.DINNER, 100);
+        saveEntry(LocalDate.of(2025, 7, 1), MealCategory.BREAKFAST, 200);
+        saveEntry(LocalDate.of(2025, 7, 1), MealCategory.DINNER, 100);
+        saveEntry(LocalDate.of(2025, 7, 6), MealCategory.LUNCH, 100);
+        saveEntry(LocalDate.of(2025, 7, 7), MealCategory.BREAKFAST, 100);
+        saveEntry(LocalDate.of(2025, 7, 20), MealCategory.SNACK, 0);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        forkJoinPool.shutdown();
+        if (testConnection != null && !testConnection.isClosed()) {
+            testConnection.close();
+        }
+        DatabaseConnectionManager.resetToDefault();
+        DatabaseConnectionManager.closeDataSource();
+    }
+
+    private void saveEntry(LocalDate date, MealCategory mealCategory, double amountInGrams) {
+        mealEntryDao.save(new MealEntry.Builder()
+                .setDate(date)
+                .setTime(LocalTime.of(12, 0))
+                .setMealCategory(mealCategory)
+                .setComponents(amountInGrams > 0 ? List.of(new MealComponent(beef.getId(), amountInGrams)) : null)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Метод getRollups должен объединять результаты частей периода в недельные итоги с разбивкой по категориям.")
+    void getRollups_shouldMergeChunksIntoWeeklyTotals() {
+        List<NutritionRollup> rollups = nutritionRollupService.getRollups(LocalDate.of(2025, 6, 30), LocalDate.of(2025, 7, 20), RollupPeriod.WEEK);
+
+        assertEquals(3, rollups.size());
+        NutritionRollup firstWeek = rollups.get(0);
+        assertEquals(LocalDate.of(2025, 6, 30), firstWeek.getPeriodStart());
+        assertEquals(LocalDate.of(2025, 7, 6), firstWeek.getPeriodEnd());
+        assertEquals(1250.0, firstWeek.getTotalNutrients().getCalories(), 1e-9);
+        assertEquals(3, firstWeek.getLoggedDays(), "Дни, разнесенные по разным частям периода, должны учитываться один раз.");
+        assertEquals(4, firstWeek.getEntryCount());
+        assertEquals(1250.0 / 3, firstWeek.getAverageNutrientsPerLoggedDay().getCalories(), 1e-9);
+        assertEquals(500.0, firstWeek.getCategoryNutrients(MealCategory.DINNER).getCalories(), 1e-9);
+        assertEquals(500.0, firstWeek.getCategoryNutrients(MealCategory.BREAKFAST).getCalories(), 1e-9);
+        assertEquals(0.0, firstWeek.getCategoryNutrients(MealCategory.SNACK).getCalories(), 1e-9);
+
+        assertEquals(250.0, rollups.get(1).getTotalNutrients().getCalories(), 1e-9);
+        assertEquals(1, rollups.get(2).getEntryCount(), "Прием пищи без компонентов должен учитываться в количестве записей.");
+        assertEquals(0.0, rollups.get(2).getTotalNutrients().getCalories(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Метод getRollups должен обрезать месячные и годовые периоды по границам запрошенного диапазона.")
+    void getRollups_shouldClipMonthlyAndYearlyPeriodsToRange() {
+        List<NutritionRollup> monthly = nutritionRollupService.getRollups(LocalDate.of(2025, 6, 15), LocalDate.of(2025, 8, 10), RollupPeriod.MONTH);
+
+        assertEquals(3, monthly.size());
+        assertEquals(LocalDate.of(2025, 6, 15), monthly.get(0).getPeriodStart());
+        assertEquals(16, monthly.get(0).getDayCount());
+        assertEquals(250.0, monthly.get(0).getTotalNutrients().getCalories(), 1e-9);
+        assertEquals(1250.0, monthly.get(1).getTotalNutrients().getCalories(), 1e-9);
+        assertEquals(0, monthly.get(2).getLoggedDays());
+        assertEquals(LocalDate.of(2025, 8, 10), monthly.get(2).getPeriodEnd());
+
+        List<NutritionRollup> yearly = nutritionRollupService.getRollups(LocalDate.of(2024, 1, 1), LocalDate.of(2025, 12, 31), RollupPeriod.YEAR);
+        assertEquals(2, yearly.size());
+        assertEquals(1500.0, yearly.get(1).getTotalNutrients().getCalories(), 1e-9);
+        assertEquals(120.0, yearly.get(1).getTotalNutrients().getProteins(), 1e-9);
+
+        assertThrows(ServiceException.class,
+                () -> nutritionRollupService.getRollups(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), RollupPeriod.MONTH));
+    }
+
+    @Test
+    @DisplayName("Итоги по категориям должны учитывать составной продукт, сохраненный без нутриентов, после их расчета при запуске.")
+    void getRollups_shouldCountLegacyCompositeAfterStartupRecalculation() {
+        FoodItem cutlet = foodItemDao.save(new FoodItem.Builder()
+                .setName("Котлета")
+                .setServingSizeInGrams(100.0)
+                .setUnit(Unit.PIECE)
+                .setComposite(true)
+                .setComponents(List.of(new FoodComponent(beef.getId(), 100.0)))
+                .build());
+        mealEntryDao.save(new MealEntry.Builder()
+                .setDate(LocalDate.of(2025, 8, 5))
+                .setTime(LocalTime.of(12, 0))
+                .setMealCategory(MealCategory.LUNCH)
+                .setComponents(List.of(new MealComponent(cutlet.getId(), 200.0)))
+                .build());
+        LocalDate from = LocalDate.of(2025, 8, 1);
+        LocalDate to = LocalDate.of(2025, 8, 31);
+        assertEquals(0.0, nutritionRollupService.getRollups(from, to, RollupPeriod.MONTH).get(0).getTotalNutrients().getCalories(), 1e-9);
+
+        assertEquals(List.of(cutlet.getId()), foodItemDao.recalculateMissingNutrients());
+
+        NutritionRollup august = nutritionRollupService.getRollups(from, to, RollupPeriod.MONTH).get(0);
+        assertEquals(500.0, august.getCategoryNutrients(MealCategory.LUNCH).getCalories(), 1e-9);
+        assertEquals(40.0, august.getTotalNutrients().getProteins(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Сервис по умолчанию не выполняет запросы к БД в общем ForkJoinPool")
+    void defaultConstructor_shouldNotUseCommonPool() {
+        DailyTotalsDao dailyTotalsDao = mock(DailyTotalsDao.class);
+        List<ForkJoinPool> pools = new CopyOnWriteArrayList<>();
+        when(dailyTotalsDao.findCategoryTotalsBetween(any(), any())).thenAnswer(invocation -> {
+            pools.add(ForkJoinTask.getPool());
+            return List.of();
+        });
+        NutritionRollupService defaultService = new NutritionRollupService(dailyTotalsDao);
+
+        List<NutritionRollup> rollups = defaultService.getRollups(LocalDate.of(2020, 1, 1), LocalDate.of(2025, 12, 31), RollupPeriod.YEAR);
+
+        assertEquals(6, rollups.size());
+        assertFalse(pools.isEmpty());
+        for (ForkJoinPool pool : pools) {
+            assertNotNull(pool);
+            assertNotSame(ForkJoinPool.commonPool(), pool);
+        }
+    }
+}
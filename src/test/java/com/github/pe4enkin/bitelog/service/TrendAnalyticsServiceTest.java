@@ -0,0 +1,51 @@
+package com.github.pe4enkin.bitelog.service;
+
+import com.github.pe4enkin.bitelog.model.DailyTotals;
+import com.github.pe4enkin.bitelog.model.NutrientVector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TrendAnalyticsServiceTest {
+    private static final LocalDate START = LocalDate.of(2025, 7, 1);
+
+    @Mock
+    private DailyTotalsService dailyTotalsService;
+
+    private DailyTotals totals(LocalDate date, double calories, int entryCount) {
+        return new DailyTotals(date, new NutrientVector(calories, 0.0, 0.0, 0.0), entryCount);
+    }
+
+    @Test
+    @DisplayName("Метод onDaysChanged должен перечитывать из daily_totals только измененные дни.")
+    void onDaysChanged_shouldRereadOnlyChangedDaysFromDailyTotals() {
+        when(dailyTotalsService.getAllTotals()).thenReturn(List.of(
+                totals(START, 1000.0, 2),
+                totals(START.plusDays(1), 2000.0, 3),
+                totals(START.plusDays(2), 3000.0, 1)));
+        when(dailyTotalsService.getTotalsBetween(START, START.plusDays(2))).thenReturn(List.of(
+                totals(START, 1500.0, 3)));
+        TrendAnalyticsService trendAnalyticsService = new TrendAnalyticsService(dailyTotalsService);
+        trendAnalyticsService.reload();
+
+        trendAnalyticsService.onDaysChanged(Set.of(START, START.plusDays(2)));
+
+        assertEquals(1500.0, trendAnalyticsService.getTrendPoint(START).getDayNutrients().getCalories(), 1e-9);
+        assertEquals(2000.0, trendAnalyticsService.getTrendPoint(START.plusDays(1)).getDayNutrients().getCalories(), 1e-9,
+                "Не затронутые дни должны сохранять значения из daily_totals.");
+        assertEquals(0.0, trendAnalyticsService.getTrendPoint(START.plusDays(2)).getDayNutrients().getCalories(), 1e-9,
+                "День без строки в daily_totals должен обнуляться.");
+        assertEquals(2, trendAnalyticsService.getStreak(START.plusDays(1)));
+        verify(dailyTotalsService, times(1)).getAllTotals();
+    }
+}